@@ -0,0 +1,328 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.routeservice;
+
+import com.google.common.collect.ImmutableList;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Binary trie mapping IP prefixes of one IP version to values, supporting
+ * longest prefix match lookups.
+ * <p>
+ * The trie is path compressed: each node holds a prefix, stored as bits in
+ * two longs, and only prefixes holding a value or branching in two are kept.
+ * Updates are serialized, whereas lookups do not lock and may run
+ * concurrently with updates, observing either the state before or after
+ * each update.
+ * </p>
+ *
+ * @param <V> value type
+ */
+public final class IpPrefixTrie<V> {
+
+    private final IpAddress.Version version;
+    private final int maxLength;
+
+    private volatile Node<V> root;
+    private volatile int size;
+
+    /**
+     * Creates a new empty trie for prefixes of an IP version.
+     *
+     * @param version IP version of the prefixes
+     */
+    public IpPrefixTrie(IpAddress.Version version) {
+        this.version = checkNotNull(version);
+        this.maxLength = version == IpAddress.Version.INET ?
+                IpPrefix.MAX_INET_MASK_LENGTH : IpPrefix.MAX_INET6_MASK_LENGTH;
+    }
+
+    /**
+     * Returns the number of prefixes in the trie.
+     *
+     * @return number of prefixes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Associates a value to a prefix.
+     *
+     * @param prefix IP prefix
+     * @param value  value
+     * @return previous value of the prefix; null if there was none
+     */
+    public synchronized V put(IpPrefix prefix, V value) {
+        checkNotNull(value);
+        Key key = key(prefix);
+        Node<V> parent = null;
+        Node<V> node = root;
+        while (node != null) {
+            int common = node.commonLength(key.hi, key.lo, key.length);
+            if (common < node.length) {
+                // The new prefix diverges from, or is a prefix of, this node
+                Node<V> added = new Node<>(key.hi, key.lo, key.length, value);
+                if (common == key.length) {
+                    added.setChild(node.bit(common), node);
+                    replace(parent, node, added);
+                } else {
+                    Node<V> branch = new Node<>(key.hi, key.lo, common, null);
+                    branch.setChild(node.bit(common), node);
+                    branch.setChild(added.bit(common), added);
+                    replace(parent, node, branch);
+                }
+                size++;
+                return null;
+            }
+            if (node.length == key.length) {
+                V previous = node.value;
+                node.value = value;
+                if (previous == null) {
+                    size++;
+                }
+                return previous;
+            }
+            parent = node;
+            node = node.child(bit(key.hi, key.lo, node.length));
+        }
+        Node<V> added = new Node<>(key.hi, key.lo, key.length, value);
+        if (parent == null) {
+            root = added;
+        } else {
+            parent.setChild(added.bit(parent.length), added);
+        }
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the value associated to a prefix.
+     *
+     * @param prefix IP prefix
+     * @return removed value; null if there was none
+     */
+    public synchronized V remove(IpPrefix prefix) {
+        Key key = key(prefix);
+        Node<V> grandParent = null;
+        Node<V> parent = null;
+        Node<V> node = root;
+        while (node != null && node.length < key.length && node.matches(key.hi, key.lo)) {
+            grandParent = parent;
+            parent = node;
+            node = node.child(bit(key.hi, key.lo, node.length));
+        }
+        if (node == null || node.length != key.length || !node.matches(key.hi, key.lo) || node.value == null) {
+            return null;
+        }
+        V previous = node.value;
+        node.value = null;
+        size--;
+
+        // Drop the node unless it still branches, then its parent if it no
+        // longer holds a value nor branches
+        if (node.left == null || node.right == null) {
+            replace(parent, node, node.left != null ? node.left : node.right);
+            if (parent != null && parent.value == null && (parent.left == null || parent.right == null)) {
+                replace(grandParent, parent, parent.left != null ? parent.left : parent.right);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Returns the value associated to a prefix.
+     *
+     * @param prefix IP prefix
+     * @return value of the prefix; null if there is none
+     */
+    public V get(IpPrefix prefix) {
+        Key key = key(prefix);
+        Node<V> node = root;
+        while (node != null && node.length <= key.length && node.matches(key.hi, key.lo)) {
+            if (node.length == key.length) {
+                return node.value;
+            }
+            node = node.child(bit(key.hi, key.lo, node.length));
+        }
+        return null;
+    }
+
+    /**
+     * Returns the value of the longest prefix containing an IP address.
+     *
+     * @param address IP address
+     * @return value of the longest matching prefix; null if no prefix matches
+     */
+    public V longestPrefixMatch(IpAddress address) {
+        checkArgument(address.version() == version, "Address %s is not of version %s", address, version);
+        byte[] octets = address.toOctets();
+        long hi = bits(octets, 0);
+        long lo = bits(octets, Long.BYTES);
+        V match = null;
+        Node<V> node = root;
+        while (node != null && node.matches(hi, lo)) {
+            V value = node.value;
+            if (value != null) {
+                match = value;
+            }
+            if (node.length == maxLength) {
+                break;
+            }
+            node = node.child(bit(hi, lo, node.length));
+        }
+        return match;
+    }
+
+    /**
+     * Returns the values of all prefixes, shorter prefixes coming before the
+     * longer prefixes they contain.
+     *
+     * @return values of all prefixes
+     */
+    public List<V> values() {
+        ImmutableList.Builder<V> values = ImmutableList.builder();
+        Deque<Node<V>> stack = new ArrayDeque<>();
+        Node<V> node = root;
+        if (node != null) {
+            stack.push(node);
+        }
+        while (!stack.isEmpty()) {
+            node = stack.pop();
+            V value = node.value;
+            if (value != null) {
+                values.add(value);
+            }
+            Node<V> right = node.right;
+            if (right != null) {
+                stack.push(right);
+            }
+            Node<V> left = node.left;
+            if (left != null) {
+                stack.push(left);
+            }
+        }
+        return values.build();
+    }
+
+    private void replace(Node<V> parent, Node<V> node, Node<V> replacement) {
+        if (parent == null) {
+            root = replacement;
+        } else if (parent.left == node) {
+            parent.left = replacement;
+        } else {
+            parent.right = replacement;
+        }
+    }
+
+    private Key key(IpPrefix prefix) {
+        checkArgument(prefix.version() == version, "Prefix %s is not of version %s", prefix, version);
+        byte[] octets = prefix.address().toOctets();
+        return new Key(bits(octets, 0), bits(octets, Long.BYTES), prefix.prefixLength());
+    }
+
+    // Packs up to 8 octets, starting at an offset, into the high-order bits of a long
+    private static long bits(byte[] octets, int offset) {
+        long bits = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            int index = offset + i;
+            bits = (bits << Byte.SIZE) | (index < octets.length ? octets[index] & 0xff : 0);
+        }
+        return bits;
+    }
+
+    private static boolean bit(long hi, long lo, int index) {
+        return index < Long.SIZE ?
+                (hi << index) < 0 : (lo << (index - Long.SIZE)) < 0;
+    }
+
+    private static long mask(int length) {
+        return length <= 0 ? 0 : length >= Long.SIZE ? -1L : -1L << (Long.SIZE - length);
+    }
+
+    /**
+     * Prefix bits and length.
+     */
+    private static final class Key {
+        private final long hi;
+        private final long lo;
+        private final int length;
+
+        private Key(long hi, long lo, int length) {
+            this.hi = hi;
+            this.lo = lo;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Trie node; the prefix of a node is immutable whereas its value and
+     * children are updated in place.
+     */
+    private static final class Node<V> {
+        private final long hi;
+        private final long lo;
+        private final int length;
+        private volatile V value;
+        private volatile Node<V> left;
+        private volatile Node<V> right;
+
+        private Node(long hi, long lo, int length, V value) {
+            this.hi = hi & mask(length);
+            this.lo = lo & mask(length - Long.SIZE);
+            this.length = length;
+            this.value = value;
+        }
+
+        // Returns whether the given bits start with the prefix of this node
+        private boolean matches(long otherHi, long otherLo) {
+            return ((hi ^ otherHi) & mask(length)) == 0
+                    && ((lo ^ otherLo) & mask(length - Long.SIZE)) == 0;
+        }
+
+        // Returns the length of the prefix common to this node and the given prefix
+        private int commonLength(long otherHi, long otherLo, int otherLength) {
+            long hiDiff = hi ^ otherHi;
+            int common = hiDiff != 0 ? Long.numberOfLeadingZeros(hiDiff)
+                    : Long.SIZE + Long.numberOfLeadingZeros(lo ^ otherLo);
+            return Math.min(common, Math.min(length, otherLength));
+        }
+
+        private boolean bit(int index) {
+            return IpPrefixTrie.bit(hi, lo, index);
+        }
+
+        private Node<V> child(boolean bit) {
+            return bit ? right : left;
+        }
+
+        private void setChild(boolean bit, Node<V> child) {
+            if (bit) {
+                right = child;
+            } else {
+                left = child;
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.routeservice;
+
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Unit tests for the IP prefix trie.
+ */
+public class IpPrefixTrieTest {
+
+    private static IpPrefix prefix(String prefix) {
+        return IpPrefix.valueOf(prefix);
+    }
+
+    private static IpAddress ip(String address) {
+        return IpAddress.valueOf(address);
+    }
+
+    /**
+     * Tests exact and longest prefix match lookups of IPv4 prefixes.
+     */
+    @Test
+    public void testIp4Lookups() {
+        IpPrefixTrie<String> trie = new IpPrefixTrie<>(IpAddress.Version.INET);
+        assertThat(trie.put(prefix("0.0.0.0/0"), "default"), is(nullValue()));
+        trie.put(prefix("10.0.0.0/8"), "a");
+        trie.put(prefix("10.1.0.0/16"), "b");
+        trie.put(prefix("10.1.2.0/24"), "c");
+        trie.put(prefix("10.1.2.3/32"), "d");
+        trie.put(prefix("192.168.0.0/16"), "e");
+        assertThat(trie.put(prefix("10.1.0.0/16"), "b2"), is("b"));
+        assertThat(trie.size(), is(6));
+
+        assertThat(trie.get(prefix("10.1.0.0/16")), is("b2"));
+        assertThat(trie.get(prefix("10.1.0.0/17")), is(nullValue()));
+        assertThat(trie.get(prefix("10.0.0.0/7")), is(nullValue()));
+
+        assertThat(trie.longestPrefixMatch(ip("10.1.2.3")), is("d"));
+        assertThat(trie.longestPrefixMatch(ip("10.1.2.4")), is("c"));
+        assertThat(trie.longestPrefixMatch(ip("10.1.3.1")), is("b2"));
+        assertThat(trie.longestPrefixMatch(ip("10.2.0.1")), is("a"));
+        assertThat(trie.longestPrefixMatch(ip("192.168.10.1")), is("e"));
+        assertThat(trie.longestPrefixMatch(ip("8.8.8.8")), is("default"));
+        assertThat(trie.values(), contains("default", "a", "b2", "c", "d", "e"));
+    }
+
+    /**
+     * Tests that removing prefixes leaves the other prefixes reachable.
+     */
+    @Test
+    public void testRemove() {
+        IpPrefixTrie<String> trie = new IpPrefixTrie<>(IpAddress.Version.INET);
+        trie.put(prefix("10.0.0.0/8"), "a");
+        trie.put(prefix("10.1.0.0/16"), "b");
+        trie.put(prefix("10.2.0.0/16"), "c");
+
+        assertThat(trie.remove(prefix("10.3.0.0/16")), is(nullValue()));
+        assertThat(trie.remove(prefix("10.0.0.0/8")), is("a"));
+        assertThat(trie.remove(prefix("10.0.0.0/8")), is(nullValue()));
+        assertThat(trie.longestPrefixMatch(ip("10.2.0.1")), is("c"));
+        assertThat(trie.longestPrefixMatch(ip("10.3.0.1")), is(nullValue()));
+
+        assertThat(trie.remove(prefix("10.2.0.0/16")), is("c"));
+        assertThat(trie.values(), containsInAnyOrder("b"));
+        assertThat(trie.remove(prefix("10.1.0.0/16")), is("b"));
+        assertThat(trie.size(), is(0));
+        assertThat(trie.values().isEmpty(), is(true));
+    }
+
+    /**
+     * Tests lookups of IPv6 prefixes longer than 64 bits.
+     */
+    @Test
+    public void testIp6Lookups() {
+        IpPrefixTrie<String> trie = new IpPrefixTrie<>(IpAddress.Version.INET6);
+        trie.put(prefix("::/0"), "default");
+        trie.put(prefix("2001:db8::/32"), "a");
+        trie.put(prefix("2001:db8::1:0:0/96"), "b");
+        trie.put(prefix("2001:db8::1:0:1/128"), "c");
+
+        assertThat(trie.longestPrefixMatch(ip("2001:db8::1:0:1")), is("c"));
+        assertThat(trie.longestPrefixMatch(ip("2001:db8::1:0:2")), is("b"));
+        assertThat(trie.longestPrefixMatch(ip("2001:db8::2:0:1")), is("a"));
+        assertThat(trie.longestPrefixMatch(ip("2001:db9::1")), is("default"));
+        assertThat(trie.get(prefix("2001:db8::1:0:1/128")), is("c"));
+    }
+
+    /**
+     * Tests lookups against a linear scan of random prefixes.
+     */
+    @Test
+    public void testRandomPrefixes() {
+        Random random = new Random(42);
+        IpPrefixTrie<IpPrefix> trie = new IpPrefixTrie<>(IpAddress.Version.INET);
+        Map<IpPrefix, IpPrefix> prefixes = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            // Few distinct leading bits, so that prefixes nest
+            IpPrefix prefix = IpPrefix.valueOf(random.nextInt() & 0xf0ff_ffff, random.nextInt(33));
+            prefixes.put(prefix, prefix);
+            trie.put(prefix, prefix);
+        }
+        for (int i = 0; i < 500; i++) {
+            IpPrefix prefix = prefixes.keySet().iterator().next();
+            assertThat(trie.remove(prefix), is(prefix));
+            prefixes.remove(prefix);
+        }
+        assertThat(trie.size(), is(prefixes.size()));
+        assertThat(trie.values().size(), is(prefixes.size()));
+
+        for (int i = 0; i < 2000; i++) {
+            IpAddress address = IpAddress.valueOf(random.nextInt() & 0xf0ff_ffff);
+            IpPrefix expected = prefixes.keySet().stream()
+                    .filter(p -> p.contains(address))
+                    .max((a, b) -> Integer.compare(a.prefixLength(), b.prefixLength()))
+                    .orElse(null);
+            assertThat(trie.longestPrefixMatch(address), is(expected));
+        }
+    }
+}
@@ -61,6 +61,9 @@ public class DefaultRouteTable implements RouteTable {
     private final RouteStoreDelegate delegate;
     private final ExecutorService executor;
     private final RouteTableListener listener = new RouteTableListener();
+    private final NextHopIndex<RawRoute> nextHopIndex = new NextHopIndex<>();
+    // Set once the index covers the routes which existed at construction
+    private volatile boolean indexed;
 
     private final Consumer<DistributedPrimitive.Status> statusChangeListener;
 
@@ -81,14 +84,23 @@ public class DefaultRouteTable implements RouteTable {
 
         statusChangeListener = status -> {
             if (status.equals(DistributedPrimitive.Status.ACTIVE)) {
-                executor.execute(this::notifyExistingRoutes);
+                executor.execute(() -> {
+                    indexExistingRoutes();
+                    notifyExistingRoutes();
+                });
             }
         };
         routes.addStatusChangeListener(statusChangeListener);
 
         notifyExistingRoutes();
 
+        // The index is built on the event executor once listening, so that
+        // updates made meanwhile are applied after the scan and none is lost
         routes.addListener(listener, executor);
+        executor.execute(() -> {
+            indexExistingRoutes();
+            indexed = true;
+        });
     }
 
     private void notifyExistingRoutes() {
@@ -96,6 +108,12 @@ public class DefaultRouteTable implements RouteTable {
             new InternalRouteEvent(InternalRouteEvent.Type.ROUTE_ADDED, routeSet)));
     }
 
+    private void indexExistingRoutes() {
+        nextHopIndex.reset(RawRoute::nextHopAddress, routes.stream()
+            .map(Map.Entry::getValue)
+            .collect(Collectors.toList()));
+    }
+
     private ConsistentMultimap<String, RawRoute> buildRouteMap(StorageService storageService) {
         KryoNamespace routeTableSerializer = KryoNamespace.newBuilder()
                 .register(KryoNamespaces.API)
@@ -173,13 +191,29 @@ public class DefaultRouteTable implements RouteTable {
 
     @Override
     public Collection<Route> getRoutesForNextHop(IpAddress nextHop) {
-        return routes.stream()
-            .map(Map.Entry::getValue)
-            .filter(r -> IpAddress.valueOf(r.nextHop()).equals(nextHop))
+        if (!indexed) {
+            return routes.stream()
+                .map(Map.Entry::getValue)
+                .filter(r -> r.nextHopAddress().equals(nextHop))
+                .map(RawRoute::route)
+                .collect(Collectors.toSet());
+        }
+        return nextHopIndex.get(nextHop)
+            .stream()
             .map(RawRoute::route)
             .collect(Collectors.toSet());
     }
 
+    @Override
+    public long nextHopCount() {
+        return nextHopIndex.nextHopCount();
+    }
+
+    @Override
+    public long indexedRouteCount() {
+        return nextHopIndex.size();
+    }
+
     private class RouteTableListener
             implements MultimapEventListener<String, RawRoute> {
 
@@ -197,9 +231,11 @@ public class DefaultRouteTable implements RouteTable {
             InternalRouteEvent ire = null;
             switch (event.type()) {
             case INSERT:
+                nextHopIndex.add(event.newValue().nextHopAddress(), event.newValue());
                 ire = createRouteEvent(InternalRouteEvent.Type.ROUTE_ADDED, event);
                 break;
             case REMOVE:
+                nextHopIndex.remove(event.oldValue().nextHopAddress(), event.oldValue());
                 ire = createRouteEvent(InternalRouteEvent.Type.ROUTE_REMOVED, event);
                 break;
             default:
@@ -233,6 +269,10 @@ public class DefaultRouteTable implements RouteTable {
             return nextHop;
         }
 
+        IpAddress nextHopAddress() {
+            return IpAddress.valueOf(nextHop);
+        }
+
         Route route() {
             return new Route(source, IpPrefix.valueOf(prefix), IpAddress.valueOf(nextHop), sourceNode);
         }
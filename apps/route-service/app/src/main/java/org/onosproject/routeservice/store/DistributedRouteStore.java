@@ -150,6 +150,24 @@ public class DistributedRouteStore extends AbstractStore<InternalRouteEvent, Rou
         return getDefaultRouteTable(prefix.address()).getRoutes(prefix);
     }
 
+    /**
+     * Returns the number of distinct next hops of the routes in the store.
+     *
+     * @return number of next hops
+     */
+    long nextHopCount() {
+        return routeTables.values().stream().mapToLong(RouteTable::nextHopCount).sum();
+    }
+
+    /**
+     * Returns the number of routes indexed by next hop.
+     *
+     * @return number of indexed routes
+     */
+    long indexedRouteCount() {
+        return routeTables.values().stream().mapToLong(RouteTable::indexedRouteCount).sum();
+    }
+
     private void createRouteTable(RouteTableId tableId) {
         routeTables.computeIfAbsent(tableId, id -> new DefaultRouteTable(id, ourDelegate, storageService, executor));
     }
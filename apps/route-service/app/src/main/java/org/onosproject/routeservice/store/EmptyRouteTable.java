@@ -81,6 +81,16 @@ public final class EmptyRouteTable implements RouteTable {
         return Collections.emptyList();
     }
 
+    @Override
+    public long nextHopCount() {
+        return 0;
+    }
+
+    @Override
+    public long indexedRouteCount() {
+        return 0;
+    }
+
     @Override
     public void shutdown() {
 
@@ -16,28 +16,21 @@
 
 package org.onosproject.routeservice.store;
 
-import com.googlecode.concurrenttrees.common.KeyValuePair;
-import com.googlecode.concurrenttrees.radix.node.concrete.DefaultByteArrayNodeFactory;
-import com.googlecode.concurrenttrees.radixinverted.ConcurrentInvertedRadixTree;
-import com.googlecode.concurrenttrees.radixinverted.InvertedRadixTree;
 import org.onlab.packet.IpAddress;
 import org.onlab.packet.IpPrefix;
 import org.onosproject.routeservice.InternalRouteEvent;
+import org.onosproject.routeservice.IpPrefixTrie;
 import org.onosproject.routeservice.Route;
 import org.onosproject.routeservice.RouteSet;
 import org.onosproject.routeservice.RouteStore;
 import org.onosproject.routeservice.RouteStoreDelegate;
 import org.onosproject.routeservice.RouteTableId;
-import org.onosproject.routeservice.RouteTools;
 import org.onosproject.store.AbstractStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -63,8 +56,8 @@ public class LocalRouteStore extends AbstractStore<InternalRouteEvent, RouteStor
     public void activate() {
         routeTables = new ConcurrentHashMap<>();
 
-        routeTables.put(IPV4, new RouteTable(IPV4));
-        routeTables.put(IPV6, new RouteTable(IPV6));
+        routeTables.put(IPV4, new RouteTable(IPV4, IpAddress.Version.INET));
+        routeTables.put(IPV6, new RouteTable(IPV6, IpAddress.Version.INET6));
 
         log.info("Started");
     }
@@ -115,6 +108,24 @@ public class LocalRouteStore extends AbstractStore<InternalRouteEvent, RouteStor
         return getDefaultRouteTable(prefix.address()).getRoutes(prefix);
     }
 
+    /**
+     * Returns the number of distinct next hops of the routes in the store.
+     *
+     * @return number of next hops
+     */
+    long nextHopCount() {
+        return routeTables.values().stream().mapToLong(RouteTable::nextHopCount).sum();
+    }
+
+    /**
+     * Returns the number of routes indexed by next hop.
+     *
+     * @return number of indexed routes
+     */
+    long indexedRouteCount() {
+        return routeTables.values().stream().mapToLong(RouteTable::indexedRouteCount).sum();
+    }
+
     private RouteTable getDefaultRouteTable(Route route) {
         return getDefaultRouteTable(route.prefix().address());
     }
@@ -128,17 +139,17 @@ public class LocalRouteStore extends AbstractStore<InternalRouteEvent, RouteStor
      * Route table into which routes can be placed.
      */
     private class RouteTable {
-        private final InvertedRadixTree<Route> routeTable;
+        private final IpPrefixTrie<Route> routeTable;
         private final Map<IpPrefix, Route> routes = new ConcurrentHashMap<>();
+        private final NextHopIndex<Route> nextHopIndex = new NextHopIndex<>();
         private final RouteTableId id;
 
         /**
          * Creates a new route table.
          */
-        public RouteTable(RouteTableId id) {
+        public RouteTable(RouteTableId id, IpAddress.Version version) {
             this.id = checkNotNull(id);
-            routeTable = new ConcurrentInvertedRadixTree<>(
-                    new DefaultByteArrayNodeFactory());
+            routeTable = new IpPrefixTrie<>(version);
         }
 
         /**
@@ -155,7 +166,12 @@ public class LocalRouteStore extends AbstractStore<InternalRouteEvent, RouteStor
                     return;
                 }
 
-                routeTable.put(RouteTools.createBinaryString(route.prefix()), route);
+                if (oldRoute != null) {
+                    nextHopIndex.remove(oldRoute.nextHop(), oldRoute);
+                }
+                nextHopIndex.add(route.nextHop(), route);
+
+                routeTable.put(route.prefix(), route);
 
                 notifyDelegate(new InternalRouteEvent(
                         InternalRouteEvent.Type.ROUTE_ADDED, singletonRouteSet(route)));
@@ -170,9 +186,10 @@ public class LocalRouteStore extends AbstractStore<InternalRouteEvent, RouteStor
         public void remove(Route route) {
             synchronized (this) {
                 Route removed = routes.remove(route.prefix());
-                routeTable.remove(RouteTools.createBinaryString(route.prefix()));
+                routeTable.remove(route.prefix());
 
                 if (removed != null) {
+                    nextHopIndex.remove(removed.nextHop(), removed);
                     notifyDelegate(new InternalRouteEvent(
                             InternalRouteEvent.Type.ROUTE_REMOVED, emptyRouteSet(route.prefix())));
                 }
@@ -193,10 +210,15 @@ public class LocalRouteStore extends AbstractStore<InternalRouteEvent, RouteStor
          * @return routes for the next hop
          */
         public Collection<Route> getRoutesForNextHop(IpAddress ip) {
-            return routes.values()
-                    .stream()
-                    .filter(route -> route.nextHop().equals(ip))
-                    .collect(Collectors.toSet());
+            return nextHopIndex.get(ip);
+        }
+
+        public long nextHopCount() {
+            return nextHopIndex.nextHopCount();
+        }
+
+        public long indexedRouteCount() {
+            return nextHopIndex.size();
         }
 
         public RouteSet getRoutes(IpPrefix prefix) {
@@ -219,17 +241,7 @@ public class LocalRouteStore extends AbstractStore<InternalRouteEvent, RouteStor
          * @return all routes
          */
         public Collection<Route> getRoutes() {
-            Iterator<KeyValuePair<Route>> it =
-                    routeTable.getKeyValuePairsForKeysStartingWith("").iterator();
-
-            List<Route> routes = new LinkedList<>();
-
-            while (it.hasNext()) {
-                KeyValuePair<Route> entry = it.next();
-                routes.add(entry.getValue());
-            }
-
-            return routes;
+            return routeTable.values();
         }
 
         /**
@@ -239,17 +251,7 @@ public class LocalRouteStore extends AbstractStore<InternalRouteEvent, RouteStor
          * @return most specific prefix containing the given
          */
         public Route longestPrefixMatch(IpAddress ip) {
-            Iterable<Route> prefixes =
-                    routeTable.getValuesForKeysPrefixing(RouteTools.createBinaryString(ip.toIpPrefix()));
-
-            Iterator<Route> it = prefixes.iterator();
-
-            Route route = null;
-            while (it.hasNext()) {
-                route = it.next();
-            }
-
-            return route;
+            return routeTable.longestPrefixMatch(ip);
         }
 
         private RouteSet singletonRouteSet(Route route) {
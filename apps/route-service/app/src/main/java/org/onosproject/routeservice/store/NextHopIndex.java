@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.routeservice.store;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.onlab.packet.IpAddress;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Index of routes by next hop, so that the routes using a next hop can be
+ * found without scanning the whole route table.
+ *
+ * @param <R> type of the indexed routes
+ */
+final class NextHopIndex<R> {
+
+    private final ConcurrentMap<IpAddress, Set<R>> routes = new ConcurrentHashMap<>();
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * Adds a route to the index.
+     *
+     * @param nextHop next hop of the route
+     * @param route   route
+     */
+    void add(IpAddress nextHop, R route) {
+        routes.compute(nextHop, (ip, existing) -> {
+            Set<R> set = existing != null ? existing : Sets.newConcurrentHashSet();
+            if (set.add(route)) {
+                size.incrementAndGet();
+            }
+            return set;
+        });
+    }
+
+    /**
+     * Removes a route from the index.
+     *
+     * @param nextHop next hop of the route
+     * @param route   route
+     */
+    void remove(IpAddress nextHop, R route) {
+        routes.computeIfPresent(nextHop, (ip, existing) -> {
+            if (existing.remove(route)) {
+                size.decrementAndGet();
+            }
+            return existing.isEmpty() ? null : existing;
+        });
+    }
+
+    /**
+     * Replaces the content of the index. Must not be called concurrently
+     * with other updates of the index.
+     *
+     * @param nextHops function returning the next hop of a route
+     * @param content  routes to index
+     */
+    void reset(Function<R, IpAddress> nextHops, Collection<R> content) {
+        routes.clear();
+        size.set(0);
+        content.forEach(route -> add(nextHops.apply(route), route));
+    }
+
+    /**
+     * Returns the routes using a next hop.
+     *
+     * @param nextHop next hop IP address
+     * @return routes using the next hop
+     */
+    Set<R> get(IpAddress nextHop) {
+        Set<R> set = routes.get(nextHop);
+        return set != null ? ImmutableSet.copyOf(set) : ImmutableSet.of();
+    }
+
+    /**
+     * Returns the number of next hops in the index.
+     *
+     * @return number of next hops
+     */
+    long nextHopCount() {
+        return routes.size();
+    }
+
+    /**
+     * Returns the number of routes in the index.
+     *
+     * @return number of indexed routes
+     */
+    long size() {
+        return size.get();
+    }
+}
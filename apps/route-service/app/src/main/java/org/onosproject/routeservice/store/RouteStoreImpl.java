@@ -16,6 +16,10 @@
 
 package org.onosproject.routeservice.store;
 
+import com.codahale.metrics.Gauge;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.packet.IpAddress;
 import org.onlab.packet.IpPrefix;
 import org.onlab.util.Tools;
@@ -64,15 +68,26 @@ public class RouteStoreImpl extends AbstractStore<InternalRouteEvent, RouteStore
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     public StorageService storageService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
     /** Enable distributed route store. */
     private boolean distributed;
 
+    private static final String METRICS_COMPONENT = "RouteStore";
+    private static final String METRICS_FEATURE = "NextHopIndex";
+    private static final String NEXT_HOPS = "nextHops";
+    private static final String INDEXED_ROUTES = "indexedRoutes";
+
     private final Logger log = LoggerFactory.getLogger(getClass());
     private RouteStore currentRouteStore;
 
     private DistributedRouteStore distributedRouteStore;
     private LocalRouteStore localRouteStore;
 
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
+
     @Activate
     public void activate(ComponentContext context) {
         distributedRouteStore = new DistributedRouteStore(storageService);
@@ -82,10 +97,12 @@ public class RouteStoreImpl extends AbstractStore<InternalRouteEvent, RouteStore
 
         componentConfigService.registerProperties(getClass());
         modified(context);
+        registerMetrics();
     }
 
     @Deactivate
     public void deactivate() {
+        removeMetrics();
         localRouteStore.deactivate();
         distributedRouteStore.deactivate();
 
@@ -117,6 +134,30 @@ public class RouteStoreImpl extends AbstractStore<InternalRouteEvent, RouteStore
 
     }
 
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRICS_FEATURE);
+        metricsService.registerMetric(metricsComponent, metricsFeature, NEXT_HOPS,
+                                      (Gauge<Long>) () -> distributed ?
+                                              distributedRouteStore.nextHopCount() :
+                                              localRouteStore.nextHopCount());
+        metricsService.registerMetric(metricsComponent, metricsFeature, INDEXED_ROUTES,
+                                      (Gauge<Long>) () -> distributed ?
+                                              distributedRouteStore.indexedRouteCount() :
+                                              localRouteStore.indexedRouteCount());
+    }
+
+    private void removeMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        metricsService.removeMetric(metricsComponent, metricsFeature, NEXT_HOPS);
+        metricsService.removeMetric(metricsComponent, metricsFeature, INDEXED_ROUTES);
+    }
+
     @Override
     public void setDelegate(RouteStoreDelegate delegate) {
         super.setDelegate(delegate);
@@ -80,6 +80,20 @@ public interface RouteTable {
      */
     Collection<Route> getRoutesForNextHop(IpAddress nextHop);
 
+    /**
+     * Returns the number of distinct next hops of the routes in the table.
+     *
+     * @return number of next hops
+     */
+    long nextHopCount();
+
+    /**
+     * Returns the number of routes indexed by next hop.
+     *
+     * @return number of indexed routes
+     */
+    long indexedRouteCount();
+
     /**
      * Releases route table resources held locally.
      */
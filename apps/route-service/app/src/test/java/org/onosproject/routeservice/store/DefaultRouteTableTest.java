@@ -0,0 +1,213 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.routeservice.store;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.Ip4Address;
+import org.onlab.packet.Ip4Prefix;
+import org.onlab.packet.IpAddress;
+import org.onosproject.routeservice.Route;
+import org.onosproject.routeservice.RouteTableId;
+import org.onosproject.store.service.AsyncConsistentMultimap;
+import org.onosproject.store.service.ConsistentMultimap;
+import org.onosproject.store.service.ConsistentMultimapBuilder;
+import org.onosproject.store.service.MultimapEvent;
+import org.onosproject.store.service.MultimapEventListener;
+import org.onosproject.store.service.StorageServiceAdapter;
+import org.onosproject.store.service.TestConsistentMultimap;
+import org.onosproject.store.service.Versioned;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the next hop index of the distributed route table.
+ */
+public class DefaultRouteTableTest {
+
+    private static final RouteTableId TABLE_ID = new RouteTableId("ipv4");
+    private static final IpAddress NEXT_HOP1 = Ip4Address.valueOf("192.168.1.1");
+    private static final IpAddress NEXT_HOP2 = Ip4Address.valueOf("192.168.2.1");
+    private static final IpAddress NEXT_HOP3 = Ip4Address.valueOf("192.168.3.1");
+
+    private final Route route1 = route("1.1.1.0/24", NEXT_HOP1);
+    private final Route route2 = route("2.2.2.0/24", NEXT_HOP2);
+    private final Route route3 = route("3.3.3.0/24", NEXT_HOP3);
+
+    private final TestRouteMap routes = new TestRouteMap();
+    private ExecutorService executor;
+
+    private static Route route(String prefix, IpAddress nextHop) {
+        return new Route(Route.Source.STATIC, Ip4Prefix.valueOf(prefix), nextHop);
+    }
+
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private DefaultRouteTable newTable() {
+        return new DefaultRouteTable(TABLE_ID, event -> { }, new TestStorageService(), executor);
+    }
+
+    // Waits for the events and indexing queued so far to be processed
+    private void drain() throws Exception {
+        executor.submit(() -> { }).get();
+    }
+
+    /**
+     * Tests that the index follows route updates and removals.
+     */
+    @Test
+    public void testIndexUpdates() throws Exception {
+        DefaultRouteTable table = newTable();
+        table.update(route1);
+        table.update(route2);
+        table.remove(route2);
+        drain();
+
+        assertThat(table.getRoutesForNextHop(NEXT_HOP1), contains(route1));
+        assertThat(table.getRoutesForNextHop(NEXT_HOP2), is(empty()));
+        assertEquals(1, table.indexedRouteCount());
+    }
+
+    /**
+     * Tests that routes updated while a table is being built over the
+     * existing routes end up in its index.
+     */
+    @Test
+    public void testIndexUpdatedDuringConstruction() throws Exception {
+        DefaultRouteTable writer = newTable();
+        writer.update(route1);
+        writer.update(route2);
+        drain();
+
+        // Each scan of the route map races with one update
+        routes.onScan.add(() -> writer.remove(route1));
+        routes.onScan.add(() -> writer.update(route3));
+        DefaultRouteTable table = newTable();
+        drain();
+
+        assertTrue("every update should have raced with a scan", routes.onScan.isEmpty());
+        assertThat(table.getRoutesForNextHop(NEXT_HOP1), is(empty()));
+        assertThat(table.getRoutesForNextHop(NEXT_HOP2), contains(route2));
+        assertThat(table.getRoutesForNextHop(NEXT_HOP3), contains(route3));
+        assertEquals(2, table.indexedRouteCount());
+    }
+
+    // Storage service handing out the shared route map
+    private class TestStorageService extends StorageServiceAdapter {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <K, V> ConsistentMultimapBuilder<K, V> consistentMultimapBuilder() {
+            return new ConsistentMultimapBuilder<K, V>() {
+                @Override
+                public AsyncConsistentMultimap<K, V> buildMultimap() {
+                    return null;
+                }
+
+                @Override
+                public ConsistentMultimap<K, V> build() {
+                    return (ConsistentMultimap<K, V>) routes;
+                }
+            };
+        }
+    }
+
+    // Route map notifying its listeners, which runs a pending update
+    // whenever it is scanned
+    private static class TestRouteMap extends TestConsistentMultimap<String, Object> {
+        private final ListMultimap<String, Object> map = ArrayListMultimap.create();
+        private final Map<MultimapEventListener<String, Object>, Executor> listeners = new ConcurrentHashMap<>();
+        private final Queue<Runnable> onScan = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public synchronized boolean put(String key, Object value) {
+            if (map.containsEntry(key, value)) {
+                return false;
+            }
+            map.put(key, value);
+            notify(new MultimapEvent<>(name(), key, value, null));
+            return true;
+        }
+
+        @Override
+        public synchronized boolean remove(String key, Object value) {
+            if (!map.remove(key, value)) {
+                return false;
+            }
+            notify(new MultimapEvent<>(name(), key, null, value));
+            return true;
+        }
+
+        @Override
+        public synchronized Versioned<Collection<? extends Object>> get(String key) {
+            return map.containsKey(key) ? new Versioned<>(ImmutableList.copyOf(map.get(key)), 0) : null;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            Iterator<Map.Entry<String, Object>> snapshot;
+            synchronized (this) {
+                snapshot = ImmutableList.copyOf(map.entries()).iterator();
+            }
+            Runnable update = onScan.poll();
+            if (update != null) {
+                update.run();
+            }
+            return snapshot;
+        }
+
+        @Override
+        public void addListener(MultimapEventListener<String, Object> listener,
+                                Executor executor) {
+            listeners.put(listener, executor);
+        }
+
+        @Override
+        public void removeListener(MultimapEventListener<String, Object> listener) {
+            listeners.remove(listener);
+        }
+
+        private void notify(MultimapEvent<String, Object> event) {
+            listeners.forEach((listener, executor) -> executor.execute(() -> listener.event(event)));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.routeservice.store;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.Ip4Address;
+import org.onlab.packet.Ip4Prefix;
+import org.onlab.packet.IpAddress;
+import org.onosproject.routeservice.Route;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit tests for the next hop index.
+ */
+public class NextHopIndexTest {
+
+    private static final IpAddress NEXT_HOP1 = Ip4Address.valueOf("192.168.1.1");
+    private static final IpAddress NEXT_HOP2 = Ip4Address.valueOf("192.168.2.1");
+
+    private final Route route1 = route("1.1.1.0/24", NEXT_HOP1);
+    private final Route route2 = route("2.2.2.0/24", NEXT_HOP1);
+    private final Route route3 = route("3.3.3.0/24", NEXT_HOP2);
+
+    private NextHopIndex<Route> index;
+
+    private static Route route(String prefix, IpAddress nextHop) {
+        return new Route(Route.Source.STATIC, Ip4Prefix.valueOf(prefix), nextHop);
+    }
+
+    @Before
+    public void setUp() {
+        index = new NextHopIndex<>();
+        index.add(route1.nextHop(), route1);
+        index.add(route2.nextHop(), route2);
+        index.add(route3.nextHop(), route3);
+    }
+
+    /**
+     * Tests looking up routes by next hop.
+     */
+    @Test
+    public void testGet() {
+        assertThat(index.get(NEXT_HOP1), containsInAnyOrder(route1, route2));
+        assertThat(index.get(IpAddress.valueOf("192.168.2.1")), containsInAnyOrder(route3));
+        assertThat(index.get(IpAddress.valueOf("10.0.0.1")), is(empty()));
+        assertThat(index.nextHopCount(), is(2L));
+        assertThat(index.size(), is(3L));
+    }
+
+    /**
+     * Tests that removed routes and unused next hops are dropped from the index.
+     */
+    @Test
+    public void testRemove() {
+        index.add(route1.nextHop(), route1);
+        index.remove(NEXT_HOP1, route1);
+        index.remove(NEXT_HOP2, route3);
+        index.remove(NEXT_HOP2, route3);
+        assertThat(index.get(NEXT_HOP1), containsInAnyOrder(route2));
+        assertThat(index.get(NEXT_HOP2), is(empty()));
+        assertThat(index.nextHopCount(), is(1L));
+        assertThat(index.size(), is(1L));
+    }
+
+    /**
+     * Tests replacing the content of the index.
+     */
+    @Test
+    public void testReset() {
+        Route route4 = route("4.4.4.0/24", NEXT_HOP2);
+        index.reset(Route::nextHop, ImmutableList.of(route3, route4));
+        assertThat(index.get(NEXT_HOP1), is(empty()));
+        assertThat(index.get(NEXT_HOP2), containsInAnyOrder(route3, route4));
+        assertThat(index.size(), is(2L));
+    }
+}
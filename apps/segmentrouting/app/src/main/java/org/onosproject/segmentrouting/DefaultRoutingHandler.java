@@ -15,6 +15,8 @@
  */
 package org.onosproject.segmentrouting;
 
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.Timer.Context;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 import com.google.common.collect.ImmutableSet;
@@ -30,6 +32,7 @@ import org.onlab.packet.IpPrefix;
 import org.onlab.packet.MacAddress;
 import org.onlab.packet.VlanId;
 import org.onosproject.cluster.NodeId;
+import org.onosproject.core.MetricsHelper;
 import org.onosproject.mastership.MastershipEvent;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.Device;
@@ -55,6 +58,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -63,7 +69,10 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.onlab.metrics.MetricsUtil.startTimer;
+import static org.onlab.metrics.MetricsUtil.stopTimer;
 import static org.onlab.util.Tools.groupedThreads;
 
 /**
@@ -77,6 +86,10 @@ public class DefaultRoutingHandler {
     private static final long STABLITY_THRESHOLD = 10; //secs
     private static final long MASTER_CHANGE_DELAY = 1000; // ms
     private static final long PURGE_DELAY = 1000; // ms
+    private static final int ECMP_SPG_THREADS =
+            Math.min(8, Runtime.getRuntime().availableProcessors());
+    private static final String METRIC_COMPONENT = "SegmentRouting";
+    private static final String METRIC_FEATURE = "RoutingChange";
     private static Logger log = LoggerFactory.getLogger(DefaultRoutingHandler.class);
 
     private SegmentRoutingManager srManager;
@@ -92,6 +105,19 @@ public class DefaultRoutingHandler {
         = newScheduledThreadPool(1, groupedThreads("masterChg", "mstch-%d", log));
     private ScheduledExecutorService executorServiceFRR
         = newScheduledThreadPool(1, groupedThreads("fullRR", "fullRR-%d", log));
+    private ExecutorService executorServiceEcmpSpg
+        = newFixedThreadPool(ECMP_SPG_THREADS, groupedThreads("ecmpSpg", "ecmpspg-%d", log));
+
+    // Graphs built from the last stable topology snapshot, and the links of
+    // that snapshot. Graphs that a later link change cannot affect are reused.
+    private Map<DeviceId, EcmpShortestPathGraph> lastEcmpSpgMap = ImmutableMap.of();
+    private Set<Link> lastEcmpSpgLinks = ImmutableSet.of();
+
+    // Time spent in each phase of a routing change
+    private Timer ecmpSpgTimer;
+    private Timer routeChangeTimer;
+    private Timer hashGroupTimer;
+    private Timer rerouteTimer;
 
     private Instant lastRoutingChange = Instant.EPOCH;
     private Instant lastFullReroute = Instant.EPOCH;
@@ -137,6 +163,12 @@ public class DefaultRoutingHandler {
                 .build().asJavaMap();
         this.shouldProgramCache = Maps.newConcurrentMap();
         update(srManager);
+
+        MetricsHelper metrics = () -> srManager.metricsService;
+        ecmpSpgTimer = metrics.createTimer(METRIC_COMPONENT, METRIC_FEATURE, "ecmpSpg");
+        routeChangeTimer = metrics.createTimer(METRIC_COMPONENT, METRIC_FEATURE, "routeChange");
+        hashGroupTimer = metrics.createTimer(METRIC_COMPONENT, METRIC_FEATURE, "hashGroupChange");
+        rerouteTimer = metrics.createTimer(METRIC_COMPONENT, METRIC_FEATURE, "reroute");
     }
 
     /**
@@ -205,6 +237,7 @@ public class DefaultRoutingHandler {
         executorService.shutdown();
         executorServiceMstChg.shutdown();
         executorServiceFRR.shutdown();
+        executorServiceEcmpSpg.shutdown();
     }
 
     //////////////////////////////////////
@@ -238,21 +271,22 @@ public class DefaultRoutingHandler {
             log.debug("populateAllRoutingRules: populationStatus is STARTED");
 
             // take a snapshot of the topology
-            updatedEcmpSpgMap = new HashMap<>();
+            Set<DeviceId> roots = new HashSet<>();
             Set<EdgePair> edgePairs = new HashSet<>();
             Set<ArrayList<DeviceId>> routeChanges = new HashSet<>();
             for (DeviceId dstSw : srManager.deviceConfiguration.getRouters()) {
-                EcmpShortestPathGraph ecmpSpgUpdated =
-                        new EcmpShortestPathGraph(dstSw, srManager);
-                updatedEcmpSpgMap.put(dstSw, ecmpSpgUpdated);
+                roots.add(dstSw);
                 Optional<DeviceId> pairDev = srManager.getPairDeviceId(dstSw);
                 if (pairDev.isPresent()) {
                     // pairDev may not be available yet, but we still need to add
-                    ecmpSpgUpdated = new EcmpShortestPathGraph(pairDev.get(), srManager);
-                    updatedEcmpSpgMap.put(pairDev.get(), ecmpSpgUpdated);
+                    roots.add(pairDev.get());
                     edgePairs.add(new EdgePair(dstSw, pairDev.get()));
                 }
+            }
+            // configuration may have changed the avoided links, hence no reuse
+            updatedEcmpSpgMap = computeEcmpSpgs(roots, false);
 
+            for (DeviceId dstSw : srManager.deviceConfiguration.getRouters()) {
                 if (!shouldProgram(dstSw)) {
                     lastProgrammed.remove(dstSw);
                     continue;
@@ -270,7 +304,10 @@ public class DefaultRoutingHandler {
                 }
             }
 
-            if (!redoRouting(routeChanges, edgePairs, null)) {
+            final Context rerouteContext = startTimer(rerouteTimer);
+            boolean rerouted = redoRouting(routeChanges, edgePairs, null);
+            stopTimer(rerouteContext);
+            if (!rerouted) {
                 log.debug("populateAllRoutingRules: populationStatus is ABORTED");
                 populationStatus = Status.ABORTED;
                 log.warn("Failed to repopulate all routing rules.");
@@ -282,6 +319,10 @@ public class DefaultRoutingHandler {
             log.info("Completed all routing rule population. Total # of rules pushed : {}",
                     rulePopulator.getCounter());
             return;
+        } catch (InterruptedException e) {
+            log.warn("populateAllRoutingRules interrupted");
+            populationStatus = Status.ABORTED;
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             log.error("populateAllRoutingRules thrown an exception: {}",
                       e.getMessage(), e);
@@ -463,20 +504,18 @@ public class DefaultRoutingHandler {
             }
 
             // Take snapshots of the topology
-            updatedEcmpSpgMap = new HashMap<>();
+            Set<DeviceId> roots = new HashSet<>();
             Set<EdgePair> edgePairs = new HashSet<>();
             for (Device sw : srManager.deviceService.getDevices()) {
-                EcmpShortestPathGraph ecmpSpgUpdated =
-                        new EcmpShortestPathGraph(sw.id(), srManager);
-                updatedEcmpSpgMap.put(sw.id(), ecmpSpgUpdated);
+                roots.add(sw.id());
                 Optional<DeviceId> pairDev = srManager.getPairDeviceId(sw.id());
                 if (pairDev.isPresent()) {
                     // pairDev may not be available yet, but we still need to add
-                    ecmpSpgUpdated = new EcmpShortestPathGraph(pairDev.get(), srManager);
-                    updatedEcmpSpgMap.put(pairDev.get(), ecmpSpgUpdated);
+                    roots.add(pairDev.get());
                     edgePairs.add(new EdgePair(sw.id(), pairDev.get()));
                 }
             }
+            updatedEcmpSpgMap = computeEcmpSpgs(roots, true);
 
             log.info("Starting to populate routing rules from Topology change");
 
@@ -486,12 +525,21 @@ public class DefaultRoutingHandler {
             populationStatus = Status.STARTED;
             rulePopulator.resetCounter(); //XXX maybe useful to have a rehash ctr
             boolean hashGroupsChanged = false;
-            // try optimized re-routing
+            final Context routeChangeContext = startTimer(routeChangeTimer);
             if (linkDown == null) {
                 // either a linkUp or a switchDown - compute all route changes by
                 // comparing all routes of existing ECMP SPG to new ECMP SPG
                 routeChanges = computeRouteChange(switchDown);
+            } else {
+                // link has gone down
+                // Compare existing ECMP SPG only with the link that went down
+                routeChanges = computeDamagedRoutes(linkDown);
+            }
+            stopTimer(routeChangeContext);
 
+            final Context hashGroupContext = startTimer(hashGroupTimer);
+            // try optimized re-routing
+            if (linkDown == null) {
                 // deal with linkUp of a seen-before link
                 if (linkUp != null && seenBefore) {
                     // link previously seen before
@@ -512,14 +560,12 @@ public class DefaultRoutingHandler {
                     hashGroupsChanged = true;
                 }
             } else {
-                // link has gone down
-                // Compare existing ECMP SPG only with the link that went down
-                routeChanges = computeDamagedRoutes(linkDown);
                 processHashGroupChange(routeChanges, true, null);
                 // clear out routesChanges so a re-route is not attempted
                 routeChanges = ImmutableSet.of();
                 hashGroupsChanged = true;
             }
+            stopTimer(hashGroupContext);
 
             if (routeChanges.isEmpty()) {
                 if (hashGroupsChanged) {
@@ -538,7 +584,10 @@ public class DefaultRoutingHandler {
             }
 
             // reroute of routeChanges
-            if (redoRouting(routeChanges, edgePairs, null)) {
+            final Context rerouteContext = startTimer(rerouteTimer);
+            boolean rerouted = redoRouting(routeChanges, edgePairs, null);
+            stopTimer(rerouteContext);
+            if (rerouted) {
                 log.debug("populateRoutingRulesForLinkStatusChange: populationStatus is SUCCEEDED");
                 populationStatus = Status.SUCCEEDED;
                 log.info("Completed repopulation of rules for link-status change."
@@ -550,6 +599,10 @@ public class DefaultRoutingHandler {
                 log.warn("Failed to repopulate the rules for link status change.");
                 return;
             }
+        } catch (InterruptedException e) {
+            log.warn("populateRoutingRulesForLinkStatusChange interrupted");
+            populationStatus = Status.ABORTED;
+            Thread.currentThread().interrupt();
         } catch (Exception e) {
             log.error("populateRoutingRulesForLinkStatusChange thrown an exception: {}",
                       e.getMessage(), e);
@@ -559,6 +612,64 @@ public class DefaultRoutingHandler {
         }
     }
 
+    /**
+     * Computes the ECMP shortest-path graphs rooted at the given devices from
+     * the current topology. Graphs are built in parallel. When incremental,
+     * graphs from the previous computation are reused for the roots that none
+     * of the links changed since then can affect.
+     *
+     * @param roots the root devices of the graphs
+     * @param incremental true to reuse graphs unaffected by the link changes
+     * @return map of root device to its ECMP shortest-path graph
+     * @throws InterruptedException if interrupted while computing the graphs
+     * @throws ExecutionException if the computation of a graph failed
+     */
+    HashMap<DeviceId, EcmpShortestPathGraph> computeEcmpSpgs(Set<DeviceId> roots,
+                                                             boolean incremental)
+            throws InterruptedException, ExecutionException {
+        final Context timer = startTimer(ecmpSpgTimer);
+        try {
+            Set<Link> links = srManager.linkHandler.getRoutableLinks();
+            Set<Link> changedLinks = incremental
+                    ? Sets.symmetricDifference(links, lastEcmpSpgLinks) : null;
+            HashMap<DeviceId, EcmpShortestPathGraph> ecmpSpgMap = new HashMap<>();
+            Map<DeviceId, Future<EcmpShortestPathGraph>> futures = new HashMap<>();
+            for (DeviceId root : roots) {
+                EcmpShortestPathGraph ecmpSpg = lastEcmpSpgMap.get(root);
+                if (changedLinks != null && ecmpSpg != null &&
+                        changedLinks.stream().noneMatch(ecmpSpg::isAffectedBy)) {
+                    ecmpSpgMap.put(root, ecmpSpg);
+                } else {
+                    futures.put(root, executorServiceEcmpSpg.submit(
+                            () -> new EcmpShortestPathGraph(root, srManager)));
+                }
+            }
+            try {
+                for (Map.Entry<DeviceId, Future<EcmpShortestPathGraph>> entry : futures.entrySet()) {
+                    ecmpSpgMap.put(entry.getKey(), entry.getValue().get());
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                // the other graphs are of no use without this one
+                futures.values().forEach(f -> f.cancel(true));
+                throw e;
+            }
+            log.debug("Computed {} and reused {} ECMP graphs", futures.size(),
+                      ecmpSpgMap.size() - futures.size());
+
+            // graphs built while links were changing match no single snapshot
+            if (links.equals(srManager.linkHandler.getRoutableLinks())) {
+                lastEcmpSpgMap = ImmutableMap.copyOf(ecmpSpgMap);
+                lastEcmpSpgLinks = ImmutableSet.copyOf(links);
+            } else {
+                lastEcmpSpgMap = ImmutableMap.of();
+                lastEcmpSpgLinks = ImmutableSet.of();
+            }
+            return ecmpSpgMap;
+        } finally {
+            stopTimer(timer);
+        }
+    }
+
     /**
      * Processes a set a route-path changes by reprogramming routing rules and
      * creating new hash-groups or editing them if necessary. This method also
@@ -142,6 +142,24 @@ public class EcmpShortestPathGraph {
         }
     }
 
+    /**
+     * Returns whether a change of the given link, going up or down, may
+     * change this BFS tree. Links between devices at the same distance from
+     * the root, or between devices that are both unreachable, never carry
+     * shortest paths and leave the tree untouched.
+     *
+     * @param link the link that went up or down
+     * @return true if the tree must be recomputed
+     */
+    public boolean isAffectedBy(Link link) {
+        Integer srcDistance = deviceSearched.get(link.src().deviceId());
+        Integer dstDistance = deviceSearched.get(link.dst().deviceId());
+        if (srcDistance == null || dstDistance == null) {
+            return srcDistance != null || dstDistance != null;
+        }
+        return !srcDistance.equals(dstDistance);
+    }
+
     /**
      * Return root Device for the graph.
      *
@@ -709,4 +709,19 @@ public class LinkHandler {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Returns all links that are UP in the seenLinks store, are confirmed to
+     * be bidirectional and are not avoided. These are the links traversed when
+     * building the ECMP shortest-path graphs.
+     *
+     * @return set of links used for route computation
+     */
+    Set<Link> getRoutableLinks() {
+        return seenLinks.keySet().stream()
+                .filter(link -> seenLinks.get(link))
+                .filter(link -> isBidirectionalLinkUp(link))
+                .filter(link -> !avoidLink(link))
+                .collect(Collectors.toSet());
+    }
+
 }
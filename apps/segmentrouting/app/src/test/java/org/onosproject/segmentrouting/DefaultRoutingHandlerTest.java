@@ -15,7 +15,9 @@
  */
 package org.onosproject.segmentrouting;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.packet.IpAddress;
@@ -23,13 +25,22 @@ import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.DefaultControllerNode;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.mastership.MastershipService;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultLink;
 import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.PortNumber;
 import org.onosproject.net.device.DeviceService;
+import org.onosproject.net.provider.ProviderId;
 import org.onosproject.segmentrouting.config.DeviceConfiguration;
 import org.onosproject.store.service.StorageService;
 import org.onosproject.store.service.TestConsistentMap;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.expect;
@@ -52,6 +63,18 @@ public class DefaultRoutingHandlerTest {
     private static final IpAddress IP2 = IpAddress.valueOf("192.168.1.2");
     private static final IpAddress IP3 = IpAddress.valueOf("192.168.1.3");
 
+    private static final ProviderId PID = new ProviderId("of", "foo");
+    private static final DeviceId LEAF1 = DeviceId.deviceId("of:11");
+    private static final DeviceId LEAF2 = DeviceId.deviceId("of:12");
+    private static final DeviceId SPINE1 = DeviceId.deviceId("of:13");
+    private static final DeviceId SPINE2 = DeviceId.deviceId("of:14");
+    private static final Set<DeviceId> ROOTS = ImmutableSet.of(LEAF1, LEAF2, SPINE1, SPINE2);
+
+    // Runs once when the routable links are next read, to change them
+    private Runnable routableLinksChange;
+    // Runs whenever a graph reads the egress links of a device
+    private Runnable egressLinksRead;
+
     @Before
     public void setUp() {
         srManager = createMock(SegmentRoutingManager.class);
@@ -66,6 +89,11 @@ public class DefaultRoutingHandlerTest {
         dfh = new DefaultRoutingHandler(srManager);
     }
 
+    @After
+    public void tearDown() {
+        dfh.shutdown();
+    }
+
     private void clearCache() {
         dfh.invalidateShouldProgramCache(DEV1A);
         dfh.invalidateShouldProgramCache(DEV1B);
@@ -357,4 +385,130 @@ public class DefaultRoutingHandlerTest {
 
         assertFalse(dfh.shouldProgram.containsKey(Sets.newHashSet(DEV1A, DEV1B)));
     }
-}
\ No newline at end of file
+
+    // Leaf-spine topology whose spines are also linked to each other
+    private void setUpLeafSpine() {
+        srManager.deviceConfiguration = null;
+        srManager.linkHandler = new MockLinkHandler(srManager) {
+            @Override
+            Set<Link> getRoutableLinks() {
+                Set<Link> links = super.getRoutableLinks();
+                if (routableLinksChange != null) {
+                    routableLinksChange.run();
+                    routableLinksChange = null;
+                }
+                return links;
+            }
+
+            @Override
+            Set<Link> getDeviceEgressLinks(DeviceId deviceId) {
+                if (egressLinksRead != null) {
+                    egressLinksRead.run();
+                }
+                return super.getDeviceEgressLinks(deviceId);
+            }
+        };
+        updateBidiLink(LEAF1, 1, SPINE1, 1, true);
+        updateBidiLink(LEAF1, 2, SPINE2, 1, true);
+        updateBidiLink(LEAF2, 1, SPINE1, 2, true);
+        updateBidiLink(LEAF2, 2, SPINE2, 2, true);
+        updateBidiLink(SPINE1, 3, SPINE2, 3, true);
+    }
+
+    private void updateBidiLink(DeviceId dev1, int port1, DeviceId dev2, int port2, boolean up) {
+        srManager.linkHandler.updateSeenLink(link(dev1, port1, dev2, port2), up);
+        srManager.linkHandler.updateSeenLink(link(dev2, port2, dev1, port1), up);
+    }
+
+    private static Link link(DeviceId src, int srcPort, DeviceId dst, int dstPort) {
+        return DefaultLink.builder()
+                .providerId(PID)
+                .src(new ConnectPoint(src, PortNumber.portNumber(srcPort)))
+                .dst(new ConnectPoint(dst, PortNumber.portNumber(dstPort)))
+                .type(Link.Type.DIRECT)
+                .build();
+    }
+
+    // Link down between the spines, then full reroute
+    @Test
+    public void testEcmpSpgsOnLinkDown() throws Exception {
+        setUpLeafSpine();
+        Map<DeviceId, EcmpShortestPathGraph> initial = dfh.computeEcmpSpgs(ROOTS, false);
+        assertEquals(ROOTS, initial.keySet());
+        assertEquals(1, initial.get(SPINE1).getECMPPaths(SPINE2).size());
+
+        // Only the graphs of the spines carry paths over the spine link
+        updateBidiLink(SPINE1, 3, SPINE2, 3, false);
+        Map<DeviceId, EcmpShortestPathGraph> linkDown = dfh.computeEcmpSpgs(ROOTS, true);
+        assertEquals(ROOTS, linkDown.keySet());
+        assertSame(initial.get(LEAF1), linkDown.get(LEAF1));
+        assertSame(initial.get(LEAF2), linkDown.get(LEAF2));
+        assertNotSame(initial.get(SPINE1), linkDown.get(SPINE1));
+        assertNotSame(initial.get(SPINE2), linkDown.get(SPINE2));
+        assertEquals(2, linkDown.get(SPINE1).getECMPPaths(SPINE2).size());
+
+        // A full reroute rebuilds every graph
+        Map<DeviceId, EcmpShortestPathGraph> reroute = dfh.computeEcmpSpgs(ROOTS, false);
+        for (DeviceId root : ROOTS) {
+            assertNotSame(linkDown.get(root), reroute.get(root));
+        }
+    }
+
+    // Links changing while the graphs are computed
+    @Test
+    public void testEcmpSpgsOnLinksChangedDuringComputation() throws Exception {
+        setUpLeafSpine();
+        routableLinksChange = () -> updateBidiLink(SPINE1, 3, SPINE2, 3, false);
+        Map<DeviceId, EcmpShortestPathGraph> changing = dfh.computeEcmpSpgs(ROOTS, false);
+
+        // The graphs match no single snapshot, so none of them is reused
+        Map<DeviceId, EcmpShortestPathGraph> settled = dfh.computeEcmpSpgs(ROOTS, true);
+        for (DeviceId root : ROOTS) {
+            assertNotSame(changing.get(root), settled.get(root));
+        }
+
+        // Graphs of a stable snapshot are reused while links do not change
+        Map<DeviceId, EcmpShortestPathGraph> unchanged = dfh.computeEcmpSpgs(ROOTS, true);
+        for (DeviceId root : ROOTS) {
+            assertSame(settled.get(root), unchanged.get(root));
+        }
+    }
+
+    // Caller interrupted while the graphs are computed
+    @Test
+    public void testEcmpSpgsInterrupted() throws Exception {
+        setUpLeafSpine();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        egressLinksRead = () -> {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+                Thread.currentThread().interrupt();
+            }
+        };
+        Thread caller = Thread.currentThread();
+        new Thread(() -> {
+            try {
+                started.await();
+                caller.interrupt();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }).start();
+
+        try {
+            dfh.computeEcmpSpgs(ROOTS, false);
+            fail("computation should have been interrupted");
+        } catch (InterruptedException e) {
+            // expected
+        }
+        // The graphs still being built are cancelled
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.segmentrouting;
+
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.provider.ProviderId;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@link EcmpShortestPathGraph}.
+ */
+public class EcmpShortestPathGraphTest {
+    private static final ProviderId PID = new ProviderId("of", "foo");
+    private static final DeviceId LEAF1 = DeviceId.deviceId("of:1");
+    private static final DeviceId LEAF2 = DeviceId.deviceId("of:2");
+    private static final DeviceId SPINE1 = DeviceId.deviceId("of:3");
+    private static final DeviceId SPINE2 = DeviceId.deviceId("of:4");
+    private static final DeviceId OTHER1 = DeviceId.deviceId("of:5");
+    private static final DeviceId OTHER2 = DeviceId.deviceId("of:6");
+
+    private SegmentRoutingManager srManager;
+
+    @Before
+    public void setUp() {
+        srManager = new MockSegmentRoutingManager(Maps.newHashMap());
+        srManager.linkHandler = new MockLinkHandler(srManager);
+        addBidiLink(LEAF1, 1, SPINE1, 1);
+        addBidiLink(LEAF1, 2, SPINE2, 1);
+        addBidiLink(LEAF2, 1, SPINE1, 2);
+        addBidiLink(LEAF2, 2, SPINE2, 2);
+    }
+
+    private void addBidiLink(DeviceId dev1, int port1, DeviceId dev2, int port2) {
+        srManager.linkHandler.updateSeenLink(link(dev1, port1, dev2, port2), true);
+        srManager.linkHandler.updateSeenLink(link(dev2, port2, dev1, port1), true);
+    }
+
+    private static Link link(DeviceId src, int srcPort, DeviceId dst, int dstPort) {
+        return DefaultLink.builder()
+                .providerId(PID)
+                .src(new ConnectPoint(src, PortNumber.portNumber(srcPort)))
+                .dst(new ConnectPoint(dst, PortNumber.portNumber(dstPort)))
+                .type(Link.Type.DIRECT)
+                .build();
+    }
+
+    /**
+     * Tests the paths computed over a leaf-spine topology.
+     */
+    @Test
+    public void paths() {
+        EcmpShortestPathGraph graph = new EcmpShortestPathGraph(LEAF1, srManager);
+        assertEquals(LEAF1, graph.getRootDevice());
+        assertEquals(1, graph.getECMPPaths(SPINE1).size());
+        assertEquals(2, graph.getECMPPaths(LEAF2).size());
+    }
+
+    /**
+     * Tests which link changes may change the tree.
+     */
+    @Test
+    public void affectedBy() {
+        EcmpShortestPathGraph graph = new EcmpShortestPathGraph(LEAF1, srManager);
+
+        // links carrying shortest paths, in either direction
+        assertTrue(graph.isAffectedBy(link(LEAF1, 1, SPINE1, 1)));
+        assertTrue(graph.isAffectedBy(link(SPINE2, 2, LEAF2, 2)));
+        // new link that shortens the distance to a device
+        assertTrue(graph.isAffectedBy(link(LEAF1, 3, LEAF2, 3)));
+        // new link to a device that was not reached
+        assertTrue(graph.isAffectedBy(link(LEAF2, 3, OTHER1, 1)));
+
+        // link between devices at the same distance
+        assertFalse(graph.isAffectedBy(link(SPINE1, 3, SPINE2, 3)));
+        // link between devices that are not reached
+        assertFalse(graph.isAffectedBy(link(OTHER1, 2, OTHER2, 1)));
+    }
+}
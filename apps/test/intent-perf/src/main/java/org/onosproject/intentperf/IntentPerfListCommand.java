@@ -15,15 +15,20 @@
  */
 package org.onosproject.intentperf;
 
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
 import org.apache.karaf.shell.api.action.Command;
 import org.apache.karaf.shell.api.action.Option;
 import org.apache.karaf.shell.api.action.lifecycle.Service;
 import org.onosproject.cli.AbstractShellCommand;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.intentperf.IntentPerfCollector.Sample;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Displays accumulated performance metrics.
@@ -37,15 +42,40 @@ public class IntentPerfListCommand extends AbstractShellCommand {
             required = false, multiValued = false)
     private boolean summary = false;
 
+    @Option(name = "-p", aliases = "--phases", description = "Output intent batch phase metrics",
+            required = false, multiValued = false)
+    private boolean phases = false;
+
+    // Prefix of the timers of the intent manager batch processing phases
+    private static final String PHASE_PREFIX = "Intent.Batch.";
+
     @Override
     protected void doExecute() {
-        if (summary) {
+        if (phases) {
+            printPhases();
+        } else if (summary) {
             printSummary();
         } else {
             printSamples();
         }
     }
 
+    private void printPhases() {
+        Map<String, Timer> timers = get(MetricsService.class)
+                .getTimers((name, metric) -> name.startsWith(PHASE_PREFIX));
+        print("%12s: %10s %10s %10s %10s %10s", "Phase", "Count", "Rate/s", "Mean ms", "p99 ms", "Max ms");
+        timers.forEach((name, timer) -> {
+            Snapshot snapshot = timer.getSnapshot();
+            print("%12s: %10d %10.2f %10.3f %10.3f %10.3f", name.substring(PHASE_PREFIX.length()),
+                  timer.getCount(), timer.getOneMinuteRate(), millis(snapshot.getMean()),
+                  millis(snapshot.get99thPercentile()), millis(snapshot.getMax()));
+        });
+    }
+
+    private static double millis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
     private void printSummary() {
         IntentPerfCollector collector = get(IntentPerfCollector.class);
         List<String> headers = collector.getSampleHeaders();
@@ -232,6 +232,11 @@ public final class VtnEventuallyConsistentMapTest<K, V> extends EventuallyConsis
             return this;
         }
 
+        @Override
+        public EventuallyConsistentMapBuilder<K, V> withMerkleAntiEntropy() {
+            return this;
+        }
+
         @Override
         public EventuallyConsistentMapBuilder<K, V> withPersistence() {
             return this;
@@ -37,7 +37,8 @@ import static org.onosproject.net.packet.PacketProcessor.DIRECTOR_MAX;
         description = "Lists packet processors")
 public class PacketProcessorsListCommand extends AbstractShellCommand {
 
-    private static final String FMT = "priority=%s, class=%s, packets=%d, avgNanos=%d";
+    private static final String FMT =
+            "priority=%s, class=%s, packets=%d, avgNanos=%d, p50Nanos=%d, p99Nanos=%d, maxNanos=%d";
 
     @Override
     protected void doExecute() {
@@ -58,7 +59,10 @@ public class PacketProcessorsListCommand extends AbstractShellCommand {
                     .put("priority", priorityFormat(p.priority()))
                     .put("class", p.processor().getClass().getName())
                     .put("packets", p.invocations())
-                    .put("avgNanos", p.averageNanos()));
+                    .put("avgNanos", p.averageNanos())
+                    .put("p50Nanos", p.quantileNanos(0.5))
+                    .put("p99Nanos", p.quantileNanos(0.99))
+                    .put("maxNanos", p.maxNanos()));
         }
 
         return result;
@@ -67,7 +71,8 @@ public class PacketProcessorsListCommand extends AbstractShellCommand {
     private void print(PacketProcessorEntry entry) {
         print(FMT, priorityFormat(entry.priority()),
               entry.processor().getClass().getName(),
-              entry.invocations(), entry.averageNanos());
+              entry.invocations(), entry.averageNanos(), entry.quantileNanos(0.5),
+              entry.quantileNanos(0.99), entry.maxNanos());
     }
 
     private String priorityFormat(int priority) {
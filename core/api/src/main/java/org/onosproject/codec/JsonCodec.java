@@ -15,10 +15,12 @@
  */
 package org.onosproject.codec;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -40,6 +42,23 @@ public abstract class JsonCodec<T> {
         throw new UnsupportedOperationException("encode() not supported");
     }
 
+    /**
+     * Encodes the specified entity into JSON written straight to the given
+     * generator. By default the entity is encoded into a JSON node first;
+     * codecs may override this to avoid building the intermediate tree.
+     *
+     * @param entity    entity to encode
+     * @param context   encoding context
+     * @param generator JSON generator to write to
+     * @throws IOException if the JSON cannot be written
+     * @throws java.lang.UnsupportedOperationException if the codec does not
+     *                                                 support encode operations
+     */
+    public void encode(T entity, CodecContext context, JsonGenerator generator)
+            throws IOException {
+        generator.writeTree(encode(entity, context));
+    }
+
     /**
      * Decodes the specified entity from JSON.
      *
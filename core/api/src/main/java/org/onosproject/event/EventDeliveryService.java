@@ -35,4 +35,24 @@ public interface EventDeliveryService extends EventDispatcher, EventSinkRegistry
      */
     long getDispatchTimeLimit();
 
+    /**
+     * Sets the number of threads used by each event dispatch loop. Events
+     * pertaining to the same subject are always dispatched in order by the
+     * same thread, while events for different subjects may be dispatched in
+     * parallel.
+     *
+     * @param threads number of dispatch threads per dispatch loop
+     */
+    default void setDispatchThreads(int threads) {
+    }
+
+    /**
+     * Returns the number of threads used by each event dispatch loop.
+     *
+     * @return number of dispatch threads per dispatch loop
+     */
+    default int getDispatchThreads() {
+        return 1;
+    }
+
 }
@@ -51,6 +51,27 @@ public interface FlowRuleProviderService extends ProviderService<FlowRuleProvide
      */
     void pushFlowMetricsWithoutFlowMissing(DeviceId deviceId, Iterable<FlowEntry> flowEntries);
 
+    /**
+     * Pushes one part of the collection of flow entries currently applied on
+     * the given device. Parts are pushed in order as they are received from
+     * the device, which avoids holding the complete collection in memory.
+     * Flows missing from the device are only detected once the last part of
+     * the collection has been pushed.
+     * <p>
+     * A part bearing a reply identifier different from that of the previous
+     * part starts a new collection, abandoning any incomplete one.
+     * The default implementation pushes each part without flowMissing process.
+     *
+     * @param deviceId device identifier
+     * @param replyId identifier of the collection the part belongs to
+     * @param flowEntries flow entries of this part
+     * @param last true if this is the last part of the collection
+     */
+    default void pushFlowMetricsPart(DeviceId deviceId, long replyId,
+                                     Iterable<FlowEntry> flowEntries, boolean last) {
+        pushFlowMetricsWithoutFlowMissing(deviceId, flowEntries);
+    }
+
     /**
      * Pushes the collection of table statistics entries currently extracted
      * from the given device.
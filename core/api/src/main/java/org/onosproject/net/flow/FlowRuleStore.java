@@ -20,6 +20,8 @@ import org.onosproject.net.flow.oldbatch.FlowRuleBatchEvent;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchOperation;
 import org.onosproject.store.Store;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -113,6 +115,23 @@ public interface FlowRuleStore extends Store<FlowRuleBatchEvent, FlowRuleStoreDe
      */
     FlowRuleEvent addOrUpdateFlowRule(FlowEntry rule);
 
+    /**
+     * Stores new flow rules, or updates existing entries, in a single batch.
+     *
+     * @param rules the flow rules to add or update
+     * @return flow_added and flow_updated events, excluding nulls
+     */
+    default List<FlowRuleEvent> addOrUpdateFlowRules(Collection<FlowEntry> rules) {
+        List<FlowRuleEvent> events = new ArrayList<>(rules.size());
+        for (FlowEntry rule : rules) {
+            FlowRuleEvent event = addOrUpdateFlowRule(rule);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
     /**
      * @param rule the flow entry to remove
      * @return flow_removed event, or null if nothing removed
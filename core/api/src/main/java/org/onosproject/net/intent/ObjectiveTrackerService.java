@@ -58,6 +58,30 @@ public interface ObjectiveTrackerService {
     void removeTrackedResources(Key intentKey,
                                        Collection<NetworkResource> resources);
 
+    /**
+     * Adds the resources of all the given intents to be tracked on behalf of
+     * a single intent, typically an intent and its installables.
+     *
+     * @param intentKey intent identity on whose behalf the resources are tracked
+     * @param intents   intents whose resources to track
+     */
+    default void addTrackedIntents(Key intentKey,
+                                   Collection<? extends Intent> intents) {
+        intents.forEach(intent -> addTrackedResources(intentKey, intent.resources()));
+    }
+
+    /**
+     * Removes the resources of all the given intents from being tracked on
+     * behalf of a single intent, typically an intent and its installables.
+     *
+     * @param intentKey intent identity on whose behalf the resources are tracked
+     * @param intents   intents whose resources to stop tracking
+     */
+    default void removeTrackedIntents(Key intentKey,
+                                      Collection<? extends Intent> intents) {
+        intents.forEach(intent -> removeTrackedResources(intentKey, intent.resources()));
+    }
+
     /**
      * Submits the specified intent data to be tracked.
      *
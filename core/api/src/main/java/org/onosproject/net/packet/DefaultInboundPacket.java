@@ -15,23 +15,35 @@
  */
 package org.onosproject.net.packet;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import org.onlab.packet.DeserializationException;
 import org.onosproject.net.ConnectPoint;
 import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
+import org.slf4j.Logger;
 
 import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Default implementation of an immutable inbound packet.
+ * <p>
+ * Packets may be created without their parsed form, in which case the raw
+ * bytes are only deserialized when the parsed form is first requested.
  */
 public final class DefaultInboundPacket implements InboundPacket {
 
+    private static final Logger log = getLogger(DefaultInboundPacket.class);
+
     private final ConnectPoint receivedFrom;
-    private final Ethernet parsed;
+    private final Supplier<Ethernet> parsed;
     private final ByteBuffer unparsed;
+    private final Supplier<EthernetView> view;
     private final Optional<Long> cookie;
 
     /**
@@ -57,8 +69,26 @@ public final class DefaultInboundPacket implements InboundPacket {
     public DefaultInboundPacket(ConnectPoint receivedFrom, Ethernet parsed,
             ByteBuffer unparsed, Optional<Long> cookie) {
         this.receivedFrom = receivedFrom;
-        this.parsed = parsed;
+        this.parsed = Suppliers.ofInstance(parsed);
         this.unparsed = unparsed;
+        this.view = Suppliers.memoize(this::createView);
+        this.cookie = cookie;
+    }
+
+    /**
+     * Creates an immutable inbound packet with cookie, which is parsed from
+     * the raw bytes only when first needed.
+     *
+     * @param receivedFrom connection point where received
+     * @param unparsed     unparsed raw bytes
+     * @param cookie       cookie
+     */
+    public DefaultInboundPacket(ConnectPoint receivedFrom, ByteBuffer unparsed,
+                                Optional<Long> cookie) {
+        this.receivedFrom = receivedFrom;
+        this.parsed = Suppliers.memoize(this::parse);
+        this.unparsed = unparsed;
+        this.view = Suppliers.memoize(this::createView);
         this.cookie = cookie;
     }
 
@@ -69,7 +99,31 @@ public final class DefaultInboundPacket implements InboundPacket {
 
     @Override
     public Ethernet parsed() {
-        return parsed;
+        return parsed.get();
+    }
+
+    private Ethernet parse() {
+        EthernetView frame = view();
+        if (frame == null) {
+            return null;
+        }
+        try {
+            return frame.parse();
+        } catch (DeserializationException e) {
+            log.error("Packet deserialization problem", e);
+        } catch (Exception e) {
+            log.error("Unexpected packet deserialization problem", e);
+        }
+        return null;
+    }
+
+    @Override
+    public EthernetView view() {
+        return view.get();
+    }
+
+    private EthernetView createView() {
+        return unparsed == null ? null : EthernetView.of(unparsed);
     }
 
     @Override
@@ -85,7 +139,7 @@ public final class DefaultInboundPacket implements InboundPacket {
 
     @Override
     public int hashCode() {
-        return Objects.hash(receivedFrom, parsed, unparsed);
+        return Objects.hash(receivedFrom, parsed(), unparsed);
     }
 
     @Override
@@ -96,7 +150,7 @@ public final class DefaultInboundPacket implements InboundPacket {
         if (obj instanceof InboundPacket) {
             final DefaultInboundPacket other = (DefaultInboundPacket) obj;
             return Objects.equals(this.receivedFrom, other.receivedFrom) &&
-                    Objects.equals(this.parsed, other.parsed) &&
+                    Objects.equals(this.parsed(), other.parsed()) &&
                     Objects.equals(this.unparsed, other.unparsed);
         }
         return false;
@@ -106,7 +160,7 @@ public final class DefaultInboundPacket implements InboundPacket {
     public String toString() {
         return toStringHelper(this)
                 .add("receivedFrom", receivedFrom)
-                .add("parsed", parsed)
+                .add("parsed", parsed())
                 .toString();
     }
 }
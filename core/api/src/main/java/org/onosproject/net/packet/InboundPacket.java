@@ -17,6 +17,7 @@ package org.onosproject.net.packet;
 
 import org.onosproject.net.ConnectPoint;
 import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
 
 import java.nio.ByteBuffer;
 import java.util.Optional;
@@ -48,6 +49,19 @@ public interface InboundPacket {
      */
     ByteBuffer unparsed();
 
+    /**
+     * Returns a view of the unparsed packet data which decodes Ethernet
+     * header fields on demand. Processors which only need a few header
+     * fields, for example to check the ethertype, should prefer the view to
+     * the {@link #parsed() parsed} form of the packet.
+     *
+     * @return view of the Ethernet frame; null if there is no packet data
+     */
+    default EthernetView view() {
+        ByteBuffer unparsed = unparsed();
+        return unparsed == null ? null : EthernetView.of(unparsed);
+    }
+
     /**
      * Returns the cookie in the packet in message.
      *
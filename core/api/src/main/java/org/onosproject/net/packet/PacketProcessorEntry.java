@@ -55,4 +55,24 @@ public interface PacketProcessorEntry {
      * @return average time in nanos
      */
     long averageNanos();
+
+    /**
+     * Returns the longest time, in nanoseconds, spent processing a packet.
+     *
+     * @return maximum time in nanos; 0 if not tracked
+     */
+    default long maxNanos() {
+        return 0;
+    }
+
+    /**
+     * Returns an upper bound of the time, in nanoseconds, within which the
+     * given fraction of packets were processed.
+     *
+     * @param quantile fraction of packets, between 0 and 1
+     * @return time in nanos; 0 if not tracked
+     */
+    default long quantileNanos(double quantile) {
+        return 0;
+    }
 }
@@ -75,6 +75,18 @@ public interface ResourceStore extends Store<ResourceEvent, ResourceStoreDelegat
      */
     boolean release(List<ResourceAllocation> allocations);
 
+    /**
+     * Releases the specified allocations and makes the specified allocations in transactional way.
+     * The state after completion of this method is all the releases and allocations are done,
+     * or none of them is. The releases are applied before the allocations, so that a resource
+     * can be handed from one consumer to another.
+     *
+     * @param releases allocations to be released
+     * @param allocations allocations to be made
+     * @return true if succeeds, otherwise false
+     */
+    boolean reallocate(List<ResourceAllocation> releases, List<ResourceAllocation> allocations);
+
     /**
      * Returns the resource consumers to whom the specified resource is allocated.
      * The return value is a list having only one element when the given resource is discrete type.
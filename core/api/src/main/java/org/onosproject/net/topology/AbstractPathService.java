@@ -58,8 +58,9 @@ public abstract class AbstractPathService
     private static final ProviderId PID = new ProviderId("core", "org.onosproject.core");
     private static final PortNumber P0 = PortNumber.portNumber(0);
 
+    // Shared with the topology so that default path requests can be cached
     protected static final LinkWeigher DEFAULT_WEIGHER =
-            new HopCountLinkWeigher();
+            HopCountLinkWeigher.DEFAULT_HOP_COUNT_WEIGHER;
 
     protected TopologyService topologyService;
 
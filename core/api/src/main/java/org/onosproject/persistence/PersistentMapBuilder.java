@@ -40,6 +40,13 @@ public interface PersistentMapBuilder<K, V> {
      */
     PersistentMapBuilder<K, V> withSerializer(Serializer serializer);
 
+    /**
+     * Sets how the contents of this map are stored, the default is {@link PersistentStorage#DATABASE}.
+     * @param storage the storage of this map
+     * @return a persistent map builder with the storage set
+     */
+    PersistentMapBuilder<K, V> withStorage(PersistentStorage storage);
+
     /**
      * Validates the map settings and then builds this map in the database.  Throws an exception if invalid settings
      * are found.
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.persistence;
+
+/**
+ * Describes how the contents of a local persistent structure are stored on disk.
+ */
+public enum PersistentStorage {
+
+    /**
+     * Indicates that the contents are stored in a database file, committed
+     * to disk periodically.
+     */
+    DATABASE,
+
+    /**
+     * Indicates that updates are appended to a memory-mapped log, which is
+     * compacted in the background and read sequentially on startup.
+     */
+    LOG,
+}
@@ -18,6 +18,7 @@ package org.onosproject.store.service;
 
 import org.onlab.util.KryoNamespace;
 import org.onosproject.cluster.NodeId;
+import org.onosproject.persistence.PersistentStorage;
 import org.onosproject.store.Timestamp;
 
 import java.util.Collection;
@@ -180,6 +181,22 @@ public interface EventuallyConsistentMapBuilder<K, V> {
      */
     EventuallyConsistentMapBuilder<K, V> withFasterConvergence();
 
+    /**
+     * Configure anti-entropy to exchange a hierarchical digest of the map.
+     * <p>
+     * Peers first compare hashes of ranges of entries and only exchange the
+     * digest of the entries in ranges that differ, instead of the digest of
+     * every entry. Suited to large maps where most entries are in sync.
+     * All instances of the map must use the same setting.
+     * </p>
+     * <p>
+     * The default behavior is to exchange the digest of every entry.
+     * </p>
+     *
+     * @return this EventuallyConsistentMapBuilder
+     */
+    EventuallyConsistentMapBuilder<K, V> withMerkleAntiEntropy();
+
     /**
      * Configure the map to persist data to disk.
      * <p>
@@ -190,6 +207,21 @@ public interface EventuallyConsistentMapBuilder<K, V> {
      */
     EventuallyConsistentMapBuilder<K, V> withPersistence();
 
+    /**
+     * Configure the map to persist data to disk using the given storage.
+     * <p>
+     * {@link PersistentStorage#LOG} appends each update to a memory-mapped
+     * log, which is cheaper to write and faster to reload on startup than
+     * the database used by {@link #withPersistence()}.
+     * </p>
+     *
+     * @param storage how data is stored on disk
+     * @return this EventuallyConsistentMapBuilder
+     */
+    default EventuallyConsistentMapBuilder<K, V> withPersistence(PersistentStorage storage) {
+        return withPersistence();
+    }
+
     /**
      * Builds an eventually consistent map based on the configuration options
      * supplied to this builder.
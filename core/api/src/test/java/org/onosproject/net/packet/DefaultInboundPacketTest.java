@@ -26,7 +26,10 @@ import com.google.common.testing.EqualsTester;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.onlab.junit.ImmutableClassChecker.assertThatClassIsImmutable;
 import static org.onosproject.net.NetTestTools.connectPoint;
 
@@ -58,6 +61,11 @@ public class DefaultInboundPacketTest {
                     eth,
                     byteBuffer,
                     Optional.empty());
+    final DefaultInboundPacket lazyPacket1 =
+            new DefaultInboundPacket(connectPoint("d1", 1),
+                    byteBuffer,
+                    Optional.of(1L));
+
     /**
      * Checks that the DefaultInboundPacket class is immutable.
      */
@@ -87,4 +95,23 @@ public class DefaultInboundPacketTest {
         assertThat(packet1.unparsed(), notNullValue());
         assertThat(packet1.cookie(), equalTo(Optional.of(1L)));
     }
+
+    /**
+     * Tests packets parsed on demand.
+     */
+    @Test
+    public void testLazyConstruction() throws Exception {
+        Ethernet deserialized = Ethernet.deserializer().deserialize(
+                byteBuffer.array(), 0, byteBuffer.array().length);
+        assertThat(lazyPacket1.view().etherType(), is(eth.getEtherType()));
+        assertThat(lazyPacket1.view().sourceMac(), is(MacAddress.BROADCAST));
+        assertThat(lazyPacket1.parsed(), equalTo(deserialized));
+        assertThat(lazyPacket1.parsed(), sameInstance(lazyPacket1.parsed()));
+        assertThat(lazyPacket1.cookie(), equalTo(Optional.of(1L)));
+
+        DefaultInboundPacket truncated = new DefaultInboundPacket(connectPoint("d1", 1),
+                ByteBuffer.wrap(new byte[4]), Optional.empty());
+        assertThat(truncated.view().isValid(), is(false));
+        assertThat(truncated.parsed(), nullValue());
+    }
 }
@@ -19,6 +19,7 @@ import java.util.Map;
 
 import org.onosproject.persistence.PersistentMapBuilder;
 import org.onosproject.persistence.PersistentSetBuilder;
+import org.onosproject.persistence.PersistentStorage;
 import org.onosproject.store.service.Serializer;
 
 import com.google.common.collect.Maps;
@@ -49,6 +50,11 @@ public class TestPersistenceService extends PersistenceServiceAdapter {
             return this;
         }
 
+        @Override
+        public PersistentMapBuilder<K, V> withStorage(PersistentStorage storage) {
+            return this;
+        }
+
         @Override
         public Map<K, V> build() {
             return Maps.newConcurrentMap();
@@ -15,6 +15,7 @@
  */
 package org.onosproject.codec.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.onosproject.codec.CodecContext;
 import org.onosproject.codec.JsonCodec;
@@ -24,6 +25,8 @@ import org.onosproject.net.flow.FlowEntry;
 import org.onosproject.net.flow.TrafficSelector;
 import org.onosproject.net.flow.TrafficTreatment;
 
+import java.io.IOException;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -35,16 +38,10 @@ public final class FlowEntryCodec extends JsonCodec<FlowEntry> {
     public ObjectNode encode(FlowEntry flowEntry, CodecContext context) {
         checkNotNull(flowEntry, "Flow entry cannot be null");
 
-        CoreService service = context.getService(CoreService.class);
-
-        ApplicationId appId = service.getAppId(flowEntry.appId());
-
-        String strAppId = (appId == null) ? "<none>" : appId.name();
-
         final ObjectNode result = context.mapper().createObjectNode()
                 .put("id", Long.toString(flowEntry.id().value()))
                 .put("tableId", flowEntry.table().toString())
-                .put("appId", strAppId)
+                .put("appId", appName(flowEntry, context))
                 .put("groupId", flowEntry.groupId().id())
                 .put("priority", flowEntry.priority())
                 .put("timeout", flowEntry.timeout())
@@ -72,5 +69,43 @@ public final class FlowEntryCodec extends JsonCodec<FlowEntry> {
         return result;
     }
 
+    @Override
+    public void encode(FlowEntry flowEntry, CodecContext context, JsonGenerator generator)
+            throws IOException {
+        checkNotNull(flowEntry, "Flow entry cannot be null");
+
+        generator.writeStartObject();
+        generator.writeStringField("id", Long.toString(flowEntry.id().value()));
+        generator.writeStringField("tableId", flowEntry.table().toString());
+        generator.writeStringField("appId", appName(flowEntry, context));
+        generator.writeNumberField("groupId", flowEntry.groupId().id());
+        generator.writeNumberField("priority", flowEntry.priority());
+        generator.writeNumberField("timeout", flowEntry.timeout());
+        generator.writeBooleanField("isPermanent", flowEntry.isPermanent());
+        generator.writeStringField("deviceId", flowEntry.deviceId().toString());
+        generator.writeStringField("state", flowEntry.state().toString());
+        generator.writeNumberField("life", flowEntry.life());
+        generator.writeNumberField("packets", flowEntry.packets());
+        generator.writeNumberField("bytes", flowEntry.bytes());
+        generator.writeStringField("liveType", flowEntry.liveType().toString());
+        generator.writeNumberField("lastSeen", flowEntry.lastSeen());
+
+        if (flowEntry.treatment() != null) {
+            generator.writeFieldName("treatment");
+            context.codec(TrafficTreatment.class).encode(flowEntry.treatment(), context, generator);
+        }
+
+        if (flowEntry.selector() != null) {
+            generator.writeFieldName("selector");
+            context.codec(TrafficSelector.class).encode(flowEntry.selector(), context, generator);
+        }
+        generator.writeEndObject();
+    }
+
+    private static String appName(FlowEntry flowEntry, CodecContext context) {
+        CoreService service = context.getService(CoreService.class);
+        ApplicationId appId = service.getAppId(flowEntry.appId());
+        return (appId == null) ? "<none>" : appId.name();
+    }
 }
 
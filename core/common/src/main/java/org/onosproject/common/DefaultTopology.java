@@ -18,10 +18,14 @@ package org.onosproject.common;
 import com.google.common.base.Function;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSetMultimap.Builder;
+import org.onlab.graph.AdjacencyListsGraph;
 import org.onlab.graph.DefaultEdgeWeigher;
 import org.onlab.graph.DijkstraGraphSearch;
 import org.onlab.graph.DisjointPathPair;
@@ -59,10 +63,19 @@ import org.onosproject.net.topology.TopologyVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -73,6 +86,7 @@ import static org.onlab.util.Tools.isNullOrEmpty;
 import static org.onosproject.core.CoreService.CORE_PROVIDER_ID;
 import static org.onosproject.net.Link.State.INACTIVE;
 import static org.onosproject.net.Link.Type.INDIRECT;
+import static org.onosproject.net.topology.HopCountLinkWeigher.DEFAULT_HOP_COUNT_WEIGHER;
 
 /**
  * Default implementation of the topology descriptor. This carries the backing
@@ -86,16 +100,25 @@ public class DefaultTopology extends AbstractModel implements Topology {
             new DijkstraGraphSearch<>();
     private static final TarjanGraphSearch<TopologyVertex, TopologyEdge> TARJAN =
             new TarjanGraphSearch<>();
-    private static final SuurballeGraphSearch<TopologyVertex, TopologyEdge> SUURBALLE =
-            new SuurballeGraphSearch<>();
-    private static final KShortestPathsSearch<TopologyVertex, TopologyEdge> KSHORTEST =
-            new KShortestPathsSearch<>();
-    private static final LazyKShortestPathsSearch<TopologyVertex, TopologyEdge> LAZY_KSHORTEST =
-            new LazyKShortestPathsSearch<>();
+    private static final LinkWeigher NO_INDIRECT_LINKS = new NoIndirectLinksWeigher();
 
+    // Marks clusters which were not carried over from the previous topology.
+    private static final int NEW_CLUSTER = -1;
 
     private static LinkWeigher defaultLinkWeigher = null;
     private static GraphPathSearch<TopologyVertex, TopologyEdge> defaultGraphPathSearch = null;
+    private static int pathCacheSize = 0;
+
+    // Pool used by the K-shortest and disjoint path searches; null if sequential.
+    private static ForkJoinPool pathSearchPool = null;
+    private static volatile SuurballeGraphSearch<TopologyVertex, TopologyEdge> suurballe =
+            new SuurballeGraphSearch<>();
+    private static volatile KShortestPathsSearch<TopologyVertex, TopologyEdge> kShortest =
+            new KShortestPathsSearch<>();
+    private static volatile LazyKShortestPathsSearch<TopologyVertex, TopologyEdge> lazyKShortest =
+            new LazyKShortestPathsSearch<>();
+
+    private static final CacheStats NO_STATS = new CacheStats(0, 0, 0, 0, 0, 0);
 
     private final long time;
     private final long creationTime;
@@ -104,13 +127,18 @@ public class DefaultTopology extends AbstractModel implements Topology {
 
     private final LinkWeigher hopCountWeigher;
 
-    private final Supplier<SccResult<TopologyVertex, TopologyEdge>> clusterResults;
+    private final Memo<ClusterResults> clusterResults;
     private final Supplier<ImmutableMap<ClusterId, TopologyCluster>> clusters;
     private final Supplier<ImmutableSet<ConnectPoint>> infrastructurePoints;
-    private final Supplier<ImmutableSetMultimap<ClusterId, ConnectPoint>> broadcastSets;
+    private final Memo<ImmutableSetMultimap<ClusterId, ConnectPoint>> broadcastSets;
     private final Function<ConnectPoint, Boolean> broadcastFunction;
     private final Supplier<ClusterIndexes> clusterIndexes;
 
+    private final TopologyDelta delta;
+    private final Cache<PathKey, Set<Path>> pathCache;
+    // Computed state of the previous topology; released once no longer needed.
+    private volatile PreviousState previous;
+
     /**
      * Sets the default link-weight to be used when computing paths. If null is
      * specified, the builtin default link-weight measuring hop-counts will be
@@ -136,6 +164,59 @@ public class DefaultTopology extends AbstractModel implements Topology {
     }
 
 
+    /**
+     * Sets the maximum number of shortest path sets cached by each topology.
+     * The least recently used entries are evicted first. If zero is specified,
+     * paths will not be cached.
+     *
+     * @param size new path cache size
+     */
+    public static synchronized void setPathCacheSize(int size) {
+        checkArgument(size >= 0, "Path cache size must not be negative");
+        log.info("Setting new path cache size to {}", size);
+        pathCacheSize = size;
+    }
+
+    /**
+     * Sets the number of threads used to compute K-shortest and disjoint
+     * paths. The candidate paths of each search are then computed in
+     * parallel, yielding the same results as a sequential search. If one
+     * is specified, paths will be computed sequentially.
+     *
+     * @param parallelism new path search parallelism
+     */
+    public static synchronized void setPathSearchParallelism(int parallelism) {
+        checkArgument(parallelism > 0, "Path search parallelism must be positive");
+        int current = pathSearchPool != null ? pathSearchPool.getParallelism() : 1;
+        if (parallelism == current) {
+            return;
+        }
+        log.info("Setting new path search parallelism to {}", parallelism);
+        ForkJoinPool retiredPool = pathSearchPool;
+        pathSearchPool = parallelism > 1 ? newPathSearchPool(parallelism) : null;
+        suurballe = new SuurballeGraphSearch<>(pathSearchPool);
+        kShortest = new KShortestPathsSearch<>(pathSearchPool);
+        lazyKShortest = new LazyKShortestPathsSearch<>(pathSearchPool);
+        if (retiredPool != null) {
+            // Searches still holding on to the retired pool fall back to
+            // computing their paths sequentially
+            retiredPool.shutdown();
+        }
+    }
+
+    // Creates the path search pool with workers named after the
+    // onos/topology thread group, as groupedThreads would name them
+    private static ForkJoinPool newPathSearchPool(int parallelism) {
+        AtomicInteger count = new AtomicInteger();
+        ForkJoinWorkerThreadFactory factory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("onos-topology-path-search-" + count.getAndIncrement());
+            return thread;
+        };
+        return new ForkJoinPool(parallelism, factory,
+                (t, e) -> log.error("Uncaught exception on " + t.getName(), e), false);
+    }
+
     /**
      * Creates a topology descriptor attributed to the specified provider.
      *
@@ -145,6 +226,23 @@ public class DefaultTopology extends AbstractModel implements Topology {
      */
     public DefaultTopology(ProviderId providerId, GraphDescription description,
                            Function<ConnectPoint, Boolean> broadcastFunction) {
+        this(providerId, description, broadcastFunction, null);
+    }
+
+    /**
+     * Creates a topology descriptor attributed to the specified provider,
+     * incrementally deriving its clusters and broadcast sets from the given
+     * previous topology. Only the clusters affected by the changes between
+     * the two topologies are recomputed.
+     *
+     * @param providerId        identity of the provider
+     * @param description       data describing the new topology
+     * @param broadcastFunction broadcast point function
+     * @param previousTopology  topology to derive from; null to build from scratch
+     */
+    public DefaultTopology(ProviderId providerId, GraphDescription description,
+                           Function<ConnectPoint, Boolean> broadcastFunction,
+                           DefaultTopology previousTopology) {
         super(providerId);
         this.broadcastFunction = broadcastFunction;
         this.time = description.timestamp();
@@ -154,13 +252,25 @@ public class DefaultTopology extends AbstractModel implements Topology {
         this.graph = new DefaultTopologyGraph(description.vertexes(),
                 description.edges());
 
-        this.clusterResults = Suppliers.memoize(this::searchForClusters);
+        if (previousTopology != null) {
+            this.delta = TopologyDelta.compute(previousTopology.time(), previousTopology.graph, graph);
+            ClusterResults previousClusters = previousTopology.clusterResults.peek();
+            this.previous = previousClusters == null ? null :
+                    new PreviousState(previousClusters, previousTopology.broadcastSets.peek());
+        } else {
+            this.delta = null;
+            this.previous = null;
+        }
+
+        this.pathCache = createPathCache(previousTopology);
+
+        this.clusterResults = new Memo<>(this::searchForClusters);
         this.clusters = Suppliers.memoize(this::buildTopologyClusters);
 
         this.clusterIndexes = Suppliers.memoize(this::buildIndexes);
 
         this.hopCountWeigher = new HopCountLinkWeigher(graph.getVertexes().size());
-        this.broadcastSets = Suppliers.memoize(this::buildBroadcastSets);
+        this.broadcastSets = new Memo<>(this::buildBroadcastSets);
         this.infrastructurePoints = Suppliers.memoize(this::findInfrastructurePoints);
         this.computeCost = Math.max(0, System.nanoTime() - time);
     }
@@ -217,6 +327,34 @@ public class DefaultTopology extends AbstractModel implements Topology {
         return clusterIndexes.get().linksByCluster;
     }
 
+    /**
+     * Returns the changes relative to the topology from which this one was
+     * incrementally derived.
+     *
+     * @return topology delta; null if the topology was built from scratch
+     */
+    public TopologyDelta delta() {
+        return delta;
+    }
+
+    /**
+     * Returns the statistics of the shortest path cache.
+     *
+     * @return path cache statistics
+     */
+    public CacheStats pathCacheStats() {
+        return pathCache != null ? pathCache.stats() : NO_STATS;
+    }
+
+    /**
+     * Returns the number of shortest path sets currently cached.
+     *
+     * @return number of cached path sets
+     */
+    public long pathCacheSize() {
+        return pathCache != null ? pathCache.size() : 0;
+    }
+
     /**
      * Returns the backing topology graph.
      *
@@ -384,13 +522,27 @@ public class DefaultTopology extends AbstractModel implements Topology {
             return ImmutableSet.of();
         }
 
+        GraphPathSearch<TopologyVertex, TopologyEdge> search = graphPathSearch();
+        PathKey key = null;
+        if (pathCache != null && isCacheable(weigher)) {
+            key = new PathKey(src, dst, weigher, search, maxPaths);
+            Set<Path> paths = pathCache.getIfPresent(key);
+            if (paths != null) {
+                return paths;
+            }
+        }
+
         GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
-                graphPathSearch().search(graph, srcV, dstV, weigher, maxPaths);
+                search.search(graph, srcV, dstV, weigher, maxPaths);
         ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
         for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
             builder.add(networkPath(path));
         }
-        return builder.build();
+        Set<Path> paths = builder.build();
+        if (key != null) {
+            pathCache.put(key, paths);
+        }
+        return paths;
     }
 
     /**
@@ -432,7 +584,7 @@ public class DefaultTopology extends AbstractModel implements Topology {
             return ImmutableSet.of();
         }
 
-        return KSHORTEST.search(graph, srcV, dstV, weigher, maxPaths)
+        return kShortest.search(graph, srcV, dstV, weigher, maxPaths)
                 .paths().stream()
                     .map(this::networkPath)
                     .collect(ImmutableSet.toImmutableSet());
@@ -471,7 +623,7 @@ public class DefaultTopology extends AbstractModel implements Topology {
             return Stream.empty();
         }
 
-        return LAZY_KSHORTEST.lazyPathSearch(graph, srcV, dstV, weigher)
+        return lazyKShortest.lazyPathSearch(graph, srcV, dstV, weigher)
                     .map(this::networkPath);
     }
 
@@ -507,7 +659,7 @@ public class DefaultTopology extends AbstractModel implements Topology {
         }
 
         GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
-                SUURBALLE.search(graph, srcV, dstV, weigher, ALL_PATHS);
+                suurballe.search(graph, srcV, dstV, weigher, ALL_PATHS);
         ImmutableSet.Builder<DisjointPath> builder = ImmutableSet.builder();
         for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
             DisjointPath disjointPath =
@@ -627,22 +779,217 @@ public class DefaultTopology extends AbstractModel implements Topology {
                 (DefaultPath) networkPath(path.secondary()));
     }
 
+    // Only paths computed with the default link weighers are cached, among
+    // which the shared hop-count weigher path services fall back to. Other
+    // weighers are usually created per call and compare by identity, so
+    // their entries would never be looked up again.
+    private boolean isCacheable(LinkWeigher weigher) {
+        return weigher == hopCountWeigher || weigher == defaultLinkWeigher ||
+                weigher == DEFAULT_HOP_COUNT_WEIGHER;
+    }
+
+    // Creates the shortest path cache, carrying over entries from the previous
+    // topology if nothing was added to it. In that case the paths which do
+    // not traverse any removed element are still the shortest ones. Entries
+    // using the previous topology's own hop-count weigher, whose indirect
+    // link cost depends on the graph, or a default weigher since replaced,
+    // are unreachable.
+    private Cache<PathKey, Set<Path>> createPathCache(DefaultTopology previousTopology) {
+        int size = pathCacheSize;
+        if (size == 0) {
+            return null;
+        }
+
+        Cache<PathKey, Set<Path>> cache = CacheBuilder.newBuilder()
+                .maximumSize(size)
+                .recordStats()
+                .build();
+        if (previousTopology != null && previousTopology.pathCache != null && !delta.hasAdditions()) {
+            previousTopology.pathCache.asMap().forEach((key, paths) -> {
+                if ((key.weigher == defaultLinkWeigher || key.weigher == DEFAULT_HOP_COUNT_WEIGHER) &&
+                        paths.stream().noneMatch(delta::affects)) {
+                    cache.put(key, paths);
+                }
+            });
+        }
+        return cache;
+    }
+
     // Searches for SCC clusters in the network topology graph using Tarjan
     // algorithm.
-    private SccResult<TopologyVertex, TopologyEdge> searchForClusters() {
-        return TARJAN.search(graph, new NoIndirectLinksWeigher());
+    private ClusterResults searchForClusters() {
+        PreviousState prev = previous;
+        if (prev == null) {
+            ClusterResults results = new ClusterResults();
+            results.add(TARJAN.search(graph, NO_INDIRECT_LINKS));
+            return results;
+        }
+        return searchForClusters(prev.clusters);
+    }
+
+    // Derives SCC clusters from those of the previous topology. Removing a
+    // viable edge can only split its own cluster, which happens only if its
+    // source can no longer reach its destination. Adding a viable edge between
+    // clusters can only merge clusters lying on a cycle through that edge.
+    // Tarjan search is then run only over the vertexes of the affected clusters.
+    private ClusterResults searchForClusters(ClusterResults base) {
+        Map<TopologyVertex, Integer> baseIndex = base.index();
+        Set<Integer> dirty = new HashSet<>();
+        Set<Integer> touched = new HashSet<>();
+
+        for (TopologyVertex vertex : delta.removedVertexes()) {
+            Integer i = baseIndex.get(vertex);
+            dirty.add(i);
+            touched.add(i);
+        }
+
+        for (TopologyEdge edge : delta.removedEdges()) {
+            Integer si = baseIndex.get(edge.src());
+            Integer di = baseIndex.get(edge.dst());
+            touched.add(si);
+            touched.add(di);
+            if (si.equals(di) && isViable(edge) && !dirty.contains(si) &&
+                    !isReachable(edge.src(), edge.dst(), base.clusterVertexes.get(si))) {
+                dirty.add(si);
+            }
+        }
+
+        List<TopologyEdge> crossEdges = new ArrayList<>();
+        for (TopologyEdge edge : delta.addedEdges()) {
+            Integer si = baseIndex.get(edge.src());
+            Integer di = baseIndex.get(edge.dst());
+            if (si != null) {
+                touched.add(si);
+            }
+            if (di != null) {
+                touched.add(di);
+            }
+            if (isViable(edge) && (si == null || !si.equals(di))) {
+                crossEdges.add(edge);
+            }
+        }
+
+        if (!crossEdges.isEmpty()) {
+            Set<TopologyVertex> forward = reachableFrom(crossEdges, true);
+            for (TopologyVertex vertex : reachableFrom(crossEdges, false)) {
+                Integer i = baseIndex.get(vertex);
+                if (i != null && forward.contains(vertex)) {
+                    dirty.add(i);
+                }
+            }
+        }
+
+        // Carry over the unaffected clusters, preserving their order.
+        ClusterResults results = new ClusterResults();
+        Set<TopologyVertex> vertexes = new HashSet<>(delta.addedVertexes());
+        for (int i = 0, n = base.clusterCount(); i < n; i++) {
+            Set<TopologyVertex> clusterVertexes = base.clusterVertexes.get(i);
+            if (dirty.contains(i)) {
+                clusterVertexes.stream()
+                        .filter(graph.getVertexes()::contains)
+                        .forEach(vertexes::add);
+            } else if (touched.contains(i)) {
+                results.add(clusterVertexes, findClusterEdges(clusterVertexes, graph), NEW_CLUSTER);
+            } else {
+                results.add(clusterVertexes, base.clusterEdges.get(i), i);
+            }
+        }
+
+        // Search for the clusters among the vertexes of the affected ones.
+        if (!vertexes.isEmpty()) {
+            Set<TopologyEdge> edges = new HashSet<>();
+            for (TopologyVertex vertex : vertexes) {
+                for (TopologyEdge edge : graph.getEdgesFrom(vertex)) {
+                    if (vertexes.contains(edge.dst())) {
+                        edges.add(edge);
+                    }
+                }
+            }
+            results.add(TARJAN.search(new AdjacencyListsGraph<>(vertexes, edges), NO_INDIRECT_LINKS));
+        }
+
+        log.debug("Recomputed {} of {} clusters; {}", dirty.size(), base.clusterCount(), delta);
+        return results;
+    }
+
+    // Indicates whether the destination can be reached from the source over
+    // viable edges without leaving the given set of vertexes.
+    private boolean isReachable(TopologyVertex src, TopologyVertex dst,
+                                Set<TopologyVertex> vertexes) {
+        Set<TopologyVertex> seen = new HashSet<>();
+        Queue<TopologyVertex> queue = new ArrayDeque<>();
+        seen.add(src);
+        queue.add(src);
+        while (!queue.isEmpty()) {
+            for (TopologyEdge edge : graph.getEdgesFrom(queue.remove())) {
+                TopologyVertex next = edge.dst();
+                if (!isViable(edge)) {
+                    continue;
+                }
+                if (next.equals(dst)) {
+                    return true;
+                }
+                if (vertexes.contains(next) && seen.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return false;
+    }
+
+    // Returns the vertexes reachable over viable edges from the destinations of
+    // the given edges or, if not forward, those from which the edge sources
+    // can be reached.
+    private Set<TopologyVertex> reachableFrom(List<TopologyEdge> edges, boolean forward) {
+        Set<TopologyVertex> seen = new HashSet<>();
+        Queue<TopologyVertex> queue = new ArrayDeque<>();
+        for (TopologyEdge edge : edges) {
+            TopologyVertex vertex = forward ? edge.dst() : edge.src();
+            if (seen.add(vertex)) {
+                queue.add(vertex);
+            }
+        }
+        while (!queue.isEmpty()) {
+            TopologyVertex vertex = queue.remove();
+            Set<TopologyEdge> next = forward ? graph.getEdgesFrom(vertex) : graph.getEdgesTo(vertex);
+            for (TopologyEdge edge : next) {
+                TopologyVertex other = forward ? edge.dst() : edge.src();
+                if (isViable(edge) && seen.add(other)) {
+                    queue.add(other);
+                }
+            }
+        }
+        return seen;
+    }
+
+    private static boolean isViable(TopologyEdge edge) {
+        return NO_INDIRECT_LINKS.weight(edge).isViable();
+    }
+
+    // Finds all edges between the given vertexes.
+    private static Set<TopologyEdge> findClusterEdges(Set<TopologyVertex> vertexes,
+                                                      TopologyGraph graph) {
+        Set<TopologyEdge> edges = new HashSet<>();
+        for (TopologyVertex vertex : vertexes) {
+            for (TopologyEdge edge : graph.getEdgesFrom(vertex)) {
+                if (vertexes.contains(edge.dst())) {
+                    edges.add(edge);
+                }
+            }
+        }
+        return edges;
     }
 
     // Builds the topology clusters and returns the id-cluster bindings.
     private ImmutableMap<ClusterId, TopologyCluster> buildTopologyClusters() {
         ImmutableMap.Builder<ClusterId, TopologyCluster> clusterBuilder =
                 ImmutableMap.builder();
-        SccResult<TopologyVertex, TopologyEdge> results = clusterResults.get();
+        ClusterResults results = clusterResults.get();
 
         // Extract both vertexes and edges from the results; the lists form
         // pairs along the same index.
-        List<Set<TopologyVertex>> clusterVertexes = results.clusterVertexes();
-        List<Set<TopologyEdge>> clusterEdges = results.clusterEdges();
+        List<Set<TopologyVertex>> clusterVertexes = results.clusterVertexes;
+        List<Set<TopologyEdge>> clusterEdges = results.clusterEdges;
 
         // Scan over the lists and create a cluster from the results.
         for (int i = 0, n = results.clusterCount(); i < n; i++) {
@@ -672,12 +1019,26 @@ public class DefaultTopology extends AbstractModel implements Topology {
         return minVertex;
     }
 
-    // Processes a map of broadcast sets for each cluster.
+    // Processes a map of broadcast sets for each cluster. Broadcast sets of
+    // clusters carried over intact from the previous topology are reused.
     private ImmutableSetMultimap<ClusterId, ConnectPoint> buildBroadcastSets() {
+        ClusterResults results = clusterResults.get();
+        PreviousState prev = previous;
+        ImmutableSetMultimap<ClusterId, ConnectPoint> previousSets =
+                prev != null ? prev.broadcastSets : null;
+
         Builder<ClusterId, ConnectPoint> builder = ImmutableSetMultimap.builder();
         for (TopologyCluster cluster : clusters.get().values()) {
-            addClusterBroadcastSet(cluster, builder);
+            int previousIndex = results.previousIndexes.get(cluster.id().index());
+            if (previousSets != null && previousIndex != NEW_CLUSTER) {
+                builder.putAll(cluster.id(), previousSets.get(ClusterId.clusterId(previousIndex)));
+            } else {
+                addClusterBroadcastSet(cluster, builder);
+            }
         }
+
+        // The previous topology state is no longer needed.
+        previous = null;
         return builder.build();
     }
 
@@ -743,13 +1104,13 @@ public class DefaultTopology extends AbstractModel implements Topology {
             int i = cluster.id().index();
 
             // Scan through all the cluster vertexes.
-            for (TopologyVertex vertex : clusterResults.get().clusterVertexes().get(i)) {
+            for (TopologyVertex vertex : clusterResults.get().clusterVertexes.get(i)) {
                 devicesBuilder.put(cluster, vertex.deviceId());
                 clusterBuilder.put(vertex.deviceId(), cluster);
             }
 
             // Scan through all the cluster edges.
-            for (TopologyEdge edge : clusterResults.get().clusterEdges().get(i)) {
+            for (TopologyEdge edge : clusterResults.get().clusterEdges.get(i)) {
                 linksBuilder.put(cluster, edge.link());
             }
         }
@@ -780,6 +1141,120 @@ public class DefaultTopology extends AbstractModel implements Topology {
         }
     }
 
+    // Vertexes and edges of the SCC clusters, along with the index of the
+    // corresponding unchanged cluster in the previous topology, if any.
+    private static final class ClusterResults {
+        final List<Set<TopologyVertex>> clusterVertexes = new ArrayList<>();
+        final List<Set<TopologyEdge>> clusterEdges = new ArrayList<>();
+        final List<Integer> previousIndexes = new ArrayList<>();
+
+        int clusterCount() {
+            return clusterVertexes.size();
+        }
+
+        void add(Set<TopologyVertex> vertexes, Set<TopologyEdge> edges, int previousIndex) {
+            clusterVertexes.add(vertexes);
+            clusterEdges.add(edges);
+            previousIndexes.add(previousIndex);
+        }
+
+        void add(SccResult<TopologyVertex, TopologyEdge> result) {
+            for (int i = 0, n = result.clusterCount(); i < n; i++) {
+                add(result.clusterVertexes().get(i), result.clusterEdges().get(i), NEW_CLUSTER);
+            }
+        }
+
+        Map<TopologyVertex, Integer> index() {
+            Map<TopologyVertex, Integer> index = new HashMap<>();
+            for (int i = 0, n = clusterCount(); i < n; i++) {
+                for (TopologyVertex vertex : clusterVertexes.get(i)) {
+                    index.put(vertex, i);
+                }
+            }
+            return index;
+        }
+    }
+
+    // Key of the shortest path cache.
+    private static final class PathKey {
+        private final DeviceId src;
+        private final DeviceId dst;
+        private final LinkWeigher weigher;
+        private final GraphPathSearch<TopologyVertex, TopologyEdge> search;
+        private final int maxPaths;
+
+        PathKey(DeviceId src, DeviceId dst, LinkWeigher weigher,
+                GraphPathSearch<TopologyVertex, TopologyEdge> search, int maxPaths) {
+            this.src = src;
+            this.dst = dst;
+            this.weigher = weigher;
+            this.search = search;
+            this.maxPaths = maxPaths;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(src, dst, weigher, search, maxPaths);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof PathKey) {
+                PathKey that = (PathKey) obj;
+                return maxPaths == that.maxPaths &&
+                        Objects.equals(src, that.src) &&
+                        Objects.equals(dst, that.dst) &&
+                        Objects.equals(weigher, that.weigher) &&
+                        Objects.equals(search, that.search);
+            }
+            return false;
+        }
+    }
+
+    // Computed state of a previous topology used for incremental derivation.
+    private static final class PreviousState {
+        final ClusterResults clusters;
+        final ImmutableSetMultimap<ClusterId, ConnectPoint> broadcastSets;
+
+        PreviousState(ClusterResults clusters,
+                      ImmutableSetMultimap<ClusterId, ConnectPoint> broadcastSets) {
+            this.clusters = clusters;
+            this.broadcastSets = broadcastSets;
+        }
+    }
+
+    // Memoizing supplier which allows peeking at the value without computing it.
+    private static final class Memo<T> implements Supplier<T> {
+        private final Supplier<T> delegate;
+        private volatile T value;
+
+        Memo(Supplier<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = delegate.get();
+                        value = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        T peek() {
+            return value;
+        }
+    }
+
     static final class ClusterIndexes {
         final ImmutableMap<DeviceId, TopologyCluster> clustersByDevice;
         final ImmutableSetMultimap<TopologyCluster, DeviceId> devicesByCluster;
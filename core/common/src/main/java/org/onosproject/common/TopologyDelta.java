@@ -0,0 +1,209 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.common;
+
+import com.google.common.collect.ImmutableSet;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+import org.onosproject.net.topology.TopologyEdge;
+import org.onosproject.net.topology.TopologyGraph;
+import org.onosproject.net.topology.TopologyVertex;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Set of changes between two successive topology graphs.
+ * <p>
+ * Edges whose link state or annotations changed are reported as both removed
+ * and added.
+ */
+public final class TopologyDelta {
+
+    private final long baseTime;
+    private final Set<TopologyVertex> addedVertexes;
+    private final Set<TopologyVertex> removedVertexes;
+    private final Set<TopologyEdge> addedEdges;
+    private final Set<TopologyEdge> removedEdges;
+    private final Set<DeviceId> removedDevices;
+    private final Set<Link> removedLinks;
+
+    private TopologyDelta(long baseTime,
+                          Set<TopologyVertex> addedVertexes,
+                          Set<TopologyVertex> removedVertexes,
+                          Set<TopologyEdge> addedEdges,
+                          Set<TopologyEdge> removedEdges) {
+        this.baseTime = baseTime;
+        this.addedVertexes = addedVertexes;
+        this.removedVertexes = removedVertexes;
+        this.addedEdges = addedEdges;
+        this.removedEdges = removedEdges;
+
+        ImmutableSet.Builder<DeviceId> devices = ImmutableSet.builder();
+        removedVertexes.forEach(v -> devices.add(v.deviceId()));
+        this.removedDevices = devices.build();
+
+        ImmutableSet.Builder<Link> links = ImmutableSet.builder();
+        removedEdges.forEach(e -> links.add(e.link()));
+        this.removedLinks = links.build();
+    }
+
+    /**
+     * Computes the changes required to turn the base graph into the new one.
+     *
+     * @param baseTime  time of the topology owning the base graph
+     * @param baseGraph base topology graph
+     * @param newGraph  new topology graph
+     * @return topology delta
+     */
+    static TopologyDelta compute(long baseTime, TopologyGraph baseGraph, TopologyGraph newGraph) {
+        ImmutableSet.Builder<TopologyVertex> addedVertexes = ImmutableSet.builder();
+        ImmutableSet.Builder<TopologyVertex> removedVertexes = ImmutableSet.builder();
+        ImmutableSet.Builder<TopologyEdge> addedEdges = ImmutableSet.builder();
+        ImmutableSet.Builder<TopologyEdge> removedEdges = ImmutableSet.builder();
+
+        Set<TopologyVertex> baseVertexes = baseGraph.getVertexes();
+        Set<TopologyVertex> newVertexes = newGraph.getVertexes();
+        newVertexes.stream().filter(v -> !baseVertexes.contains(v)).forEach(addedVertexes::add);
+        baseVertexes.stream().filter(v -> !newVertexes.contains(v)).forEach(removedVertexes::add);
+
+        Map<TopologyEdge, TopologyEdge> baseEdges = new HashMap<>();
+        baseGraph.getEdges().forEach(e -> baseEdges.put(e, e));
+        for (TopologyEdge edge : newGraph.getEdges()) {
+            TopologyEdge baseEdge = baseEdges.remove(edge);
+            if (baseEdge == null) {
+                addedEdges.add(edge);
+            } else if (isModified(baseEdge.link(), edge.link())) {
+                removedEdges.add(baseEdge);
+                addedEdges.add(edge);
+            }
+        }
+        // Whatever remains was not found in the new graph.
+        removedEdges.addAll(baseEdges.values());
+
+        return new TopologyDelta(baseTime, addedVertexes.build(), removedVertexes.build(),
+                                 addedEdges.build(), removedEdges.build());
+    }
+
+    // Links are considered equal regardless of their state and annotations,
+    // both of which may affect path computation.
+    private static boolean isModified(Link baseLink, Link newLink) {
+        return baseLink.state() != newLink.state() ||
+                !Objects.equals(baseLink.annotations(), newLink.annotations());
+    }
+
+    /**
+     * Returns the time of the topology against which the delta was computed.
+     *
+     * @return base topology time
+     */
+    public long baseTime() {
+        return baseTime;
+    }
+
+    /**
+     * Returns the vertexes added since the base topology.
+     *
+     * @return added vertexes
+     */
+    public Set<TopologyVertex> addedVertexes() {
+        return addedVertexes;
+    }
+
+    /**
+     * Returns the vertexes removed since the base topology.
+     *
+     * @return removed vertexes
+     */
+    public Set<TopologyVertex> removedVertexes() {
+        return removedVertexes;
+    }
+
+    /**
+     * Returns the edges added or modified since the base topology.
+     *
+     * @return added edges
+     */
+    public Set<TopologyEdge> addedEdges() {
+        return addedEdges;
+    }
+
+    /**
+     * Returns the edges removed or modified since the base topology.
+     *
+     * @return removed edges
+     */
+    public Set<TopologyEdge> removedEdges() {
+        return removedEdges;
+    }
+
+    /**
+     * Indicates whether the topologies are identical.
+     *
+     * @return true if nothing changed
+     */
+    public boolean isEmpty() {
+        return addedVertexes.isEmpty() && removedVertexes.isEmpty() &&
+                addedEdges.isEmpty() && removedEdges.isEmpty();
+    }
+
+    /**
+     * Indicates whether any vertexes or edges were added or modified. Such
+     * changes may yield shorter paths between any pair of devices.
+     *
+     * @return true if there are additions
+     */
+    public boolean hasAdditions() {
+        return !addedVertexes.isEmpty() || !addedEdges.isEmpty();
+    }
+
+    /**
+     * Indicates whether the given path traverses any removed or modified
+     * device or link.
+     *
+     * @param path path computed against the base topology
+     * @return true if the path is affected by the removals
+     */
+    public boolean affects(Path path) {
+        if (removedLinks.isEmpty() && removedDevices.isEmpty()) {
+            return false;
+        }
+        for (Link link : path.links()) {
+            if (removedLinks.contains(link) ||
+                    removedDevices.contains(link.src().deviceId()) ||
+                    removedDevices.contains(link.dst().deviceId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("baseTime", baseTime)
+                .add("addedVertexes", addedVertexes.size())
+                .add("removedVertexes", removedVertexes.size())
+                .add("addedEdges", addedEdges.size())
+                .add("removedEdges", removedEdges.size())
+                .toString();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.codec.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.codec.JsonCodec;
+import org.onosproject.core.CoreService;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
+
+import java.io.StringWriter;
+
+import static org.easymock.EasyMock.anyShort;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.onosproject.net.NetTestTools.APP_ID;
+
+/**
+ * Flow entry codec unit tests.
+ */
+public class FlowEntryCodecTest {
+
+    MockCodecContext context;
+    JsonCodec<FlowEntry> flowEntryCodec;
+    final CoreService mockCoreService = createMock(CoreService.class);
+
+    /**
+     * Sets up for each test.  Creates a context and fetches the flow entry
+     * codec.
+     */
+    @Before
+    public void setUp() {
+        context = new MockCodecContext();
+        flowEntryCodec = context.codec(FlowEntry.class);
+        expect(mockCoreService.getAppId(anyShort())).andReturn(APP_ID).anyTimes();
+        replay(mockCoreService);
+        context.registerService(CoreService.class, mockCoreService);
+    }
+
+    /**
+     * Checks that a flow entry written to a JSON generator matches its
+     * encoded JSON node.
+     */
+    @Test
+    public void streamedFlowEntryTest() throws Exception {
+        FlowEntry flowEntry = new DefaultFlowEntry(DefaultFlowRule.builder()
+                .forDevice(DeviceId.deviceId("of:1"))
+                .withSelector(DefaultTrafficSelector.builder()
+                        .matchInPort(PortNumber.portNumber(1))
+                        .build())
+                .withTreatment(DefaultTrafficTreatment.builder()
+                        .setOutput(PortNumber.portNumber(2))
+                        .build())
+                .withPriority(10)
+                .fromApp(APP_ID)
+                .makeTemporary(30)
+                .build(), FlowEntry.FlowEntryState.ADDED, 5, 100, 2000);
+
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = context.mapper().getFactory().createGenerator(writer)) {
+            flowEntryCodec.encode(flowEntry, context, generator);
+        }
+
+        ObjectNode encoded = flowEntryCodec.encode(flowEntry, context);
+        assertThat(writer.toString(), is(context.mapper().writeValueAsString(encoded)));
+        assertThat(encoded.get("selector").get("criteria").size(), is(1));
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.onosproject.common;
 
+import com.google.common.collect.ImmutableSet;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.graph.DefaultEdgeWeigher;
@@ -26,6 +28,7 @@ import org.onosproject.net.DefaultDevice;
 import org.onosproject.net.DefaultLink;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
+import org.onosproject.net.DisjointPath;
 import org.onosproject.net.Link;
 import org.onosproject.net.Path;
 import org.onosproject.net.PortNumber;
@@ -39,7 +42,10 @@ import org.onosproject.net.topology.TopologyCluster;
 import org.onosproject.net.topology.TopologyEdge;
 import org.onosproject.net.topology.TopologyVertex;
 
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+
 import static com.google.common.collect.ImmutableSet.of;
 import static org.junit.Assert.*;
 import static org.onosproject.net.DeviceId.deviceId;
@@ -79,20 +85,23 @@ public class DefaultTopologyTest {
 
 
     private DefaultTopology dt;
+    private Set<Device> devices;
+    private Set<Link> links;
 
     public static final ClusterId C0 = ClusterId.clusterId(0);
     public static final ClusterId C1 = ClusterId.clusterId(1);
 
     @Before
     public void setUp() {
+        DefaultTopology.setPathCacheSize(10);
         long now = System.currentTimeMillis();
-        Set<Device> devices = of(device("1"), device("2"),
-                                 device("3"), device("4"),
-                                 device("5"));
-        Set<Link> links = of(link("1", 1, "2", 1), link("2", 1, "1", 1),
-                             link("3", 2, "2", 2), link("2", 2, "3", 2),
-                             link("1", 3, "4", 3), link("4", 3, "1", 3),
-                             link("3", 4, "4", 4), link("4", 4, "3", 4));
+        devices = of(device("1"), device("2"),
+                     device("3"), device("4"),
+                     device("5"));
+        links = of(link("1", 1, "2", 1), link("2", 1, "1", 1),
+                   link("3", 2, "2", 2), link("2", 2, "3", 2),
+                   link("1", 3, "4", 3), link("4", 3, "1", 3),
+                   link("3", 4, "4", 4), link("4", 4, "3", 4));
         GraphDescription graphDescription =
                 new DefaultGraphDescription(now, System.currentTimeMillis(), devices, links);
 
@@ -107,6 +116,11 @@ public class DefaultTopologyTest {
         assertEquals("incorrect root node", V5, dt.getCluster(C1).root());
     }
 
+    @After
+    public void tearDown() {
+        DefaultTopology.setPathCacheSize(0);
+    }
+
     @Test
     public void pathRelated() {
         Set<Path> paths = dt.getPaths(D1, D2);
@@ -148,6 +162,167 @@ public class DefaultTopologyTest {
         assertFalse("cluster should not contain D5", devs.contains(D5));
     }
 
+    @Test
+    public void incrementalNoChange() {
+        DefaultTopology next = derive(devices, links);
+        assertTrue("delta should be empty", next.delta().isEmpty());
+        assertSameClusters(next, build(devices, links));
+    }
+
+    @Test
+    public void incrementalLinkRemovalWithoutSplit() {
+        Set<Link> newLinks = without(links, link("1", 1, "2", 1));
+        DefaultTopology next = derive(devices, newLinks);
+        assertEquals("incorrect removed edges", 1, next.delta().removedEdges().size());
+        assertFalse("should have no additions", next.delta().hasAdditions());
+        assertSameClusters(next, build(devices, newLinks));
+    }
+
+    @Test
+    public void incrementalLinkRemovalWithSplit() {
+        Set<Link> newLinks = without(links, link("2", 1, "1", 1), link("4", 3, "1", 3));
+        DefaultTopology next = derive(devices, newLinks);
+        assertEquals("incorrect cluster count", 3, next.clusterCount());
+        assertSameClusters(next, build(devices, newLinks));
+    }
+
+    @Test
+    public void incrementalLinkAdditionWithMerge() {
+        Set<Link> newLinks = with(links, link("4", 5, "5", 5), link("5", 5, "4", 5));
+        DefaultTopology next = derive(devices, newLinks);
+        assertEquals("incorrect cluster count", 1, next.clusterCount());
+        assertTrue("should have additions", next.delta().hasAdditions());
+        assertSameClusters(next, build(devices, newLinks));
+    }
+
+    @Test
+    public void incrementalDeviceChanges() {
+        Set<Device> newDevices = with(without(devices, device("4")), device("6"));
+        Set<Link> newLinks = with(without(links, link("1", 3, "4", 3), link("4", 3, "1", 3),
+                                          link("3", 4, "4", 4), link("4", 4, "3", 4)),
+                                  link("5", 1, "6", 1), link("6", 1, "5", 1));
+        DefaultTopology next = derive(newDevices, newLinks);
+        assertEquals("incorrect cluster count", 2, next.clusterCount());
+        assertSameClusters(next, build(newDevices, newLinks));
+    }
+
+    @Test
+    public void deltaAffectsPaths() {
+        Path path = dt.getPaths(D1, D2).iterator().next();
+        DefaultTopology next = derive(devices, without(links, link("3", 2, "2", 2)));
+        assertFalse("path should not be affected", next.delta().affects(path));
+
+        next = derive(devices, without(links, link("1", 1, "2", 1)));
+        assertTrue("path should be affected", next.delta().affects(path));
+    }
+
+    @Test
+    public void pathCache() {
+        DefaultTopology.setDefaultLinkWeigher(WEIGHER);
+        try {
+            assertPathCache();
+        } finally {
+            DefaultTopology.setDefaultLinkWeigher(null);
+        }
+    }
+
+    private void assertPathCache() {
+        Set<Path> paths = dt.getPaths(D1, D3, WEIGHER);
+        assertEquals("incorrect miss count", 1, dt.pathCacheStats().missCount());
+        assertSame("paths should be cached", paths, dt.getPaths(D1, D3, WEIGHER));
+        assertEquals("incorrect hit count", 1, dt.pathCacheStats().hitCount());
+        assertEquals("incorrect cache size", 1, dt.pathCacheSize());
+
+        // Paths over links which remain in place are carried over...
+        Set<Path> unaffected = dt.getPaths(D1, D2, WEIGHER);
+        DefaultTopology next = derive(devices, without(links, link("4", 3, "1", 3)));
+        assertEquals("incorrect cache size", 2, next.pathCacheSize());
+        assertSame("paths should be carried over", unaffected, next.getPaths(D1, D2, WEIGHER));
+
+        // ...but not when links are added, as shorter paths may appear.
+        next = derive(devices, with(links, link("1", 5, "3", 5)));
+        assertEquals("cache should be empty", 0, next.pathCacheSize());
+        assertEquals("incorrect path count", 1, next.getPaths(D1, D3, WEIGHER).size());
+    }
+
+    @Test
+    public void pathCacheSkipsOtherWeighers() {
+        dt.getPaths(D1, D3, new TestLinkWeigher());
+        dt.getPaths(D1, D3, new TestLinkWeigher());
+        assertEquals("paths of other weighers should not be cached", 0, dt.pathCacheSize());
+
+        dt.getPaths(D1, D3);
+        dt.getPaths(D1, D3);
+        assertEquals("incorrect hit count", 1, dt.pathCacheStats().hitCount());
+        assertEquals("incorrect cache size", 1, dt.pathCacheSize());
+    }
+
+    @Test
+    public void pathCacheDisabled() {
+        DefaultTopology.setPathCacheSize(0);
+        DefaultTopology topology = build(devices, links);
+        topology.getPaths(D1, D3);
+        topology.getPaths(D1, D3);
+        assertEquals("nothing should be cached", 0, topology.pathCacheSize());
+        assertEquals("no requests should be recorded", 0, topology.pathCacheStats().requestCount());
+    }
+
+    @Test
+    public void parallelPathSearch() {
+        Set<Path> paths = dt.getKShortestPaths(D1, D3, 42);
+        List<Path> lazyPaths = dt.getKShortestPaths(D1, D3).collect(Collectors.toList());
+        Set<DisjointPath> disjointPaths = dt.getDisjointPaths(D1, D3);
+
+        DefaultTopology.setPathSearchParallelism(4);
+        try {
+            assertEquals("incorrect paths", paths, dt.getKShortestPaths(D1, D3, 42));
+            assertEquals("incorrect paths", lazyPaths,
+                         dt.getKShortestPaths(D1, D3).collect(Collectors.toList()));
+            assertEquals("incorrect disjoint paths", disjointPaths, dt.getDisjointPaths(D1, D3));
+        } finally {
+            DefaultTopology.setPathSearchParallelism(1);
+        }
+    }
+
+    private DefaultTopology build(Set<Device> devices, Set<Link> links) {
+        long now = System.nanoTime();
+        return new DefaultTopology(PID, new DefaultGraphDescription(now, System.currentTimeMillis(),
+                                                                    devices, links));
+    }
+
+    private DefaultTopology derive(Set<Device> devices, Set<Link> links) {
+        long now = System.nanoTime();
+        return new DefaultTopology(PID, new DefaultGraphDescription(now, System.currentTimeMillis(),
+                                                                    devices, links),
+                                   null, dt);
+    }
+
+    // Asserts that both topologies have the same clusters and broadcast sets.
+    private static void assertSameClusters(DefaultTopology actual, DefaultTopology expected) {
+        assertEquals("incorrect cluster count", expected.clusterCount(), actual.clusterCount());
+        for (TopologyCluster cluster : expected.getClusters()) {
+            TopologyCluster other = actual.getCluster(cluster.root().deviceId());
+            assertEquals("incorrect root", cluster.root(), other.root());
+            assertEquals("incorrect devices", expected.getClusterDevices(cluster),
+                         actual.getClusterDevices(other));
+            assertEquals("incorrect links", expected.getClusterLinks(cluster),
+                         actual.getClusterLinks(other));
+            assertEquals("incorrect broadcast set", expected.broadcastPoints(cluster.id()),
+                         actual.broadcastPoints(other.id()));
+        }
+    }
+
+    @SafeVarargs
+    private static <T> Set<T> with(Set<T> items, T... added) {
+        return ImmutableSet.<T>builder().addAll(items).add(added).build();
+    }
+
+    @SafeVarargs
+    private static <T> Set<T> without(Set<T> items, T... removed) {
+        Set<T> toRemove = ImmutableSet.copyOf(removed);
+        return items.stream().filter(i -> !toRemove.contains(i)).collect(Collectors.toSet());
+    }
+
     // Short-hand for creating a link.
     public static Link link(String src, int sp, String dst, int dp) {
         return DefaultLink.builder().providerId(PID)
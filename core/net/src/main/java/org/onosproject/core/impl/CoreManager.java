@@ -45,6 +45,8 @@ import java.util.Set;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.onosproject.net.OsgiPropertyConstants.CALCULATE_PERFORMANCE_CHECK;
 import static org.onosproject.net.OsgiPropertyConstants.CALCULATE_PERFORMANCE_CHECK_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.EVENT_DISPATCH_THREADS;
+import static org.onosproject.net.OsgiPropertyConstants.EVENT_DISPATCH_THREADS_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.MAX_EVENT_TIME_LIMIT;
 import static org.onosproject.net.OsgiPropertyConstants.MAX_EVENT_TIME_LIMIT_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.SHARED_THREAD_POOL_SIZE;
@@ -62,6 +64,7 @@ import static org.onosproject.security.AppPermission.Type.APP_WRITE;
         property = {
                 SHARED_THREAD_POOL_SIZE + ":Integer=" + SHARED_THREAD_POOL_SIZE_DEFAULT,
                 MAX_EVENT_TIME_LIMIT + ":Integer=" + MAX_EVENT_TIME_LIMIT_DEFAULT,
+                EVENT_DISPATCH_THREADS + ":Integer=" + EVENT_DISPATCH_THREADS_DEFAULT,
                 CALCULATE_PERFORMANCE_CHECK + ":Boolean=" + CALCULATE_PERFORMANCE_CHECK_DEFAULT
         }
 )
@@ -96,6 +99,9 @@ public class CoreManager implements CoreService {
     /** Maximum number of millis an event sink has to process an event. */
     private int maxEventTimeLimit = MAX_EVENT_TIME_LIMIT_DEFAULT;
 
+    /** Number of threads used by each event dispatch loop. */
+    private int eventDispatchThreads = EVENT_DISPATCH_THREADS_DEFAULT;
+
     /** Enable queue performance check on shared pool. */
     private boolean sharedThreadPerformanceCheck = CALCULATE_PERFORMANCE_CHECK_DEFAULT;
 
@@ -182,13 +188,22 @@ public class CoreManager implements CoreService {
             log.warn("maxEventTimeLimit must be greater than or equal to 0");
         }
 
+        Integer dispatchThreads = Tools.getIntegerProperty(properties, EVENT_DISPATCH_THREADS);
+        if (dispatchThreads != null && dispatchThreads > 0) {
+            eventDispatchThreads = dispatchThreads;
+            eventDeliveryService.setDispatchThreads(eventDispatchThreads);
+        } else if (dispatchThreads != null) {
+            log.warn("eventDispatchThreads must be greater than 0");
+        }
+
         Boolean performanceCheck = Tools.isPropertyEnabled(properties, CALCULATE_PERFORMANCE_CHECK);
         if (performanceCheck != null) {
             sharedThreadPerformanceCheck = performanceCheck;
             SharedExecutors.setMetricsService(sharedThreadPerformanceCheck ? metricsService : null);
         }
 
-        log.info("Settings: sharedThreadPoolSize={}, maxEventTimeLimit={}, sharedThreadPerformanceCheck={}",
-                 sharedThreadPoolSize, maxEventTimeLimit, sharedThreadPerformanceCheck);
+        log.info("Settings: sharedThreadPoolSize={}, maxEventTimeLimit={}, eventDispatchThreads={}, " +
+                         "sharedThreadPerformanceCheck={}",
+                 sharedThreadPoolSize, maxEventTimeLimit, eventDispatchThreads, sharedThreadPerformanceCheck);
     }
 }
@@ -15,34 +15,52 @@
  */
 package org.onosproject.event.impl;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.SharedExecutors;
 import org.onosproject.event.AbstractEvent;
 import org.onosproject.event.DefaultEventSinkRegistry;
 import org.onosproject.event.Event;
 import org.onosproject.event.EventDeliveryService;
 import org.onosproject.event.EventSink;
+import org.onosproject.net.Element;
+import org.onosproject.net.Link;
 import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.FlowRuleEvent;
 import org.onosproject.net.host.HostEvent;
+import org.onosproject.net.intent.Intent;
 import org.onosproject.net.intent.IntentEvent;
 import org.onosproject.net.link.LinkEvent;
 import org.onosproject.net.topology.TopologyEvent;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TimerTask;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
@@ -53,6 +71,12 @@ import static org.onosproject.security.AppPermission.Type.EVENT_WRITE;
 import static org.slf4j.LoggerFactory.getLogger;
 /**
  * Simple implementation of an event dispatching service.
+ * <p>
+ * Events are dispatched by a small number of dispatch groups, each of which
+ * may be sharded across several dispatch loops. Events are assigned to a
+ * shard based on their subject, which preserves the ordering of events for
+ * the same subject while allowing events for unrelated subjects to be
+ * processed in parallel.
  */
 @Component(immediate = true, service = EventDeliveryService.class)
 public class CoreEventDispatcher extends DefaultEventSinkRegistry
@@ -60,13 +84,15 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
 
     private final Logger log = getLogger(getClass());
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
 
-    private DispatchLoop topologyDispatcher = new DispatchLoop("topology");
-    private DispatchLoop programmingDispatcher = new DispatchLoop("programming");
-    private DispatchLoop defaultDispatcher = new DispatchLoop("default");
+    private DispatchGroup topologyDispatcher = new DispatchGroup("topology");
+    private DispatchGroup programmingDispatcher = new DispatchGroup("programming");
+    private DispatchGroup defaultDispatcher = new DispatchGroup("default");
 
-    private Map<Class, DispatchLoop> dispatcherMap =
-            new ImmutableMap.Builder<Class, DispatchLoop>()
+    private Map<Class, DispatchGroup> dispatcherMap =
+            new ImmutableMap.Builder<Class, DispatchGroup>()
                 .put(TopologyEvent.class, topologyDispatcher)
                 .put(DeviceEvent.class, topologyDispatcher)
                 .put(LinkEvent.class, topologyDispatcher)
@@ -75,8 +101,8 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
                 .put(IntentEvent.class, programmingDispatcher)
                 .build();
 
-    private Set<DispatchLoop> dispatchers =
-            new ImmutableSet.Builder<DispatchLoop>()
+    private Set<DispatchGroup> dispatchers =
+            new ImmutableSet.Builder<DispatchGroup>()
                 .addAll(dispatcherMap.values())
                 .add(defaultDispatcher)
                 .build();
@@ -85,14 +111,26 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
     private static final long DEFAULT_EXECUTE_MS = 5_000; // ms
     private static final long WATCHDOG_MS = 250; // ms
 
+    // Default number of dispatch loops per dispatch group.
+    private static final int DEFAULT_DISPATCH_THREADS = 1;
+
+    private static final String METRICS_COMPONENT = "EventDispatcher";
+    private static final String QUEUE_DEPTH = "queueDepth";
+    private static final String PENDING_EVENTS = "pendingEvents";
+    private static final String SINK_LATENCY = "sinkLatency";
+
     @SuppressWarnings("unchecked")
     private static final Event KILL_PILL = new AbstractEvent(null, 0) {
     };
 
     private long maxProcessMillis = DEFAULT_EXECUTE_MS;
+    private int dispatchThreads = DEFAULT_DISPATCH_THREADS;
 
-    private DispatchLoop getDispatcher(Event event) {
-        DispatchLoop dispatcher = dispatcherMap.get(event.getClass());
+    private MetricsComponent metricsComponent;
+    private final Map<Class, SinkMetrics> sinkMetrics = Maps.newConcurrentMap();
+
+    private DispatchGroup getDispatcher(Event event) {
+        DispatchGroup dispatcher = dispatcherMap.get(event.getClass());
         if (dispatcher == null) {
             dispatcher = defaultDispatcher;
         }
@@ -101,17 +139,26 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
 
     @Override
     public void post(Event event) {
-
+        SinkMetrics metrics = getSinkMetrics(event.getClass());
+        if (metrics != null) {
+            metrics.pending.incrementAndGet();
+        }
         if (!getDispatcher(event).add(event)) {
             log.error("Unable to post event {}", event);
+            if (metrics != null) {
+                metrics.pending.decrementAndGet();
+            }
         }
     }
 
     @Activate
     public void activate() {
+        if (metricsService != null) {
+            metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        }
 
         if (maxProcessMillis != 0) {
-            dispatchers.forEach(DispatchLoop::start);
+            dispatchers.forEach(DispatchGroup::start);
         }
 
         log.info("Started");
@@ -119,7 +166,9 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
 
     @Deactivate
     public void deactivate() {
-        dispatchers.forEach(DispatchLoop::stop);
+        dispatchers.forEach(DispatchGroup::stop);
+        dispatchers.forEach(DispatchGroup::removeMetrics);
+        sinkMetrics.keySet().forEach(this::removeSinkMetrics);
 
         log.info("Stopped");
     }
@@ -133,9 +182,9 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         maxProcessMillis = millis;
 
         if (millis == 0 && oldMillis != 0) {
-            dispatchers.forEach(DispatchLoop::stopWatchdog);
+            dispatchers.forEach(DispatchGroup::stopWatchdog);
         } else if (millis != 0 && oldMillis == 0) {
-            dispatchers.forEach(DispatchLoop::startWatchdog);
+            dispatchers.forEach(DispatchGroup::startWatchdog);
         }
     }
 
@@ -145,10 +194,213 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         return maxProcessMillis;
     }
 
+    @Override
+    public void setDispatchThreads(int threads) {
+        checkPermission(EVENT_WRITE);
+        checkArgument(threads > 0, "Number of dispatch threads must be positive");
+        if (threads != dispatchThreads) {
+            dispatchThreads = threads;
+            dispatchers.forEach(dispatcher -> dispatcher.resize(threads));
+        }
+    }
+
+    @Override
+    public int getDispatchThreads() {
+        checkPermission(EVENT_READ);
+        return dispatchThreads;
+    }
+
+    @Override
+    public <E extends Event> void removeSink(Class<E> eventClass) {
+        super.removeSink(eventClass);
+        removeSinkMetrics(eventClass);
+    }
+
+    /**
+     * Returns the key used to assign the given event to a dispatch loop.
+     * Events with equal keys are always dispatched by the same loop, in the
+     * order in which they were posted.
+     *
+     * @param event event to be dispatched
+     * @return dispatch key
+     */
+    private static Object dispatchKey(Event event) {
+        Object subject = event.subject();
+        if (subject instanceof Element) {
+            return ((Element) subject).id();
+        } else if (subject instanceof Link) {
+            // Keep link events in order with the events of their source device
+            return ((Link) subject).src().elementId();
+        } else if (subject instanceof FlowRule) {
+            return ((FlowRule) subject).deviceId();
+        } else if (subject instanceof Intent) {
+            return ((Intent) subject).key();
+        }
+        // Subjects without a stable identity are kept in order per event class
+        return event.getClass();
+    }
+
+    // Returns the metrics of the sink for the given event class, if any
+    private SinkMetrics getSinkMetrics(Class eventClass) {
+        if (metricsComponent == null) {
+            return null;
+        }
+        SinkMetrics metrics = sinkMetrics.get(eventClass);
+        return metrics != null ? metrics : sinkMetrics.computeIfAbsent(eventClass, SinkMetrics::new);
+    }
+
+    private void removeSinkMetrics(Class eventClass) {
+        SinkMetrics metrics = sinkMetrics.remove(eventClass);
+        if (metrics != null) {
+            metrics.remove();
+        }
+    }
+
+    // Per event sink metrics; tracks the number of pending events and the
+    // time taken by the sink to process each event.
+    private class SinkMetrics {
+        private final MetricsFeature feature;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Timer latency;
+
+        SinkMetrics(Class eventClass) {
+            feature = metricsComponent.registerFeature(eventClass.getName());
+            latency = metricsService.createTimer(metricsComponent, feature, SINK_LATENCY);
+            metricsService.registerMetric(metricsComponent, feature, PENDING_EVENTS,
+                                          (Gauge<Integer>) pending::get);
+        }
+
+        void remove() {
+            metricsService.removeMetric(metricsComponent, feature, SINK_LATENCY);
+            metricsService.removeMetric(metricsComponent, feature, PENDING_EVENTS);
+        }
+    }
+
+    // Group of dispatch loops sharing a class of events; events are assigned
+    // to the loops based on their dispatch key.
+    private class DispatchGroup {
+        private final String name;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile DispatchLoop[] loops;
+        private volatile boolean started;
+        private CompletableFuture<Void> resizeFuture = CompletableFuture.completedFuture(null);
+
+        DispatchGroup(String name) {
+            this.name = name;
+            this.loops = createLoops(DEFAULT_DISPATCH_THREADS);
+        }
+
+        private DispatchLoop[] createLoops(int threads) {
+            DispatchLoop[] newLoops = new DispatchLoop[threads];
+            for (int i = 0; i < threads; i++) {
+                newLoops[i] = new DispatchLoop(threads == 1 ? name : name + "-" + i);
+            }
+            return newLoops;
+        }
+
+        boolean add(Event event) {
+            lock.readLock().lock();
+            try {
+                DispatchLoop[] loops = this.loops;
+                return loops[loopIndex(event, loops)].add(event);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private int loopIndex(Event event, DispatchLoop[] loops) {
+            return loops.length == 1 ? 0
+                    : Math.floorMod(dispatchKey(event).hashCode(), loops.length);
+        }
+
+        void start() {
+            started = true;
+            for (DispatchLoop loop : loops) {
+                loop.start();
+            }
+        }
+
+        void stop() {
+            started = false;
+            for (DispatchLoop loop : loops) {
+                loop.stop();
+            }
+        }
+
+        void startWatchdog() {
+            for (DispatchLoop loop : loops) {
+                loop.startWatchdog();
+            }
+        }
+
+        void stopWatchdog() {
+            for (DispatchLoop loop : loops) {
+                loop.stopWatchdog();
+            }
+        }
+
+        void removeMetrics() {
+            for (DispatchLoop loop : loops) {
+                loop.removeMetrics();
+            }
+        }
+
+        // Replaces the dispatch loops with the given number of new loops.
+        // Resize operations are applied one at a time, in order.
+        synchronized void resize(int threads) {
+            resizeFuture = resizeFuture.thenCompose(v -> replaceLoops(threads));
+        }
+
+        // New loops are started only once all events already queued on the
+        // old loops have been dispatched, to preserve per-subject ordering.
+        private CompletableFuture<Void> replaceLoops(int threads) {
+            DispatchLoop[] oldLoops;
+            DispatchLoop[] newLoops = createLoops(threads);
+            lock.writeLock().lock();
+            try {
+                oldLoops = loops;
+                loops = newLoops;
+                if (!started) {
+                    // Nothing is being dispatched yet; simply re-queue pending events
+                    for (DispatchLoop loop : oldLoops) {
+                        for (Event event : loop.pendingEvents()) {
+                            newLoops[loopIndex(event, newLoops)].add(event);
+                        }
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            log.info("Resizing dispatcher {} from {} to {} threads", name, oldLoops.length, threads);
+            if (!started) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            AtomicInteger remaining = new AtomicInteger(oldLoops.length);
+            for (DispatchLoop loop : oldLoops) {
+                loop.drain(() -> {
+                    if (remaining.decrementAndGet() == 0) {
+                        if (started) {
+                            for (DispatchLoop newLoop : newLoops) {
+                                newLoop.start();
+                            }
+                        }
+                        future.complete(null);
+                    }
+                });
+            }
+            return future;
+        }
+    }
+
     // Auxiliary event dispatching loop that feeds off the events queue.
     private class DispatchLoop implements Runnable {
         private final String name;
         private volatile boolean stopped;
+        private volatile boolean draining;
+        private volatile Runnable onDrained;
         private volatile EventSink lastSink;
         // Means to detect long-running sinks
         private final Stopwatch stopwatch = Stopwatch.createUnstarted();
@@ -156,6 +408,7 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         private volatile Future<?> dispatchFuture;
         private final BlockingQueue<Event> eventsQueue;
         private final ExecutorService executor;
+        private MetricsFeature metricsFeature;
 
         DispatchLoop(String name) {
             this.name = name;
@@ -169,6 +422,14 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
             return eventsQueue.add(event);
         }
 
+        // Removes and returns all events not yet dispatched by this loop
+        List<Event> pendingEvents() {
+            List<Event> events = new ArrayList<>();
+            eventsQueue.drainTo(events);
+            events.removeIf(event -> event == KILL_PILL);
+            return events;
+        }
+
         @Override
         public void run() {
             log.info("Dispatch loop({}) initiated", name);
@@ -178,6 +439,8 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
                     Event event = eventsQueue.take();
                     if (event != KILL_PILL) {
                         process(event);
+                    } else if (draining) {
+                        break;
                     }
                 } catch (InterruptedException e) {
                     log.warn("Dispatch loop interrupted");
@@ -185,17 +448,31 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
                     log.warn("Error encountered while dispatching event:", e);
                 }
             }
+            if (draining && !stopped) {
+                drained();
+            }
             log.info("Dispatch loop({}) terminated", name);
         }
 
         // Locate the sink for the event class and use it to process the event
         @SuppressWarnings("unchecked")
         private void process(Event event) {
+            SinkMetrics metrics = getSinkMetrics(event.getClass());
+            if (metrics != null) {
+                metrics.pending.decrementAndGet();
+            }
             EventSink sink = getSink(event.getClass());
             if (sink != null) {
                 lastSink = sink;
                 stopwatch.start();
-                sink.process(event);
+                Timer.Context context = metrics != null ? metrics.latency.time() : null;
+                try {
+                    sink.process(event);
+                } finally {
+                    if (context != null) {
+                        context.stop();
+                    }
+                }
                 stopwatch.reset();
             } else {
                 log.warn("No sink registered for event class {}",
@@ -214,8 +491,44 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
 
         void start() {
             stopped = false;
+            registerMetrics();
             dispatchFuture = executor.submit(this);
-            startWatchdog();
+            if (maxProcessMillis != 0) {
+                startWatchdog();
+            }
+        }
+
+        // Dispatches all events queued so far and then terminates the loop,
+        // running the given callback once the loop has terminated.
+        void drain(Runnable onDrained) {
+            this.onDrained = onDrained;
+            draining = true;
+            add(KILL_PILL);
+        }
+
+        private void drained() {
+            stopWatchdog();
+            removeMetrics();
+            executor.shutdown();
+            Runnable callback = onDrained;
+            if (callback != null) {
+                callback.run();
+            }
+        }
+
+        private void registerMetrics() {
+            if (metricsComponent != null && metricsFeature == null) {
+                metricsFeature = metricsComponent.registerFeature(name);
+                metricsService.registerMetric(metricsComponent, metricsFeature, QUEUE_DEPTH,
+                                              (Gauge<Integer>) eventsQueue::size);
+            }
+        }
+
+        void removeMetrics() {
+            if (metricsFeature != null) {
+                metricsService.removeMetric(metricsComponent, metricsFeature, QUEUE_DEPTH);
+                metricsFeature = null;
+            }
         }
 
         // Monitors event sinks to make sure none take too long to execute.
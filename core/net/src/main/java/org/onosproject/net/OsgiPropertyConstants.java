@@ -32,6 +32,9 @@ public final class OsgiPropertyConstants {
     public static final String MAX_EVENT_TIME_LIMIT = "maxEventTimeLimit";
     public static final int MAX_EVENT_TIME_LIMIT_DEFAULT = 2000;
 
+    public static final String EVENT_DISPATCH_THREADS = "eventDispatchThreads";
+    public static final int EVENT_DISPATCH_THREADS_DEFAULT = 1;
+
     public static final String CALCULATE_PERFORMANCE_CHECK = "sharedThreadPerformanceCheck";
     public static final boolean CALCULATE_PERFORMANCE_CHECK_DEFAULT = false;
 
@@ -44,6 +47,9 @@ public final class OsgiPropertyConstants {
     public static final String POLL_FREQUENCY = "fallbackFlowPollFrequency";
     public static final int POLL_FREQUENCY_DEFAULT = 30;
 
+    public static final String DELTA_FLOW_STATS = "deltaFlowStatistics";
+    public static final boolean DELTA_FLOW_STATS_DEFAULT = false;
+
     public static final String FOM_NUM_THREADS = "numThreads";
     public static final int FOM_NUM_THREADS_DEFAULT = 4;
 
@@ -113,6 +119,9 @@ public final class OsgiPropertyConstants {
     public static final String IM_NUM_THREADS = "numThreads";
     public static final int IM_NUM_THREADS_DEFAULT = 12;
 
+    public static final String IM_MAX_BATCHES_IN_FLIGHT = "maxBatchesInFlight";
+    public static final int IM_MAX_BATCHES_IN_FLIGHT_DEFAULT = 1;
+
     public static final String MM_NUM_THREADS = "numThreads";
     public static final int MM_NUM_THREADS_DEFAULT = 12;
 
@@ -131,6 +140,12 @@ public final class OsgiPropertyConstants {
     public static final String NRM_REQUEST_INTERCEPTS_ENABLED = "requestInterceptsEnabled";
     public static final boolean NRM_REQUEST_INTERCEPTS_ENABLED_DEFAULT = true;
 
+    public static final String PKT_PROCESSOR_THREADS = "processorThreads";
+    public static final int PKT_PROCESSOR_THREADS_DEFAULT = 0;
+
+    public static final String PKT_PROCESSOR_QUEUE_SIZE = "processorQueueSize";
+    public static final int PKT_PROCESSOR_QUEUE_SIZE_DEFAULT = 1000;
+
     public static final String PWM_PROBE_INTERVAL = "probeInterval";
     public static final int PWM_PROBE_INTERVAL_DEFAULT = 15;
 
@@ -143,6 +158,12 @@ public final class OsgiPropertyConstants {
     public static final String DTP_MAX_BATCH_MS = "maxBatchMs";
     public static final int DTP_MAX_BATCH_MS_DEFAULT = 50;
 
+    public static final String PM_PATH_CACHE_SIZE = "pathCacheSize";
+    public static final int PM_PATH_CACHE_SIZE_DEFAULT = 10000;
+
+    public static final String PM_PATH_SEARCH_PARALLELISM = "pathSearchParallelism";
+    public static final int PM_PATH_SEARCH_PARALLELISM_DEFAULT = 1;
+
     public static final String AUDIT_ENABLED = "auditEnabled";
     public static final boolean AUDIT_ENABLED_DEFAULT = false;
 
@@ -158,4 +179,13 @@ public final class OsgiPropertyConstants {
     public static final String FOM_ACCUMULATOR_MAX_BATCH_MILLIS = "accumulatorMaxBatchMillis";
     public static final int FOM_ACCUMULATOR_MAX_BATCH_MILLIS_DEFAULT = 500;
 
+    public static final String RM_LABEL_LEASING = "labelLeasing";
+    public static final boolean RM_LABEL_LEASING_DEFAULT = false;
+
+    public static final String RM_LEASE_BLOCK_SIZE = "leaseBlockSize";
+    public static final int RM_LEASE_BLOCK_SIZE_DEFAULT = 64;
+
+    public static final String RM_LEASE_IDLE_TIMEOUT = "leaseIdleTimeout";
+    public static final int RM_LEASE_IDLE_TIMEOUT_DEFAULT = 60;
+
 }
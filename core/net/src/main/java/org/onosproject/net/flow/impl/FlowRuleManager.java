@@ -82,6 +82,8 @@ import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.groupedThreads;
 import static org.onosproject.net.OsgiPropertyConstants.ALLOW_EXTRANEOUS_RULES;
 import static org.onosproject.net.OsgiPropertyConstants.ALLOW_EXTRANEOUS_RULES_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.DELTA_FLOW_STATS;
+import static org.onosproject.net.OsgiPropertyConstants.DELTA_FLOW_STATS_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.POLL_FREQUENCY;
 import static org.onosproject.net.OsgiPropertyConstants.POLL_FREQUENCY_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.PURGE_ON_DISCONNECTION;
@@ -105,7 +107,8 @@ import static org.slf4j.LoggerFactory.getLogger;
     property = {
         ALLOW_EXTRANEOUS_RULES + ":Boolean=" + ALLOW_EXTRANEOUS_RULES_DEFAULT,
         PURGE_ON_DISCONNECTION + ":Boolean=" + PURGE_ON_DISCONNECTION_DEFAULT,
-        POLL_FREQUENCY + ":Integer=" + POLL_FREQUENCY_DEFAULT
+        POLL_FREQUENCY + ":Integer=" + POLL_FREQUENCY_DEFAULT,
+        DELTA_FLOW_STATS + ":Boolean=" + DELTA_FLOW_STATS_DEFAULT
     }
 )
 public class FlowRuleManager
@@ -127,6 +130,9 @@ public class FlowRuleManager
     /** Frequency (in seconds) for polling flow statistics via fallback provider. */
     private int fallbackFlowPollFrequency = POLL_FREQUENCY_DEFAULT;
 
+    /** Only update flow entries whose statistics changed since the previous report. */
+    private boolean deltaFlowStatistics = DELTA_FLOW_STATS_DEFAULT;
+
     private final FlowRuleStoreDelegate delegate = new InternalStoreDelegate();
     private final DeviceListener deviceListener = new InternalDeviceListener();
 
@@ -226,6 +232,16 @@ public class FlowRuleManager
                     purgeOnDisconnection ? "enabled" : "disabled");
         }
 
+        flag = Tools.isPropertyEnabled(properties, DELTA_FLOW_STATS);
+        if (flag == null) {
+            log.info("DeltaFlowStatistics is not configured, " +
+                    "using current value of {}", deltaFlowStatistics);
+        } else {
+            deltaFlowStatistics = flag;
+            log.info("Configured. DeltaFlowStatistics is {}",
+                    deltaFlowStatistics ? "enabled" : "disabled");
+        }
+
         String s = get(properties, POLL_FREQUENCY);
         if (isNullOrEmpty(s)) {
             log.info("fallbackFlowPollFrequency is not configured, " +
@@ -385,7 +401,8 @@ public class FlowRuleManager
 
         final Map<FlowEntry, Long> firstSeen = Maps.newConcurrentMap();
         final Map<FlowEntry, Long> lastSeen = Maps.newConcurrentMap();
-
+        // Stored entries not yet reported by an incomplete multipart collection
+        final Map<DeviceId, PendingFlowMetrics> pendingFlowMetrics = Maps.newConcurrentMap();
 
         protected InternalFlowRuleProviderService(FlowRuleProvider provider) {
             super(provider);
@@ -545,10 +562,55 @@ public class FlowRuleManager
             pushFlowMetricsInternal(deviceId, flowEntries, false);
         }
 
+        @Override
+        public void pushFlowMetricsPart(DeviceId deviceId, long replyId,
+                                        Iterable<FlowEntry> flowEntries, boolean last) {
+            PendingFlowMetrics pending = pendingFlowMetrics.compute(deviceId, (id, existing) -> {
+                if (existing != null && existing.replyId == replyId) {
+                    return existing;
+                }
+                if (existing != null) {
+                    log.debug("Abandoning incomplete flow statistics {} for device {}",
+                              existing.replyId, deviceId);
+                }
+                return new PendingFlowMetrics(replyId, storedRules(deviceId));
+            });
+            processFlowMetrics(deviceId, flowEntries, pending.storedRules);
+            if (last) {
+                pendingFlowMetrics.remove(deviceId, pending);
+                // the store may have changed while the parts were received
+                pending.storedRules.keySet().removeIf(rule -> store.getFlowEntry(rule) == null);
+                processMissingFlows(pending.storedRules);
+            }
+        }
+
         private void pushFlowMetricsInternal(DeviceId deviceId, Iterable<FlowEntry> flowEntries,
                                              boolean useMissingFlow) {
+            Map<FlowEntry, FlowEntry> storedRules = storedRules(deviceId);
+            processFlowMetrics(deviceId, flowEntries, storedRules);
+
+            // DO NOT reinstall
+            if (useMissingFlow) {
+                processMissingFlows(storedRules);
+            }
+        }
+
+        private Map<FlowEntry, FlowEntry> storedRules(DeviceId deviceId) {
             Map<FlowEntry, FlowEntry> storedRules = Maps.newHashMap();
             store.getFlowEntries(deviceId).forEach(f -> storedRules.put(f, f));
+            return storedRules;
+        }
+
+        // Updates the store with the reported entries, removing them from the
+        // given stored entries
+        private void processFlowMetrics(DeviceId deviceId, Iterable<FlowEntry> flowEntries,
+                                        Map<FlowEntry, FlowEntry> storedRules) {
+            List<FlowEntry> changedRules = null;
+            if (deltaFlowStatistics) {
+                // changed entries bypass flowAdded, so check the provider here
+                checkValidity();
+                changedRules = Lists.newArrayList();
+            }
 
             for (FlowEntry rule : flowEntries) {
                 try {
@@ -556,7 +618,14 @@ public class FlowRuleManager
                     if (storedRule != null) {
                         if (storedRule.exactMatch(rule)) {
                             // we both have the rule, let's update some info then.
-                            flowAdded(rule);
+                            if (changedRules == null) {
+                                flowAdded(rule);
+                            } else if (!checkRuleLiveness(rule, storedRule)) {
+                                log.debug("Removing flow rules....");
+                                removeFlowRules(rule);
+                            } else if (isChanged(rule, storedRule)) {
+                                changedRules.add(rule);
+                            }
                         } else {
                             // the two rules are not an exact match - remove the
                             // switch's rule and install our rule
@@ -575,20 +644,37 @@ public class FlowRuleManager
                 }
             }
 
-            // DO NOT reinstall
-            if (useMissingFlow) {
-                for (FlowEntry rule : storedRules.keySet()) {
-                    try {
-                        // there are rules in the store that aren't on the switch
-                        log.debug("Adding the rule that is present in store but not on switch : {}", rule);
-                        flowMissing(rule, true);
-                    } catch (Exception e) {
-                        log.warn("Can't add missing flow rule:", e);
-                    }
+            if (changedRules != null && !changedRules.isEmpty()) {
+                log.trace("{} flow entries changed on device {}", changedRules.size(), deviceId);
+                try {
+                    store.addOrUpdateFlowRules(changedRules).forEach(FlowRuleManager.this::post);
+                } catch (Exception e) {
+                    log.warn("Can't update flow rules for device {}:{}", deviceId, e);
+                }
+            }
+        }
+
+        private void processMissingFlows(Map<FlowEntry, FlowEntry> storedRules) {
+            for (FlowEntry rule : storedRules.keySet()) {
+                try {
+                    // there are rules in the store that aren't on the switch
+                    log.debug("Adding the rule that is present in store but not on switch : {}", rule);
+                    flowMissing(rule, true);
+                } catch (Exception e) {
+                    log.warn("Can't add missing flow rule:", e);
                 }
             }
         }
 
+        // Entries reporting the same counters as the stored entry have seen no
+        // traffic since the previous report, and are left untouched in the store.
+        private boolean isChanged(FlowEntry swRule, FlowEntry storedRule) {
+            return storedRule.state() != FlowEntry.FlowEntryState.ADDED ||
+                    storedRule.packets() != swRule.packets() ||
+                    storedRule.bytes() != swRule.bytes() ||
+                    storedRule.liveType() != swRule.liveType();
+        }
+
         @Override
         public void batchOperationCompleted(long batchId, CompletedBatchOperation operation) {
             store.batchOperationComplete(FlowRuleBatchEvent.completed(
@@ -772,4 +858,15 @@ public class FlowRuleManager
             }
         }
     }
+
+    // Progress of a multipart flow statistics collection for a device
+    private static final class PendingFlowMetrics {
+        final long replyId;
+        final Map<FlowEntry, FlowEntry> storedRules;
+
+        PendingFlowMetrics(long replyId, Map<FlowEntry, FlowEntry> storedRules) {
+            this.replyId = replyId;
+            this.storedRules = storedRules;
+        }
+    }
 }
@@ -15,20 +15,28 @@
  */
 package org.onosproject.net.intent.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.onlab.util.AbstractAccumulator;
 import org.onosproject.net.intent.IntentBatchDelegate;
 import org.onosproject.net.intent.IntentData;
 import org.onosproject.net.intent.Key;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Timer;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
- * An accumulator for building batches of intent operations. Only one batch should
- * be in process per instance at a time.
+ * An accumulator for building batches of intent operations. By default only
+ * one batch is in process per instance at a time; when more batches are
+ * allowed in flight, batches never share intent keys and operations on keys
+ * still in flight are held back until the batch processing them completes.
  */
 public class IntentAccumulator extends AbstractAccumulator<IntentData> {
 
@@ -43,6 +51,12 @@ public class IntentAccumulator extends AbstractAccumulator<IntentData> {
     private final IntentBatchDelegate delegate;
 
     private volatile boolean ready;
+    private volatile int maxInFlightBatches = 1;
+
+    // Guarded by this
+    private final Map<Key, IntentData> waiting = Maps.newLinkedHashMap();
+    private final Set<Key> inFlightKeys = Sets.newHashSet();
+    private int inFlightBatches;
 
     /**
      * Creates an intent operation accumulator.
@@ -56,19 +70,61 @@ public class IntentAccumulator extends AbstractAccumulator<IntentData> {
         ready = true; //TODO validate the assumption that delegate is ready
     }
 
+    /**
+     * Sets the maximum number of batches in process at a time.
+     *
+     * @param maxInFlightBatches maximum number of batches in flight
+     */
+    public void setMaxInFlightBatches(int maxInFlightBatches) {
+        checkArgument(maxInFlightBatches > 0, "Maximum number of batches must be positive");
+        synchronized (this) {
+            this.maxInFlightBatches = maxInFlightBatches;
+            ready = inFlightBatches < maxInFlightBatches;
+        }
+    }
+
+    /**
+     * Returns the number of batches in process.
+     *
+     * @return number of batches in flight
+     */
+    public synchronized int inFlightBatches() {
+        return inFlightBatches;
+    }
+
     @Override
     public void processItems(List<IntentData> items) {
-        ready = false;
-        delegate.execute(reduce(items));
+        Collection<IntentData> batch = nextBatch(items);
+        if (!batch.isEmpty()) {
+            delegate.execute(batch);
+        }
     }
 
-    private Collection<IntentData> reduce(List<IntentData> ops) {
-        Map<Key, IntentData> map = Maps.newHashMap();
-        for (IntentData op : ops) {
-            map.put(op.key(), op);
-        }
+    private synchronized Collection<IntentData> nextBatch(List<IntentData> items) {
+        // Only the latest operation on each key is kept
         //TODO check the version... or maybe store will handle this.
-        return map.values();
+        for (IntentData op : items) {
+            waiting.put(op.key(), op);
+        }
+        if (inFlightBatches >= maxInFlightBatches) {
+            // Submitted when a batch in flight completes
+            return ImmutableList.of();
+        }
+        ImmutableList.Builder<IntentData> batch = ImmutableList.builder();
+        Iterator<IntentData> iterator = waiting.values().iterator();
+        while (iterator.hasNext()) {
+            IntentData op = iterator.next();
+            if (inFlightKeys.add(op.key())) {
+                batch.add(op);
+                iterator.remove();
+            }
+        }
+        Collection<IntentData> ops = batch.build();
+        if (!ops.isEmpty()) {
+            inFlightBatches++;
+            ready = inFlightBatches < maxInFlightBatches;
+        }
+        return ops;
     }
 
     @Override
@@ -76,7 +132,22 @@ public class IntentAccumulator extends AbstractAccumulator<IntentData> {
         return ready;
     }
 
-    public void ready() {
-        ready = true;
+    /**
+     * Notifies the accumulator that a batch has been processed, and submits
+     * the held back operations on the keys of the batch, if any.
+     *
+     * @param batch processed batch
+     */
+    public void ready(Collection<IntentData> batch) {
+        boolean pending;
+        synchronized (this) {
+            batch.forEach(op -> inFlightKeys.remove(op.key()));
+            inFlightBatches--;
+            ready = inFlightBatches < maxInFlightBatches;
+            pending = ready && !waiting.isEmpty();
+        }
+        if (pending) {
+            processItems(ImmutableList.of());
+        }
     }
 }
@@ -15,6 +15,11 @@
  */
 package org.onosproject.net.intent.impl;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Timer;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.CoreService;
@@ -74,7 +79,11 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.onlab.metrics.MetricsUtil.startTimer;
+import static org.onlab.metrics.MetricsUtil.stopTimer;
 import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.net.OsgiPropertyConstants.IM_MAX_BATCHES_IN_FLIGHT;
+import static org.onosproject.net.OsgiPropertyConstants.IM_MAX_BATCHES_IN_FLIGHT_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.IM_NUM_THREADS;
 import static org.onosproject.net.OsgiPropertyConstants.IM_NUM_THREADS_DEFAULT;
 import static org.onosproject.net.OsgiPropertyConstants.IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL;
@@ -103,7 +112,8 @@ import static org.slf4j.LoggerFactory.getLogger;
     },
     property = {
         IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL + ":Boolean=" + IM_SKIP_RELEASE_RESOURCES_ON_WITHDRAWAL_DEFAULT,
-        IM_NUM_THREADS + ":Integer=" + IM_NUM_THREADS_DEFAULT
+        IM_NUM_THREADS + ":Integer=" + IM_NUM_THREADS_DEFAULT,
+        IM_MAX_BATCHES_IN_FLIGHT + ":Integer=" + IM_MAX_BATCHES_IN_FLIGHT_DEFAULT
     }
 )
 public class IntentManager
@@ -115,6 +125,13 @@ public class IntentManager
     private static final String INTENT_NULL = "Intent cannot be null";
     private static final String INTENT_ID_NULL = "Intent key cannot be null";
 
+    private static final String METRICS_COMPONENT = "Intent";
+    private static final String METRICS_FEATURE = "Batch";
+    private static final String PROCESS = "process";
+    private static final String WRITE = "write";
+    private static final String BATCH = "batch";
+    private static final String IN_FLIGHT = "inFlight";
+
     private static final EnumSet<IntentState> RECOMPILE
             = EnumSet.of(INSTALL_REQ, FAILED, WITHDRAW_REQ);
     private static final EnumSet<IntentState> WITHDRAW
@@ -126,6 +143,9 @@ public class IntentManager
     /** Number of worker threads. */
     private int numThreads = IM_NUM_THREADS_DEFAULT;
 
+    /** Maximum number of intent batches processed concurrently; batches never share intent keys. */
+    private int maxBatchesInFlight = IM_MAX_BATCHES_IN_FLIGHT_DEFAULT;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected CoreService coreService;
 
@@ -156,6 +176,9 @@ public class IntentManager
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     private NetworkConfigService networkConfigService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
     private ExecutorService batchExecutor;
     private ExecutorService workerExecutor;
 
@@ -171,6 +194,12 @@ public class IntentManager
 
     private final IntentAccumulator accumulator = new IntentAccumulator(batchDelegate);
 
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
+    private Timer processTimer;
+    private Timer writeTimer;
+    private Timer batchTimer;
+
     @Activate
     public void activate() {
         configService.registerProperties(getClass());
@@ -187,6 +216,7 @@ public class IntentManager
         Intent.unbindIdGenerator(idGenerator);
         Intent.bindIdGenerator(idGenerator);
         installCoordinator = new InstallCoordinator(installerRegistry, store);
+        registerMetrics();
         log.info("Started");
     }
 
@@ -202,6 +232,7 @@ public class IntentManager
         eventDispatcher.removeSink(IntentEvent.class);
         batchExecutor.shutdown();
         workerExecutor.shutdown();
+        removeMetrics();
         Intent.unbindIdGenerator(idGenerator);
         log.info("Stopped");
     }
@@ -239,6 +270,37 @@ public class IntentManager
             }
             logConfig("Reconfigured number of worker threads");
         }
+
+        s = Tools.get(context.getProperties(), IM_MAX_BATCHES_IN_FLIGHT);
+        int newMaxBatchesInFlight = isNullOrEmpty(s) ? maxBatchesInFlight : Integer.parseInt(s.trim());
+        if (newMaxBatchesInFlight != maxBatchesInFlight && newMaxBatchesInFlight > 0) {
+            maxBatchesInFlight = newMaxBatchesInFlight;
+            accumulator.setMaxInFlightBatches(maxBatchesInFlight);
+            log.info("Reconfigured maximum number of batches in flight: {}", maxBatchesInFlight);
+        }
+    }
+
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRICS_FEATURE);
+        processTimer = metricsService.createTimer(metricsComponent, metricsFeature, PROCESS);
+        writeTimer = metricsService.createTimer(metricsComponent, metricsFeature, WRITE);
+        batchTimer = metricsService.createTimer(metricsComponent, metricsFeature, BATCH);
+        metricsService.registerMetric(metricsComponent, metricsFeature, IN_FLIGHT,
+                                      (Gauge<Integer>) accumulator::inFlightBatches);
+    }
+
+    private void removeMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        metricsService.removeMetric(metricsComponent, metricsFeature, PROCESS);
+        metricsService.removeMetric(metricsComponent, metricsFeature, WRITE);
+        metricsService.removeMetric(metricsComponent, metricsFeature, BATCH);
+        metricsService.removeMetric(metricsComponent, metricsFeature, IN_FLIGHT);
     }
 
     private void logConfig(String prefix) {
@@ -523,17 +585,20 @@ public class IntentManager
             log.debug("Execute {} operation(s).", operations.size());
             log.trace("Execute operations: {}", operations);
 
-            // batchExecutor is single-threaded, so only one batch is in flight at a time
-            CompletableFuture.runAsync(() -> {
+            // The accumulator bounds the number of batches in flight and keeps
+            // their keys disjoint; batchExecutor is single-threaded, so batches
+            // are started and written to the store one at a time
+            final Timer.Context batchContext = startTimer(batchTimer);
+            CompletableFuture.supplyAsync(() -> {
                 // process intent until the phase reaches one of the final phases
-                List<CompletableFuture<IntentData>> futures = operations.stream()
+                return operations.stream()
                         .map(data -> {
                             log.debug("Start processing of {} {}@{}", data.request(), data.key(), data.version());
                             return data;
                         })
                         .map(x -> CompletableFuture.completedFuture(x)
                                 .thenApply(IntentManager.this::createInitialPhase)
-                                .thenApplyAsync(IntentProcessPhase::process, workerExecutor)
+                                .thenApplyAsync(IntentManager.this::process, workerExecutor)
                                 .thenApply(FinalIntentProcessPhase::data)
                                 .exceptionally(e -> {
                                     // When the future fails, we update the Intent to simulate the failure of
@@ -555,11 +620,13 @@ public class IntentManager
                                     }
                                 }))
                         .collect(Collectors.toList());
-
+            }, batchExecutor).thenCompose(Tools::allOf).thenAcceptAsync(results -> {
                 // write multiple data to store in order
-                store.batchWrite(Tools.allOf(futures).join().stream()
+                final Timer.Context writeContext = startTimer(writeTimer);
+                store.batchWrite(results.stream()
                                          .filter(Objects::nonNull)
                                          .collect(Collectors.toList()));
+                stopTimer(writeContext);
             }, batchExecutor).exceptionally(e -> {
                 log.error("Error submitting batches:", e);
                 // FIXME incomplete Intents should be cleaned up
@@ -569,8 +636,20 @@ public class IntentManager
                 // TODO: maybe we should do more?
                 log.error("Walk the plank, matey...");
                 return null;
-            }).thenRun(accumulator::ready);
+            }).thenRun(() -> {
+                stopTimer(batchContext);
+                accumulator.ready(operations);
+            });
+
+        }
+    }
 
+    private FinalIntentProcessPhase process(IntentProcessPhase initial) {
+        final Timer.Context processContext = startTimer(processTimer);
+        try {
+            return IntentProcessPhase.process(initial);
+        } finally {
+            stopTimer(processContext);
         }
     }
 
@@ -15,9 +15,7 @@
  */
 package org.onosproject.net.intent.impl;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.SetMultimap;
+import com.google.common.collect.ImmutableList;
 import org.onosproject.event.Event;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.ElementId;
@@ -68,7 +66,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.collect.Multimaps.synchronizedSetMultimap;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.onlab.util.Tools.groupedThreads;
@@ -89,12 +86,9 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
 
     private final Logger log = getLogger(getClass());
 
-    private final SetMultimap<LinkKey, Key> intentsByLink =
-            //TODO this could be slow as a point of synchronization
-            synchronizedSetMultimap(HashMultimap.<LinkKey, Key>create());
+    private final TrackedResourceIndex<LinkKey> intentsByLink = new TrackedResourceIndex<>();
 
-    private final SetMultimap<ElementId, Key> intentsByDevice =
-            synchronizedSetMultimap(HashMultimap.<ElementId, Key>create());
+    private final TrackedResourceIndex<ElementId> intentsByDevice = new TrackedResourceIndex<>();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected TopologyService topologyService;
@@ -206,9 +200,9 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
                                     Collection<NetworkResource> resources) {
         for (NetworkResource resource : resources) {
             if (resource instanceof Link) {
-                intentsByLink.put(linkKey((Link) resource), intentKey);
+                intentsByLink.add(linkKey((Link) resource), intentKey);
             } else if (resource instanceof ElementId) {
-                intentsByDevice.put((ElementId) resource, intentKey);
+                intentsByDevice.add((ElementId) resource, intentKey);
             }
         }
     }
@@ -220,11 +214,31 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
             if (resource instanceof Link) {
                 intentsByLink.remove(linkKey((Link) resource), intentKey);
             } else if (resource instanceof ElementId) {
-                intentsByDevice.remove(resource, intentKey);
+                intentsByDevice.remove((ElementId) resource, intentKey);
             }
         }
     }
 
+    @Override
+    public void addTrackedIntents(Key intentKey,
+                                  Collection<? extends Intent> intents) {
+        addTrackedResources(intentKey, resourcesOf(intents));
+    }
+
+    @Override
+    public void removeTrackedIntents(Key intentKey,
+                                     Collection<? extends Intent> intents) {
+        removeTrackedResources(intentKey, resourcesOf(intents));
+    }
+
+    // Intents and their installables mostly share resources, so only
+    // update the index once for each distinct resource.
+    private Collection<NetworkResource> resourcesOf(Collection<? extends Intent> intents) {
+        Set<NetworkResource> resources = new HashSet<>();
+        intents.forEach(intent -> resources.addAll(intent.resources()));
+        return resources;
+    }
+
     @Override
     public void trackIntent(IntentData intentData) {
 
@@ -241,7 +255,7 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
         if (log.isTraceEnabled()) {
             log.trace("intent {}, old: {}, new: {}, installableCount: {}, resourceCount: {}",
                       key,
-                      intentsByDevice.values().contains(key),
+                      intentsByDevice.contains(key),
                       isLocal && isInstalled,
                       installables.size(),
                       intent.resources().size() +
@@ -255,17 +269,13 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
 
         // FIXME Intents will be added 3 times (once directly using addTracked,
         //       then when installing and when installed)
+        List<Intent> intents = ImmutableList.<Intent>builder()
+                .add(intent).addAll(installables).build();
         if (isLocal && isInstalled) {
-            addTrackedResources(key, intent.resources());
-            for (Intent installable : installables) {
-                addTrackedResources(key, installable.resources());
-            }
+            addTrackedIntents(key, intents);
             // FIXME check all resources against current topo service(s); recompile if necessary
         } else {
-            removeTrackedResources(key, intent.resources());
-            for (Intent installable : installables) {
-                removeTrackedResources(key, installable.resources());
-            }
+            removeTrackedIntents(key, intents);
         }
     }
 
@@ -306,12 +316,10 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
                     if (reason instanceof LinkEvent) {
                         LinkEvent linkEvent = (LinkEvent) reason;
                         final LinkKey linkKey = linkKey(linkEvent.subject());
-                        synchronized (intentsByLink) {
-                            Set<Key> intentKeys = intentsByLink.get(linkKey);
-                            log.debug("recompile triggered by LinkEvent {} ({}) for {}",
-                                    linkKey, linkEvent.type(), intentKeys);
-                            intentsToRecompile.addAll(intentKeys);
-                        }
+                        Set<Key> intentKeys = intentsByLink.get(linkKey);
+                        log.debug("recompile triggered by LinkEvent {} ({}) for {}",
+                                linkKey, linkEvent.type(), intentKeys);
+                        intentsToRecompile.addAll(intentKeys);
                         dontRecompileAllFailedIntents = dontRecompileAllFailedIntents &&
                                 (linkEvent.type() == LINK_REMOVED ||
                                 (linkEvent.type() == LINK_UPDATED &&
@@ -362,11 +370,7 @@ public class ObjectiveTracker implements ObjectiveTrackerService {
 
             // TODO should we recompile on available==true?
 
-            final ImmutableSet<Key> snapshot;
-            synchronized (intentsByDevice) {
-                snapshot = ImmutableSet.copyOf(intentsByDevice.get(id));
-            }
-            delegate.triggerCompile(snapshot, available);
+            delegate.triggerCompile(intentsByDevice.get(id), available);
         }
     }
 
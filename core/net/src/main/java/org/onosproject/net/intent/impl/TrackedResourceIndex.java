@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.intent.impl;
+
+import com.google.common.collect.ImmutableSet;
+import org.onosproject.net.intent.Key;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Concurrent index of the intents tracking each network resource.
+ * <p>
+ * Updates only lock the hash bin of the resource being updated, so that
+ * installers tracking intents on different resources and topology handlers
+ * looking up affected intents do not contend on a single monitor. Key sets
+ * are themselves concurrent, so lookups never block updates.
+ *
+ * @param <R> type of tracked resource
+ */
+final class TrackedResourceIndex<R> {
+
+    private final ConcurrentMap<R, Set<Key>> index = new ConcurrentHashMap<>();
+
+    /**
+     * Records that the given intent tracks the given resource.
+     *
+     * @param resource tracked resource
+     * @param key      intent key
+     */
+    void add(R resource, Key key) {
+        index.compute(resource, (r, keys) -> {
+            Set<Key> updated = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            updated.add(key);
+            return updated;
+        });
+    }
+
+    /**
+     * Records that the given intent no longer tracks the given resource.
+     *
+     * @param resource tracked resource
+     * @param key      intent key
+     */
+    void remove(R resource, Key key) {
+        index.computeIfPresent(resource, (r, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Returns a snapshot of the intents tracking the given resource.
+     *
+     * @param resource tracked resource
+     * @return intent keys
+     */
+    Set<Key> get(R resource) {
+        Set<Key> keys = index.get(resource);
+        return keys == null ? ImmutableSet.of() : ImmutableSet.copyOf(keys);
+    }
+
+    /**
+     * Returns whether the given intent tracks any resource.
+     * <p>
+     * This scans the whole index and is intended for diagnostics only.
+     *
+     * @param key intent key
+     * @return true if the intent is tracked
+     */
+    boolean contains(Key key) {
+        return index.values().stream().anyMatch(keys -> keys.contains(key));
+    }
+
+    /**
+     * Returns the number of tracked resources.
+     *
+     * @return number of resources
+     */
+    int size() {
+        return index.size();
+    }
+}
@@ -102,17 +102,13 @@ public class FlowObjectiveIntentInstaller implements IntentInstaller<FlowObjecti
         if (toUninstall.isPresent()) {
             IntentData intentData = toUninstall.get();
             trackerService.removeTrackedResources(intentData.key(), intentData.intent().resources());
-            uninstallIntents.forEach(installable ->
-                                             trackerService.removeTrackedResources(intentData.intent().key(),
-                                                                                   installable.resources()));
+            trackerService.removeTrackedIntents(intentData.key(), uninstallIntents);
         }
 
         if (toInstall.isPresent()) {
             IntentData intentData = toInstall.get();
             trackerService.addTrackedResources(intentData.key(), intentData.intent().resources());
-            installIntents.forEach(installable ->
-                                           trackerService.addTrackedResources(intentData.key(),
-                                                                              installable.resources()));
+            trackerService.addTrackedIntents(intentData.key(), installIntents);
         }
 
         FlowObjectiveIntentInstallationContext intentInstallationContext =
@@ -563,15 +563,11 @@ public class FlowRuleIntentInstaller implements IntentInstaller<FlowRuleIntent>
         switch (direction) {
             case ADD:
                 trackerService.addTrackedResources(intentData.key(), intentData.intent().resources());
-                intentsToApply.forEach(installable ->
-                                               trackerService.addTrackedResources(intentData.key(),
-                                                                                  installable.resources()));
+                trackerService.addTrackedIntents(intentData.key(), intentsToApply);
                 break;
             case REMOVE:
                 trackerService.removeTrackedResources(intentData.key(), intentData.intent().resources());
-                intentsToApply.forEach(installable ->
-                                               trackerService.removeTrackedResources(intentData.intent().key(),
-                                                                                     installable.resources()));
+                trackerService.removeTrackedIntents(intentData.key(), intentsToApply);
                 break;
             default:
                 log.warn("Unknown resource tracking direction.");
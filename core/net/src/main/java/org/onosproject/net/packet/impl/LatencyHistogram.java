@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.packet.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Lock-free histogram of latencies using power-of-two buckets, so that
+ * quantiles are accurate to within a factor of two.
+ */
+final class LatencyHistogram {
+
+    // Bucket i counts latencies within [2^(i-1), 2^i); bucket 0 counts zeros
+    private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    void record(long nanos) {
+        long latency = Math.max(nanos, 0);
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(latency));
+        if (latency > max.get()) {
+            max.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    /**
+     * Returns the largest recorded latency.
+     *
+     * @return maximum latency in nanoseconds
+     */
+    long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns an upper bound of the latency of the given fraction of the
+     * recorded latencies.
+     *
+     * @param quantile fraction of latencies, between 0 and 1
+     * @return latency in nanoseconds; 0 if no latencies were recorded
+     */
+    long quantile(double quantile) {
+        checkArgument(quantile >= 0 && quantile <= 1, "Quantile must be between 0 and 1");
+        long count = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            count += buckets.get(i);
+        }
+        long rank = Math.max((long) Math.ceil(quantile * count), 1);
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                long upperBound = i < Long.SIZE - 1 ? (1L << i) - 1 : Long.MAX_VALUE;
+                return Math.min(upperBound, max());
+            }
+        }
+        return 0;
+    }
+}
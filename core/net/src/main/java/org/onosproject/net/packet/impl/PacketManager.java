@@ -15,9 +15,14 @@
  */
 package org.onosproject.net.packet.impl;
 
+import com.codahale.metrics.Gauge;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.ItemNotFoundException;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.core.ApplicationId;
@@ -54,9 +59,11 @@ import org.onosproject.net.packet.PacketStore;
 import org.onosproject.net.packet.PacketStoreDelegate;
 import org.onosproject.net.provider.AbstractProviderRegistry;
 import org.onosproject.net.provider.AbstractProviderService;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.onosproject.net.packet.PacketInFilter;
@@ -68,11 +75,17 @@ import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.CopyOnWriteArrayList;
-
-
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static org.onlab.util.Tools.getIntegerProperty;
 import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.net.OsgiPropertyConstants.PKT_PROCESSOR_QUEUE_SIZE;
+import static org.onosproject.net.OsgiPropertyConstants.PKT_PROCESSOR_QUEUE_SIZE_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.PKT_PROCESSOR_THREADS;
+import static org.onosproject.net.OsgiPropertyConstants.PKT_PROCESSOR_THREADS_DEFAULT;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.PACKET_EVENT;
 import static org.onosproject.security.AppPermission.Type.PACKET_READ;
@@ -82,7 +95,14 @@ import static org.slf4j.LoggerFactory.getLogger;
 /**
  * Provides a basic implementation of the packet SB &amp; NB APIs.
  */
-@Component(immediate = true, service = { PacketService.class, PacketProviderRegistry.class })
+@Component(
+    immediate = true,
+    service = { PacketService.class, PacketProviderRegistry.class },
+    property = {
+        PKT_PROCESSOR_THREADS + ":Integer=" + PKT_PROCESSOR_THREADS_DEFAULT,
+        PKT_PROCESSOR_QUEUE_SIZE + ":Integer=" + PKT_PROCESSOR_QUEUE_SIZE_DEFAULT
+    }
+)
 public class PacketManager
         extends AbstractProviderRegistry<PacketProvider, PacketProviderService>
         implements PacketService, PacketProviderRegistry {
@@ -95,6 +115,11 @@ public class PacketManager
     private static final String ERROR_NULL_DEVICE_ID = "Device ID cannot be null";
     private static final String SUPPORT_PACKET_REQUEST_PROPERTY = "supportPacketRequest";
 
+    private static final String METRICS_COMPONENT = "Packet";
+    private static final String METRICS_FEATURE = "Processing";
+    private static final String DROPPED = "dropped";
+    private static final String QUEUED = "queued";
+
     private final PacketStoreDelegate delegate = new InternalStoreDelegate();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
@@ -115,8 +140,29 @@ public class PacketManager
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected FlowObjectiveService objectiveService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
+    /** Number of threads processing packets; 0 processes packets on the threads of the providers. */
+    private int processorThreads = PKT_PROCESSOR_THREADS_DEFAULT;
+
+    /** Maximum number of packets waiting for each processing thread before packets are dropped. */
+    private int processorQueueSize = PKT_PROCESSOR_QUEUE_SIZE_DEFAULT;
+
     private ExecutorService eventHandlingExecutor;
 
+    // Null when packets are processed on the threads of the providers
+    private volatile PacketProcessorPipeline pipeline;
+
+    // Drops by pipelines which have since been replaced
+    private final AtomicLong retiredDrops = new AtomicLong();
+
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
+
     private final DeviceListener deviceListener = new InternalDeviceListener();
 
     private final List<ProcessorEntry> processors = Lists.newCopyOnWriteArrayList();
@@ -129,9 +175,12 @@ public class PacketManager
     private List<PacketInFilter> filters = new CopyOnWriteArrayList<>();
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
         eventHandlingExecutor = Executors.newSingleThreadExecutor(
                 groupedThreads("onos/net/packet", "event-handler", log));
+        cfgService.registerProperties(getClass());
+        modified(context);
+        registerMetrics();
         localNodeId = clusterService.getLocalNode().id();
         appId = coreService.getAppId(CoreService.CORE_APP_NAME);
         store.setDelegate(delegate);
@@ -154,12 +203,93 @@ public class PacketManager
 
     @Deactivate
     public void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
         store.unsetDelegate(delegate);
         deviceService.removeListener(deviceListener);
         eventHandlingExecutor.shutdown();
+        removeMetrics();
+        setPipeline(null);
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context != null) {
+            Integer threads = getIntegerProperty(context.getProperties(), PKT_PROCESSOR_THREADS);
+            if (threads != null && threads >= 0) {
+                processorThreads = threads;
+            }
+            Integer queueSize = getIntegerProperty(context.getProperties(), PKT_PROCESSOR_QUEUE_SIZE);
+            if (queueSize != null && queueSize > 0) {
+                processorQueueSize = queueSize;
+            }
+        }
+        PacketProcessorPipeline current = pipeline;
+        boolean unchanged = current == null ? processorThreads == 0 :
+                current.workerCount() == processorThreads && current.queueSize() == processorQueueSize;
+        if (!unchanged) {
+            setPipeline(processorThreads == 0 ? null :
+                    new PacketProcessorPipeline(processorThreads, processorQueueSize,
+                                                groupedThreads("onos/net/packet", "processor-%d", log)));
+        }
+        log.info("Settings: {}={}, {}={}", PKT_PROCESSOR_THREADS, processorThreads,
+                 PKT_PROCESSOR_QUEUE_SIZE, processorQueueSize);
+    }
+
+    private synchronized void setPipeline(PacketProcessorPipeline newPipeline) {
+        PacketProcessorPipeline oldPipeline = pipeline;
+        pipeline = newPipeline;
+        if (oldPipeline != null) {
+            // Packets already queued are still processed
+            oldPipeline.shutdown();
+            retiredDrops.addAndGet(oldPipeline.dropped());
+        }
+    }
+
+    /**
+     * Returns the number of packets dropped because processing threads were
+     * busy.
+     *
+     * @return number of dropped packets
+     */
+    long droppedPackets() {
+        PacketProcessorPipeline current = pipeline;
+        return retiredDrops.get() + (current == null ? 0 : current.dropped());
+    }
+
+    /**
+     * Returns the number of packets waiting for processing threads.
+     *
+     * @return number of queued packets
+     */
+    long queuedPackets() {
+        PacketProcessorPipeline current = pipeline;
+        return current == null ? 0 : current.queued();
+    }
+
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRICS_FEATURE);
+        registerGauge(DROPPED, PacketManager::droppedPackets);
+        registerGauge(QUEUED, PacketManager::queuedPackets);
+    }
+
+    private void registerGauge(String name, ToLongFunction<PacketManager> statistic) {
+        metricsService.registerMetric(metricsComponent, metricsFeature, name,
+                                      (Gauge<Long>) () -> statistic.applyAsLong(this));
+    }
+
+    private void removeMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        metricsService.removeMetric(metricsComponent, metricsFeature, DROPPED);
+        metricsService.removeMetric(metricsComponent, metricsFeature, QUEUED);
+    }
+
     @Override
     protected PacketProvider defaultProvider() {
         return defaultProvider;
@@ -476,6 +606,18 @@ public class PacketManager
                 }
                 return;
             }
+            PacketProcessorPipeline current = pipeline;
+            if (current == null) {
+                process(context);
+            } else if (!current.submit(PacketProcessorPipeline.flowHash(context.inPacket()),
+                                       () -> process(context))) {
+                if (log.isTraceEnabled()) {
+                    log.trace("The packet is dropped as its processing thread is busy");
+                }
+            }
+        }
+
+        private void process(PacketContext context) {
             // TODO filter packets sent to processors based on registrations
             for (ProcessorEntry entry : processors) {
                 try {
@@ -585,8 +727,9 @@ public class PacketManager
     private class ProcessorEntry implements PacketProcessorEntry {
         private final PacketProcessor processor;
         private final int priority;
-        private long invocations = 0;
-        private long nanos = 0;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LatencyHistogram latencies = new LatencyHistogram();
 
         public ProcessorEntry(PacketProcessor processor, int priority) {
             this.processor = processor;
@@ -605,22 +748,34 @@ public class PacketManager
 
         @Override
         public long invocations() {
-            return invocations;
+            return invocations.sum();
         }
 
         @Override
         public long totalNanos() {
-            return nanos;
+            return nanos.sum();
         }
 
         @Override
         public long averageNanos() {
-            return invocations > 0 ? nanos / invocations : 0;
+            long count = invocations();
+            return count > 0 ? totalNanos() / count : 0;
+        }
+
+        @Override
+        public long maxNanos() {
+            return latencies.max();
+        }
+
+        @Override
+        public long quantileNanos(double quantile) {
+            return latencies.quantile(quantile);
         }
 
         void addNanos(long nanos) {
-            this.nanos += nanos;
-            this.invocations++;
+            this.nanos.add(nanos);
+            this.invocations.increment();
+            this.latencies.record(nanos);
         }
     }
 }
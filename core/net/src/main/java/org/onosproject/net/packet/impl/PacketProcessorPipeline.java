@@ -0,0 +1,180 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.packet.impl;
+
+import org.onlab.packet.EthernetView;
+import org.onlab.packet.IPv4;
+import org.onosproject.net.packet.InboundPacket;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.onlab.packet.Ethernet.TYPE_IPV4;
+import static org.onlab.packet.Ethernet.TYPE_IPV6;
+
+/**
+ * Hands packets off to a fixed set of worker threads, each with a bounded
+ * queue. Packets of the same flow are always handed to the same worker, so
+ * that they are processed in the order in which they were received.
+ * Packets arriving while the queue of their worker is full are dropped.
+ */
+final class PacketProcessorPipeline {
+
+    private static final int IPV4_MIN_HEADER_LENGTH = 20;
+    private static final int IPV4_FRAGMENT_OFFSET = 6;
+    private static final int IPV4_FRAGMENT_MASK = 0x3fff;
+    private static final int IPV4_SRC_OFFSET = 12;
+    private static final int IPV6_HEADER_LENGTH = 40;
+    private static final int IPV6_SRC_OFFSET = 8;
+    private static final byte PROTOCOL_SCTP = (byte) 132;
+
+    private final ThreadPoolExecutor[] workers;
+    private final int queueSize;
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Creates a pipeline.
+     *
+     * @param workerCount   number of worker threads
+     * @param queueSize     maximum number of packets waiting for each worker
+     * @param threadFactory factory of the worker threads
+     */
+    PacketProcessorPipeline(int workerCount, int queueSize, ThreadFactory threadFactory) {
+        checkArgument(workerCount > 0, "Worker count must be positive");
+        checkArgument(queueSize > 0, "Queue size must be positive");
+        this.queueSize = queueSize;
+        workers = new ThreadPoolExecutor[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                                                new ArrayBlockingQueue<>(queueSize),
+                                                threadFactory);
+        }
+    }
+
+    /**
+     * Hands a packet off to the worker of its flow.
+     *
+     * @param flowHash hash of the flow of the packet
+     * @param task     processing of the packet
+     * @return true if the packet was queued; false if it was dropped
+     */
+    boolean submit(int flowHash, Runnable task) {
+        ThreadPoolExecutor worker = workers[Math.floorMod(flowHash ^ (flowHash >>> 16), workers.length)];
+        try {
+            worker.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of workers.
+     *
+     * @return number of worker threads
+     */
+    int workerCount() {
+        return workers.length;
+    }
+
+    /**
+     * Returns the maximum number of packets waiting for each worker.
+     *
+     * @return queue size
+     */
+    int queueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Returns the number of packets dropped because their worker was busy.
+     *
+     * @return number of dropped packets
+     */
+    long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of packets waiting to be processed.
+     *
+     * @return number of queued packets
+     */
+    long queued() {
+        return Arrays.stream(workers).mapToLong(w -> w.getQueue().size()).sum();
+    }
+
+    /**
+     * Stops accepting packets; packets already queued are still processed.
+     */
+    void shutdown() {
+        Arrays.stream(workers).forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    /**
+     * Returns a hash of the flow of a packet, made of the ingress connect
+     * point, the IP addresses and protocol and, for unfragmented TCP, UDP
+     * and SCTP packets, the transport ports. Non-IP packets are hashed by
+     * their ingress connect point, source MAC address and ethertype.
+     *
+     * @param packet inbound packet
+     * @return flow hash
+     */
+    static int flowHash(InboundPacket packet) {
+        int hash = Objects.hashCode(packet.receivedFrom());
+        EthernetView frame = packet.view();
+        if (frame == null || !frame.isValid()) {
+            return hash;
+        }
+
+        short etherType = frame.etherType();
+        ByteBuffer ip = frame.payload();
+        if (etherType == TYPE_IPV4 && ip.remaining() >= IPV4_MIN_HEADER_LENGTH) {
+            hash = 31 * hash + ip.getInt(IPV4_SRC_OFFSET);
+            hash = 31 * hash + ip.getInt(IPV4_SRC_OFFSET + Integer.BYTES);
+            boolean fragment = (ip.getShort(IPV4_FRAGMENT_OFFSET) & IPV4_FRAGMENT_MASK) != 0;
+            int transportOffset = (ip.get(0) & 0x0f) * Integer.BYTES;
+            return fragment ? 31 * hash + frame.ipProtocol() :
+                    hashPorts(hash, frame.ipProtocol(), ip, transportOffset);
+        } else if (etherType == TYPE_IPV6 && ip.remaining() >= IPV6_HEADER_LENGTH) {
+            for (int i = IPV6_SRC_OFFSET; i < IPV6_HEADER_LENGTH; i += Integer.BYTES) {
+                hash = 31 * hash + ip.getInt(i);
+            }
+            return hashPorts(hash, frame.ipProtocol(), ip, IPV6_HEADER_LENGTH);
+        }
+        return 31 * (31 * hash + frame.sourceMac().hashCode()) + etherType;
+    }
+
+    private static int hashPorts(int hash, byte protocol, ByteBuffer ip, int transportOffset) {
+        hash = 31 * hash + protocol;
+        boolean hasPorts = protocol == IPv4.PROTOCOL_TCP || protocol == IPv4.PROTOCOL_UDP ||
+                protocol == PROTOCOL_SCTP;
+        if (hasPorts && ip.remaining() >= transportOffset + Integer.BYTES) {
+            // Source and destination ports are the first four bytes of all three
+            hash = 31 * hash + ip.getInt(transportOffset);
+        }
+        return hash;
+    }
+}
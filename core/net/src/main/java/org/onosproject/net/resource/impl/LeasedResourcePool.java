@@ -0,0 +1,566 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.resource.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.onlab.packet.MplsLabel;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.resource.DiscreteResource;
+import org.onosproject.net.resource.DiscreteResourceId;
+import org.onosproject.net.resource.Resource;
+import org.onosproject.net.resource.ResourceAllocation;
+import org.onosproject.net.resource.ResourceConsumer;
+import org.onosproject.net.resource.ResourceConsumerId;
+import org.onosproject.net.resource.ResourceStore;
+import org.onosproject.net.resource.Resources;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Node-local pool of discrete label resources leased in blocks from the
+ * resource store.
+ * <p>
+ * Blocks of labels (MPLS labels, VLAN IDs) are allocated in the store to a
+ * consumer representing the local node, so that individual allocations can
+ * be served out of a local bitmap without a distributed transaction. Local
+ * allocations are later recorded in the store in batches, each resource being
+ * handed from the lease to its consumer, after which the resource leaves the
+ * pool. Blocks that are no longer in use are handed back to the store once
+ * idle.
+ * </p>
+ */
+final class LeasedResourcePool {
+
+    private final Logger log = getLogger(getClass());
+
+    private static final Map<Class<?>, LabelCodec> CODECS = ImmutableMap.of(
+            MplsLabel.class, new LabelCodec(v -> ((MplsLabel) v).toInt(), MplsLabel::mplsLabel),
+            VlanId.class, new LabelCodec(v -> ((VlanId) v).toShort() & 0xFFFF, i -> VlanId.vlanId((short) i)));
+
+    private final ResourceStore store;
+    private final ResourceConsumer leaseConsumer;
+    private final int blockSize;
+    private final LongSupplier clock;
+
+    // Serializes the store transactions recording local allocations
+    private final Object recordLock = new Object();
+
+    // Guarded by this; owners and consumers only hold the local allocations
+    // which are not recorded in the store yet
+    private final Map<PoolKey, LeasedBlocks> pools = new HashMap<>();
+    private final Map<DiscreteResource, ResourceConsumerId> owners = new HashMap<>();
+    private final Map<ResourceConsumerId, Set<DiscreteResource>> consumers = new HashMap<>();
+    private final Set<DiscreteResource> recording = new HashSet<>();
+
+    /**
+     * Creates a pool leasing resources from the given store.
+     *
+     * @param store         resource store
+     * @param leaseConsumer consumer owning the leased blocks in the store
+     * @param blockSize     number of labels leased at a time
+     * @param clock         clock in milliseconds used to track idle blocks
+     */
+    LeasedResourcePool(ResourceStore store, ResourceConsumer leaseConsumer,
+                       int blockSize, LongSupplier clock) {
+        checkArgument(blockSize > 0, "Block size must be positive");
+        this.store = checkNotNull(store);
+        this.leaseConsumer = checkNotNull(leaseConsumer);
+        this.blockSize = blockSize;
+        this.clock = checkNotNull(clock);
+    }
+
+    /**
+     * Returns whether values of the given class can be leased.
+     *
+     * @param cls resource value class
+     * @return true if the class is leasable
+     */
+    static boolean isLeasable(Class<?> cls) {
+        return CODECS.containsKey(cls);
+    }
+
+    /**
+     * Returns the consumer owning the leased blocks in the store.
+     *
+     * @return lease consumer
+     */
+    ResourceConsumer leaseConsumer() {
+        return leaseConsumer;
+    }
+
+    /**
+     * Returns the locally free resources of the given type under the parent,
+     * leasing another block from the store when fewer than half a block
+     * remain.
+     *
+     * @param parent parent resource
+     * @param cls    resource value class
+     * @return locally available resources
+     */
+    Set<DiscreteResource> available(DiscreteResourceId parent, Class<?> cls) {
+        checkArgument(isLeasable(cls), "Unsupported resource type %s", cls);
+        PoolKey key = new PoolKey(parent, cls);
+        if (freeCount(key) < Math.max(1, blockSize / 2)) {
+            lease(key);
+        }
+        synchronized (this) {
+            LeasedBlocks blocks = pools.get(key);
+            if (blocks == null) {
+                return ImmutableSet.of();
+            }
+            ImmutableSet.Builder<DiscreteResource> builder = ImmutableSet.builder();
+            blocks.free.stream().forEach(i -> builder.add(key.resource(i)));
+            return builder.build();
+        }
+    }
+
+    /**
+     * Allocates the given resources to the consumer out of the local pool.
+     * Either all of the resources are allocated or none of them.
+     *
+     * @param resources resources to allocate
+     * @param consumer  resource consumer
+     * @return true if every resource was locally free and is now allocated
+     */
+    synchronized boolean allocate(List<? extends Resource> resources, ResourceConsumer consumer) {
+        if (resources.isEmpty()) {
+            return false;
+        }
+        Map<DiscreteResource, PoolKey> keys = new HashMap<>();
+        for (Resource resource : resources) {
+            PoolKey key = PoolKey.of(resource);
+            if (key == null || keys.containsKey(resource) || !isFree(key, (DiscreteResource) resource)) {
+                return false;
+            }
+            keys.put((DiscreteResource) resource, key);
+        }
+
+        long now = clock.getAsLong();
+        ResourceConsumerId consumerId = consumer.consumerId();
+        keys.forEach((resource, key) -> {
+            LeasedBlocks blocks = pools.get(key);
+            blocks.free.clear(key.index(resource));
+            blocks.lastUsed = now;
+            owners.put(resource, consumerId);
+            consumers.computeIfAbsent(consumerId, k -> new HashSet<>()).add(resource);
+        });
+        return true;
+    }
+
+    /**
+     * Returns the given allocation to the local pool if it was served by it
+     * and is not recorded in the store yet.
+     *
+     * @param allocation resource allocation
+     * @return true if the allocation was held locally and is now released
+     */
+    synchronized boolean release(ResourceAllocation allocation) {
+        Resource resource = allocation.resource();
+        if (!Objects.equals(owners.get(resource), allocation.consumerId())) {
+            return false;
+        }
+        DiscreteResource discrete = (DiscreteResource) resource;
+        removeOwner(discrete, allocation.consumerId());
+        // A resource being recorded is freed once the outcome is known
+        if (!recording.contains(discrete)) {
+            markFree(discrete);
+        }
+        return true;
+    }
+
+    private void removeOwner(DiscreteResource resource, ResourceConsumerId consumerId) {
+        owners.remove(resource);
+        Set<DiscreteResource> held = consumers.get(consumerId);
+        if (held != null && held.remove(resource) && held.isEmpty()) {
+            consumers.remove(consumerId);
+        }
+    }
+
+    private void markFree(DiscreteResource resource) {
+        PoolKey key = PoolKey.of(resource);
+        LeasedBlocks blocks = pools.get(key);
+        if (blocks != null) {
+            int index = key.index(resource);
+            if (blocks.leased.get(index)) {
+                blocks.free.set(index);
+            }
+            blocks.lastUsed = clock.getAsLong();
+        }
+    }
+
+    private void dropLeased(DiscreteResource resource) {
+        PoolKey key = PoolKey.of(resource);
+        LeasedBlocks blocks = pools.get(key);
+        if (blocks != null) {
+            int index = key.index(resource);
+            blocks.leased.clear(index);
+            blocks.free.clear(index);
+            if (blocks.leased.isEmpty()) {
+                pools.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Returns the resources allocated out of the local pool to a consumer
+     * which are not recorded in the store yet.
+     *
+     * @param consumerId consumer ID
+     * @return locally allocated resources
+     */
+    synchronized Collection<Resource> allocations(ResourceConsumerId consumerId) {
+        return ImmutableList.copyOf(consumers.getOrDefault(consumerId, ImmutableSet.of()));
+    }
+
+    /**
+     * Returns the consumer a resource was allocated to out of the local pool.
+     *
+     * @param resource resource
+     * @return consumer ID, or null if the resource is not allocated locally
+     *         or is already recorded in the store
+     */
+    synchronized ResourceConsumerId owner(Resource resource) {
+        return owners.get(resource);
+    }
+
+    /**
+     * Returns whether the resource is held in a block leased by this pool.
+     *
+     * @param resource resource
+     * @return true if the resource is leased
+     */
+    synchronized boolean isLeased(Resource resource) {
+        PoolKey key = PoolKey.of(resource);
+        LeasedBlocks blocks = key == null ? null : pools.get(key);
+        return blocks != null && blocks.leased.get(key.index((DiscreteResource) resource));
+    }
+
+    /**
+     * Returns whether the resource is leased and not allocated locally.
+     *
+     * @param resource resource
+     * @return true if the resource is locally available
+     */
+    synchronized boolean isFree(Resource resource) {
+        PoolKey key = PoolKey.of(resource);
+        return key != null && isFree(key, (DiscreteResource) resource);
+    }
+
+    private boolean isFree(PoolKey key, DiscreteResource resource) {
+        LeasedBlocks blocks = pools.get(key);
+        return blocks != null && blocks.free.get(key.index(resource));
+    }
+
+    private synchronized int freeCount(PoolKey key) {
+        LeasedBlocks blocks = pools.get(key);
+        return blocks == null ? 0 : blocks.free.cardinality();
+    }
+
+    // Leases the lowest available block of resources from the store; done
+    // outside of the pool lock as it commits a store transaction
+    private void lease(PoolKey key) {
+        List<DiscreteResource> block = store.getChildResources(key.parent, key.cls).stream()
+                .filter(store::isAvailable)
+                .map(DiscreteResource.class::cast)
+                .sorted((a, b) -> Integer.compare(key.index(a), key.index(b)))
+                .limit(blockSize)
+                .collect(Collectors.toList());
+        if (block.isEmpty()) {
+            return;
+        }
+        if (!store.allocate(block, leaseConsumer)) {
+            log.debug("Failed to lease {} {} resources of {}", block.size(), key.cls.getSimpleName(), key.parent);
+            return;
+        }
+        synchronized (this) {
+            LeasedBlocks blocks = pools.computeIfAbsent(key, k -> new LeasedBlocks());
+            block.forEach(r -> {
+                int index = key.index(r);
+                blocks.leased.set(index);
+                blocks.free.set(index);
+            });
+            blocks.lastUsed = clock.getAsLong();
+        }
+        log.trace("Leased {} {} resources of {}", block.size(), key.cls.getSimpleName(), key.parent);
+    }
+
+    /**
+     * Hands back to the store the blocks which have no local allocations and
+     * have not been used for at least the given time.
+     *
+     * @param idleMillis idle time in milliseconds
+     * @return number of resources returned to the store
+     */
+    int returnIdle(long idleMillis) {
+        long now = clock.getAsLong();
+        List<ResourceAllocation> idle = new ArrayList<>();
+        synchronized (this) {
+            pools.entrySet().removeIf(e -> {
+                LeasedBlocks blocks = e.getValue();
+                if (!blocks.free.equals(blocks.leased) || now - blocks.lastUsed < idleMillis) {
+                    return false;
+                }
+                blocks.leased.stream()
+                        .forEach(i -> idle.add(new ResourceAllocation(e.getKey().resource(i), leaseConsumer)));
+                return true;
+            });
+        }
+        if (idle.isEmpty()) {
+            return 0;
+        }
+        if (!store.release(idle)) {
+            // The store still has the lease; drop it the next time around
+            log.warn("Failed to return {} idle leased resources", idle.size());
+            return 0;
+        }
+        return idle.size();
+    }
+
+    /**
+     * Drops from the pool the free resources which the store no longer
+     * records as leased to this node, e.g. after the node was considered
+     * failed by the rest of the cluster.
+     *
+     * @return number of resources dropped
+     */
+    int reconcile() {
+        // Resources being recorded are leaving the lease on purpose
+        synchronized (recordLock) {
+            Set<Resource> held = ImmutableSet.copyOf(store.getResources(leaseConsumer));
+            int dropped = 0;
+            synchronized (this) {
+                for (Map.Entry<PoolKey, LeasedBlocks> e : pools.entrySet()) {
+                    PoolKey key = e.getKey();
+                    LeasedBlocks blocks = e.getValue();
+                    for (int i = blocks.leased.nextSetBit(0); i >= 0; i = blocks.leased.nextSetBit(i + 1)) {
+                        DiscreteResource resource = key.resource(i);
+                        if (held.contains(resource)) {
+                            continue;
+                        }
+                        if (!blocks.free.get(i)) {
+                            log.warn("{} is allocated to {} but no longer leased to this node; "
+                                         + "it will be recorded afresh", resource, owners.get(resource));
+                        }
+                        blocks.leased.clear(i);
+                        blocks.free.clear(i);
+                        dropped++;
+                    }
+                }
+                pools.values().removeIf(blocks -> blocks.leased.isEmpty());
+            }
+            return dropped;
+        }
+    }
+
+    /**
+     * Records in the store the local allocations made since the last call,
+     * handing each resource from the lease to its consumer. Recorded
+     * resources leave the pool and are released through the store.
+     *
+     * @return number of allocations recorded
+     */
+    int record() {
+        synchronized (recordLock) {
+            Map<DiscreteResource, ResourceConsumerId> batch;
+            synchronized (this) {
+                batch = new HashMap<>(owners);
+                recording.addAll(batch.keySet());
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            Set<DiscreteResource> recorded = commit(batch, ImmutableList.of());
+            List<ResourceAllocation> released = new ArrayList<>();
+            synchronized (this) {
+                batch.forEach((resource, consumerId) -> {
+                    recording.remove(resource);
+                    boolean held = consumerId.equals(owners.get(resource));
+                    if (recorded.contains(resource)) {
+                        dropLeased(resource);
+                        if (held) {
+                            removeOwner(resource, consumerId);
+                        } else {
+                            released.add(new ResourceAllocation(resource, consumerId));
+                        }
+                    } else if (!held) {
+                        markFree(resource);
+                    }
+                });
+            }
+            // Released locally while being recorded
+            if (!released.isEmpty() && !store.release(released)) {
+                log.warn("Failed to release {} recorded resources", released.size());
+            }
+            return recorded.size();
+        }
+    }
+
+    /**
+     * Records every local allocation in the store against its own consumer
+     * and hands back all free leased resources in a single transaction,
+     * emptying the pool.
+     */
+    void flush() {
+        synchronized (recordLock) {
+            Map<DiscreteResource, ResourceConsumerId> allocated;
+            List<ResourceAllocation> free = new ArrayList<>();
+            synchronized (this) {
+                allocated = new HashMap<>(owners);
+                pools.forEach((key, blocks) -> blocks.free.stream()
+                        .forEach(i -> free.add(new ResourceAllocation(key.resource(i), leaseConsumer))));
+                pools.clear();
+                owners.clear();
+                consumers.clear();
+            }
+            if (!allocated.isEmpty() || !free.isEmpty()) {
+                commit(allocated, free);
+            }
+        }
+    }
+
+    // Hands the allocated resources from the lease to their consumers and
+    // returns the free ones to the store in a single transaction. Should
+    // some leases have been revoked, falls back to a transaction per
+    // consumer, allocating revoked resources afresh. Returns the resources
+    // recorded against their consumers.
+    private Set<DiscreteResource> commit(Map<DiscreteResource, ResourceConsumerId> allocated,
+                                         List<ResourceAllocation> free) {
+        List<ResourceAllocation> releases = new ArrayList<>(free);
+        List<ResourceAllocation> allocations = new ArrayList<>();
+        allocated.forEach((resource, consumerId) -> {
+            releases.add(new ResourceAllocation(resource, leaseConsumer));
+            allocations.add(new ResourceAllocation(resource, consumerId));
+        });
+        if (store.reallocate(releases, allocations)) {
+            return allocated.keySet();
+        }
+
+        Set<Resource> leased = ImmutableSet.copyOf(store.getResources(leaseConsumer));
+        Set<DiscreteResource> recorded = new HashSet<>();
+        allocated.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                                               Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+                .forEach((consumerId, resources) -> {
+                    List<ResourceAllocation> handed = resources.stream()
+                            .filter(leased::contains)
+                            .map(x -> new ResourceAllocation(x, leaseConsumer))
+                            .collect(Collectors.toList());
+                    List<ResourceAllocation> owned = resources.stream()
+                            .map(x -> new ResourceAllocation(x, consumerId))
+                            .collect(Collectors.toList());
+                    if (store.reallocate(handed, owned)) {
+                        recorded.addAll(resources);
+                    } else {
+                        log.warn("Failed to record {} in the store for {}", resources, consumerId);
+                    }
+                });
+        List<ResourceAllocation> returned = free.stream()
+                .filter(x -> leased.contains(x.resource()))
+                .collect(Collectors.toList());
+        if (!returned.isEmpty() && !store.release(returned)) {
+            log.warn("Failed to return {} leased resources", returned.size());
+        }
+        return recorded;
+    }
+
+    // Identifies the pool of a given resource type under a given parent
+    private static final class PoolKey {
+        private final DiscreteResourceId parent;
+        private final Class<?> cls;
+        private final LabelCodec codec;
+
+        private PoolKey(DiscreteResourceId parent, Class<?> cls) {
+            this.parent = parent;
+            this.cls = cls;
+            this.codec = CODECS.get(cls);
+        }
+
+        private static PoolKey of(Resource resource) {
+            if (!(resource instanceof DiscreteResource) || !resource.parent().isPresent()) {
+                return null;
+            }
+            for (Class<?> cls : CODECS.keySet()) {
+                if (resource.isTypeOf(cls)) {
+                    return new PoolKey(resource.parent().get().id(), cls);
+                }
+            }
+            return null;
+        }
+
+        private int index(DiscreteResource resource) {
+            return codec.index.apply(resource.valueAs(cls).get());
+        }
+
+        private DiscreteResource resource(int index) {
+            return Resources.discrete(parent, codec.value.apply(index)).resource();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(parent, cls);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof PoolKey)) {
+                return false;
+            }
+            PoolKey that = (PoolKey) obj;
+            return parent.equals(that.parent) && cls.equals(that.cls);
+        }
+    }
+
+    // Bitmaps of the labels leased under a parent and of those not allocated
+    private static final class LeasedBlocks {
+        private final BitSet leased = new BitSet();
+        private final BitSet free = new BitSet();
+        private long lastUsed;
+    }
+
+    // Maps label values to bitmap indexes and back
+    private static final class LabelCodec {
+        private final Function<Object, Integer> index;
+        private final IntFunction<Object> value;
+
+        private LabelCodec(Function<Object, Integer> index, IntFunction<Object> value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
+}
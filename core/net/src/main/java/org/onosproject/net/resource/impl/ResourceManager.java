@@ -15,15 +15,26 @@
  */
 package org.onosproject.net.resource.impl;
 
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.Beta;
 import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.Tools;
+import org.onosproject.cfg.ComponentConfigService;
+import org.onosproject.cluster.ClusterEvent;
+import org.onosproject.cluster.ClusterEventListener;
+import org.onosproject.cluster.ClusterService;
+import org.onosproject.cluster.NodeId;
 import org.onosproject.event.AbstractListenerManager;
 import org.onosproject.net.resource.DiscreteResourceId;
 import org.onosproject.net.resource.Resource;
 import org.onosproject.net.resource.ResourceAdminService;
 import org.onosproject.net.resource.ResourceAllocation;
 import org.onosproject.net.resource.ResourceConsumer;
+import org.onosproject.net.resource.ResourceConsumerId;
 import org.onosproject.net.resource.ResourceEvent;
 import org.onosproject.net.resource.ResourceId;
 import org.onosproject.net.resource.ResourceListener;
@@ -31,19 +42,40 @@ import org.onosproject.net.resource.ResourceQueryService;
 import org.onosproject.net.resource.ResourceService;
 import org.onosproject.net.resource.ResourceStore;
 import org.onosproject.net.resource.ResourceStoreDelegate;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.onlab.metrics.MetricsUtil.startTimer;
+import static org.onlab.metrics.MetricsUtil.stopTimer;
+import static org.onlab.util.Tools.groupedThreads;
+import static org.onosproject.net.OsgiPropertyConstants.RM_LABEL_LEASING;
+import static org.onosproject.net.OsgiPropertyConstants.RM_LABEL_LEASING_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.RM_LEASE_BLOCK_SIZE;
+import static org.onosproject.net.OsgiPropertyConstants.RM_LEASE_BLOCK_SIZE_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.RM_LEASE_IDLE_TIMEOUT;
+import static org.onosproject.net.OsgiPropertyConstants.RM_LEASE_IDLE_TIMEOUT_DEFAULT;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.RESOURCE_READ;
 import static org.onosproject.security.AppPermission.Type.RESOURCE_WRITE;
@@ -57,35 +89,196 @@ import static org.slf4j.LoggerFactory.getLogger;
         ResourceService.class,
         ResourceAdminService.class,
         ResourceQueryService.class
+    },
+    property = {
+        RM_LABEL_LEASING + ":Boolean=" + RM_LABEL_LEASING_DEFAULT,
+        RM_LEASE_BLOCK_SIZE + ":Integer=" + RM_LEASE_BLOCK_SIZE_DEFAULT,
+        RM_LEASE_IDLE_TIMEOUT + ":Integer=" + RM_LEASE_IDLE_TIMEOUT_DEFAULT
     }
 )
 @Beta
 public final class ResourceManager extends AbstractListenerManager<ResourceEvent, ResourceListener>
         implements ResourceService, ResourceAdminService {
 
+    private static final String METRICS_COMPONENT = "ResourceManager";
+    private static final String METRICS_FEATURE = "Allocation";
+    private static final String ALLOCATE = "allocate";
+    private static final String LEASED_ALLOCATE = "leasedAllocate";
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected ResourceStore store;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ClusterService clusterService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
+    /** Serve MPLS label and VLAN ID allocations from blocks leased by this node. */
+    private boolean labelLeasing = RM_LABEL_LEASING_DEFAULT;
+
+    /** Number of labels leased from the store at a time. */
+    private int leaseBlockSize = RM_LEASE_BLOCK_SIZE_DEFAULT;
+
+    /** Seconds after which unused leased labels are returned to the store. */
+    private int leaseIdleTimeout = RM_LEASE_IDLE_TIMEOUT_DEFAULT;
+
     private final Logger log = getLogger(getClass());
 
     private final ResourceStoreDelegate delegate = new InternalStoreDelegate();
+    private final ClusterEventListener clusterListener = new InternalClusterListener();
+
+    private ScheduledExecutorService leaseExecutor;
+    private ScheduledFuture<?> leaseTask;
+    private volatile LeasedResourcePool pool;
+    private final AtomicBoolean recordPending = new AtomicBoolean();
+
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
+    private Timer allocateTimer;
+    private Timer leasedAllocateTimer;
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
         store.setDelegate(delegate);
         eventDispatcher.addSink(ResourceEvent.class, listenerRegistry);
+        cfgService.registerProperties(getClass());
+        registerMetrics();
+
+        leaseExecutor = newSingleThreadScheduledExecutor(groupedThreads("onos/resource", "lease", log));
+        clusterService.addListener(clusterListener);
+        // Leases held before a restart are lost along with the local pool;
+        // allocations recorded against their consumers are left in place
+        releaseLeases(clusterService.getLocalNode().id());
+        modified(context);
 
         log.info("Started");
     }
 
     @Deactivate
     public void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
+        clusterService.removeListener(clusterListener);
+        disableLeasing();
+        leaseExecutor.shutdown();
+        removeMetrics();
         store.unsetDelegate(delegate);
         eventDispatcher.removeSink(ResourceEvent.class);
 
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context != null) {
+            String s = Tools.get(context.getProperties(), RM_LABEL_LEASING);
+            labelLeasing = isNullOrEmpty(s) ? labelLeasing : Boolean.parseBoolean(s.trim());
+
+            s = Tools.get(context.getProperties(), RM_LEASE_BLOCK_SIZE);
+            int newBlockSize = isNullOrEmpty(s) ? leaseBlockSize : Integer.parseInt(s.trim());
+            if (newBlockSize > 0) {
+                leaseBlockSize = newBlockSize;
+            }
+
+            s = Tools.get(context.getProperties(), RM_LEASE_IDLE_TIMEOUT);
+            int newIdleTimeout = isNullOrEmpty(s) ? leaseIdleTimeout : Integer.parseInt(s.trim());
+            if (newIdleTimeout > 0) {
+                leaseIdleTimeout = newIdleTimeout;
+            }
+        }
+
+        // Leased labels are handed back before changing the lease settings
+        disableLeasing();
+        if (labelLeasing) {
+            enableLeasing();
+        }
+        log.info("Settings: {}={}, {}={}, {}={}", RM_LABEL_LEASING, labelLeasing,
+                 RM_LEASE_BLOCK_SIZE, leaseBlockSize, RM_LEASE_IDLE_TIMEOUT, leaseIdleTimeout);
+    }
+
+    private synchronized void enableLeasing() {
+        ResourceConsumer leaseConsumer = new LeaseConsumer(clusterService.getLocalNode().id());
+        pool = new LeasedResourcePool(store, leaseConsumer, leaseBlockSize, System::currentTimeMillis);
+        long period = Math.max(1, leaseIdleTimeout / 2);
+        leaseTask = leaseExecutor.scheduleWithFixedDelay(this::expireLeases, period, period, TimeUnit.SECONDS);
+    }
+
+    private synchronized void disableLeasing() {
+        if (leaseTask != null) {
+            leaseTask.cancel(false);
+            leaseTask = null;
+        }
+        LeasedResourcePool oldPool = pool;
+        pool = null;
+        if (oldPool != null) {
+            oldPool.flush();
+        }
+    }
+
+    private void expireLeases() {
+        LeasedResourcePool current = pool;
+        if (current == null) {
+            return;
+        }
+        try {
+            recordLeases();
+            int returned = current.returnIdle(TimeUnit.SECONDS.toMillis(leaseIdleTimeout));
+            int dropped = current.reconcile();
+            if (returned > 0 || dropped > 0) {
+                log.debug("Returned {} idle and dropped {} revoked leased resources", returned, dropped);
+            }
+        } catch (Exception e) {
+            log.warn("Unable to expire leased resources", e);
+        }
+    }
+
+    // Records in the store the allocations served out of the local pool
+    private void recordLeases() {
+        recordPending.set(false);
+        LeasedResourcePool current = pool;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.record();
+        } catch (Exception e) {
+            log.warn("Unable to record leased resource allocations", e);
+        }
+    }
+
+    // Returns to the store every resource leased by the given node and not
+    // yet recorded against a consumer
+    private void releaseLeases(NodeId nodeId) {
+        ResourceConsumer consumer = new LeaseConsumer(nodeId);
+        List<ResourceAllocation> leased = store.getResources(consumer).stream()
+                .map(x -> new ResourceAllocation(x, consumer))
+                .collect(Collectors.toList());
+        if (!leased.isEmpty() && store.release(leased)) {
+            log.info("Released {} resources leased by {}", leased.size(), nodeId);
+        }
+    }
+
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRICS_FEATURE);
+        allocateTimer = metricsService.createTimer(metricsComponent, metricsFeature, ALLOCATE);
+        leasedAllocateTimer = metricsService.createTimer(metricsComponent, metricsFeature, LEASED_ALLOCATE);
+    }
+
+    private void removeMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        metricsService.removeMetric(metricsComponent, metricsFeature, ALLOCATE);
+        metricsService.removeMetric(metricsComponent, metricsFeature, LEASED_ALLOCATE);
+    }
+
     @Override
     public List<ResourceAllocation> allocate(ResourceConsumer consumer,
                                              List<? extends Resource> resources) {
@@ -93,9 +286,37 @@ public final class ResourceManager extends AbstractListenerManager<ResourceEvent
         checkNotNull(consumer);
         checkNotNull(resources);
 
-        boolean success = store.allocate(resources, consumer);
-        if (!success) {
-            return ImmutableList.of();
+        LeasedResourcePool current = pool;
+        List<Resource> leased = new ArrayList<>();
+        List<Resource> others = new ArrayList<>();
+        resources.forEach(x -> (current != null && current.isLeased(x) ? leased : others).add(x));
+
+        if (!leased.isEmpty()) {
+            final Timer.Context leasedContext = startTimer(leasedAllocateTimer);
+            boolean success = current.allocate(leased, consumer);
+            stopTimer(leasedContext);
+            if (!success) {
+                return ImmutableList.of();
+            }
+        }
+
+        if (!others.isEmpty()) {
+            final Timer.Context context = startTimer(allocateTimer);
+            boolean success = store.allocate(others, consumer);
+            stopTimer(context);
+            if (!success) {
+                // Released through the store should a record have taken them
+                release(leased.stream()
+                                .map(x -> new ResourceAllocation(x, consumer))
+                                .collect(Collectors.toList()));
+                return ImmutableList.of();
+            }
+        }
+
+        // Recorded once the whole allocation is known to have succeeded, so
+        // that a rollback of the leased part stays local
+        if (!leased.isEmpty() && recordPending.compareAndSet(false, true)) {
+            leaseExecutor.execute(this::recordLeases);
         }
 
         return resources.stream()
@@ -108,7 +329,12 @@ public final class ResourceManager extends AbstractListenerManager<ResourceEvent
         checkPermission(RESOURCE_WRITE);
         checkNotNull(allocations);
 
-        return store.release(allocations);
+        LeasedResourcePool current = pool;
+        List<ResourceAllocation> others = current == null ? allocations :
+                allocations.stream()
+                        .filter(x -> !current.release(x))
+                        .collect(Collectors.toList());
+        return others.isEmpty() || store.release(others);
     }
 
     @Override
@@ -124,7 +350,7 @@ public final class ResourceManager extends AbstractListenerManager<ResourceEvent
         checkPermission(RESOURCE_READ);
         checkNotNull(id);
 
-        return store.getResourceAllocations(id);
+        return localView(store.getResourceAllocations(id));
     }
 
     @Override
@@ -135,8 +361,28 @@ public final class ResourceManager extends AbstractListenerManager<ResourceEvent
 
         // We access store twice in this method, then the store may be updated by others
         Collection<Resource> resources = store.getAllocatedResources(parent, cls);
-        return resources.stream()
+        return localView(resources.stream()
                 .flatMap(resource -> store.getResourceAllocations(resource.id()).stream())
+                .collect(Collectors.toList()));
+    }
+
+    // Attributes the resources leased by this node to the consumers they
+    // were allocated to out of the local pool and hides the free ones
+    private List<ResourceAllocation> localView(List<ResourceAllocation> allocations) {
+        LeasedResourcePool current = pool;
+        if (current == null) {
+            return ImmutableList.copyOf(allocations);
+        }
+        ResourceConsumerId leaseId = current.leaseConsumer().consumerId();
+        return allocations.stream()
+                .map(x -> {
+                    if (!x.consumerId().equals(leaseId)) {
+                        return x;
+                    }
+                    ResourceConsumerId owner = current.owner(x.resource());
+                    return owner == null ? null : new ResourceAllocation(x.resource(), owner);
+                })
+                .filter(Objects::nonNull)
                 .collect(ImmutableList.toImmutableList());
     }
 
@@ -145,7 +391,12 @@ public final class ResourceManager extends AbstractListenerManager<ResourceEvent
         checkPermission(RESOURCE_READ);
         checkNotNull(consumer);
 
-        Collection<Resource> resources = store.getResources(consumer);
+        // Allocations being recorded may be seen both in the store and locally
+        Set<Resource> resources = new LinkedHashSet<>(store.getResources(consumer));
+        LeasedResourcePool current = pool;
+        if (current != null) {
+            resources.addAll(current.allocations(consumer.consumerId()));
+        }
         return resources.stream()
                 .map(x -> new ResourceAllocation(x, consumer))
                 .collect(Collectors.toList());
@@ -159,7 +410,7 @@ public final class ResourceManager extends AbstractListenerManager<ResourceEvent
         Set<Resource> children = store.getChildResources(parent);
         return children.stream()
                 // We access store twice in this method, then the store may be updated by others
-                .filter(store::isAvailable)
+                .filter(this::available)
                 .collect(Collectors.toSet());
     }
 
@@ -169,6 +420,12 @@ public final class ResourceManager extends AbstractListenerManager<ResourceEvent
         checkNotNull(parent);
         checkNotNull(cls);
 
+        LeasedResourcePool current = pool;
+        if (current != null && LeasedResourcePool.isLeasable(cls)) {
+            return current.available(parent, cls).stream()
+                    .collect(Collectors.toSet());
+        }
+
         return store.getChildResources(parent, cls).stream()
                 // We access store twice in this method, then the store may be updated by others
                 .filter(store::isAvailable)
@@ -181,9 +438,7 @@ public final class ResourceManager extends AbstractListenerManager<ResourceEvent
         checkNotNull(parent);
         checkNotNull(cls);
 
-        return store.getChildResources(parent, cls).stream()
-                // We access store twice in this method, then the store may be updated by others
-                .filter(store::isAvailable)
+        return getAvailableResources(parent, cls).stream()
                 .map(x -> x.valueAs(cls))
                 .flatMap(Tools::stream)
                 .collect(Collectors.toSet());
@@ -202,6 +457,14 @@ public final class ResourceManager extends AbstractListenerManager<ResourceEvent
         checkPermission(RESOURCE_READ);
         checkNotNull(resource);
 
+        return available(resource);
+    }
+
+    private boolean available(Resource resource) {
+        LeasedResourcePool current = pool;
+        if (current != null && current.isLeased(resource)) {
+            return current.isFree(resource);
+        }
         return store.isAvailable(resource);
     }
 
@@ -219,10 +482,42 @@ public final class ResourceManager extends AbstractListenerManager<ResourceEvent
         return store.unregister(ids);
     }
 
+    /**
+     * Consumer owning in the store the blocks of resources leased by a node.
+     */
+    static final class LeaseConsumer implements ResourceConsumer {
+        private final ResourceConsumerId id;
+
+        LeaseConsumer(NodeId nodeId) {
+            long value = Hashing.sipHash24().hashString(nodeId.id(), UTF_8).asLong();
+            this.id = ResourceConsumerId.of(value, LeaseConsumer.class);
+        }
+
+        @Override
+        public ResourceConsumerId consumerId() {
+            return id;
+        }
+    }
+
     private class InternalStoreDelegate implements ResourceStoreDelegate {
         @Override
         public void notify(ResourceEvent event) {
             post(event);
         }
     }
+
+    private class InternalClusterListener implements ClusterEventListener {
+        @Override
+        public void event(ClusterEvent event) {
+            NodeId nodeId = event.subject().id();
+            if (event.type() == ClusterEvent.Type.INSTANCE_DEACTIVATED &&
+                    !nodeId.equals(clusterService.getLocalNode().id())) {
+                // The failed node can no longer serve its leases; every
+                // surviving node attempts the release, only one commits.
+                // Labels it recorded against their consumers stay allocated
+                // and any it allocates while partitioned are recorded afresh
+                leaseExecutor.execute(() -> releaseLeases(nodeId));
+            }
+        }
+    }
 }
@@ -15,6 +15,13 @@
  */
 package org.onosproject.net.topology.impl;
 
+import com.codahale.metrics.Gauge;
+import com.google.common.cache.CacheStats;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+import org.onosproject.cfg.ComponentConfigService;
+import org.onosproject.common.DefaultTopology;
 import org.onosproject.net.DisjointPath;
 import org.onosproject.net.ElementId;
 import org.onosproject.net.Link;
@@ -23,18 +30,29 @@ import org.onosproject.net.host.HostService;
 import org.onosproject.net.topology.AbstractPathService;
 import org.onosproject.net.topology.LinkWeigher;
 import org.onosproject.net.topology.PathService;
+import org.onosproject.net.topology.Topology;
+import org.onosproject.net.topology.TopologyEvent;
+import org.onosproject.net.topology.TopologyListener;
 import org.onosproject.net.topology.TopologyService;
+import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 
+import static org.onlab.util.Tools.getIntegerProperty;
+import static org.onosproject.net.OsgiPropertyConstants.PM_PATH_CACHE_SIZE;
+import static org.onosproject.net.OsgiPropertyConstants.PM_PATH_CACHE_SIZE_DEFAULT;
+import static org.onosproject.net.OsgiPropertyConstants.PM_PATH_SEARCH_PARALLELISM;
+import static org.onosproject.net.OsgiPropertyConstants.PM_PATH_SEARCH_PARALLELISM_DEFAULT;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.TOPOLOGY_READ;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -44,9 +62,25 @@ import static org.slf4j.LoggerFactory.getLogger;
  * Provides implementation of a path selection service atop the current
  * topology and host services.
  */
-@Component(immediate = true, service = PathService.class)
+@Component(
+    immediate = true,
+    service = PathService.class,
+    property = {
+        PM_PATH_CACHE_SIZE + ":Integer=" + PM_PATH_CACHE_SIZE_DEFAULT,
+        PM_PATH_SEARCH_PARALLELISM + ":Integer=" + PM_PATH_SEARCH_PARALLELISM_DEFAULT
+    }
+)
 public class PathManager extends AbstractPathService implements PathService {
 
+    private static final String METRICS_COMPONENT = "Topology";
+    private static final String METRICS_FEATURE = "PathCache";
+    private static final String HITS = "hits";
+    private static final String MISSES = "misses";
+    private static final String EVICTIONS = "evictions";
+    private static final String SIZE = "size";
+
+    private static final CacheStats NO_STATS = new CacheStats(0, 0, 0, 0, 0, 0);
+
     private final Logger log = getLogger(getClass());
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
@@ -55,19 +89,123 @@ public class PathManager extends AbstractPathService implements PathService {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected HostService hostService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected ComponentConfigService cfgService;
+
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
+    /** Maximum number of shortest path sets cached per topology; 0 disables the cache. */
+    private int pathCacheSize = PM_PATH_CACHE_SIZE_DEFAULT;
+
+    /** Number of threads computing K-shortest and disjoint paths; 1 computes them sequentially. */
+    private int pathSearchParallelism = PM_PATH_SEARCH_PARALLELISM_DEFAULT;
+
+    private final TopologyListener topologyListener = new InternalTopologyListener();
+
+    // Path cache statistics accumulated from topologies no longer current
+    private CacheStats retiredStats = NO_STATS;
+    private Topology trackedTopology;
+
+    private MetricsComponent metricsComponent;
+    private MetricsFeature metricsFeature;
+
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
         // initialize AbstractPathService
         super.topologyService = this.topologyService;
         super.hostService = this.hostService;
+        cfgService.registerProperties(getClass());
+        modified(context);
+        trackedTopology = topologyService.currentTopology();
+        topologyService.addListener(topologyListener);
+        registerMetrics();
         log.info("Started");
     }
 
     @Deactivate
     public void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
+        topologyService.removeListener(topologyListener);
+        removeMetrics();
+        DefaultTopology.setPathCacheSize(0);
+        DefaultTopology.setPathSearchParallelism(1);
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context != null) {
+            Integer size = getIntegerProperty(context.getProperties(), PM_PATH_CACHE_SIZE);
+            if (size != null && size >= 0) {
+                pathCacheSize = size;
+            }
+            Integer parallelism = getIntegerProperty(context.getProperties(), PM_PATH_SEARCH_PARALLELISM);
+            if (parallelism != null && parallelism > 0) {
+                pathSearchParallelism = parallelism;
+            }
+        }
+        // Path cache size takes effect with the next topology
+        DefaultTopology.setPathCacheSize(pathCacheSize);
+        DefaultTopology.setPathSearchParallelism(pathSearchParallelism);
+        log.info("Settings: {}={}, {}={}", PM_PATH_CACHE_SIZE, pathCacheSize,
+                 PM_PATH_SEARCH_PARALLELISM, pathSearchParallelism);
+    }
+
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        metricsComponent = metricsService.registerComponent(METRICS_COMPONENT);
+        metricsFeature = metricsComponent.registerFeature(METRICS_FEATURE);
+        registerGauge(HITS, CacheStats::hitCount);
+        registerGauge(MISSES, CacheStats::missCount);
+        registerGauge(EVICTIONS, CacheStats::evictionCount);
+        metricsService.registerMetric(metricsComponent, metricsFeature, SIZE,
+                                      (Gauge<Long>) this::pathCacheEntries);
+    }
+
+    private void registerGauge(String name, ToLongFunction<CacheStats> statistic) {
+        metricsService.registerMetric(metricsComponent, metricsFeature, name,
+                                      (Gauge<Long>) () -> statistic.applyAsLong(pathCacheStats()));
+    }
+
+    private void removeMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        metricsService.removeMetric(metricsComponent, metricsFeature, HITS);
+        metricsService.removeMetric(metricsComponent, metricsFeature, MISSES);
+        metricsService.removeMetric(metricsComponent, metricsFeature, EVICTIONS);
+        metricsService.removeMetric(metricsComponent, metricsFeature, SIZE);
+    }
+
+    /**
+     * Returns the path cache statistics accumulated over all topologies
+     * since this service was started.
+     *
+     * @return path cache statistics
+     */
+    synchronized CacheStats pathCacheStats() {
+        return retiredStats.plus(stats(trackedTopology));
+    }
+
+    private synchronized long pathCacheEntries() {
+        return trackedTopology instanceof DefaultTopology ?
+                ((DefaultTopology) trackedTopology).pathCacheSize() : 0;
+    }
+
+    private static CacheStats stats(Topology topology) {
+        return topology instanceof DefaultTopology ?
+                ((DefaultTopology) topology).pathCacheStats() : NO_STATS;
+    }
+
+    // Retires the statistics of the topology being replaced.
+    private synchronized void topologyChanged(Topology topology) {
+        retiredStats = retiredStats.plus(stats(trackedTopology));
+        trackedTopology = topology;
+    }
+
     @Override
     public Set<Path> getPaths(ElementId src, ElementId dst) {
         checkPermission(TOPOLOGY_READ);
@@ -114,4 +252,11 @@ public class PathManager extends AbstractPathService implements PathService {
         return super.getDisjointPaths(src, dst, weigher, riskProfile);
     }
 
+    // Tracks the current topology to account for its path cache statistics.
+    private class InternalTopologyListener implements TopologyListener {
+        @Override
+        public void event(TopologyEvent event) {
+            topologyChanged(event.subject());
+        }
+    }
 }
@@ -20,14 +20,26 @@ import org.junit.Before;
 import org.junit.Test;
 import org.onosproject.event.AbstractEvent;
 import org.onosproject.event.EventSink;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.device.DeviceEvent;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.NetTestTools.device;
+import static org.onosproject.net.device.DeviceEvent.Type.DEVICE_UPDATED;
 
 /**
  * Test of the event dispatcher mechanism.
@@ -88,6 +100,47 @@ public class CoreEventDispatcherTest {
         assertTrue(takesTooLong.interrupted);
     }
 
+    @Test
+    public void postEventsWithShardedDispatch() throws Exception {
+        dispatcher.setDispatchThreads(4);
+        assertEquals("incorrect thread count", 4, dispatcher.getDispatchThreads());
+
+        DeviceEventSink deviceSink = new DeviceEventSink();
+        dispatcher.addSink(DeviceEvent.class, deviceSink);
+        try {
+            List<Device> devices = IntStream.range(0, 8)
+                    .mapToObj(i -> device("sw" + i))
+                    .collect(Collectors.toList());
+            Map<DeviceId, List<DeviceEvent>> posted = new HashMap<>();
+            deviceSink.latch = new CountDownLatch(devices.size() * 50);
+            for (int i = 0; i < 50; i++) {
+                for (Device device : devices) {
+                    DeviceEvent event = new DeviceEvent(DEVICE_UPDATED, device);
+                    posted.computeIfAbsent(device.id(), k -> new ArrayList<>()).add(event);
+                    dispatcher.post(event);
+                }
+            }
+            assertTrue(deviceSink.latch.await(5, TimeUnit.SECONDS));
+
+            // Events of a subject are dispatched in order, by a single loop
+            assertEquals("incorrect event order", posted, deviceSink.received);
+            deviceSink.threads.forEach((deviceId, threads) ->
+                    assertEquals("events of " + deviceId + " dispatched by several loops", 1, threads.size()));
+            Set<String> loops = deviceSink.threads.values().stream()
+                    .flatMap(Set::stream)
+                    .collect(Collectors.toSet());
+            assertTrue("events dispatched by a single loop", loops.size() > 1);
+        } finally {
+            dispatcher.removeSink(DeviceEvent.class);
+        }
+
+        dispatcher.setDispatchThreads(1);
+        prickleSink.latch = new CountDownLatch(1);
+        dispatcher.post(new Prickle("d"));
+        assertTrue(prickleSink.latch.await(1000, TimeUnit.MILLISECONDS));
+        assertEquals("incorrect event", "d", prickleSink.subjects.get(0));
+    }
+
     private void validate(Sink sink, String... strings) {
         int i = 0;
         assertEquals("incorrect event count", strings.length, sink.subjects.size());
@@ -117,7 +170,7 @@ public class CoreEventDispatcherTest {
     }
 
     private static class Sink {
-        final List<String> subjects = new ArrayList<>();
+        final List<String> subjects = Collections.synchronizedList(new ArrayList<>());
         CountDownLatch latch;
 
         protected void process(String subject) {
@@ -141,6 +194,21 @@ public class CoreEventDispatcherTest {
         }
     }
 
+    private static class DeviceEventSink implements EventSink<DeviceEvent> {
+        final Map<DeviceId, List<DeviceEvent>> received = new ConcurrentHashMap<>();
+        final Map<DeviceId, Set<String>> threads = new ConcurrentHashMap<>();
+        CountDownLatch latch;
+
+        @Override
+        public void process(DeviceEvent event) {
+            DeviceId deviceId = event.subject().id();
+            received.computeIfAbsent(deviceId, k -> Collections.synchronizedList(new ArrayList<>())).add(event);
+            threads.computeIfAbsent(deviceId, k -> ConcurrentHashMap.newKeySet())
+                    .add(Thread.currentThread().getName());
+            latch.countDown();
+        }
+    }
+
     private static class TooLongEvent extends AbstractEvent<Type, String> {
         protected TooLongEvent(String subject) {
             super(Type.FOO, subject);
@@ -25,6 +25,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.junit.TestTools;
+import org.onlab.junit.TestUtils;
 import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.common.event.impl.TestEventDispatcher;
 import org.onosproject.core.ApplicationId;
@@ -90,6 +91,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.onosproject.net.NetTestTools.injectEventDispatcher;
 import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_ADDED;
 import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_ADD_REQUESTED;
@@ -372,6 +374,83 @@ public class FlowRuleManagerTest {
                        RULE_ADDED, RULE_ADDED, RULE_ADD_REQUESTED);
     }
 
+    @Test
+    public void flowMetricsParts() {
+        FlowRule f1 = flowRule(1, 1);
+        FlowRule f2 = flowRule(2, 2);
+        FlowRule f3 = flowRule(3, 3);
+
+        mgr.applyFlowRules(f1, f2, f3);
+
+        FlowEntry fe1 = new DefaultFlowEntry(f1);
+        FlowEntry fe2 = new DefaultFlowEntry(f2);
+
+        // missing flows are not detected before the last part
+        providerService.pushFlowMetricsPart(DID, 1, Lists.newArrayList(fe1), false);
+        validateEvents(RULE_ADD_REQUESTED, RULE_ADD_REQUESTED, RULE_ADD_REQUESTED,
+                       RULE_ADDED);
+
+        providerService.pushFlowMetricsPart(DID, 1, Lists.newArrayList(fe2), true);
+        assertTrue("Entries should be added.",
+                   validateState(ImmutableMap.of(
+                           f1, FlowEntryState.ADDED,
+                           f2, FlowEntryState.ADDED,
+                           f3, FlowEntryState.PENDING_ADD)));
+        validateEvents(RULE_ADDED, RULE_ADD_REQUESTED);
+
+        // an incomplete collection is abandoned by the next one
+        providerService.pushFlowMetricsPart(DID, 2, Lists.newArrayList(fe1), false);
+        providerService.pushFlowMetricsPart(DID, 3, Lists.newArrayList(fe1, fe2), true);
+        validateEvents(RULE_UPDATED, RULE_UPDATED, RULE_UPDATED, RULE_ADD_REQUESTED);
+    }
+
+    @Test
+    public void deltaFlowMetrics() {
+        TestUtils.setField(mgr, "deltaFlowStatistics", true);
+        FlowRule f1 = flowRule(1, 1);
+        FlowRule f2 = flowRule(2, 2);
+
+        mgr.applyFlowRules(f1, f2);
+
+        FlowEntry fe1 = new DefaultFlowEntry(f1);
+        FlowEntry fe2 = new DefaultFlowEntry(f2);
+
+        providerService.pushFlowMetrics(DID, Lists.newArrayList(fe1, fe2));
+        validateEvents(RULE_ADD_REQUESTED, RULE_ADD_REQUESTED, RULE_ADDED, RULE_ADDED);
+
+        // unchanged entries are not updated
+        providerService.pushFlowMetrics(DID, Lists.newArrayList(fe1, fe2));
+        validateEvents();
+
+        FlowEntry updated = new DefaultFlowEntry(f1, FlowEntryState.ADDED, 1, 10, 1000);
+        providerService.pushFlowMetrics(DID, Lists.newArrayList(updated, fe2));
+        validateEvents(RULE_UPDATED);
+        assertEquals(10, Sets.newHashSet(service.getFlowEntries(DID)).stream()
+                .mapToLong(FlowEntry::packets).sum());
+    }
+
+    @Test
+    public void deltaFlowMetricsFromStaleProvider() {
+        TestUtils.setField(mgr, "deltaFlowStatistics", true);
+        FlowRule f1 = flowRule(1, 1);
+
+        mgr.applyFlowRules(f1);
+        providerService.pushFlowMetrics(DID, Lists.newArrayList(new DefaultFlowEntry(f1)));
+        validateEvents(RULE_ADD_REQUESTED, RULE_ADDED);
+
+        registry.unregister(provider);
+        FlowEntry updated = new DefaultFlowEntry(f1, FlowEntryState.ADDED, 1, 10, 1000);
+        try {
+            providerService.pushFlowMetrics(DID, Lists.newArrayList(updated));
+            fail("stale provider service should be rejected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        validateEvents();
+        assertEquals(0, Sets.newHashSet(service.getFlowEntries(DID)).stream()
+                .mapToLong(FlowEntry::packets).sum());
+    }
+
     @Test
     public void extraneousFlow() {
         FlowRule f1 = flowRule(1, 1);
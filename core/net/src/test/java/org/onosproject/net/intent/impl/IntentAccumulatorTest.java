@@ -28,11 +28,13 @@ import org.onosproject.net.intent.IntentState;
 import org.onosproject.net.intent.IntentTestsMocks.MockIntent;
 import org.onosproject.net.intent.IntentTestsMocks.MockTimestamp;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
 
 /**
  * Unit tests for the intent accumulator.
@@ -143,5 +145,40 @@ public class IntentAccumulatorTest extends AbstractIntentTest {
         accumulator.processItems(intentDataItems);
     }
 
+    /**
+     * Tests that batches in flight never share keys, and that operations
+     * held back are submitted once the batch holding their key completes.
+     */
+    @Test
+    public void checkPipelinedBatches() {
+        List<Collection<IntentData>> batches = new ArrayList<>();
+        IntentAccumulator accumulator = new IntentAccumulator(batches::add);
+        accumulator.setMaxInFlightBatches(2);
+
+        accumulator.processItems(ImmutableList.of(
+                new IntentData(intent1, IntentState.INSTALLED, new MockTimestamp(1)),
+                new IntentData(intent2, IntentState.INSTALLED, new MockTimestamp(1))));
+        assertThat(accumulator.isReady(), is(true));
+
+        accumulator.processItems(ImmutableList.of(
+                new IntentData(intent2, IntentState.INSTALLED, new MockTimestamp(2)),
+                new IntentData(intent3, IntentState.INSTALLED, new MockTimestamp(2))));
+        assertThat(batches, hasSize(2));
+        assertThat(batches.get(1), hasSize(1));
+        assertThat(batches.get(1), containsIntent(intent3));
+        assertThat(accumulator.isReady(), is(false));
+        assertThat(accumulator.inFlightBatches(), is(2));
+
+        accumulator.ready(batches.get(0));
+        assertThat(batches, hasSize(3));
+        assertThat(batches.get(2), hasSize(1));
+        assertThat(batches.get(2), containsIntent(intent2));
+
+        accumulator.ready(batches.get(1));
+        accumulator.ready(batches.get(2));
+        assertThat(accumulator.inFlightBatches(), is(0));
+        assertThat(accumulator.isReady(), is(true));
+    }
+
 
 }
@@ -15,6 +15,7 @@
  */
 package org.onosproject.net.intent.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import org.junit.After;
@@ -31,6 +32,8 @@ import org.onosproject.net.PortNumber;
 import org.onosproject.net.device.DeviceEvent;
 import org.onosproject.net.device.DeviceListener;
 import org.onosproject.net.intent.AbstractIntentTest;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentTestsMocks.MockIntent;
 import org.onosproject.net.intent.Key;
 import org.onosproject.net.intent.TopologyChangeDelegate;
 import org.onosproject.net.link.LinkEvent;
@@ -316,5 +319,35 @@ public class ObjectiveTrackerTest extends AbstractIntentTest {
         assertThat(delegate.compileAllFailedFromEvent, is(true));
     }
 
+    /**
+     * Tests tracking and un-tracking the resources of several intents at once.
+     *
+     * @throws InterruptedException if the latch wait fails.
+     */
+    @Test
+    public void testTrackedIntents() throws Exception {
+        final Device host = device("host1");
+        final Link link = link("src", 1, "dst", 2);
+        final Key key = Key.of(0x333L, APP_ID);
+        final List<Intent> intents = ImmutableList.of(
+                new MockIntent(1L, ImmutableSet.of(host.id())),
+                new MockIntent(2L, ImmutableSet.of(host.id(), link)));
 
+        tracker.addTrackedIntents(key, intents);
+        deviceListener.event(new DeviceEvent(DeviceEvent.Type.DEVICE_ADDED, host));
+        assertThat(
+                delegate.latch.await(WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS),
+                is(true));
+        assertThat(delegate.intentIdsFromEvent, contains(key));
+
+        delegate.latch = new CountDownLatch(1);
+        tracker.removeTrackedIntents(key, intents);
+        reasons.add(new LinkEvent(LinkEvent.Type.LINK_REMOVED, link));
+        listener.event(new TopologyEvent(TopologyEvent.Type.TOPOLOGY_CHANGED,
+                                         topology, reasons));
+        assertThat(
+                delegate.latch.await(WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS),
+                is(true));
+        assertThat(delegate.intentIdsFromEvent, hasSize(0));
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.packet.impl;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Tests of the latency histogram.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Tests quantiles of recorded latencies.
+     */
+    @Test
+    public void testQuantiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.quantile(0.5), is(0L));
+
+        for (int i = 0; i < 90; i++) {
+            histogram.record(100);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(5000);
+        }
+        histogram.record(0);
+
+        assertThat(histogram.max(), is(5000L));
+        assertThat(histogram.quantile(0), is(0L));
+        assertThat(histogram.quantile(0.5), is(127L));
+        assertThat(histogram.quantile(0.9), is(127L));
+        assertThat(histogram.quantile(0.95), is(5000L));
+        assertThat(histogram.quantile(1), is(5000L));
+    }
+
+    /**
+     * Tests quantiles of very long latencies.
+     */
+    @Test
+    public void testLongLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-1);
+        assertThat(histogram.quantile(1), is(Long.MAX_VALUE));
+        assertThat(histogram.quantile(0.5), is(0L));
+    }
+}
@@ -18,8 +18,13 @@ package org.onosproject.net.packet.impl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.osgi.ComponentContextAdapter;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.MacAddress;
+import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.cluster.ClusterServiceAdapter;
 import org.onosproject.common.event.impl.TestEventDispatcher;
 import org.onosproject.core.CoreServiceAdapter;
@@ -38,19 +43,43 @@ import org.onosproject.net.driver.DriverRegistry;
 import org.onosproject.net.driver.impl.DriverManager;
 import org.onosproject.net.driver.impl.DriverRegistryManager;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.packet.DefaultInboundPacket;
 import org.onosproject.net.packet.DefaultOutboundPacket;
+import org.onosproject.net.packet.DefaultPacketContext;
 import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketProcessor;
+import org.onosproject.net.packet.PacketProcessorEntry;
 import org.onosproject.net.packet.PacketProgrammable;
+import org.onosproject.net.packet.PacketProvider;
 import org.onosproject.net.packet.PacketProviderRegistry;
+import org.onosproject.net.packet.PacketProviderService;
 import org.onosproject.net.pi.PiPipeconfServiceAdapter;
+import org.onosproject.net.provider.AbstractProvider;
 import org.onosproject.net.provider.ProviderId;
 import org.onosproject.net.provider.TestProvider;
 import org.onosproject.store.trivial.SimplePacketStore;
 
 import java.nio.ByteBuffer;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertEquals;
+import static org.onlab.junit.TestTools.assertAfter;
+import static org.onosproject.net.NetTestTools.connectPoint;
 import static org.onosproject.net.NetTestTools.injectEventDispatcher;
 
 /**
@@ -68,6 +97,8 @@ public class PacketManagerTest {
     private static final Device FOO_DEV =
             new DefaultDevice(FOO_PID, FOO_DID, Device.Type.SWITCH, "", "", "", "", null, ANNOTATIONS);
 
+    private static final short LOCAL_EXPERIMENTAL_ETHERTYPE = (short) 0x88b5;
+
     private PacketManager mgr;
 
     protected TestProvider provider;
@@ -86,8 +117,9 @@ public class PacketManagerTest {
         mgr.deviceService = new TestDeviceService();
         mgr.deviceService = new TestDeviceService();
         mgr.coreService = new TestCoreService();
+        mgr.cfgService = new ComponentConfigAdapter();
         providerRegistry = mgr;
-        mgr.activate();
+        mgr.activate(null);
 
         DriverRegistryManager driverRegistry = new DriverRegistryManager();
         driverService = new TestDriverManager(driverRegistry);
@@ -97,6 +129,11 @@ public class PacketManagerTest {
                                                    ImmutableMap.of()));
     }
 
+    @After
+    public void tearDown() {
+        mgr.deactivate();
+    }
+
     /**
      * Tests the correct usage of fallback driver provider for packets.
      */
@@ -108,6 +145,82 @@ public class PacketManagerTest {
         assertEquals("Packet not emitted correctly", packet, emittedPacket);
     }
 
+    /**
+     * Tests processing of packets by processing threads, in order within
+     * each flow.
+     */
+    @Test
+    public void pipelinedProcessing() throws InterruptedException {
+        mgr.modified(new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                Hashtable<String, String> props = new Hashtable<>();
+                props.put("processorThreads", "2");
+                props.put("processorQueueSize", "100");
+                return props;
+            }
+        });
+
+        int packetsPerFlow = 20;
+        CountDownLatch processed = new CountDownLatch(2 * packetsPerFlow);
+        Map<MacAddress, List<Integer>> flows = new ConcurrentHashMap<>();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        PacketProcessor processor = context -> {
+            Ethernet eth = context.inPacket().parsed();
+            flows.computeIfAbsent(eth.getSourceMAC(), mac -> new CopyOnWriteArrayList<>())
+                    .add((int) eth.getDestinationMAC().toLong());
+            threads.add(Thread.currentThread().getName());
+            processed.countDown();
+        };
+        mgr.addProcessor(processor, PacketProcessor.director(1));
+
+        PacketProviderService providerService = providerRegistry.register(new TestPacketProvider());
+        for (int i = 0; i < packetsPerFlow; i++) {
+            providerService.processPacket(packetContext(1, i));
+            providerService.processPacket(packetContext(2, i));
+        }
+        assertThat(processed.await(5, TimeUnit.SECONDS), is(true));
+
+        Integer[] expected = new Integer[packetsPerFlow];
+        for (int i = 0; i < packetsPerFlow; i++) {
+            expected[i] = i;
+        }
+        assertThat(flows.get(MacAddress.valueOf(1)), contains(expected));
+        assertThat(flows.get(MacAddress.valueOf(2)), contains(expected));
+        threads.forEach(name -> assertThat(name, startsWith("onos-net-packet-processor")));
+        assertThat(mgr.droppedPackets(), is(0L));
+
+        // Timings are recorded once the processor returns
+        PacketProcessorEntry entry = mgr.getProcessors().get(0);
+        assertAfter(5000, () -> assertThat(entry.invocations(), is(2L * packetsPerFlow)));
+        assertThat(entry.maxNanos(), greaterThan(0L));
+        assertThat(entry.quantileNanos(1), is(entry.maxNanos()));
+    }
+
+    private static PacketContext packetContext(long src, long sequence) {
+        Ethernet eth = new Ethernet()
+                .setSourceMACAddress(MacAddress.valueOf(src))
+                .setDestinationMACAddress(MacAddress.valueOf(sequence))
+                .setEtherType(LOCAL_EXPERIMENTAL_ETHERTYPE);
+        DefaultInboundPacket inPacket = new DefaultInboundPacket(connectPoint("d1", 1),
+                ByteBuffer.wrap(eth.serialize()), Optional.empty());
+        return new DefaultPacketContext(0, inPacket, null, false) {
+            @Override
+            public void send() {
+            }
+        };
+    }
+
+    private static class TestPacketProvider extends AbstractProvider implements PacketProvider {
+        TestPacketProvider() {
+            super(new ProviderId("test", "test"));
+        }
+
+        @Override
+        public void emit(OutboundPacket packet) {
+        }
+    }
+
     private static class TestDeviceService extends DeviceServiceAdapter {
         @Override
         public int getDeviceCount() {
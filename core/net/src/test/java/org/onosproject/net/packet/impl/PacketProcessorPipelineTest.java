@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.packet.impl;
+
+import org.junit.After;
+import org.junit.Test;
+import org.onlab.packet.Data;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.UDP;
+import org.onosproject.net.packet.DefaultInboundPacket;
+import org.onosproject.net.packet.InboundPacket;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.onosproject.net.NetTestTools.connectPoint;
+
+/**
+ * Tests of the packet processor pipeline.
+ */
+public class PacketProcessorPipelineTest {
+
+    private PacketProcessorPipeline pipeline;
+
+    @After
+    public void tearDown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    private static InboundPacket udpPacket(String device, int srcPort, int payloadSize) {
+        UDP udp = new UDP();
+        udp.setSourcePort(srcPort);
+        udp.setDestinationPort(53);
+        udp.setPayload(new Data(new byte[payloadSize]));
+        IPv4 ip = new IPv4();
+        ip.setSourceAddress("10.0.0.1");
+        ip.setDestinationAddress("10.0.0.2");
+        ip.setProtocol(IPv4.PROTOCOL_UDP);
+        ip.setPayload(udp);
+        Ethernet eth = new Ethernet();
+        eth.setSourceMACAddress(MacAddress.valueOf(1));
+        eth.setDestinationMACAddress(MacAddress.valueOf(2));
+        eth.setEtherType(Ethernet.TYPE_IPV4);
+        eth.setPayload(ip);
+        return new DefaultInboundPacket(connectPoint(device, 1), ByteBuffer.wrap(eth.serialize()),
+                                        Optional.empty());
+    }
+
+    /**
+     * Tests that packets of the same flow hash the same and packets of
+     * different flows do not.
+     */
+    @Test
+    public void testFlowHash() {
+        int hash = PacketProcessorPipeline.flowHash(udpPacket("d1", 1000, 10));
+        assertThat(PacketProcessorPipeline.flowHash(udpPacket("d1", 1000, 100)), is(hash));
+        assertThat(PacketProcessorPipeline.flowHash(udpPacket("d1", 1001, 10)), not(hash));
+        assertThat(PacketProcessorPipeline.flowHash(udpPacket("d2", 1000, 10)), not(hash));
+
+        InboundPacket truncated = new DefaultInboundPacket(connectPoint("d1", 1), ByteBuffer.allocate(4),
+                                                           Optional.empty());
+        assertThat(PacketProcessorPipeline.flowHash(truncated), is(connectPoint("d1", 1).hashCode()));
+    }
+
+    /**
+     * Tests that packets are dropped when the queue of their worker is full.
+     */
+    @Test
+    public void testDrops() throws InterruptedException {
+        pipeline = new PacketProcessorPipeline(1, 2, Executors.defaultThreadFactory());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+
+        assertThat(pipeline.submit(0, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        }), is(true));
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+
+        assertThat(pipeline.submit(1, done::countDown), is(true));
+        assertThat(pipeline.submit(2, done::countDown), is(true));
+        assertThat(pipeline.queued(), is(2L));
+        assertThat(pipeline.submit(3, done::countDown), is(false));
+        assertThat(pipeline.dropped(), is(1L));
+
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(pipeline.dropped(), is(1L));
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.resource.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.MplsLabel;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.intent.IntentId;
+import org.onosproject.net.resource.DiscreteResource;
+import org.onosproject.net.resource.DiscreteResourceId;
+import org.onosproject.net.resource.ResourceAllocation;
+import org.onosproject.net.resource.ResourceConsumer;
+import org.onosproject.net.resource.ResourceConsumerId;
+import org.onosproject.net.resource.Resources;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for LeasedResourcePool.
+ */
+public class LeasedResourcePoolTest {
+
+    private static final int BLOCK = 4;
+    private static final DiscreteResourceId PORT =
+            Resources.discrete(DeviceId.deviceId("of:1"), PortNumber.portNumber(1)).id();
+    private static final ResourceConsumer LEASE = () -> ResourceConsumerId.of(1L, ResourceConsumer.class);
+    private static final IntentId I1 = IntentId.valueOf(1);
+    private static final IntentId I2 = IntentId.valueOf(2);
+
+    private TestResourceStore store;
+    private LeasedResourcePool pool;
+    private long now;
+
+    @Before
+    public void setUp() {
+        store = new TestResourceStore();
+        store.register(IntStream.range(1, 20)
+                               .mapToObj(LeasedResourcePoolTest::label)
+                               .collect(Collectors.toList()));
+        now = 0;
+        pool = new LeasedResourcePool(store, LEASE, BLOCK, () -> now);
+    }
+
+    private static DiscreteResource label(int value) {
+        return Resources.discrete(PORT, MplsLabel.mplsLabel(value)).resource();
+    }
+
+    /**
+     * Tests that the lowest available block is leased on demand.
+     */
+    @Test
+    public void testAvailableLeasesBlock() {
+        store.allocate(ImmutableList.of(label(1)), I2);
+
+        Set<DiscreteResource> available = pool.available(PORT, MplsLabel.class);
+        assertEquals(ImmutableSet.of(label(2), label(3), label(4), label(5)), available);
+        assertThat(store.getResources(LEASE), hasSize(BLOCK));
+        assertTrue(pool.isLeased(label(2)));
+        assertFalse(pool.isLeased(label(1)));
+        assertTrue(pool.available(PORT, VlanId.class).isEmpty());
+    }
+
+    /**
+     * Tests that allocations are served locally without touching the store.
+     */
+    @Test
+    public void testLocalAllocation() {
+        pool.available(PORT, MplsLabel.class);
+        int transactions = store.transactions();
+
+        assertTrue(pool.allocate(ImmutableList.of(label(1), label(2)), I1));
+        assertEquals(transactions, store.transactions());
+        assertEquals(I1.consumerId(), pool.owner(label(1)));
+        assertFalse(pool.isFree(label(1)));
+        assertThat(pool.allocations(I1.consumerId()), hasSize(2));
+
+        // Atomic: label 2 is already taken, so label 3 must stay free
+        assertFalse(pool.allocate(ImmutableList.of(label(3), label(2)), I2));
+        assertTrue(pool.isFree(label(3)));
+
+        // Not leased at all
+        assertFalse(pool.allocate(ImmutableList.of(label(10)), I2));
+    }
+
+    /**
+     * Tests that another block is leased once the pool runs low.
+     */
+    @Test
+    public void testRefill() {
+        pool.available(PORT, MplsLabel.class);
+        assertTrue(pool.allocate(ImmutableList.of(label(1), label(2), label(3)), I1));
+
+        Set<DiscreteResource> available = pool.available(PORT, MplsLabel.class);
+        assertThat(available, hasSize(1 + BLOCK));
+        assertThat(store.getResources(LEASE), hasSize(2 * BLOCK));
+    }
+
+    /**
+     * Tests that released labels return to the pool and idle blocks to the store.
+     */
+    @Test
+    public void testReleaseAndReturnIdle() {
+        pool.available(PORT, MplsLabel.class);
+        assertTrue(pool.allocate(ImmutableList.of(label(1)), I1));
+
+        assertFalse(pool.release(new ResourceAllocation(label(1), I2)));
+        assertEquals(0, pool.returnIdle(0));
+
+        now = 100;
+        assertTrue(pool.release(new ResourceAllocation(label(1), I1)));
+        assertTrue(pool.isFree(label(1)));
+        assertThat(pool.allocations(I1.consumerId()), is(empty()));
+
+        assertEquals(0, pool.returnIdle(1000));
+        now = 1100;
+        assertEquals(BLOCK, pool.returnIdle(1000));
+        assertThat(store.getResources(LEASE), is(empty()));
+        assertFalse(pool.isLeased(label(1)));
+    }
+
+    /**
+     * Tests that resources revoked in the store are dropped from the pool.
+     */
+    @Test
+    public void testReconcile() {
+        pool.available(PORT, MplsLabel.class);
+        store.release(ImmutableList.of(new ResourceAllocation(label(4), LEASE)));
+
+        assertEquals(1, pool.reconcile());
+        assertFalse(pool.isLeased(label(4)));
+        assertTrue(pool.isLeased(label(3)));
+    }
+
+    /**
+     * Tests that flushing records local allocations against their consumers
+     * and returns the free leased resources in a single transaction.
+     */
+    @Test
+    public void testFlush() {
+        pool.available(PORT, MplsLabel.class);
+        assertTrue(pool.allocate(ImmutableList.of(label(2)), I1));
+        int transactions = store.transactions();
+
+        pool.flush();
+        assertEquals(transactions + 1, store.transactions());
+        assertThat(store.getResources(LEASE), is(empty()));
+        assertThat(store.getResources(I1), contains(label(2)));
+        assertNull(pool.owner(label(2)));
+        assertTrue(store.isAvailable(label(1)));
+    }
+
+    /**
+     * Tests that local allocations are recorded against their consumers in
+     * a single transaction and then leave the pool.
+     */
+    @Test
+    public void testRecord() {
+        pool.available(PORT, MplsLabel.class);
+        assertTrue(pool.allocate(ImmutableList.of(label(1), label(2)), I1));
+        assertTrue(pool.allocate(ImmutableList.of(label(3)), I2));
+        int transactions = store.transactions();
+
+        assertEquals(3, pool.record());
+        assertEquals(transactions + 1, store.transactions());
+        assertThat(store.getResources(I1), containsInAnyOrder(label(1), label(2)));
+        assertThat(store.getResources(I2), contains(label(3)));
+        assertThat(store.getResources(LEASE), contains(label(4)));
+        assertFalse(pool.isLeased(label(1)));
+        assertNull(pool.owner(label(1)));
+        assertThat(pool.allocations(I1.consumerId()), is(empty()));
+        assertTrue(pool.isFree(label(4)));
+
+        // Recorded allocations are no longer released locally
+        assertFalse(pool.release(new ResourceAllocation(label(1), I1)));
+        assertEquals(0, pool.record());
+    }
+
+    /**
+     * Tests that an allocation released while being recorded is released
+     * in the store once recorded.
+     */
+    @Test
+    public void testReleaseWhileRecording() {
+        store = new TestResourceStore() {
+            @Override
+            public boolean reallocate(List<ResourceAllocation> releases, List<ResourceAllocation> allocations) {
+                assertTrue(pool.release(new ResourceAllocation(label(1), I1)));
+                assertFalse(pool.isFree(label(1)));
+                return super.reallocate(releases, allocations);
+            }
+        };
+        store.register(ImmutableList.of(label(1), label(2)));
+        pool = new LeasedResourcePool(store, LEASE, BLOCK, () -> now);
+        pool.available(PORT, MplsLabel.class);
+        assertTrue(pool.allocate(ImmutableList.of(label(1)), I1));
+
+        assertEquals(1, pool.record());
+        assertTrue(store.isAvailable(label(1)));
+        assertFalse(pool.isLeased(label(1)));
+        assertThat(store.getResources(I1), is(empty()));
+    }
+
+    /**
+     * Tests that allocations whose lease was revoked are recorded afresh,
+     * without holding back the others.
+     */
+    @Test
+    public void testRecordRevokedLease() {
+        pool.available(PORT, MplsLabel.class);
+        assertTrue(pool.allocate(ImmutableList.of(label(1)), I1));
+        assertTrue(pool.allocate(ImmutableList.of(label(2)), I2));
+        store.release(ImmutableList.of(new ResourceAllocation(label(1), LEASE),
+                                       new ResourceAllocation(label(2), LEASE)));
+        store.allocate(ImmutableList.of(label(2)), IntentId.valueOf(3));
+
+        assertEquals(2, pool.reconcile());
+        assertEquals(1, pool.record());
+        assertThat(store.getResources(I1), contains(label(1)));
+        assertThat(store.getResources(I2), is(empty()));
+        assertEquals(I2.consumerId(), pool.owner(label(2)));
+    }
+}
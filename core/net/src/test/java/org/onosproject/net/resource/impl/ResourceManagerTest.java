@@ -0,0 +1,197 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.resource.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.osgi.ComponentContextAdapter;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.MplsLabel;
+import org.onosproject.cfg.ComponentConfigAdapter;
+import org.onosproject.cluster.ClusterEvent;
+import org.onosproject.cluster.ClusterEventListener;
+import org.onosproject.cluster.ClusterServiceAdapter;
+import org.onosproject.cluster.ControllerNode;
+import org.onosproject.cluster.DefaultControllerNode;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.common.event.impl.TestEventDispatcher;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.intent.IntentId;
+import org.onosproject.net.resource.DiscreteResource;
+import org.onosproject.net.resource.DiscreteResourceId;
+import org.onosproject.net.resource.ResourceAllocation;
+import org.onosproject.net.resource.Resources;
+
+import java.util.ArrayList;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.onlab.junit.TestTools.assertAfter;
+import static org.onosproject.net.NetTestTools.injectEventDispatcher;
+
+/**
+ * Tests of the label leasing of ResourceManager across node restarts and
+ * failures.
+ */
+public class ResourceManagerTest {
+
+    private static final DiscreteResourceId PORT =
+            Resources.discrete(DeviceId.deviceId("of:1"), PortNumber.portNumber(1)).id();
+    private static final NodeId N1 = new NodeId("n1");
+    private static final NodeId N2 = new NodeId("n2");
+    private static final IntentId I1 = IntentId.valueOf(1);
+
+    private TestResourceStore store;
+    private final List<ResourceManager> managers = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        store = new TestResourceStore();
+        store.register(IntStream.range(1, 100)
+                               .mapToObj(ResourceManagerTest::label)
+                               .collect(Collectors.toList()));
+    }
+
+    @After
+    public void tearDown() {
+        managers.forEach(ResourceManager::deactivate);
+    }
+
+    private static DiscreteResource label(int value) {
+        return Resources.discrete(PORT, MplsLabel.mplsLabel(value)).resource();
+    }
+
+    // Starts the resource manager of a node sharing the store, with leasing on
+    private ResourceManager start(TestClusterService clusterService) {
+        ResourceManager manager = new ResourceManager();
+        manager.store = store;
+        manager.cfgService = new ComponentConfigAdapter();
+        manager.clusterService = clusterService;
+        injectEventDispatcher(manager, new TestEventDispatcher());
+        manager.activate(new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                Hashtable<String, String> props = new Hashtable<>();
+                props.put("labelLeasing", "true");
+                props.put("leaseBlockSize", "8");
+                return props;
+            }
+        });
+        managers.add(manager);
+        return manager;
+    }
+
+    // Allocates a leased label to I1 and waits for it to be recorded
+    private DiscreteResource allocateLeased(ResourceManager manager) {
+        Set<MplsLabel> available = manager.getAvailableResourceValues(PORT, MplsLabel.class);
+        assertFalse(available.isEmpty());
+        DiscreteResource resource = Resources.discrete(PORT, available.iterator().next()).resource();
+        assertFalse(manager.allocate(I1, ImmutableList.of(resource)).isEmpty());
+        assertFalse(manager.isAvailable(resource));
+        assertAfter(5000, () -> assertThat(store.getResources(I1), contains(resource)));
+        return resource;
+    }
+
+    /**
+     * Tests that a restarted node keeps the labels it had allocated and
+     * only releases those it merely held leased.
+     */
+    @Test
+    public void testRestart() {
+        ResourceManager before = start(new TestClusterService(N1));
+        DiscreteResource resource = allocateLeased(before);
+        assertThat(store.getResources(new ResourceManager.LeaseConsumer(N1)), is(not(empty())));
+
+        // The restarted node has no memory of its leases
+        ResourceManager after = start(new TestClusterService(N1));
+        assertThat(store.getResources(new ResourceManager.LeaseConsumer(N1)), is(empty()));
+        assertFalse(store.isAvailable(resource));
+        assertThat(after.getResourceAllocations(I1), contains(new ResourceAllocation(resource, I1)));
+        assertFalse(after.getAvailableResourceValues(PORT, MplsLabel.class)
+                            .contains(resource.valueAs(MplsLabel.class).get()));
+
+        assertTrue(after.release(I1));
+        assertTrue(store.isAvailable(resource));
+    }
+
+    /**
+     * Tests that the labels allocated by a failed node remain allocated,
+     * visible and releasable through the surviving nodes.
+     */
+    @Test
+    public void testNodeFailure() {
+        ResourceManager failing = start(new TestClusterService(N1));
+        TestClusterService survivorCluster = new TestClusterService(N2);
+        ResourceManager survivor = start(survivorCluster);
+        DiscreteResource resource = allocateLeased(failing);
+        assertThat(survivor.getResourceAllocations(I1), contains(new ResourceAllocation(resource, I1)));
+
+        survivorCluster.post(new ClusterEvent(ClusterEvent.Type.INSTANCE_DEACTIVATED,
+                                              new DefaultControllerNode(N1, IpAddress.valueOf("10.0.0.1"))));
+        assertAfter(5000, () -> assertThat(store.getResources(new ResourceManager.LeaseConsumer(N1)),
+                                           is(empty())));
+        assertFalse(store.isAvailable(resource));
+        assertThat(survivor.getResourceAllocations(PORT, MplsLabel.class),
+                   hasItem(new ResourceAllocation(resource, I1)));
+
+        assertTrue(survivor.release(I1));
+        assertTrue(store.isAvailable(resource));
+    }
+
+    // Cluster of which the given node is the local one
+    private static final class TestClusterService extends ClusterServiceAdapter {
+        private final ControllerNode local;
+        private final List<ClusterEventListener> listeners = new ArrayList<>();
+
+        private TestClusterService(NodeId nodeId) {
+            local = new DefaultControllerNode(nodeId, IpAddress.valueOf("127.0.0.1"));
+        }
+
+        @Override
+        public ControllerNode getLocalNode() {
+            return local;
+        }
+
+        @Override
+        public void addListener(ClusterEventListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeListener(ClusterEventListener listener) {
+            listeners.remove(listener);
+        }
+
+        private void post(ClusterEvent event) {
+            listeners.forEach(l -> l.event(event));
+        }
+    }
+}
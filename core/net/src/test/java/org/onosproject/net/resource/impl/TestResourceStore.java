@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.resource.impl;
+
+import org.onosproject.net.resource.DiscreteResourceId;
+import org.onosproject.net.resource.Resource;
+import org.onosproject.net.resource.ResourceAllocation;
+import org.onosproject.net.resource.ResourceConsumer;
+import org.onosproject.net.resource.ResourceConsumerId;
+import org.onosproject.net.resource.ResourceId;
+import org.onosproject.net.resource.ResourceStore;
+import org.onosproject.net.resource.ResourceStoreDelegate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Minimal in-memory store of discrete resources, shared by the nodes of a
+ * test cluster.
+ */
+class TestResourceStore implements ResourceStore {
+    private final Set<Resource> registered = new LinkedHashSet<>();
+    private final Map<Resource, ResourceConsumerId> allocated = new HashMap<>();
+    private int transactions;
+
+    /**
+     * Returns the number of allocation, release and reallocation
+     * transactions attempted so far.
+     *
+     * @return number of transactions
+     */
+    synchronized int transactions() {
+        return transactions;
+    }
+
+    @Override
+    public synchronized boolean register(List<? extends Resource> resources) {
+        return registered.addAll(resources);
+    }
+
+    @Override
+    public boolean unregister(List<? extends ResourceId> ids) {
+        return false;
+    }
+
+    @Override
+    public synchronized boolean allocate(List<? extends Resource> resources, ResourceConsumer consumer) {
+        transactions++;
+        if (!resources.stream().allMatch(this::isAvailable)) {
+            return false;
+        }
+        resources.forEach(r -> allocated.put(r, consumer.consumerId()));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean release(List<ResourceAllocation> releases) {
+        transactions++;
+        if (!releases.stream().allMatch(a -> a.consumerId().equals(allocated.get(a.resource())))) {
+            return false;
+        }
+        releases.forEach(a -> allocated.remove(a.resource()));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean reallocate(List<ResourceAllocation> releases,
+                                           List<ResourceAllocation> allocations) {
+        transactions++;
+        Map<Resource, ResourceConsumerId> updated = new HashMap<>(allocated);
+        for (ResourceAllocation release : releases) {
+            if (!updated.remove(release.resource(), release.consumerId())) {
+                return false;
+            }
+        }
+        for (ResourceAllocation allocation : allocations) {
+            if (!registered.contains(allocation.resource()) ||
+                    updated.putIfAbsent(allocation.resource(), allocation.consumerId()) != null) {
+                return false;
+            }
+        }
+        allocated.clear();
+        allocated.putAll(updated);
+        return true;
+    }
+
+    @Override
+    public synchronized List<ResourceAllocation> getResourceAllocations(ResourceId id) {
+        return allocated.entrySet().stream()
+                .filter(e -> e.getKey().id().equals(id))
+                .map(e -> new ResourceAllocation(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized boolean isAvailable(Resource resource) {
+        return registered.contains(resource) && !allocated.containsKey(resource);
+    }
+
+    @Override
+    public synchronized Collection<Resource> getResources(ResourceConsumer consumer) {
+        return allocated.entrySet().stream()
+                .filter(e -> e.getValue().equals(consumer.consumerId()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized Set<Resource> getChildResources(DiscreteResourceId parent) {
+        return registered.stream()
+                .filter(r -> r.parent().map(p -> p.id().equals(parent)).orElse(false))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public <T> Set<Resource> getChildResources(DiscreteResourceId parent, Class<T> cls) {
+        return getChildResources(parent).stream()
+                .filter(r -> r.isTypeOf(cls))
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public synchronized <T> Collection<Resource> getAllocatedResources(DiscreteResourceId parent, Class<T> cls) {
+        return getChildResources(parent, cls).stream()
+                .filter(allocated::containsKey)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void setDelegate(ResourceStoreDelegate delegate) {
+    }
+
+    @Override
+    public void unsetDelegate(ResourceStoreDelegate delegate) {
+    }
+
+    @Override
+    public boolean hasDelegate() {
+        return false;
+    }
+}
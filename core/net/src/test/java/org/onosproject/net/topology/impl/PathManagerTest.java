@@ -15,10 +15,13 @@
  */
 package org.onosproject.net.topology.impl;
 
+import com.google.common.collect.ImmutableSet;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.onlab.junit.TestUtils;
+import org.onosproject.cfg.ComponentConfigAdapter;
+import org.onosproject.common.DefaultTopology;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.ElementId;
 import org.onosproject.net.Host;
@@ -26,6 +29,7 @@ import org.onosproject.net.HostId;
 import org.onosproject.net.Path;
 import org.onosproject.net.host.HostServiceAdapter;
 import org.onosproject.net.provider.ProviderId;
+import org.onosproject.net.topology.DefaultGraphDescription;
 import org.onosproject.net.topology.LinkWeigher;
 import org.onosproject.net.topology.PathService;
 import org.onosproject.net.topology.Topology;
@@ -60,7 +64,8 @@ public class PathManagerTest {
         service = mgr;
         TestUtils.setField(mgr, "topologyService", fakeTopoMgr);
         TestUtils.setField(mgr, "hostService", fakeHostMgr);
-        mgr.activate();
+        TestUtils.setField(mgr, "cfgService", new ComponentConfigAdapter());
+        mgr.activate(null);
     }
 
     @After
@@ -130,6 +135,23 @@ public class PathManagerTest {
                   1, 2, src, dst);
     }
 
+    @Test
+    public void infraToInfraCached() {
+        DeviceId src = did("1");
+        DeviceId dst = did("3");
+        long now = System.currentTimeMillis();
+        DefaultTopology topology = new DefaultTopology(PID, new DefaultGraphDescription(
+                now, now, ImmutableSet.of(device("1"), device("2"), device("3")),
+                ImmutableSet.of(link("1", 1, "2", 1), link("2", 2, "3", 1))));
+        fakeTopoMgr.topology = topology;
+
+        Set<Path> paths = service.getPaths(src, dst);
+        validatePaths(paths, 1, 2, src, dst);
+        assertEquals("incorrect paths", paths, service.getPaths(src, dst));
+        assertEquals("incorrect hit count", 1, topology.pathCacheStats().hitCount());
+        assertEquals("incorrect miss count", 1, topology.pathCacheStats().missCount());
+    }
+
     @Test
     public void noEdge() {
         Set<Path> paths = service.getPaths(hid("12:34:56:78:90:ab/1"),
@@ -151,6 +173,12 @@ public class PathManagerTest {
     // Fake entity to give out paths.
     private class FakeTopoMgr extends TopologyServiceAdapter {
         Set<Path> paths = new HashSet<>();
+        DefaultTopology topology;
+
+        @Override
+        public Topology currentTopology() {
+            return topology;
+        }
 
         @Override
         public Set<Path> getPaths(Topology topology, DeviceId src,
@@ -161,7 +189,8 @@ public class PathManagerTest {
         @Override
         public Set<Path> getPaths(Topology topology, DeviceId src,
                                   DeviceId dst, LinkWeigher weight) {
-            return paths;
+            return topology != null ?
+                    ((DefaultTopology) topology).getPaths(src, dst, weight) : paths;
         }
     }
 
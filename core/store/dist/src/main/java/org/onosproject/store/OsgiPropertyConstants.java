@@ -38,6 +38,9 @@ public final class OsgiPropertyConstants {
     public static final String MAX_BACKUP_COUNT = "backupCount";
     public static final int MAX_BACKUP_COUNT_DEFAULT = 2;
 
+    public static final String DELTA_BACKUP_ENABLED = "deltaBackupEnabled";
+    public static final boolean DELTA_BACKUP_ENABLED_DEFAULT = false;
+
     public static final String ELECTION_TIMEOUT_MILLIS = "electionTimeoutMillis";
     public static final long ELECTION_TIMEOUT_MILLIS_DEFAULT = 2500;
 
@@ -64,4 +67,7 @@ public final class OsgiPropertyConstants {
 
     public static final String LINK_WEIGHT_FUNCTION = "linkWeightFunction";
     public static final String LINK_WEIGHT_FUNCTION_DEFAULT = "hopCount";
+
+    public static final String INCREMENTAL_TOPOLOGY = "incrementalTopology";
+    public static final boolean INCREMENTAL_TOPOLOGY_DEFAULT = true;
 }
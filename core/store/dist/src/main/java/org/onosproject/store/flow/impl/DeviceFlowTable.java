@@ -60,6 +60,11 @@ import org.slf4j.LoggerFactory;
  * anti-entropy protocol is used to detect missing flows on backups (e.g. due to a node restart). Finally, when a
  * device mastership change occurs, the new master synchronizes flows with the prior master and/or backups for the
  * device, allowing mastership to be reassigned to non-backup nodes.
+ * <p>
+ * When delta backups are enabled, a bucket that has already been backed up to a node in the current term is
+ * replicated as a {@link FlowBucketDelta} containing only the entries changed since the last successful backup.
+ * Backups fall back to a full bucket transfer when the backup cannot apply the delta (e.g. after a term change)
+ * or when the bucket's change log no longer covers the last backup time.
  */
 public class DeviceFlowTable {
     private static final int NUM_BUCKETS = 128;
@@ -68,6 +73,7 @@ public class DeviceFlowTable {
         .register(BucketId.class)
         .register(FlowBucket.class)
         .register(FlowBucketDigest.class)
+        .register(FlowBucketDelta.class)
         .register(LogicalTimestamp.class)
         .register(Timestamped.class)
         .build());
@@ -77,6 +83,7 @@ public class DeviceFlowTable {
     private final MessageSubject getDigestsSubject;
     private final MessageSubject getBucketSubject;
     private final MessageSubject backupSubject;
+    private final MessageSubject backupDeltaSubject;
 
     private final DeviceId deviceId;
     private final ClusterCommunicationService clusterCommunicator;
@@ -91,6 +98,7 @@ public class DeviceFlowTable {
     private volatile long activeTerm;
 
     private long backupPeriod;
+    private volatile boolean deltaBackupEnabled;
 
     private final LifecycleEventListener lifecycleEventListener = new LifecycleEventListener() {
         @Override
@@ -115,7 +123,8 @@ public class DeviceFlowTable {
         ScheduledExecutorService scheduler,
         Executor executor,
         long backupPeriod,
-        long antiEntropyPeriod) {
+        long antiEntropyPeriod,
+        boolean deltaBackupEnabled) {
         this.deviceId = deviceId;
         this.clusterCommunicator = clusterCommunicator;
         this.lifecycleManager = lifecycleManager;
@@ -131,11 +140,13 @@ public class DeviceFlowTable {
         getDigestsSubject = new MessageSubject(String.format("flow-store-%s-digests", deviceId));
         getBucketSubject = new MessageSubject(String.format("flow-store-%s-bucket", deviceId));
         backupSubject = new MessageSubject(String.format("flow-store-%s-backup", deviceId));
+        backupDeltaSubject = new MessageSubject(String.format("flow-store-%s-backup-delta", deviceId));
 
         addListeners();
 
         setBackupPeriod(backupPeriod);
         setAntiEntropyPeriod(antiEntropyPeriod);
+        setDeltaBackupEnabled(deltaBackupEnabled);
         registerSubscribers();
 
         scheduleBackups();
@@ -169,6 +180,15 @@ public class DeviceFlowTable {
                 TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Sets whether incremental bucket backups are enabled.
+     *
+     * @param deltaBackupEnabled whether to replicate only the changes made since the last backup
+     */
+    void setDeltaBackupEnabled(boolean deltaBackupEnabled) {
+        this.deltaBackupEnabled = deltaBackupEnabled;
+    }
+
     /**
      * Counts the flows in the table.
      *
@@ -416,14 +436,16 @@ public class DeviceFlowTable {
 
         // If the backup can be run (no concurrent backup to the node in progress) then run it.
         BackupOperation operation = new BackupOperation(nodeId, bucket.bucketId().bucket());
+        LogicalTimestamp lastBackupTime = lastBackupTimes.get(operation);
         if (startBackup(operation, timestamp)) {
             CompletableFuture<Void> future = new CompletableFuture<>();
-            backup(bucket, nodeId).whenCompleteAsync((succeeded, error) -> {
+            backup(bucket, nodeId, lastBackupTime).whenCompleteAsync((succeeded, error) -> {
                 if (error != null) {
                     log.debug("Backup operation {} failed", operation, error);
                     failBackup(operation);
                 } else if (succeeded) {
                     succeedBackup(operation, timestamp);
+                    compactBucket(bucket);
                 } else {
                     log.debug("Backup operation {} failed: term mismatch", operation);
                     failBackup(operation);
@@ -475,6 +497,32 @@ public class DeviceFlowTable {
         inFlightUpdates.remove(operation);
     }
 
+    /**
+     * Discards change log entries for the given bucket that have been replicated to all backups.
+     *
+     * @param bucket the bucket to compact
+     */
+    private void compactBucket(FlowBucket bucket) {
+        DeviceReplicaInfo replicaInfo = lifecycleManager.getReplicaInfo();
+        LogicalTimestamp oldestBackupTime = null;
+        for (NodeId nodeId : replicaInfo.backups()) {
+            LogicalTimestamp lastBackupTime = lastBackupTimes.get(
+                new BackupOperation(nodeId, bucket.bucketId().bucket()));
+            if (lastBackupTime == null) {
+                return;
+            }
+            if (oldestBackupTime == null || lastBackupTime.isOlderThan(oldestBackupTime)) {
+                oldestBackupTime = lastBackupTime;
+            }
+        }
+
+        if (oldestBackupTime != null) {
+            synchronized (bucket) {
+                bucket.compact(oldestBackupTime);
+            }
+        }
+    }
+
     /**
      * Resets the last completion time for the given backup operation to ensure it's replicated again.
      *
@@ -486,20 +534,52 @@ public class DeviceFlowTable {
 
     /**
      * Performs the given backup operation.
+     * <p>
+     * If delta backups are enabled and the bucket was previously backed up to the node, only the changes since
+     * the last backup are sent. Otherwise, the complete bucket is sent.
      *
-     * @param bucket the bucket to backup
-     * @param nodeId the node to which to backup the bucket
+     * @param bucket         the bucket to backup
+     * @param nodeId         the node to which to backup the bucket
+     * @param lastBackupTime the timestamp of the last successful backup to the node, if any
      * @return a future to be completed with a boolean indicating whether the backup operation was successful
      */
-    private CompletableFuture<Boolean> backup(FlowBucket bucket, NodeId nodeId) {
-        if (log.isDebugEnabled()) {
-            log.debug("Backing up {} flow entries in bucket {} to {}", bucket.count(), bucket.bucketId(), nodeId);
-        }
+    private CompletableFuture<Boolean> backup(FlowBucket bucket, NodeId nodeId, LogicalTimestamp lastBackupTime) {
         synchronized (bucket) {
+            FlowBucketDelta delta = deltaBackupEnabled && lastBackupTime != null
+                ? bucket.getDelta(lastBackupTime) : null;
+            if (delta != null) {
+                return backupDelta(delta, nodeId);
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Backing up {} flow entries in bucket {} to {}", bucket.count(), bucket.bucketId(), nodeId);
+            }
             return sendWithTimestamp(bucket, backupSubject, nodeId);
         }
     }
 
+    /**
+     * Sends the given bucket delta to the given node.
+     * <p>
+     * If the delta cannot be applied by the node, the last backup time is reset to force a full backup of the
+     * bucket on the next attempt.
+     *
+     * @param delta  the delta to send
+     * @param nodeId the node to which to send the delta
+     * @return a future to be completed with a boolean indicating whether the delta was applied
+     */
+    private CompletableFuture<Boolean> backupDelta(FlowBucketDelta delta, NodeId nodeId) {
+        if (log.isDebugEnabled()) {
+            log.debug("Backing up {} flow entry changes in bucket {} to {}", delta.count(), delta.bucketId(), nodeId);
+        }
+        BackupOperation operation = new BackupOperation(nodeId, delta.bucketId().bucket());
+        return this.<FlowBucketDelta, Boolean>sendWithTimestamp(delta, backupDeltaSubject, nodeId)
+            .whenComplete((succeeded, error) -> {
+                if (error != null || !succeeded) {
+                    resetBackup(operation);
+                }
+            });
+    }
+
     /**
      * Handles a flow bucket backup from a remote peer.
      *
@@ -530,6 +610,45 @@ public class DeviceFlowTable {
         }
     }
 
+    /**
+     * Handles a flow bucket delta from a remote peer.
+     *
+     * @param delta the flow bucket delta to apply
+     * @return indicates whether the delta was applied to the local bucket
+     */
+    private boolean onBackupDelta(FlowBucketDelta delta) {
+        if (log.isDebugEnabled()) {
+            log.debug("{} - Received {} flow entry changes in bucket {} to backup",
+                deviceId, delta.count(), delta.bucketId());
+        }
+
+        try {
+            DeviceReplicaInfo replicaInfo = lifecycleManager.getReplicaInfo();
+
+            // If the backup is for a different term, reject the request until we learn about the new term.
+            if (delta.term() != replicaInfo.term()) {
+                log.debug("Term mismatch for device {}: {} != {}", deviceId, delta.term(), replicaInfo);
+                return false;
+            }
+
+            // The delta can only be applied if the local bucket already contains all changes up to the delta's
+            // base timestamp in the same term. Otherwise the master must send the full bucket.
+            FlowBucket bucket = getBucket(delta.bucketId().bucket());
+            synchronized (bucket) {
+                if (bucket.term() != delta.term() || bucket.timestamp().isOlderThan(delta.baseTimestamp())) {
+                    log.debug("Cannot apply delta {} to bucket {}/{} at {}",
+                        delta, deviceId, bucket.term(), bucket.timestamp());
+                    return false;
+                }
+                bucket.applyDelta(delta);
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Failure processing backup delta request", e);
+            return false;
+        }
+    }
+
     /**
      * Runs the anti-entropy protocol.
      */
@@ -840,6 +959,7 @@ public class DeviceFlowTable {
         receiveWithTimestamp(getDigestsSubject, v -> getDigests());
         receiveWithTimestamp(getBucketSubject, this::onGetBucket);
         receiveWithTimestamp(backupSubject, this::onBackup);
+        receiveWithTimestamp(backupDeltaSubject, this::onBackupDelta);
     }
 
     /**
@@ -849,6 +969,7 @@ public class DeviceFlowTable {
         clusterCommunicator.removeSubscriber(getDigestsSubject);
         clusterCommunicator.removeSubscriber(getBucketSubject);
         clusterCommunicator.removeSubscriber(backupSubject);
+        clusterCommunicator.removeSubscriber(backupDeltaSubject);
     }
 
     /**
@@ -16,6 +16,7 @@
 package org.onosproject.store.flow.impl;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Streams;
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -80,6 +81,7 @@ import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.slf4j.Logger;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashSet;
@@ -123,7 +125,8 @@ import static org.onosproject.store.OsgiPropertyConstants.*;
                 BACKUP_PERIOD_MILLIS + ":Integer=" + BACKUP_PERIOD_MILLIS_DEFAULT,
                 ANTI_ENTROPY_PERIOD_MILLIS + ":Integer=" + ANTI_ENTROPY_PERIOD_MILLIS_DEFAULT,
                 EC_FLOW_RULE_STORE_PERSISTENCE_ENABLED + ":Boolean=" + EC_FLOW_RULE_STORE_PERSISTENCE_ENABLED_DEFAULT,
-                MAX_BACKUP_COUNT + ":Integer=" + MAX_BACKUP_COUNT_DEFAULT
+                MAX_BACKUP_COUNT + ":Integer=" + MAX_BACKUP_COUNT_DEFAULT,
+                DELTA_BACKUP_ENABLED + ":Boolean=" + DELTA_BACKUP_ENABLED_DEFAULT
         }
 )
 public class ECFlowRuleStore
@@ -149,6 +152,9 @@ public class ECFlowRuleStore
     /** Max number of backup copies for each device. */
     private volatile int backupCount = MAX_BACKUP_COUNT_DEFAULT;
 
+    /** Indicates whether backups should replicate only the flow changes since the last backup. */
+    private boolean deltaBackupEnabled = DELTA_BACKUP_ENABLED_DEFAULT;
+
     private InternalFlowTable flowTable = new InternalFlowTable();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
@@ -276,6 +282,7 @@ public class ECFlowRuleStore
         int newBackupPeriod;
         int newBackupCount;
         int newAntiEntropyPeriod;
+        boolean newDeltaBackupEnabled;
         try {
             String s = get(properties, "msgHandlerPoolSize");
             newPoolSize = isNullOrEmpty(s) ? msgHandlerPoolSize : Integer.parseInt(s.trim());
@@ -288,11 +295,15 @@ public class ECFlowRuleStore
 
             s = get(properties, ANTI_ENTROPY_PERIOD_MILLIS);
             newAntiEntropyPeriod = isNullOrEmpty(s) ? antiEntropyPeriod : Integer.parseInt(s.trim());
+
+            s = get(properties, DELTA_BACKUP_ENABLED);
+            newDeltaBackupEnabled = isNullOrEmpty(s) ? deltaBackupEnabled : Boolean.parseBoolean(s.trim());
         } catch (NumberFormatException | ClassCastException e) {
             newPoolSize = MESSAGE_HANDLER_THREAD_POOL_SIZE_DEFAULT;
             newBackupPeriod = BACKUP_PERIOD_MILLIS_DEFAULT;
             newBackupCount = MAX_BACKUP_COUNT_DEFAULT;
             newAntiEntropyPeriod = ANTI_ENTROPY_PERIOD_MILLIS_DEFAULT;
+            newDeltaBackupEnabled = DELTA_BACKUP_ENABLED_DEFAULT;
         }
 
         if (newBackupPeriod != backupPeriod) {
@@ -305,6 +316,11 @@ public class ECFlowRuleStore
             flowTable.setAntiEntropyPeriod(newAntiEntropyPeriod);
         }
 
+        if (newDeltaBackupEnabled != deltaBackupEnabled) {
+            deltaBackupEnabled = newDeltaBackupEnabled;
+            flowTable.setDeltaBackupEnabled(newDeltaBackupEnabled);
+        }
+
         if (newPoolSize != msgHandlerPoolSize) {
             msgHandlerPoolSize = newPoolSize;
             ExecutorService oldMsgHandler = messageHandlingExecutor;
@@ -584,6 +600,26 @@ public class ECFlowRuleStore
         return null;
     }
 
+    @Override
+    public List<FlowRuleEvent> addOrUpdateFlowRules(Collection<FlowEntry> rules) {
+        List<FlowRuleEvent> events = Lists.newArrayListWithCapacity(rules.size());
+        Map<DeviceId, Boolean> isMaster = Maps.newHashMap();
+        for (FlowEntry rule : rules) {
+            boolean master = isMaster.computeIfAbsent(rule.deviceId(),
+                deviceId -> Objects.equals(local, mastershipService.getMasterFor(deviceId)));
+            if (!master) {
+                log.warn("Tried to update FlowRule {} state,"
+                    + " while the Node was not the master.", rule);
+                continue;
+            }
+            FlowRuleEvent event = addOrUpdateFlowRuleInternal(rule);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
     private FlowRuleEvent addOrUpdateFlowRuleInternal(FlowEntry rule) {
         FlowRuleEvent event = flowTable.update(rule, stored -> {
             stored.setBytes(rule.bytes());
@@ -720,7 +756,8 @@ public class ECFlowRuleStore
                 backupScheduler,
                 new OrderedExecutor(backupExecutor),
                 backupPeriod,
-                antiEntropyPeriod));
+                antiEntropyPeriod,
+                deltaBackupEnabled));
         }
 
         /**
@@ -732,6 +769,15 @@ public class ECFlowRuleStore
             flowTables.values().forEach(flowTable -> flowTable.setBackupPeriod(backupPeriod));
         }
 
+        /**
+         * Sets whether flow table backups replicate only changes since the last backup.
+         *
+         * @param deltaBackupEnabled whether delta backups are enabled
+         */
+        void setDeltaBackupEnabled(boolean deltaBackupEnabled) {
+            flowTables.values().forEach(flowTable -> flowTable.setDeltaBackupEnabled(deltaBackupEnabled));
+        }
+
         /**
          * Sets the flow table anti-entropy period.
          *
@@ -757,7 +803,8 @@ public class ECFlowRuleStore
                 backupScheduler,
                 new OrderedExecutor(backupExecutor),
                 backupPeriod,
-                antiEntropyPeriod));
+                antiEntropyPeriod,
+                deltaBackupEnabled));
         }
 
         /**
@@ -15,11 +15,13 @@
  */
 package org.onosproject.store.flow.impl;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.onosproject.net.flow.DefaultFlowEntry;
 import org.onosproject.net.flow.FlowEntry;
@@ -35,14 +37,24 @@ import org.slf4j.LoggerFactory;
  * <p>
  * The bucket is mutable. When changes are made to the bucket, the term and timestamp in which the change
  * occurred is recorded for ordering changes.
+ * <p>
+ * The bucket additionally keeps a local change log recording the logical time at which each entry was last
+ * added, updated or removed. The change log is used to compute {@link FlowBucketDelta}s for incremental
+ * replication and is never replicated itself.
  */
 public class FlowBucket {
     private static final Logger LOGGER = LoggerFactory.getLogger(FlowBucket.class);
+    private static final int MAX_TOMBSTONES = 1000;
     private final BucketId bucketId;
     private volatile long term;
     private volatile LogicalTimestamp timestamp;
     private final Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> flowBucket;
 
+    // Change log state is transient: it is rebuilt lazily on the node that owns the bucket instance.
+    private transient Map<StoredFlowEntry, LogicalTimestamp> changes;
+    private transient Map<StoredFlowEntry, LogicalTimestamp> tombstones;
+    private transient LogicalTimestamp changeLogStart;
+
     FlowBucket(BucketId bucketId) {
         this(bucketId, 0, new LogicalTimestamp(0), Maps.newConcurrentMap());
     }
@@ -150,6 +162,127 @@ public class FlowBucket {
         this.timestamp = timestamp;
     }
 
+    /**
+     * Records an addition or update of the given entry in the change log.
+     *
+     * @param entry     the entry that was changed
+     * @param timestamp the timestamp at which the entry was changed
+     */
+    private void recordChange(StoredFlowEntry entry, LogicalTimestamp timestamp) {
+        initChangeLog();
+        tombstones.remove(entry);
+        changes.put(entry, timestamp);
+    }
+
+    /**
+     * Records the removal of the given entry in the change log.
+     *
+     * @param entry     the entry that was removed
+     * @param timestamp the timestamp at which the entry was removed
+     */
+    private void recordRemoval(StoredFlowEntry entry, LogicalTimestamp timestamp) {
+        initChangeLog();
+        changes.remove(entry);
+        tombstones.put(entry, timestamp);
+        if (tombstones.size() > MAX_TOMBSTONES) {
+            // Bound the memory used by tombstones. Backups older than this point must be replicated in full.
+            tombstones.clear();
+            changeLogStart = timestamp;
+        }
+    }
+
+    /**
+     * Initializes the change log if necessary.
+     * <p>
+     * A newly initialized change log only covers changes made after the current bucket timestamp.
+     */
+    private void initChangeLog() {
+        if (changes == null) {
+            changes = Maps.newHashMap();
+            tombstones = Maps.newHashMap();
+            changeLogStart = timestamp;
+        }
+    }
+
+    /**
+     * Returns the delta of changes made to the bucket since the given timestamp.
+     * <p>
+     * The caller must hold the bucket's monitor.
+     *
+     * @param since the timestamp of the last change already known to the recipient
+     * @return the changes since the given timestamp or {@code null} if the change log no longer covers them
+     */
+    FlowBucketDelta getDelta(LogicalTimestamp since) {
+        initChangeLog();
+        if (since == null || since.isOlderThan(changeLogStart)) {
+            return null;
+        }
+
+        List<StoredFlowEntry> updated = Lists.newArrayList();
+        changes.forEach((entry, changed) -> {
+            if (changed.isNewerThan(since)) {
+                Map<StoredFlowEntry, StoredFlowEntry> flowEntries = flowBucket.get(entry.id());
+                StoredFlowEntry current = flowEntries != null ? flowEntries.get(entry) : null;
+                if (current != null) {
+                    updated.add(current);
+                }
+            }
+        });
+
+        List<StoredFlowEntry> removed = Lists.newArrayList();
+        tombstones.forEach((entry, changed) -> {
+            if (changed.isNewerThan(since)) {
+                removed.add(entry);
+            }
+        });
+        return new FlowBucketDelta(bucketId, term, since, timestamp, updated, removed);
+    }
+
+    /**
+     * Discards tombstones that have been replicated to all backups.
+     *
+     * @param timestamp the oldest timestamp acknowledged by all backups
+     */
+    void compact(LogicalTimestamp timestamp) {
+        if (tombstones == null || timestamp == null || !timestamp.isNewerThan(changeLogStart)) {
+            return;
+        }
+        tombstones.values().removeIf(removed -> !removed.isNewerThan(timestamp));
+        changeLogStart = timestamp;
+    }
+
+    /**
+     * Applies the given delta received from the master to the bucket.
+     * <p>
+     * Applying a delta invalidates the local change log, since the changes were not made locally.
+     *
+     * @param delta the delta to apply
+     */
+    void applyDelta(FlowBucketDelta delta) {
+        for (StoredFlowEntry entry : delta.updated()) {
+            getFlowEntries(entry.id()).put(entry, entry);
+        }
+        for (StoredFlowEntry entry : delta.removed()) {
+            flowBucket.computeIfPresent(entry.id(), (flowId, flowEntries) -> {
+                flowEntries.remove(entry);
+                return flowEntries.isEmpty() ? null : flowEntries;
+            });
+        }
+        if (delta.timestamp().isNewerThan(timestamp)) {
+            recordUpdate(delta.term(), delta.timestamp());
+        }
+        resetChangeLog();
+    }
+
+    /**
+     * Resets the change log.
+     */
+    private void resetChangeLog() {
+        changes = null;
+        tombstones = null;
+        changeLogStart = null;
+    }
+
     /**
      * Adds the given flow rule to the bucket.
      *
@@ -163,7 +296,9 @@ public class FlowBucket {
             flowEntries = flowBucket.computeIfAbsent(rule.id(), id -> Maps.newConcurrentMap());
         }
         flowEntries.put((StoredFlowEntry) rule, (StoredFlowEntry) rule);
-        recordUpdate(term, clock.getTimestamp());
+        LogicalTimestamp timestamp = clock.getTimestamp();
+        recordChange((StoredFlowEntry) rule, timestamp);
+        recordUpdate(term, timestamp);
     }
 
     /**
@@ -184,7 +319,9 @@ public class FlowBucket {
                 if (stored instanceof DefaultFlowEntry) {
                     DefaultFlowEntry storedEntry = (DefaultFlowEntry) stored;
                     if (updated.created() >= storedEntry.created()) {
-                        recordUpdate(term, clock.getTimestamp());
+                        LogicalTimestamp timestamp = clock.getTimestamp();
+                        recordChange(updated, timestamp);
+                        recordUpdate(term, timestamp);
                         return updated;
                     } else {
                         LOGGER.debug("Trying to update more recent flow entry {} (stored: {})", updated, stored);
@@ -217,7 +354,9 @@ public class FlowBucket {
             if (stored != null) {
                 T result = function.apply(stored);
                 if (result != null) {
-                    recordUpdate(term, clock.getTimestamp());
+                    LogicalTimestamp timestamp = clock.getTimestamp();
+                    recordChange(stored, timestamp);
+                    recordUpdate(term, timestamp);
                     resultRef.set(result);
                 }
             }
@@ -256,7 +395,9 @@ public class FlowBucket {
         });
 
         if (removedRule.get() != null) {
-            recordUpdate(term, clock.getTimestamp());
+            LogicalTimestamp timestamp = clock.getTimestamp();
+            recordRemoval((StoredFlowEntry) removedRule.get(), timestamp);
+            recordUpdate(term, timestamp);
             return removedRule.get();
         } else {
             return null;
@@ -268,6 +409,7 @@ public class FlowBucket {
      */
     public void purge() {
         flowBucket.clear();
+        resetChangeLog();
     }
 
     /**
@@ -277,5 +419,6 @@ public class FlowBucket {
         term = 0;
         timestamp = new LogicalTimestamp(0);
         flowBucket.clear();
+        resetChangeLog();
     }
 }
@@ -0,0 +1,668 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.resource.impl;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+
+import java.util.Arrays;
+import java.util.function.LongBinaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable set of integers stored as a compressed bitmap.
+ * <p>
+ * Values are partitioned by their upper 16 bits into containers holding the
+ * lower 16 bits as a sorted array, a plain bitmap or a list of runs of
+ * consecutive values, whichever is the most compact, in the fashion of
+ * Roaring bitmaps. Set operations are computed container by container
+ * without expanding the values they hold. Values are ordered as unsigned
+ * integers.
+ * </p>
+ */
+final class CompressedBitmap {
+
+    private static final int WORDS = 1 << 10;
+    private static final int BITMAP_BYTES = WORDS * Long.BYTES;
+
+    // Container tags on the wire
+    private static final byte ARRAY_TAG = 0;
+    private static final byte BITMAP_TAG = 1;
+    private static final byte RUN_TAG = 2;
+
+    private static final CompressedBitmap EMPTY = new CompressedBitmap(new char[0], new Container[0]);
+
+    // Upper 16 bits of the values held by the container at the same index
+    private final char[] keys;
+    private final Container[] containers;
+
+    private CompressedBitmap(char[] keys, Container[] containers) {
+        this.keys = keys;
+        this.containers = containers;
+    }
+
+    /**
+     * Returns an empty bitmap.
+     *
+     * @return empty bitmap
+     */
+    static CompressedBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a bitmap holding the given values.
+     *
+     * @param values values
+     * @return bitmap
+     */
+    static CompressedBitmap of(IntStream values) {
+        // Sorted in unsigned order by flipping the sign bit
+        int[] sorted = values.map(v -> v ^ Integer.MIN_VALUE).sorted().distinct()
+                .map(v -> v ^ Integer.MIN_VALUE).toArray();
+        if (sorted.length == 0) {
+            return EMPTY;
+        }
+
+        char[] keys = new char[sorted.length];
+        Container[] containers = new Container[sorted.length];
+        int n = 0;
+        int from = 0;
+        while (from < sorted.length) {
+            int key = sorted[from] >>> 16;
+            int to = from;
+            while (to < sorted.length && sorted[to] >>> 16 == key) {
+                to++;
+            }
+            char[] lows = new char[to - from];
+            for (int i = from; i < to; i++) {
+                lows[i - from] = (char) sorted[i];
+            }
+            keys[n] = (char) key;
+            containers[n++] = Container.of(lows);
+            from = to;
+        }
+        return new CompressedBitmap(Arrays.copyOf(keys, n), Arrays.copyOf(containers, n));
+    }
+
+    /**
+     * Creates a bitmap holding the given values.
+     *
+     * @param values values
+     * @return bitmap
+     */
+    static CompressedBitmap of(int... values) {
+        return of(IntStream.of(values));
+    }
+
+    /**
+     * Returns whether this bitmap holds the given value.
+     *
+     * @param value value
+     * @return true if the value is held
+     */
+    boolean contains(int value) {
+        int i = Arrays.binarySearch(keys, (char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    /**
+     * Returns whether this bitmap holds no value.
+     *
+     * @return true if empty
+     */
+    boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Returns the number of values held.
+     *
+     * @return number of values
+     */
+    int cardinality() {
+        int cardinality = 0;
+        for (Container container : containers) {
+            cardinality += container.cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * Returns the lowest value held.
+     *
+     * @return lowest value
+     * @throws java.util.NoSuchElementException if the bitmap is empty
+     */
+    int first() {
+        return stream().findFirst().getAsInt();
+    }
+
+    /**
+     * Returns the values held in ascending unsigned order.
+     *
+     * @return stream of values
+     */
+    IntStream stream() {
+        return IntStream.range(0, keys.length)
+                .flatMap(i -> containers[i].stream().map(low -> keys[i] << 16 | low));
+    }
+
+    /**
+     * Returns a bitmap holding the values of both this and the other bitmap.
+     *
+     * @param other other bitmap
+     * @return union of the bitmaps
+     */
+    CompressedBitmap or(CompressedBitmap other) {
+        return merge(other, (a, b) -> a | b, true, true);
+    }
+
+    /**
+     * Returns a bitmap holding the values of this bitmap which are not held
+     * by the other bitmap.
+     *
+     * @param other other bitmap
+     * @return difference of the bitmaps
+     */
+    CompressedBitmap andNot(CompressedBitmap other) {
+        return merge(other, (a, b) -> a & ~b, true, false);
+    }
+
+    /**
+     * Returns a bitmap holding the values held by both this and the other
+     * bitmap.
+     *
+     * @param other other bitmap
+     * @return intersection of the bitmaps
+     */
+    CompressedBitmap and(CompressedBitmap other) {
+        return merge(other, (a, b) -> a & b, false, false);
+    }
+
+    /**
+     * Returns whether this bitmap and the other bitmap hold a common value.
+     *
+     * @param other other bitmap
+     * @return true if the bitmaps intersect
+     */
+    boolean intersects(CompressedBitmap other) {
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else if (containers[i++].intersects(other.containers[j++])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Combines the containers word by word; containers under keys present in
+    // only one of the bitmaps are kept as they are or dropped
+    private CompressedBitmap merge(CompressedBitmap other, LongBinaryOperator op,
+                                   boolean keepThis, boolean keepOther) {
+        int size = keys.length + other.keys.length;
+        char[] newKeys = new char[size];
+        Container[] newContainers = new Container[size];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                if (keepThis) {
+                    newKeys[n] = keys[i];
+                    newContainers[n++] = containers[i];
+                }
+                i++;
+            } else if (i == keys.length || keys[i] > other.keys[j]) {
+                if (keepOther) {
+                    newKeys[n] = other.keys[j];
+                    newContainers[n++] = other.containers[j];
+                }
+                j++;
+            } else {
+                long[] a = containers[i++].bits();
+                long[] b = other.containers[j].bits();
+                for (int w = 0; w < WORDS; w++) {
+                    a[w] = op.applyAsLong(a[w], b[w]);
+                }
+                Container container = Container.of(a);
+                if (container != null) {
+                    newKeys[n] = other.keys[j];
+                    newContainers[n++] = container;
+                }
+                j++;
+            }
+        }
+        if (n == 0) {
+            return EMPTY;
+        }
+        return new CompressedBitmap(Arrays.copyOf(newKeys, n), Arrays.copyOf(newContainers, n));
+    }
+
+    /**
+     * Writes this bitmap to the given output.
+     *
+     * @param output output
+     */
+    void writeTo(Output output) {
+        output.writeInt(keys.length, true);
+        for (int i = 0; i < keys.length; i++) {
+            output.writeShort(keys[i]);
+            containers[i].writeTo(output);
+        }
+    }
+
+    /**
+     * Reads a bitmap written by {@link #writeTo(Output)}.
+     *
+     * @param input input
+     * @return bitmap
+     */
+    static CompressedBitmap readFrom(Input input) {
+        int size = input.readInt(true);
+        if (size == 0) {
+            return EMPTY;
+        }
+        char[] keys = new char[size];
+        Container[] containers = new Container[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (char) input.readShort();
+            containers[i] = Container.readFrom(input);
+        }
+        return new CompressedBitmap(keys, containers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(keys) + Arrays.hashCode(containers);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final CompressedBitmap other = (CompressedBitmap) obj;
+        // Containers are canonical, so equal contents have equal containers
+        return Arrays.equals(this.keys, other.keys)
+                && Arrays.equals(this.containers, other.containers);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        int[] values = stream().toArray();
+        for (int i = 0; i < values.length; i++) {
+            int start = values[i];
+            while (i + 1 < values.length && values[i + 1] == values[i] + 1) {
+                i++;
+            }
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(Integer.toUnsignedString(start));
+            if (values[i] != start) {
+                sb.append("..").append(Integer.toUnsignedString(values[i]));
+            }
+        }
+        return sb.append(']').toString();
+    }
+
+    // Container representations, in order of preference between equally
+    // compact ones
+    private enum Type {
+        RUN, ARRAY, BITMAP;
+
+        private static Type of(int cardinality, int runs) {
+            int arrayBytes = cardinality * Character.BYTES;
+            int runBytes = runs * 2 * Character.BYTES;
+            if (runBytes <= arrayBytes && runBytes < BITMAP_BYTES) {
+                return RUN;
+            }
+            return arrayBytes < BITMAP_BYTES ? ARRAY : BITMAP;
+        }
+    }
+
+    // Lower 16 bits of the values sharing the same upper 16 bits
+    private abstract static class Container {
+
+        abstract boolean contains(char low);
+
+        abstract int cardinality();
+
+        // Returns a fresh plain bitmap of the values
+        abstract long[] bits();
+
+        abstract IntStream stream();
+
+        abstract void writeTo(Output output);
+
+        boolean intersects(Container other) {
+            long[] a = bits();
+            long[] b = other.bits();
+            for (int w = 0; w < WORDS; w++) {
+                if ((a[w] & b[w]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Picks the most compact representation of the given bits, or
+        // returns null if no bit is set
+        static Container of(long[] bits) {
+            int cardinality = 0;
+            int runs = 0;
+            long previous = 0;
+            for (long word : bits) {
+                cardinality += Long.bitCount(word);
+                // a run starts at every set bit whose lower neighbour is clear
+                runs += Long.bitCount(word & ~(word << 1 | previous >>> 63));
+                previous = word;
+            }
+            if (cardinality == 0) {
+                return null;
+            }
+            switch (Type.of(cardinality, runs)) {
+                case RUN:
+                    return RunContainer.of(bits, runs);
+                case ARRAY:
+                    return ArrayContainer.of(bits, cardinality);
+                default:
+                    return new BitmapContainer(bits, cardinality);
+            }
+        }
+
+        // Picks the most compact representation of the given sorted values
+        static Container of(char[] values) {
+            int runs = 1;
+            for (int i = 1; i < values.length; i++) {
+                if (values[i] != values[i - 1] + 1) {
+                    runs++;
+                }
+            }
+            Type type = Type.of(values.length, runs);
+            if (type == Type.ARRAY) {
+                return new ArrayContainer(values);
+            }
+            long[] bits = new long[WORDS];
+            for (char v : values) {
+                bits[v >>> 6] |= 1L << v;
+            }
+            return type == Type.RUN ? RunContainer.of(bits, runs) : new BitmapContainer(bits, values.length);
+        }
+
+        static Container readFrom(Input input) {
+            byte type = input.readByte();
+            switch (type) {
+                case ARRAY_TAG:
+                    char[] values = new char[input.readInt(true)];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = (char) input.readShort();
+                    }
+                    return new ArrayContainer(values);
+                case BITMAP_TAG:
+                    long[] words = input.readLongs(WORDS);
+                    int cardinality = 0;
+                    for (long word : words) {
+                        cardinality += Long.bitCount(word);
+                    }
+                    return new BitmapContainer(words, cardinality);
+                case RUN_TAG:
+                    int runs = input.readInt(true);
+                    char[] starts = new char[runs];
+                    char[] lengths = new char[runs];
+                    for (int i = 0; i < runs; i++) {
+                        starts[i] = (char) input.readShort();
+                        lengths[i] = (char) input.readShort();
+                    }
+                    return new RunContainer(starts, lengths);
+                default:
+                    throw new IllegalArgumentException("Unknown container type " + type);
+            }
+        }
+    }
+
+    // Sorted values; used when sparse
+    private static final class ArrayContainer extends Container {
+        private final char[] values;
+
+        private ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        private static ArrayContainer of(long[] bits, int cardinality) {
+            char[] values = new char[cardinality];
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                for (long word = bits[w]; word != 0; word &= word - 1) {
+                    values[n++] = (char) (w << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayContainer(values);
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, low) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        long[] bits() {
+            long[] bits = new long[WORDS];
+            for (char v : values) {
+                bits[v >>> 6] |= 1L << v;
+            }
+            return bits;
+        }
+
+        @Override
+        boolean intersects(Container other) {
+            for (char v : values) {
+                if (other.contains(v)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        IntStream stream() {
+            return IntStream.range(0, values.length).map(i -> values[i]);
+        }
+
+        @Override
+        void writeTo(Output output) {
+            output.writeByte(ARRAY_TAG);
+            output.writeInt(values.length, true);
+            for (char v : values) {
+                output.writeShort(v);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ArrayContainer && Arrays.equals(values, ((ArrayContainer) obj).values);
+        }
+    }
+
+    // Plain bitmap of the 65536 possible values; used when dense
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private final int cardinality;
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & 1L << low) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        long[] bits() {
+            return words.clone();
+        }
+
+        @Override
+        IntStream stream() {
+            return IntStream.range(0, WORDS)
+                    .filter(w -> words[w] != 0)
+                    .flatMap(w -> {
+                        IntStream.Builder builder = IntStream.builder();
+                        for (long word = words[w]; word != 0; word &= word - 1) {
+                            builder.add(w << 6 | Long.numberOfTrailingZeros(word));
+                        }
+                        return builder.build();
+                    });
+        }
+
+        @Override
+        void writeTo(Output output) {
+            output.writeByte(BITMAP_TAG);
+            output.writeLongs(words);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(words);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof BitmapContainer && Arrays.equals(words, ((BitmapContainer) obj).words);
+        }
+    }
+
+    // Runs of consecutive values; each run holds start..start+length
+    private static final class RunContainer extends Container {
+        private final char[] starts;
+        private final char[] lengths;
+
+        private RunContainer(char[] starts, char[] lengths) {
+            this.starts = starts;
+            this.lengths = lengths;
+        }
+
+        private static RunContainer of(long[] bits, int runs) {
+            char[] starts = new char[runs];
+            char[] lengths = new char[runs];
+            int n = 0;
+            int start = -1;
+            for (int v = 0; v <= 0xFFFF; v++) {
+                boolean set = (bits[v >>> 6] & 1L << v) != 0;
+                if (set && start < 0) {
+                    start = v;
+                } else if (!set && start >= 0) {
+                    starts[n] = (char) start;
+                    lengths[n++] = (char) (v - 1 - start);
+                    start = -1;
+                }
+            }
+            if (start >= 0) {
+                starts[n] = (char) start;
+                lengths[n] = (char) (0xFFFF - start);
+            }
+            return new RunContainer(starts, lengths);
+        }
+
+        @Override
+        boolean contains(char low) {
+            int i = Arrays.binarySearch(starts, low);
+            if (i >= 0) {
+                return true;
+            }
+            i = -i - 2;
+            return i >= 0 && low - starts[i] <= lengths[i];
+        }
+
+        @Override
+        int cardinality() {
+            int cardinality = 0;
+            for (char length : lengths) {
+                cardinality += length + 1;
+            }
+            return cardinality;
+        }
+
+        @Override
+        long[] bits() {
+            long[] bits = new long[WORDS];
+            for (int i = 0; i < starts.length; i++) {
+                int end = starts[i] + lengths[i];
+                for (int v = starts[i]; v <= end; v++) {
+                    bits[v >>> 6] |= 1L << v;
+                }
+            }
+            return bits;
+        }
+
+        @Override
+        IntStream stream() {
+            return IntStream.range(0, starts.length)
+                    .flatMap(i -> IntStream.rangeClosed(starts[i], starts[i] + lengths[i]));
+        }
+
+        @Override
+        void writeTo(Output output) {
+            output.writeByte(RUN_TAG);
+            output.writeInt(starts.length, true);
+            for (int i = 0; i < starts.length; i++) {
+                output.writeShort(starts[i]);
+                output.writeShort(lengths[i]);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(starts) + Arrays.hashCode(lengths);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof RunContainer)) {
+                return false;
+            }
+            RunContainer that = (RunContainer) obj;
+            return Arrays.equals(starts, that.starts) && Arrays.equals(lengths, that.lengths);
+        }
+    }
+}
@@ -293,6 +293,57 @@ public class ConsistentResourceStore extends AbstractStore<ResourceEvent, Resour
         }
     }
 
+    @Override
+    public boolean reallocate(List<ResourceAllocation> releases, List<ResourceAllocation> allocations) {
+        checkNotNull(releases);
+        checkNotNull(allocations);
+
+        while (true) {
+            TransactionContext tx = service.transactionContextBuilder().build();
+            tx.begin();
+
+            TransactionalDiscreteResourceSubStore discreteTxStore = discreteStore.transactional(tx);
+            TransactionalContinuousResourceSubStore continuousTxStore = continuousStore.transactional(tx);
+            for (ResourceAllocation release : releases) {
+                Resource resource = release.resource();
+                ResourceConsumerId consumerId = release.consumerId();
+
+                if (resource instanceof DiscreteResource) {
+                    if (!discreteTxStore.release(consumerId, (DiscreteResource) resource)) {
+                        return abortTransaction(tx);
+                    }
+                } else if (resource instanceof ContinuousResource) {
+                    if (!continuousTxStore.release(consumerId, (ContinuousResource) resource)) {
+                        return abortTransaction(tx);
+                    }
+                }
+            }
+            for (ResourceAllocation allocation : allocations) {
+                Resource resource = allocation.resource();
+                ResourceConsumerId consumerId = allocation.consumerId();
+
+                if (resource instanceof DiscreteResource) {
+                    if (!discreteTxStore.allocate(consumerId, (DiscreteResource) resource)) {
+                        return abortTransaction(tx);
+                    }
+                } else if (resource instanceof ContinuousResource) {
+                    if (!continuousTxStore.allocate(consumerId, (ContinuousResource) resource)) {
+                        return abortTransaction(tx);
+                    }
+                }
+            }
+
+            try {
+                if (commitTransaction(tx) == CommitStatus.SUCCESS) {
+                    return true;
+                }
+            } catch (InterruptedException | ExecutionException | TimeoutException e) {
+                log.warn("Failed to reallocate {} to {}: {}", releases, allocations, e);
+                return false;
+            }
+        }
+    }
+
     // computational complexity: O(1) if the resource is discrete type.
     // O(n) if the resource is continuous type where n is the number of the children of
     // the specified resource's parent
@@ -134,9 +134,15 @@ final class EncodableDiscreteResources implements DiscreteResources {
 
     @Override
     public boolean containsAny(Set<DiscreteResource> other) {
-        return other.stream()
+        Map<Class<?>, Set<DiscreteResource>> grouped = other.stream()
                 .filter(x -> map.containsKey(getClass(x)))
-                .anyMatch(x -> map.get(getClass(x)).contains(x));
+                .collect(Collectors.groupingBy(x -> getClass(x), Collectors.toSet()));
+
+        return grouped.entrySet().stream()
+                .anyMatch(e -> {
+                    EncodedDiscreteResources values = map.get(e.getKey());
+                    return values.intersects(EncodedDiscreteResources.of(e.getValue(), values.codec()));
+                });
     }
 
     @Override
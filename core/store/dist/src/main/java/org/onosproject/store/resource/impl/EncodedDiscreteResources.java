@@ -16,10 +16,6 @@
 package org.onosproject.store.resource.impl;
 
 import com.google.common.base.MoreObjects;
-import com.google.common.collect.DiscreteDomain;
-import com.google.common.collect.Range;
-import com.google.common.collect.RangeSet;
-import com.google.common.collect.TreeRangeSet;
 import org.onlab.util.Tools;
 import org.onosproject.net.resource.DiscreteResource;
 import org.onosproject.net.resource.DiscreteResourceCodec;
@@ -30,37 +26,33 @@ import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
- * Represents discrete resources encoded by a codec.
+ * Represents discrete resources encoded by a codec, held in a compressed bitmap.
  */
 final class EncodedDiscreteResources {
-    private final RangeSet<Integer> rangeSet;
+    private final CompressedBitmap bitmap;
     private final DiscreteResourceCodec codec;
 
-    EncodedDiscreteResources(RangeSet<Integer> rangeSet, DiscreteResourceCodec codec) {
-        this.rangeSet = rangeSet;
+    EncodedDiscreteResources(CompressedBitmap bitmap, DiscreteResourceCodec codec) {
+        this.bitmap = bitmap;
         this.codec = codec;
     }
 
+    @SuppressWarnings("unchecked")
     static EncodedDiscreteResources of(Set<DiscreteResource> resources, DiscreteResourceCodec codec) {
-        RangeSet<Integer> rangeSet = TreeRangeSet.create();
-        resources.stream()
+        CompressedBitmap bitmap = CompressedBitmap.of(resources.stream()
                 .map(x -> x.valueAs(Object.class))
                 .flatMap(Tools::stream)
-                .map(x -> codec.encode(x))
-                .map(Range::singleton)
-                .map(x -> x.canonical(DiscreteDomain.integers()))
-                .forEach(rangeSet::add);
+                .mapToInt(x -> codec.encode(x)));
 
-        return new EncodedDiscreteResources(rangeSet, codec);
+        return new EncodedDiscreteResources(bitmap, codec);
     }
 
-    RangeSet<Integer> rangeSet() {
-        return rangeSet;
+    CompressedBitmap bitmap() {
+        return bitmap;
     }
 
     DiscreteResourceCodec codec() {
@@ -68,52 +60,49 @@ final class EncodedDiscreteResources {
     }
 
     Set<DiscreteResource> values(DiscreteResourceId parent) {
-        return rangeSet.asRanges().stream()
-                .flatMapToInt(x1 -> IntStream.range(x1.lowerEndpoint(), x1.upperEndpoint()))
-                .boxed()
-                .map(x -> codec.decode(x))
+        return bitmap.stream()
+                .mapToObj(x -> codec.decode(x))
                 .map(x -> Resources.discrete(parent, x).resource())
                 .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
     Class<?> encodedClass() {
-        Range<Integer> firstRange = rangeSet.asRanges().iterator().next();
-        return codec.decode(firstRange.lowerEndpoint()).getClass();
+        return codec.decode(bitmap.first()).getClass();
     }
 
     @SuppressWarnings("unchecked")
     boolean contains(DiscreteResource resource) {
         return resource.valueAs(Object.class)
                 .map(x -> codec.encode(x))
-                .map(rangeSet::contains)
+                .map(bitmap::contains)
                 .orElse(false);
     }
 
     EncodedDiscreteResources difference(EncodedDiscreteResources other) {
         checkArgument(this.codec.getClass() == other.codec.getClass());
 
-        RangeSet<Integer> newRangeSet = TreeRangeSet.create(this.rangeSet);
-        newRangeSet.removeAll(other.rangeSet);
-
-        return new EncodedDiscreteResources(newRangeSet, this.codec);
+        return new EncodedDiscreteResources(this.bitmap.andNot(other.bitmap), this.codec);
     }
 
     EncodedDiscreteResources add(EncodedDiscreteResources other) {
         checkArgument(this.codec.getClass() == other.codec.getClass());
 
-        RangeSet<Integer> newRangeSet = TreeRangeSet.create(this.rangeSet);
-        newRangeSet.addAll(other.rangeSet);
+        return new EncodedDiscreteResources(this.bitmap.or(other.bitmap), this.codec);
+    }
+
+    boolean intersects(EncodedDiscreteResources other) {
+        checkArgument(this.codec.getClass() == other.codec.getClass());
 
-        return new EncodedDiscreteResources(newRangeSet, this.codec);
+        return this.bitmap.intersects(other.bitmap);
     }
 
     boolean isEmpty() {
-        return rangeSet.isEmpty();
+        return bitmap.isEmpty();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(rangeSet, codec);
+        return Objects.hash(bitmap, codec);
     }
 
     @Override
@@ -125,14 +114,14 @@ final class EncodedDiscreteResources {
             return false;
         }
         final EncodedDiscreteResources other = (EncodedDiscreteResources) obj;
-        return Objects.equals(this.rangeSet, other.rangeSet)
+        return Objects.equals(this.bitmap, other.bitmap)
                 && Objects.equals(this.codec, other.codec);
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
-                .add("rangeSet", rangeSet)
+                .add("bitmap", bitmap)
                 .add("codec", codec)
                 .toString();
     }
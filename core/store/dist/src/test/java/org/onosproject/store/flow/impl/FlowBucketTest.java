@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.intent.IntentTestsMocks;
+import org.onosproject.store.LogicalTimestamp;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.onosproject.net.NetTestTools.APP_ID;
+import static org.onosproject.net.NetTestTools.did;
+
+/**
+ * Test class for FlowBucket change tracking.
+ */
+public class FlowBucketTest {
+
+    private static final long TERM = 1;
+    private final DeviceId deviceId = did("device1");
+
+    private LogicalClock clock;
+    private FlowBucket master;
+    private FlowBucket backup;
+
+    private FlowEntry flowEntry(int priority) {
+        FlowRule rule = DefaultFlowRule.builder()
+                .forDevice(deviceId)
+                .withSelector(new IntentTestsMocks.MockSelector())
+                .withTreatment(new IntentTestsMocks.MockTreatment())
+                .withPriority(priority)
+                .makePermanent()
+                .fromApp(APP_ID)
+                .build();
+        return new DefaultFlowEntry(rule);
+    }
+
+    @Before
+    public void setUp() {
+        clock = new LogicalClock();
+        master = new FlowBucket(new BucketId(deviceId, 0));
+        backup = new FlowBucket(new BucketId(deviceId, 0));
+    }
+
+    /**
+     * Tests that a delta contains only changes made since the given timestamp.
+     */
+    @Test
+    public void testDeltaSinceTimestamp() {
+        FlowEntry first = flowEntry(10);
+        FlowEntry second = flowEntry(20);
+        master.add(first, TERM, clock);
+        LogicalTimestamp base = master.timestamp();
+        master.add(second, TERM, clock);
+
+        FlowBucketDelta delta = master.getDelta(base);
+        assertThat(delta, notNullValue());
+        assertThat(delta.updated(), contains(second));
+        assertThat(delta.removed(), is(empty()));
+        assertThat(delta.baseTimestamp(), is(base));
+        assertThat(delta.timestamp(), is(master.timestamp()));
+    }
+
+    /**
+     * Tests that removals are included in deltas and applied by backups.
+     */
+    @Test
+    public void testApplyDelta() {
+        FlowEntry first = flowEntry(10);
+        FlowEntry second = flowEntry(20);
+        master.add(first, TERM, clock);
+        master.add(second, TERM, clock);
+
+        FlowBucketDelta full = master.getDelta(new LogicalTimestamp(0));
+        backup.applyDelta(full);
+        assertThat(backup.count(), is(2));
+        LogicalTimestamp base = master.timestamp();
+
+        master.remove(first, TERM, clock);
+        FlowBucketDelta delta = master.getDelta(base);
+        assertThat(delta.updated(), is(empty()));
+        assertThat(delta.removed(), contains(first));
+
+        backup.applyDelta(delta);
+        assertThat(backup.count(), is(1));
+        assertThat(backup.getFlowEntries(second.id()).containsKey(second), is(true));
+        assertThat(backup.timestamp(), is(master.timestamp()));
+        assertThat(backup.term(), is(TERM));
+    }
+
+    /**
+     * Tests that no delta is returned once tombstones older than the requested timestamp are compacted.
+     */
+    @Test
+    public void testCompaction() {
+        FlowEntry first = flowEntry(10);
+        master.add(first, TERM, clock);
+        LogicalTimestamp base = master.timestamp();
+        master.remove(first, TERM, clock);
+        LogicalTimestamp removed = master.timestamp();
+
+        master.compact(removed);
+        assertThat(master.getDelta(base), nullValue());
+        assertThat(master.getDelta(removed), notNullValue());
+        assertThat(master.getDelta(removed).count(), is(0));
+    }
+
+    /**
+     * Tests that a bucket without a change log cannot produce deltas for earlier changes.
+     */
+    @Test
+    public void testCopyHasNoChangeLog() {
+        master.add(flowEntry(10), TERM, clock);
+        FlowBucket copy = master.copy();
+        assertThat(copy.getDelta(new LogicalTimestamp(0)), nullValue());
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.resource.impl;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for CompressedBitmap.
+ */
+public class CompressedBitmapTest {
+
+    private static Set<Integer> set(CompressedBitmap bitmap) {
+        return bitmap.stream().boxed().collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static Set<Integer> randomValues(Random random, int count, int bound) {
+        return random.ints(count, 0, bound).boxed().collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static CompressedBitmap of(Set<Integer> values) {
+        return CompressedBitmap.of(values.stream().mapToInt(Integer::intValue));
+    }
+
+    private static CompressedBitmap roundTrip(CompressedBitmap bitmap) {
+        Output output = new Output(1024, -1);
+        bitmap.writeTo(output);
+        return CompressedBitmap.readFrom(new Input(output.toBytes()));
+    }
+
+    @Test
+    public void testContains() {
+        CompressedBitmap sut = CompressedBitmap.of(1, 3, 70000, -1);
+
+        assertTrue(sut.contains(1));
+        assertTrue(sut.contains(70000));
+        assertTrue(sut.contains(-1));
+        assertFalse(sut.contains(2));
+        assertFalse(sut.contains(70001));
+        assertThat(sut.cardinality(), is(4));
+        assertThat(sut.first(), is(1));
+        assertTrue(CompressedBitmap.of().isEmpty());
+    }
+
+    @Test
+    public void testDenseRange() {
+        // The whole 20-bit MPLS label space
+        CompressedBitmap sut = CompressedBitmap.of(IntStream.range(0, 1 << 20));
+
+        assertThat(sut.cardinality(), is(1 << 20));
+        assertTrue(sut.contains(0xFFFFF));
+        assertFalse(sut.contains(1 << 20));
+        assertThat(sut.toString(), is("[0..1048575]"));
+        assertThat(roundTrip(sut), is(sut));
+
+        CompressedBitmap holes = sut.andNot(CompressedBitmap.of(IntStream.range(0, 1 << 20).filter(x -> x % 3 == 0)));
+        assertThat(holes.cardinality(), is((1 << 20) - 349526));
+        assertFalse(holes.contains(300));
+        assertTrue(holes.contains(301));
+        assertThat(roundTrip(holes), is(holes));
+    }
+
+    @Test
+    public void testSetOperations() {
+        Random random = new Random(1);
+        for (int round = 0; round < 20; round++) {
+            int bound = round % 2 == 0 ? 200000 : 5000;
+            Set<Integer> a = randomValues(random, random.nextInt(20000), bound);
+            Set<Integer> b = randomValues(random, random.nextInt(20000), bound);
+            CompressedBitmap ba = of(a);
+            CompressedBitmap bb = of(b);
+
+            Set<Integer> union = new TreeSet<>(a);
+            union.addAll(b);
+            Set<Integer> difference = new TreeSet<>(a);
+            difference.removeAll(b);
+            Set<Integer> intersection = new TreeSet<>(a);
+            intersection.retainAll(b);
+
+            assertEquals(union, set(ba.or(bb)));
+            assertEquals(difference, set(ba.andNot(bb)));
+            assertEquals(intersection, set(ba.and(bb)));
+            assertEquals(!intersection.isEmpty(), ba.intersects(bb));
+
+            // Results are canonical whichever way they were built
+            assertEquals(of(union), ba.or(bb));
+            assertEquals(of(difference), ba.andNot(bb));
+            assertEquals(of(a), roundTrip(ba));
+        }
+    }
+
+    @Test
+    public void testIntersects() {
+        CompressedBitmap sut = CompressedBitmap.of(IntStream.range(100, 200));
+
+        assertTrue(sut.intersects(CompressedBitmap.of(150)));
+        assertFalse(sut.intersects(CompressedBitmap.of(99, 200, 65636)));
+        assertFalse(sut.intersects(CompressedBitmap.empty()));
+        assertThat(sut.andNot(sut), is(CompressedBitmap.empty()));
+    }
+}
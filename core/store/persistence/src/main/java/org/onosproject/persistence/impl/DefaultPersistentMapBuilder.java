@@ -18,28 +18,49 @@ package org.onosproject.persistence.impl;
 
 import org.mapdb.DB;
 import org.onosproject.persistence.PersistentMapBuilder;
+import org.onosproject.persistence.PersistentStorage;
 import org.onosproject.store.service.Serializer;
 
 import java.util.Map;
+import java.util.function.BiFunction;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 /**
- * Default builder for persistent maps stored in the mapDB local database via the persistence service.
+ * Default builder for persistent maps stored in the mapDB local database, or in local logs, via the persistence
+ * service.
  */
 public class DefaultPersistentMapBuilder<K, V> implements PersistentMapBuilder<K, V> {
 
     private final DB localDB;
 
+    private final BiFunction<String, Serializer, Map<K, V>> logMapProvider;
+
     private String name = null;
 
     private Serializer serializer = null;
 
+    private PersistentStorage storage = PersistentStorage.DATABASE;
+
 
     public DefaultPersistentMapBuilder(DB localDB) {
+        this(localDB, null);
+    }
+
+    /**
+     * Creates a builder of maps stored in the given database, or in logs
+     * supplied by the given provider.
+     *
+     * @param localDB the local database
+     * @param logMapProvider provider of log backed maps by name and serializer; null if not supported
+     */
+    public DefaultPersistentMapBuilder(DB localDB,
+                                       BiFunction<String, Serializer, Map<K, V>> logMapProvider) {
         checkNotNull(localDB, "The local database cannot be null.");
         this.localDB = localDB;
+        this.logMapProvider = logMapProvider;
     }
 
     public PersistentMapBuilder<K, V> withName(String name) {
@@ -54,10 +75,19 @@ public class DefaultPersistentMapBuilder<K, V> implements PersistentMapBuilder<K
         return this;
     }
 
+    public PersistentMapBuilder<K, V> withStorage(PersistentStorage storage) {
+        this.storage = checkNotNull(storage);
+        return this;
+    }
+
     public Map<K, V> build() {
         checkNotNull(name, "The name must be assigned.");
         checkNotNull(serializer, "The key serializer must be assigned.");
 
+        if (storage == PersistentStorage.LOG) {
+            checkState(logMapProvider != null, "Log storage is not supported.");
+            return logMapProvider.apply(name, serializer);
+        }
         return new PersistentMap<K, V>(serializer, localDB, name);
     }
 }
\ No newline at end of file
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.persistence.impl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.onosproject.store.service.Serializer;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A map implementation that holds its entries in memory and appends every
+ * update to a persistent log, from which the entries are read back when
+ * the map is created.
+ * <p>
+ * Unlike {@link PersistentMap}, reads are served from memory without
+ * deserialization, and the compute methods are atomic.
+ */
+public class LogPersistentMap<K, V> implements Map<K, V> {
+
+    private final Serializer serializer;
+
+    private final PersistentLog log;
+
+    private final Map<K, V> items = Maps.newConcurrentMap();
+
+    LogPersistentMap(Serializer serializer, PersistentLog log) {
+        this.serializer = checkNotNull(serializer);
+        this.log = checkNotNull(log);
+        log.forEach((keyBytes, valueBytes) ->
+                            items.put(serializer.decode(keyBytes), serializer.decode(valueBytes)));
+    }
+
+    /**
+     * Returns the log holding the updates to this map.
+     *
+     * @return the persistent log
+     */
+    PersistentLog log() {
+        return log;
+    }
+
+    // Must be called while the entry of the key is locked, to append the
+    // updates of a key in the order they are applied
+    private void write(K key, V value) {
+        if (value == null) {
+            log.remove(serializer.encode(key));
+        } else {
+            log.put(serializer.encode(key), serializer.encode(value));
+        }
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        checkNotNull(key, "Key cannot be null.");
+        return items.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        checkNotNull(value, "Value cannot be null.");
+        return items.containsValue(value);
+    }
+
+    @Override
+    public V get(Object key) {
+        checkNotNull(key, "Key cannot be null.");
+        return items.get(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        checkNotNull(key, "Key cannot be null.");
+        checkNotNull(value, "Value cannot be null.");
+        AtomicReference<V> previous = new AtomicReference<>();
+        items.compute(key, (k, existing) -> {
+            previous.set(existing);
+            write(k, value);
+            return value;
+        });
+        return previous.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        checkNotNull(key, "Key can not be null.");
+        AtomicReference<V> removed = new AtomicReference<>();
+        items.computeIfPresent((K) key, (k, existing) -> {
+            removed.set(existing);
+            write(k, null);
+            return null;
+        });
+        return removed.get();
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        checkNotNull(key, "Key cannot be null.");
+        return items.compute(key, (k, existing) -> {
+            V value = remappingFunction.apply(k, existing);
+            // unchanged entries are not written again
+            if (value != existing) {
+                write(k, value);
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        checkNotNull(key, "Key cannot be null.");
+        return items.computeIfPresent(key, (k, existing) -> {
+            V value = remappingFunction.apply(k, existing);
+            if (value != existing) {
+                write(k, value);
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        checkNotNull(key, "Key cannot be null.");
+        return items.computeIfAbsent(key, k -> {
+            V value = mappingFunction.apply(k);
+            if (value != null) {
+                write(k, value);
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        checkNotNull(m, "The passed in map cannot be null.");
+        m.forEach(this::put);
+    }
+
+    @Override
+    public void clear() {
+        items.keySet().forEach(this::remove);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        items.forEach(action);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return ImmutableSet.copyOf(items.keySet());
+    }
+
+    @Override
+    public Collection<V> values() {
+        return ImmutableList.copyOf(items.values());
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        ImmutableSet.Builder<Entry<K, V>> entries = ImmutableSet.builder();
+        items.forEach((key, value) -> entries.add(Maps.immutableEntry(key, value)));
+        return entries.build();
+    }
+
+    @Override
+    public boolean equals(Object map) {
+        return map instanceof Map && items.equals(map);
+    }
+
+    @Override
+    public int hashCode() {
+        return items.hashCode();
+    }
+}
@@ -16,11 +16,13 @@
 
 package org.onosproject.persistence.impl;
 
+import com.google.common.collect.Maps;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
 import org.onosproject.persistence.PersistenceService;
 import org.onosproject.persistence.PersistentMapBuilder;
 import org.onosproject.persistence.PersistentSetBuilder;
+import org.onosproject.store.service.Serializer;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -28,19 +30,29 @@ import org.slf4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static org.onlab.util.Tools.groupedThreads;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.PERSISTENCE_WRITE;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Service that maintains local disk backed maps and sets.
+ * Structures are stored in a MapDB database, committed periodically, except
+ * for maps using {@link org.onosproject.persistence.PersistentStorage#LOG log}
+ * storage, which are stored in a log per map.
  * This implementation automatically deletes empty structures on shutdown.
  */
 @Component(immediate = true, service = PersistenceService.class)
@@ -51,6 +63,10 @@ public class PersistenceManager implements PersistenceService {
 
     private static final String DATABASE_PATH = "cache";
 
+    private static final String LOG_PATH = "log";
+
+    private static final String LOG_SUFFIX = ".log";
+
     static final String MAP_PREFIX = "map:";
     static final String SET_PREFIX = "set:";
 
@@ -64,6 +80,15 @@ public class PersistenceManager implements PersistenceService {
 
     private final CommitTask commitTask = new CommitTask();
 
+    // Records appended to logs since the previous flush are committed together
+    private static final int LOG_FLUSH_FREQUENCY_MILLIS = 100;
+
+    private final Map<String, LogPersistentMap<?, ?>> logMaps = Maps.newConcurrentMap();
+
+    private Path logFolderPath;
+
+    private ScheduledExecutorService logExecutor;
+
     @Activate
     public void activate() {
         timer = new Timer();
@@ -95,12 +120,32 @@ public class PersistenceManager implements PersistenceService {
                 .closeOnJvmShutdown()
                 .make();
         timer.schedule(commitTask, FLUSH_FREQUENCY_MILLIS, FLUSH_FREQUENCY_MILLIS);
+
+        logFolderPath = dbFolderPath.toPath().resolve(LOG_PATH);
+        try {
+            Files.createDirectories(logFolderPath);
+        } catch (IOException e) {
+            log.error("Could not create the required folder for the logs.");
+            throw new PersistenceException("Log folder could not be created.", e);
+        }
+        logExecutor = newSingleThreadScheduledExecutor(groupedThreads("onos/persistence", "log-flush", log));
+        logExecutor.scheduleWithFixedDelay(this::maintainLogs, LOG_FLUSH_FREQUENCY_MILLIS,
+                                           LOG_FLUSH_FREQUENCY_MILLIS, TimeUnit.MILLISECONDS);
         log.info("Started");
     }
 
     @Deactivate
     public void deactivate() {
         timer.cancel();
+        logExecutor.shutdownNow();
+        try {
+            logExecutor.awaitTermination(FLUSH_FREQUENCY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // empty logs are deleted, as empty maps of the database
+        logMaps.values().forEach(map -> map.log().close(map.isEmpty()));
+        logMaps.clear();
         for (Map.Entry<String, Object> entry : localDB.getAll().entrySet()) {
             String key = entry.getKey();
             Object value = entry.getValue();
@@ -128,7 +173,7 @@ public class PersistenceManager implements PersistenceService {
     @Override
     public <K, V> PersistentMapBuilder<K, V> persistentMapBuilder() {
         checkPermission(PERSISTENCE_WRITE);
-        return new DefaultPersistentMapBuilder<>(localDB);
+        return new DefaultPersistentMapBuilder<>(localDB, this::logMap);
     }
 
     @Override
@@ -137,6 +182,34 @@ public class PersistenceManager implements PersistenceService {
         return new DefaultPersistentSetBuilder<>(localDB);
     }
 
+    // Maps sharing a name share their entries, as maps of the database do
+    @SuppressWarnings("unchecked")
+    private <K, V> Map<K, V> logMap(String name, Serializer serializer) {
+        return (Map<K, V>) logMaps.computeIfAbsent(name, n -> {
+            Path path;
+            try {
+                path = logFolderPath.resolve(URLEncoder.encode(n, StandardCharsets.UTF_8.name()) + LOG_SUFFIX);
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException(e);
+            }
+            log.debug("logPath: {}", path);
+            return new LogPersistentMap<K, V>(serializer, PersistentLog.open(path));
+        });
+    }
+
+    private void maintainLogs() {
+        for (LogPersistentMap<?, ?> map : logMaps.values()) {
+            try {
+                map.log().flush();
+                if (map.log().needsCompaction()) {
+                    map.log().compact();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not maintain log", e);
+            }
+        }
+    }
+
     private class CommitTask extends TimerTask {
 
         @Override
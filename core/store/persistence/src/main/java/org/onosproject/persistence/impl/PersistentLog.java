@@ -0,0 +1,433 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.persistence.impl;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Append-only log of the updates to a map of serialized keys and values,
+ * stored in a memory-mapped file.
+ * <p>
+ * Every update is appended as a checksummed record. An index of the latest
+ * record of each live key allows live entries to be read without replaying
+ * the log, and the log to be compacted by copying live records only. The log
+ * is only replayed when it is opened, sequentially, up to the first invalid
+ * record.
+ * <p>
+ * Appended records reach the disk when {@link #flush()} is called, which
+ * commits together all the updates since the previous call.
+ */
+final class PersistentLog {
+
+    private static final int MAGIC = 0x4f4e4c47;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_LENGTH = 2 * Integer.BYTES;
+
+    // Record: payload length, payload checksum, payload
+    // Payload: operation, key length, key, value
+    private static final int RECORD_HEADER_LENGTH = 2 * Integer.BYTES;
+    private static final int PAYLOAD_HEADER_LENGTH = Byte.BYTES + Integer.BYTES;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final byte[] NO_VALUE = new byte[0];
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    private static final int MIN_COMPACTION_GARBAGE = 1024;
+    private static final String COMPACTION_SUFFIX = ".compact";
+
+    private final Logger log = getLogger(getClass());
+
+    private final Path path;
+    private final Path compactionPath;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    // offset of the latest record of each live key, keyed by wrapped key bytes
+    private Map<ByteBuffer, Integer> index = Maps.newHashMap();
+    private int position;
+    private int records;
+    private boolean dirty;
+    private boolean closed;
+
+    private PersistentLog(Path path) {
+        this.path = path;
+        this.compactionPath = path.resolveSibling(path.getFileName() + COMPACTION_SUFFIX);
+    }
+
+    /**
+     * Opens the log stored in the given file, creating it if needed.
+     *
+     * @param path path of the log file
+     * @return the opened log
+     */
+    static PersistentLog open(Path path) {
+        PersistentLog log = new PersistentLog(path);
+        try {
+            log.load();
+        } catch (IOException e) {
+            throw new PersistenceException("Log " + path + " could not be opened.", e);
+        }
+        return log;
+    }
+
+    private void load() throws IOException {
+        // left over by an interrupted compaction
+        Files.deleteIfExists(compactionPath);
+
+        channel = FileChannel.open(path, CREATE, READ, WRITE);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new PersistenceException("Log " + path + " is too large.");
+        }
+        if (size == 0) {
+            // the header must reach the disk before the file is extended,
+            // or a crash could leave a file of zeros behind
+            writeFully(channel, fileHeader(), 0);
+            channel.force(true);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_CAPACITY);
+            position = FILE_HEADER_LENGTH;
+            return;
+        }
+
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (size < FILE_HEADER_LENGTH || buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new PersistenceException("Log " + path + " has an unsupported format.");
+        }
+        int offset = FILE_HEADER_LENGTH;
+        int length;
+        while ((length = validRecordLength(offset)) > 0) {
+            indexRecord(index, buffer, offset, offset);
+            records++;
+            offset += length;
+        }
+        position = offset;
+
+        // Drop whatever follows the last valid record, e.g. a torn write,
+        // so that it cannot be mistaken for records once overwritten
+        if (position < size) {
+            channel.truncate(position);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityFor(position));
+        log.debug("Loaded {} records for {} keys from {}", records, index.size(), path);
+    }
+
+    private static ByteBuffer fileHeader() {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_LENGTH).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        return header;
+    }
+
+    // Leaves room for as many records again before the file is extended
+    private static long capacityFor(int position) {
+        return Math.min(Math.max(2L * position, INITIAL_CAPACITY), Integer.MAX_VALUE);
+    }
+
+    // Returns the length of the valid record at the given offset, or 0 if
+    // there is no such record
+    private int validRecordLength(int offset) {
+        if (offset > buffer.capacity() - RECORD_HEADER_LENGTH) {
+            return 0;
+        }
+        int length = buffer.getInt(offset);
+        if (length < PAYLOAD_HEADER_LENGTH ||
+                length > buffer.capacity() - offset - RECORD_HEADER_LENGTH) {
+            return 0;
+        }
+        int payload = offset + RECORD_HEADER_LENGTH;
+        int keyLength = buffer.getInt(payload + Byte.BYTES);
+        if (keyLength < 0 || keyLength > length - PAYLOAD_HEADER_LENGTH ||
+                buffer.getInt(offset + Integer.BYTES) != checksum(buffer, payload, length)) {
+            return 0;
+        }
+        return RECORD_HEADER_LENGTH + length;
+    }
+
+    private static int checksum(ByteBuffer source, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(slice(source, offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static ByteBuffer slice(ByteBuffer source, int offset, int length) {
+        ByteBuffer slice = source.duplicate();
+        slice.limit(offset + length).position(offset);
+        return slice;
+    }
+
+    private static int recordLength(ByteBuffer source, int offset) {
+        return RECORD_HEADER_LENGTH + source.getInt(offset);
+    }
+
+    private static ByteBuffer key(ByteBuffer source, int offset) {
+        int payload = offset + RECORD_HEADER_LENGTH;
+        byte[] key = new byte[source.getInt(payload + Byte.BYTES)];
+        slice(source, payload + PAYLOAD_HEADER_LENGTH, key.length).get(key);
+        return ByteBuffer.wrap(key);
+    }
+
+    private static byte[] value(ByteBuffer source, int offset) {
+        int payload = offset + RECORD_HEADER_LENGTH;
+        int keyLength = source.getInt(payload + Byte.BYTES);
+        byte[] value = new byte[source.getInt(offset) - PAYLOAD_HEADER_LENGTH - keyLength];
+        slice(source, payload + PAYLOAD_HEADER_LENGTH + keyLength, value.length).get(value);
+        return value;
+    }
+
+    // Applies the record found at the given offset of the source to the
+    // index, as a record located at the given indexed offset
+    private static void indexRecord(Map<ByteBuffer, Integer> index, ByteBuffer source,
+                                    int offset, int indexedOffset) {
+        if (source.get(offset + RECORD_HEADER_LENGTH) == PUT) {
+            index.put(key(source, offset), indexedOffset);
+        } else {
+            index.remove(key(source, offset));
+        }
+    }
+
+    /**
+     * Appends the given value of the given key.
+     *
+     * @param key serialized key
+     * @param value serialized value
+     */
+    synchronized void put(byte[] key, byte[] value) {
+        int offset = append(PUT, key, value);
+        index.put(ByteBuffer.wrap(key), offset);
+    }
+
+    /**
+     * Appends the removal of the given key, if it is live.
+     *
+     * @param key serialized key
+     */
+    synchronized void remove(byte[] key) {
+        if (index.remove(ByteBuffer.wrap(key)) != null) {
+            append(REMOVE, key, NO_VALUE);
+        }
+    }
+
+    private int append(byte operation, byte[] key, byte[] value) {
+        if (closed) {
+            throw new PersistenceException("Log " + path + " is closed.");
+        }
+        int length = PAYLOAD_HEADER_LENGTH + key.length + value.length;
+        int offset = position;
+        ensureCapacity((long) offset + RECORD_HEADER_LENGTH + length);
+
+        int payload = offset + RECORD_HEADER_LENGTH;
+        ByteBuffer record = buffer.duplicate();
+        record.position(payload);
+        record.put(operation).putInt(key.length).put(key).put(value);
+        buffer.putInt(offset + Integer.BYTES, checksum(buffer, payload, length));
+        buffer.putInt(offset, length);
+
+        position = payload + length;
+        records++;
+        dirty = true;
+        return offset;
+    }
+
+    private void ensureCapacity(long required) {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        if (required > Integer.MAX_VALUE) {
+            throw new PersistenceException("Log " + path + " is full.");
+        }
+        long capacity = Math.min(Math.max(2L * buffer.capacity(), required), Integer.MAX_VALUE);
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new PersistenceException("Log " + path + " could not be extended.", e);
+        }
+    }
+
+    /**
+     * Passes every live key and its value to the given consumer.
+     *
+     * @param consumer consumer of serialized keys and values
+     */
+    synchronized void forEach(BiConsumer<byte[], byte[]> consumer) {
+        index.forEach((key, offset) -> consumer.accept(key.array(), value(buffer, offset)));
+    }
+
+    /**
+     * Returns the number of live keys.
+     *
+     * @return number of live keys
+     */
+    synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the number of records in the log, live or not.
+     *
+     * @return number of records
+     */
+    synchronized int records() {
+        return records;
+    }
+
+    /**
+     * Forces the records appended since the previous flush to disk.
+     */
+    void flush() {
+        MappedByteBuffer appended;
+        synchronized (this) {
+            if (!dirty || closed) {
+                return;
+            }
+            dirty = false;
+            appended = buffer;
+        }
+        appended.force();
+    }
+
+    /**
+     * Returns whether records that are no longer live take enough space to
+     * warrant a compaction.
+     *
+     * @return true if the log should be compacted
+     */
+    synchronized boolean needsCompaction() {
+        int garbage = records - index.size();
+        return !closed && garbage > Math.max(index.size(), MIN_COMPACTION_GARBAGE);
+    }
+
+    /**
+     * Rewrites the log with live records only. Records are copied without
+     * blocking updates, except for those appended during the compaction.
+     * Compactions must not be run concurrently.
+     */
+    void compact() {
+        compact(() -> { });
+    }
+
+    // Runs the given action once the live records are copied, before the
+    // records appended meanwhile are; lets tests append during a compaction
+    void compact(Runnable copied) {
+        int end;
+        MappedByteBuffer source;
+        List<Map.Entry<ByteBuffer, Integer>> live = Lists.newArrayList();
+        synchronized (this) {
+            end = position;
+            source = buffer;
+            index.forEach((key, offset) -> live.add(Maps.immutableEntry(key, offset)));
+        }
+
+        // records before the end are never modified, and can be copied unlocked
+        try (FileChannel target = FileChannel.open(compactionPath, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+            writeFully(target, fileHeader(), 0);
+
+            Map<ByteBuffer, Integer> compactedIndex = Maps.newHashMapWithExpectedSize(live.size());
+            int offset = FILE_HEADER_LENGTH;
+            for (Map.Entry<ByteBuffer, Integer> entry : live) {
+                int length = recordLength(source, entry.getValue());
+                writeFully(target, slice(source, entry.getValue(), length), offset);
+                compactedIndex.put(entry.getKey(), offset);
+                offset += length;
+            }
+            // only the records appended meanwhile are left to sync while updates are blocked
+            target.force(true);
+            copied.run();
+
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                int tail = offset;
+                int compactedRecords = live.size();
+                writeFully(target, slice(buffer, end, position - end), tail);
+                for (int i = end; i < position; i += recordLength(buffer, i)) {
+                    indexRecord(compactedIndex, buffer, i, tail + i - end);
+                    compactedRecords++;
+                }
+                int compactedPosition = tail + position - end;
+                target.force(true);
+
+                Files.move(compactionPath, path, ATOMIC_MOVE, REPLACE_EXISTING);
+                FileChannel compacted = FileChannel.open(path, READ, WRITE);
+                buffer = compacted.map(FileChannel.MapMode.READ_WRITE, 0, capacityFor(compactedPosition));
+                channel.close();
+                channel = compacted;
+
+                log.debug("Compacted {} from {} to {} records", path, records, compactedRecords);
+                index = compactedIndex;
+                position = compactedPosition;
+                records = compactedRecords;
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Log " + path + " could not be compacted.", e);
+        } finally {
+            try {
+                Files.deleteIfExists(compactionPath);
+            } catch (IOException e) {
+                log.warn("Could not delete {}", compactionPath, e);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer source, long offset) throws IOException {
+        while (source.hasRemaining()) {
+            offset += target.write(source, offset);
+        }
+    }
+
+    /**
+     * Flushes and closes the log, optionally deleting its file.
+     *
+     * @param delete true to delete the log file
+     */
+    synchronized void close(boolean delete) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (dirty && !delete) {
+                buffer.force();
+            }
+            channel.close();
+            if (delete) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("Could not close {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.persistence.impl;
+
+import com.google.common.collect.Maps;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.onosproject.store.service.Serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test suite for the persistent log and the maps it backs.
+ */
+public class PersistentLogTest {
+
+    @Rule
+    public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+    private final Serializer serializer = new Serializer() {
+        @Override
+        public <T> byte[] encode(T object) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt((Integer) object).array();
+        }
+
+        @Override
+        public <T> T decode(byte[] bytes) {
+            return (T) Integer.valueOf(ByteBuffer.wrap(bytes).getInt());
+        }
+
+        @Override
+        public <T> T copy(T object) {
+            return object;
+        }
+    };
+
+    private Path path;
+    private PersistentLog log;
+
+    @Before
+    public void setUp() throws Exception {
+        path = tmpFolder.getRoot().toPath().resolve("map.log");
+        log = PersistentLog.open(path);
+    }
+
+    @After
+    public void tearDown() {
+        log.close(false);
+    }
+
+    private PersistentLog reopen() {
+        log.close(false);
+        log = PersistentLog.open(path);
+        return log;
+    }
+
+    private Map<Integer, Integer> contents() {
+        return Maps.newHashMap(new LogPersistentMap<Integer, Integer>(serializer, log));
+    }
+
+    /**
+     * Tests that the latest values of live keys are read back on reopening.
+     */
+    @Test
+    public void testReload() {
+        Map<Integer, Integer> map = new LogPersistentMap<>(serializer, log);
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i);
+        }
+        map.put(1, 100);
+        map.remove(2);
+        map.compute(3, (k, v) -> null);
+        map.compute(4, (k, v) -> v + 1);
+        assertEquals(8, map.size());
+        assertEquals(14, log.records());
+
+        reopen();
+        Map<Integer, Integer> reloaded = contents();
+        assertEquals(8, reloaded.size());
+        assertEquals(Integer.valueOf(100), reloaded.get(1));
+        assertNull(reloaded.get(2));
+        assertNull(reloaded.get(3));
+        assertEquals(Integer.valueOf(5), reloaded.get(4));
+        assertEquals(14, log.records());
+    }
+
+    /**
+     * Tests that unchanged values are not appended again.
+     */
+    @Test
+    public void testUnchangedCompute() {
+        Map<Integer, Integer> map = new LogPersistentMap<>(serializer, log);
+        map.put(1, 1);
+        map.compute(1, (k, v) -> v);
+        map.computeIfPresent(1, (k, v) -> v);
+        map.remove(2);
+        assertEquals(1, log.records());
+    }
+
+    /**
+     * Tests that a log is read up to its last valid record, and appended after it.
+     */
+    @Test
+    public void testTornRecord() throws Exception {
+        Map<Integer, Integer> map = new LogPersistentMap<>(serializer, log);
+        map.put(1, 1);
+        map.put(2, 2);
+        log.close(false);
+
+        // corrupt the value of the last record, following the file header
+        // and two records of 21 bytes each
+        try (FileChannel channel = FileChannel.open(path, WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xff}), 8 + 2 * 21 - 1);
+        }
+        log = PersistentLog.open(path);
+        assertEquals(1, log.records());
+
+        new LogPersistentMap<Integer, Integer>(serializer, log).put(3, 3);
+        reopen();
+        Map<Integer, Integer> reloaded = contents();
+        assertEquals(2, reloaded.size());
+        assertEquals(Integer.valueOf(1), reloaded.get(1));
+        assertEquals(Integer.valueOf(3), reloaded.get(3));
+    }
+
+    /**
+     * Tests that compaction keeps live records only.
+     */
+    @Test
+    public void testCompaction() {
+        Map<Integer, Integer> map = new LogPersistentMap<>(serializer, log);
+        for (int i = 0; i < 3000; i++) {
+            map.put(i % 100, i);
+        }
+        map.remove(0);
+        assertTrue(log.needsCompaction());
+
+        log.compact();
+        assertFalse(log.needsCompaction());
+        assertEquals(99, log.records());
+        map.put(0, 0);
+
+        reopen();
+        Map<Integer, Integer> reloaded = contents();
+        assertEquals(100, reloaded.size());
+        assertEquals(Integer.valueOf(0), reloaded.get(0));
+        for (int i = 1; i < 100; i++) {
+            assertEquals(Integer.valueOf(2900 + i), reloaded.get(i));
+        }
+        assertFalse(path.resolveSibling("map.log.compact").toFile().exists());
+    }
+
+    /**
+     * Tests that records appended while live records are copied survive
+     * the compaction.
+     */
+    @Test
+    public void testCompactionWithAppends() {
+        Map<Integer, Integer> map = new LogPersistentMap<>(serializer, log);
+        for (int i = 0; i < 3000; i++) {
+            map.put(i % 100, i);
+        }
+        map.remove(0);
+
+        log.compact(() -> {
+            map.put(1, -1);
+            map.remove(2);
+            map.put(0, 0);
+            map.put(100, 100);
+        });
+        assertEquals(103, log.records());
+        assertEquals(100, log.size());
+        map.put(3, -3);
+
+        assertAppendedDuringCompaction(contents());
+
+        reopen();
+        assertAppendedDuringCompaction(contents());
+    }
+
+    private void assertAppendedDuringCompaction(Map<Integer, Integer> contents) {
+        assertEquals(100, contents.size());
+        assertEquals(Integer.valueOf(0), contents.get(0));
+        assertEquals(Integer.valueOf(-1), contents.get(1));
+        assertNull(contents.get(2));
+        assertEquals(Integer.valueOf(-3), contents.get(3));
+        assertEquals(Integer.valueOf(100), contents.get(100));
+        for (int i = 4; i < 100; i++) {
+            assertEquals(Integer.valueOf(2900 + i), contents.get(i));
+        }
+    }
+
+    /**
+     * Tests that the log is extended as records are appended.
+     */
+    @Test
+    public void testGrowth() {
+        byte[] value = new byte[1024];
+        for (int i = 0; i < 1000; i++) {
+            log.put(serializer.encode(i), value);
+        }
+        reopen();
+        assertEquals(1000, log.size());
+        log.forEach((k, v) -> assertEquals(value.length, v.length));
+    }
+}
@@ -16,9 +16,11 @@
 package org.onosproject.store.atomix.primitives.impl;
 
 import java.util.Map;
+import java.util.Set;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import org.onosproject.cluster.NodeId;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -30,6 +32,7 @@ public class AntiEntropyAdvertisement<K> {
 
     private final NodeId sender;
     private final Map<K, MapValue.Digest> digest;
+    private final Set<Integer> leaves;
 
     /**
      * Creates a new anti entropy advertisement message.
@@ -41,6 +44,23 @@ public class AntiEntropyAdvertisement<K> {
                                     Map<K, MapValue.Digest> digest) {
         this.sender = checkNotNull(sender);
         this.digest = ImmutableMap.copyOf(checkNotNull(digest));
+        this.leaves = null;
+    }
+
+    /**
+     * Creates a new anti entropy advertisement message restricted to
+     * the entries held in some leaves of the digest tree.
+     *
+     * @param sender the sender's node ID
+     * @param digest for map entries in the leaves
+     * @param leaves indexes of the digest tree leaves
+     */
+    public AntiEntropyAdvertisement(NodeId sender,
+                                    Map<K, MapValue.Digest> digest,
+                                    Set<Integer> leaves) {
+        this.sender = checkNotNull(sender);
+        this.digest = ImmutableMap.copyOf(checkNotNull(digest));
+        this.leaves = ImmutableSet.copyOf(checkNotNull(leaves));
     }
 
     /**
@@ -61,11 +81,22 @@ public class AntiEntropyAdvertisement<K> {
         return digest;
     }
 
+    /**
+     * Returns the digest tree leaves covered by the advertisement.
+     *
+     * @return indexes of the digest tree leaves; null if the advertisement
+     * covers all map entries
+     */
+    public Set<Integer> leaves() {
+        return leaves;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(getClass())
                 .add("sender", sender)
                 .add("totalEntries", digest.size())
+                .add("totalLeaves", leaves == null ? null : leaves.size())
                 .toString();
     }
 }
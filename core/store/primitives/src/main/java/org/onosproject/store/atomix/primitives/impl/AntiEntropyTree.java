@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Hierarchical (Merkle) digest of the entries of an eventually consistent map.
+ * <p>
+ * Keys are assigned to a fixed number of leaves by the hash of their serialized
+ * form. The hash of a leaf is the sum of the hashes of its entries, each entry
+ * hash covering the key and the digest of its value, so that it can be updated
+ * incrementally as entries change. The hash of an inner node is the sum of the
+ * hashes of the leaves below it and is computed when requested.
+ * </p>
+ * <p>
+ * Nodes are addressed by their level, the root being at level 0 and the leaves
+ * at level {@link #DEPTH}, and by their index within the level.
+ * </p>
+ *
+ * @param <K> key type
+ */
+final class AntiEntropyTree<K> {
+
+    private static final int FANOUT_BITS = 4;
+
+    /**
+     * Number of children of each inner node.
+     */
+    static final int FANOUT = 1 << FANOUT_BITS;
+
+    /**
+     * Level of the leaves.
+     */
+    static final int DEPTH = 3;
+
+    /**
+     * Number of leaves.
+     */
+    static final int LEAVES = 1 << (FANOUT_BITS * DEPTH);
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final Function<Object, byte[]> encoder;
+    private final AtomicLongArray leafHashes = new AtomicLongArray(LEAVES);
+    private final AtomicReferenceArray<Set<K>> leafKeys = new AtomicReferenceArray<>(LEAVES);
+
+    /**
+     * Creates a new empty digest tree.
+     *
+     * @param encoder function used to serialize keys and value digests
+     */
+    AntiEntropyTree(Function<Object, byte[]> encoder) {
+        this.encoder = checkNotNull(encoder);
+    }
+
+    /**
+     * Updates the tree following a change of the entry for a key.
+     * <p>
+     * Changes to the same key must not be applied concurrently.
+     * </p>
+     *
+     * @param key      key
+     * @param previous digest of the previous value; null if there was none
+     * @param current  digest of the current value; null if there is none
+     */
+    void update(K key, MapValue.Digest previous, MapValue.Digest current) {
+        byte[] keyBytes = encoder.apply(key);
+        int leaf = leaf(HASH.hashBytes(keyBytes).asLong());
+        long delta = entryHash(keyBytes, current) - entryHash(keyBytes, previous);
+        if (delta != 0) {
+            leafHashes.addAndGet(leaf, delta);
+        }
+        if (previous == null && current != null) {
+            keys(leaf, true).add(key);
+        } else if (previous != null && current == null) {
+            keys(leaf, true).remove(key);
+        }
+    }
+
+    /**
+     * Returns the leaf holding a key.
+     *
+     * @param key key
+     * @return leaf index
+     */
+    int leafOf(K key) {
+        return leaf(HASH.hashBytes(encoder.apply(key)).asLong());
+    }
+
+    /**
+     * Returns the keys held in a leaf.
+     *
+     * @param leaf leaf index
+     * @return keys of the entries in the leaf
+     */
+    Set<K> keys(int leaf) {
+        return keys(leaf, false);
+    }
+
+    /**
+     * Returns the hash of a node.
+     *
+     * @param level level of the node
+     * @param node  index of the node within its level
+     * @return node hash
+     */
+    long hash(int level, int node) {
+        checkArgument(level >= 0 && level <= DEPTH, "Invalid level %s", level);
+        int span = span(level);
+        long hash = 0;
+        for (int leaf = node * span; leaf < (node + 1) * span; leaf++) {
+            hash += leafHashes.get(leaf);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the hashes of nodes of a level.
+     *
+     * @param level level of the nodes
+     * @param nodes indexes of the nodes within the level
+     * @return node hashes, in the same order as the nodes
+     */
+    long[] hashes(int level, int[] nodes) {
+        long[] hashes = new long[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            hashes[i] = hash(level, nodes[i]);
+        }
+        return hashes;
+    }
+
+    /**
+     * Compares the hashes of nodes of a level with those of another tree.
+     *
+     * @param level  level of the nodes
+     * @param nodes  indexes of the nodes within the level
+     * @param hashes hashes of the nodes in the other tree
+     * @return indexes of the nodes whose hashes differ
+     */
+    int[] mismatched(int level, int[] nodes, long[] hashes) {
+        checkArgument(nodes.length == hashes.length, "Nodes and hashes do not match");
+        return IntStream.range(0, nodes.length)
+                .filter(i -> hash(level, nodes[i]) != hashes[i])
+                .map(i -> nodes[i])
+                .toArray();
+    }
+
+    /**
+     * Returns the children of nodes.
+     *
+     * @param nodes indexes of the parent nodes within their level
+     * @return indexes of the children within the next level
+     */
+    static int[] children(int[] nodes) {
+        int[] children = new int[nodes.length * FANOUT];
+        for (int i = 0; i < nodes.length; i++) {
+            for (int j = 0; j < FANOUT; j++) {
+                children[i * FANOUT + j] = nodes[i] * FANOUT + j;
+            }
+        }
+        return children;
+    }
+
+    private static int span(int level) {
+        return 1 << (FANOUT_BITS * (DEPTH - level));
+    }
+
+    private static int leaf(long keyHash) {
+        return (int) (keyHash >>> (Long.SIZE - FANOUT_BITS * DEPTH));
+    }
+
+    private long entryHash(byte[] keyBytes, MapValue.Digest digest) {
+        if (digest == null) {
+            return 0;
+        }
+        return HASH.newHasher()
+                .putBytes(keyBytes)
+                .putBytes(encoder.apply(digest))
+                .hash()
+                .asLong();
+    }
+
+    private Set<K> keys(int leaf, boolean create) {
+        Set<K> keys = leafKeys.get(leaf);
+        if (keys == null) {
+            if (!create) {
+                return Collections.emptySet();
+            }
+            leafKeys.compareAndSet(leaf, null, Sets.newConcurrentHashSet());
+            keys = leafKeys.get(leaf);
+        }
+        return keys;
+    }
+}
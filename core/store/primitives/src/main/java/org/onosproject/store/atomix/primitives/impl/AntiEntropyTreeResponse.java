@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import java.util.Arrays;
+
+import com.google.common.base.MoreObjects;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Response to a digest tree advertisement, returned by the receiver.
+ */
+public class AntiEntropyTreeResponse {
+
+    private static final int[] NO_NODES = new int[0];
+
+    private final AntiEntropyResponse status;
+    private final int[] mismatched;
+
+    /**
+     * Creates a new digest tree response.
+     *
+     * @param status     status of the exchange
+     * @param mismatched indexes of the advertised nodes whose hashes differ
+     */
+    public AntiEntropyTreeResponse(AntiEntropyResponse status, int[] mismatched) {
+        this.status = checkNotNull(status);
+        this.mismatched = checkNotNull(mismatched);
+    }
+
+    /**
+     * Creates a response for an advertisement which was not processed.
+     *
+     * @param status status of the exchange
+     * @return digest tree response
+     */
+    public static AntiEntropyTreeResponse of(AntiEntropyResponse status) {
+        return new AntiEntropyTreeResponse(status, NO_NODES);
+    }
+
+    /**
+     * Returns the status of the exchange.
+     *
+     * @return exchange status
+     */
+    public AntiEntropyResponse status() {
+        return status;
+    }
+
+    /**
+     * Returns the indexes of the advertised nodes whose hashes differ.
+     *
+     * @return mismatched node indexes; empty if the advertised nodes match
+     */
+    public int[] mismatched() {
+        return mismatched;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(getClass())
+                .add("status", status)
+                .add("mismatched", Arrays.toString(mismatched))
+                .toString();
+    }
+}
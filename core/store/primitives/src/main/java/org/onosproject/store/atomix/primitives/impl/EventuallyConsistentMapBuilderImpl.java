@@ -26,6 +26,7 @@ import java.util.function.Supplier;
 import org.onlab.util.KryoNamespace;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.persistence.PersistenceService;
+import org.onosproject.persistence.PersistentStorage;
 import org.onosproject.store.Timestamp;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
 import org.onosproject.store.service.EventuallyConsistentMap;
@@ -54,7 +55,8 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
     private long antiEntropyPeriod = 5;
     private TimeUnit antiEntropyTimeUnit = TimeUnit.SECONDS;
     private boolean convergeFaster = false;
-    private boolean persistent = false;
+    private boolean merkleAntiEntropy = false;
+    private PersistentStorage persistentStorage = null;
     private boolean persistentMap = false;
     private final PersistenceService persistenceService;
     private Supplier<List<NodeId>> peersSupplier;
@@ -154,10 +156,21 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
         return this;
     }
 
+    @Override
+    public EventuallyConsistentMapBuilder<K, V> withMerkleAntiEntropy() {
+        merkleAntiEntropy = true;
+        return this;
+    }
+
     @Override
     public EventuallyConsistentMapBuilder<K, V> withPersistence() {
+        return withPersistence(PersistentStorage.DATABASE);
+    }
+
+    @Override
+    public EventuallyConsistentMapBuilder<K, V> withPersistence(PersistentStorage storage) {
         checkNotNull(this.persistenceService);
-        persistent = true;
+        persistentStorage = checkNotNull(storage);
         return this;
     }
 
@@ -185,7 +198,8 @@ public class EventuallyConsistentMapBuilderImpl<K, V>
                 antiEntropyPeriod,
                 antiEntropyTimeUnit,
                 convergeFaster,
-                persistent,
+                merkleAntiEntropy,
+                persistentStorage,
                 persistenceService,
                 peersSupplier,
                 bootstrapPeersSupplier
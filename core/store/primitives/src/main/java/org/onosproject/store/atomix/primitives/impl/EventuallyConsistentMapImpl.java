@@ -35,6 +35,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -53,6 +54,7 @@ import org.onlab.util.KryoNamespace;
 import org.onlab.util.SlidingWindowCounter;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.persistence.PersistenceService;
+import org.onosproject.persistence.PersistentStorage;
 import org.onosproject.store.LogicalTimestamp;
 import org.onosproject.store.Timestamp;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
@@ -99,6 +101,7 @@ public class EventuallyConsistentMapImpl<K, V>
     private final MessageSubject initializeMessageSubject;
     private final MessageSubject updateMessageSubject;
     private final MessageSubject antiEntropyAdvertisementSubject;
+    private final MessageSubject antiEntropyTreeSubject;
     private final MessageSubject updateRequestSubject;
     private final Set<EventuallyConsistentMapListener<K, V>> listeners
             = Sets.newCopyOnWriteArraySet();
@@ -114,6 +117,7 @@ public class EventuallyConsistentMapImpl<K, V>
     private final boolean lightweightAntiEntropy;
     private final boolean tombstonesDisabled;
     private final boolean persistent;
+    private final AntiEntropyTree<K> digestTree;
     private final Supplier<List<NodeId>> peersSupplier;
     private final Supplier<List<NodeId>> bootstrapPeersSupplier;
     private final NodeId localNodeId;
@@ -142,7 +146,8 @@ public class EventuallyConsistentMapImpl<K, V>
      * @param antiEntropyPeriod      period that the anti-entropy task should run
      * @param antiEntropyTimeUnit    time unit for anti-entropy period
      * @param convergeFaster         make anti-entropy try to converge faster
-     * @param persistent             persist data to disk
+     * @param merkleAntiEntropy      make anti-entropy exchange a hierarchical digest
+     * @param persistentStorage      storage used to persist data to disk; null if not persistent
      * @param persistenceService     persistence service
      * @param peersSupplier          supplier for peers
      * @param bootstrapPeersSupplier supplier for bootstrap peers
@@ -162,7 +167,8 @@ public class EventuallyConsistentMapImpl<K, V>
             long antiEntropyPeriod,
             TimeUnit antiEntropyTimeUnit,
             boolean convergeFaster,
-            boolean persistent,
+            boolean merkleAntiEntropy,
+            PersistentStorage persistentStorage,
             PersistenceService persistenceService,
             Supplier<List<NodeId>> peersSupplier,
             Supplier<List<NodeId>> bootstrapPeersSupplier
@@ -172,16 +178,22 @@ public class EventuallyConsistentMapImpl<K, V>
         this.mapName = mapName;
         this.serializer = createSerializer(ns);
         this.persistenceService = persistenceService;
-        this.persistent =
-                persistent;
+        this.persistent = persistentStorage != null;
         if (persistent) {
             items = this.persistenceService.<K, MapValue<V>>persistentMapBuilder()
                     .withName(mapName)
                     .withSerializer(this.serializer)
+                    .withStorage(persistentStorage)
                     .build();
         } else {
             items = Maps.newConcurrentMap();
         }
+        if (merkleAntiEntropy) {
+            digestTree = new AntiEntropyTree<>(serializer::encode);
+            items.forEach((key, value) -> digestTree.update(key, null, value.digest()));
+        } else {
+            digestTree = null;
+        }
         senderPending = Maps.newConcurrentMap();
         destroyedMessage = mapName + ERROR_DESTROYED;
 
@@ -273,6 +285,19 @@ public class EventuallyConsistentMapImpl<K, V>
                 this.backgroundExecutor
         );
 
+        if (digestTree != null) {
+            antiEntropyTreeSubject = new MessageSubject("ecm-" + mapName + "-anti-entropy-tree");
+            clusterCommunicator.addSubscriber(
+                    antiEntropyTreeSubject,
+                    serializer::decode,
+                    this::handleAntiEntropyTreeAdvertisement,
+                    serializer::encode,
+                    this.backgroundExecutor
+            );
+        } else {
+            antiEntropyTreeSubject = null;
+        }
+
         updateRequestSubject = new MessageSubject("ecm-" + mapName + "-update-request");
         clusterCommunicator.addSubscriber(
                 updateRequestSubject,
@@ -313,6 +338,8 @@ public class EventuallyConsistentMapImpl<K, V>
                 .register(MapValue.class)
                 .register(MapValue.Digest.class)
                 .register(UpdateRequest.class)
+                .register(AntiEntropyTreeAdvertisement.class)
+                .register(AntiEntropyTreeResponse.class)
                 .build(name() + "-ecmap"));
     }
 
@@ -429,6 +456,7 @@ public class EventuallyConsistentMapImpl<K, V>
             }
             if (updated.get()) {
                 previousValue.set(existing);
+                updateDigestTree(k, existing, tombstone.orElse(null));
                 return tombstone.orElse(null);
             } else {
                 return existing;
@@ -455,6 +483,7 @@ public class EventuallyConsistentMapImpl<K, V>
             MapValue<V> newValue = new MapValue<>(newRawValue, timestampProvider.apply(key, newRawValue));
             if (mv == null || newValue.isNewerThan(mv)) {
                 updated.set(true);
+                updateDigestTree(k, mv, newValue);
                 // We return a copy to ensure updates to peers can be serialized.
                 // This prevents replica divergence due to serialization failures.
                 return serializer.copy(newValue);
@@ -528,6 +557,7 @@ public class EventuallyConsistentMapImpl<K, V>
         items.compute(key, (k, existing) -> {
             if (existing == null || newValue.isNewerThan(existing)) {
                 updated.set(true);
+                updateDigestTree(k, existing, newValue);
                 return newValue;
             }
             return existing;
@@ -569,6 +599,9 @@ public class EventuallyConsistentMapImpl<K, V>
         clusterCommunicator.removeSubscriber(updateMessageSubject);
         clusterCommunicator.removeSubscriber(updateRequestSubject);
         clusterCommunicator.removeSubscriber(antiEntropyAdvertisementSubject);
+        if (antiEntropyTreeSubject != null) {
+            clusterCommunicator.removeSubscriber(antiEntropyTreeSubject);
+        }
         return CompletableFuture.completedFuture(null);
     }
 
@@ -613,6 +646,10 @@ public class EventuallyConsistentMapImpl<K, V>
     }
 
     private void sendAdvertisementToPeer(NodeId peer) {
+        if (digestTree != null) {
+            sendTreeAdvertisementToPeer(peer, System.currentTimeMillis(), 0, new int[]{0});
+            return;
+        }
         long adCreationTime = System.currentTimeMillis();
         AntiEntropyAdvertisement<K> ad = createAdvertisement();
         clusterCommunicator.sendAndReceive(ad,
@@ -630,6 +667,53 @@ public class EventuallyConsistentMapImpl<K, V>
                 });
     }
 
+    /**
+     * Advertises the hashes of digest tree nodes to a peer, descending into the
+     * children of the nodes whose hashes differ until leaves are reached. The
+     * digest of the entries of the differing leaves is then advertised as usual.
+     */
+    private void sendTreeAdvertisementToPeer(NodeId peer, long adCreationTime, int level, int[] nodes) {
+        AntiEntropyTreeAdvertisement ad = new AntiEntropyTreeAdvertisement(localNodeId,
+                level, nodes, digestTree.hashes(level, nodes));
+        clusterCommunicator.<AntiEntropyTreeAdvertisement, AntiEntropyTreeResponse>sendAndReceive(ad,
+                antiEntropyTreeSubject,
+                serializer::encode,
+                serializer::decode,
+                peer)
+                .whenCompleteAsync((result, error) -> {
+                    if (error != null) {
+                        log.debug("Failed to send anti-entropy tree advertisement to {}: {}",
+                                peer, error.getMessage());
+                    } else if (result.status() != AntiEntropyResponse.PROCESSED || destroyed) {
+                        return;
+                    } else if (result.mismatched().length == 0) {
+                        antiEntropyTimes.put(peer, adCreationTime);
+                    } else if (level < AntiEntropyTree.DEPTH) {
+                        sendTreeAdvertisementToPeer(peer, adCreationTime, level + 1,
+                                AntiEntropyTree.children(result.mismatched()));
+                    } else {
+                        sendLeafAdvertisementToPeer(peer, adCreationTime, result.mismatched());
+                    }
+                }, backgroundExecutor);
+    }
+
+    private void sendLeafAdvertisementToPeer(NodeId peer, long adCreationTime, int[] leaves) {
+        AntiEntropyAdvertisement<K> ad = createLeafAdvertisement(leaves);
+        clusterCommunicator.sendAndReceive(ad,
+                antiEntropyAdvertisementSubject,
+                serializer::encode,
+                serializer::decode,
+                peer)
+                .whenComplete((result, error) -> {
+                    if (error != null) {
+                        log.debug("Failed to send anti-entropy advertisement to {}: {}",
+                                peer, error.getMessage());
+                    } else if (result == AntiEntropyResponse.PROCESSED) {
+                        antiEntropyTimes.put(peer, adCreationTime);
+                    }
+                });
+    }
+
     private void sendUpdateRequestToPeer(NodeId peer, Set<K> keys) {
         UpdateRequest<K> request = new UpdateRequest<>(localNodeId, keys);
         clusterCommunicator.unicast(request,
@@ -649,6 +733,39 @@ public class EventuallyConsistentMapImpl<K, V>
                 ImmutableMap.copyOf(Maps.transformValues(items, MapValue::digest)));
     }
 
+    private AntiEntropyAdvertisement<K> createLeafAdvertisement(int[] leaves) {
+        Map<K, MapValue.Digest> digest = Maps.newHashMap();
+        Set<Integer> leafSet = new HashSet<>();
+        for (int leaf : leaves) {
+            leafSet.add(leaf);
+            for (K key : digestTree.keys(leaf)) {
+                MapValue<V> value = items.get(key);
+                if (value != null) {
+                    digest.put(key, value.digest());
+                }
+            }
+        }
+        return new AntiEntropyAdvertisement<>(localNodeId, digest, leafSet);
+    }
+
+    private AntiEntropyTreeResponse handleAntiEntropyTreeAdvertisement(AntiEntropyTreeAdvertisement ad) {
+        if (destroyed || underHighLoad()) {
+            return AntiEntropyTreeResponse.of(AntiEntropyResponse.IGNORED);
+        }
+        try {
+            int[] mismatched = digestTree.mismatched(ad.level(), ad.nodes(), ad.hashes());
+            if (log.isTraceEnabled()) {
+                log.trace("Received anti-entropy tree advertisement from {} for {} with {} of {} nodes mismatched "
+                                + "at level {}", ad.sender(), mapName, mismatched.length, ad.nodes().length,
+                        ad.level());
+            }
+            return new AntiEntropyTreeResponse(AntiEntropyResponse.PROCESSED, mismatched);
+        } catch (Exception e) {
+            log.warn("Error handling anti-entropy tree advertisement", e);
+            return AntiEntropyTreeResponse.of(AntiEntropyResponse.FAILED);
+        }
+    }
+
     private AntiEntropyResponse handleAntiEntropyAdvertisement(AntiEntropyAdvertisement<K> ad) {
         if (destroyed || underHighLoad()) {
             return AntiEntropyResponse.IGNORED;
@@ -671,6 +788,8 @@ public class EventuallyConsistentMapImpl<K, V>
      * 1. If peer has an old entry, updates peer.
      * 2. If peer indicates an entry is removed and has a more recent
      * timestamp than the local entry, update local state.
+     * Only the local entries in the digest tree leaves covered by the ad
+     * are considered, if the ad is restricted to some leaves.
      */
     private List<EventuallyConsistentMapEvent<K, V>> antiEntropyCheckLocalItems(
             AntiEntropyAdvertisement<K> ad) {
@@ -680,7 +799,7 @@ public class EventuallyConsistentMapImpl<K, V>
         Set<K> staleOrMissing = new HashSet<>();
         Set<K> locallyUnknown = new HashSet<>(ad.digest().keySet());
 
-        items.forEach((key, localValue) -> {
+        BiConsumer<K, MapValue<V>> checkLocalItem = (key, localValue) -> {
             locallyUnknown.remove(key);
             MapValue.Digest remoteValueDigest = ad.digest().get(key);
             if (remoteValueDigest == null || localValue.isNewerThan(remoteValueDigest.timestamp())) {
@@ -699,7 +818,17 @@ public class EventuallyConsistentMapImpl<K, V>
                 // Not a tombstone and remote is newer
                 staleOrMissing.add(key);
             }
-        });
+        };
+        if (ad.leaves() == null || digestTree == null) {
+            items.forEach(checkLocalItem);
+        } else {
+            ad.leaves().forEach(leaf -> digestTree.keys(leaf).forEach(key -> {
+                MapValue<V> localValue = items.get(key);
+                if (localValue != null) {
+                    checkLocalItem.accept(key, localValue);
+                }
+            }));
+        }
         // Keys missing in local map
         staleOrMissing.addAll(locallyUnknown);
         // Request updates that we missed out on
@@ -738,7 +867,13 @@ public class EventuallyConsistentMapImpl<K, V>
                 .filter(e -> e.getValue().creationTime() <= currentSafeTombstonePurgeTime)
                 .collect(Collectors.toList());
         previousTombstonePurgeTime = currentSafeTombstonePurgeTime;
-        tombStonesToDelete.forEach(entry -> items.remove(entry.getKey(), entry.getValue()));
+        tombStonesToDelete.forEach(entry -> items.computeIfPresent(entry.getKey(), (key, existing) -> {
+            if (existing.equals(entry.getValue())) {
+                updateDigestTree(key, existing, null);
+                return null;
+            }
+            return existing;
+        }));
     }
 
     private void processUpdates(Collection<UpdateEntry<K, V>> updates) {
@@ -759,6 +894,23 @@ public class EventuallyConsistentMapImpl<K, V>
         });
     }
 
+    private void updateDigestTree(K key, MapValue<V> previousValue, MapValue<V> newValue) {
+        if (digestTree != null) {
+            digestTree.update(key,
+                    previousValue == null ? null : previousValue.digest(),
+                    newValue == null ? null : newValue.digest());
+        }
+    }
+
+    /**
+     * Returns the digest tree of the map entries.
+     *
+     * @return digest tree; null if Merkle anti-entropy is disabled
+     */
+    AntiEntropyTree<K> digestTree() {
+        return digestTree;
+    }
+
     /**
      * Bootstraps the map to attempt to get in sync with existing instances of the same map on other nodes in the
      * cluster. This is necessary to ensure that a read immediately after the map is created doesn't return a null
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.atomix.primitives.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.store.LogicalTimestamp;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.Serializer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Unit tests for AntiEntropyTree.
+ */
+public class AntiEntropyTreeTest {
+
+    private static final int ENTRIES = 1000;
+
+    private final Serializer serializer = Serializer.using(KryoNamespaces.BASIC.newBuilder()
+            .register(LogicalTimestamp.class)
+            .register(MapValue.Digest.class)
+            .build());
+
+    private AntiEntropyTree<String> local;
+    private AntiEntropyTree<String> remote;
+
+    private static MapValue.Digest digest(long time) {
+        return new MapValue.Digest(new LogicalTimestamp(time), false);
+    }
+
+    private static MapValue.Digest tombstone(long time) {
+        return new MapValue.Digest(new LogicalTimestamp(time), true);
+    }
+
+    @Before
+    public void setUp() {
+        local = new AntiEntropyTree<>(serializer::encode);
+        remote = new AntiEntropyTree<>(serializer::encode);
+        for (int i = 0; i < ENTRIES; i++) {
+            local.update("key" + i, null, digest(i));
+            remote.update("key" + i, null, digest(i));
+        }
+    }
+
+    /**
+     * Walks the digest tree from the root as done during anti-entropy and
+     * returns the leaves of the local tree which differ from the remote tree.
+     */
+    private int[] mismatchedLeaves() {
+        int[] nodes = {0};
+        for (int level = 0; level <= AntiEntropyTree.DEPTH; level++) {
+            int[] mismatched = remote.mismatched(level, nodes, local.hashes(level, nodes));
+            if (level == AntiEntropyTree.DEPTH || mismatched.length == 0) {
+                return mismatched;
+            }
+            nodes = AntiEntropyTree.children(mismatched);
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Tests that trees holding the same entries have the same hashes,
+     * regardless of the order in which the entries were added.
+     */
+    @Test
+    public void testSameEntries() {
+        AntiEntropyTree<String> reversed = new AntiEntropyTree<>(serializer::encode);
+        for (int i = ENTRIES - 1; i >= 0; i--) {
+            reversed.update("key" + i, null, digest(i));
+        }
+        assertThat(reversed.hash(0, 0), is(local.hash(0, 0)));
+        assertThat(remote.hash(0, 0), is(local.hash(0, 0)));
+        assertThat(mismatchedLeaves().length, is(0));
+    }
+
+    /**
+     * Tests that only the leaf holding a differing entry is found when
+     * walking the tree.
+     */
+    @Test
+    public void testDivergedEntry() {
+        String key = "key42";
+        local.update(key, digest(42), tombstone(ENTRIES));
+        assertThat(remote.hash(0, 0), not(local.hash(0, 0)));
+
+        int[] leaves = mismatchedLeaves();
+        assertThat(leaves.length, is(1));
+        assertThat(leaves[0], is(local.leafOf(key)));
+        assertThat(local.keys(leaves[0]).contains(key), is(true));
+
+        remote.update(key, digest(42), tombstone(ENTRIES));
+        assertThat(mismatchedLeaves().length, is(0));
+    }
+
+    /**
+     * Tests that removing entries restores the hashes and key index.
+     */
+    @Test
+    public void testRemoveEntry() {
+        String key = "extra";
+        int leaf = local.leafOf(key);
+        long hash = local.hash(AntiEntropyTree.DEPTH, leaf);
+
+        local.update(key, null, digest(1));
+        assertThat(local.hash(AntiEntropyTree.DEPTH, leaf), not(hash));
+        assertThat(local.keys(leaf).contains(key), is(true));
+        assertThat(mismatchedLeaves().length, is(1));
+
+        local.update(key, digest(1), null);
+        assertThat(local.hash(AntiEntropyTree.DEPTH, leaf), is(hash));
+        assertThat(local.keys(leaf).contains(key), is(false));
+        assertThat(mismatchedLeaves().length, is(0));
+    }
+
+    /**
+     * Tests the indexes of the children of nodes.
+     */
+    @Test
+    public void testChildren() {
+        int[] children = AntiEntropyTree.children(new int[]{2});
+        assertThat(children.length, is(AntiEntropyTree.FANOUT));
+        assertThat(children[0], is(2 * AntiEntropyTree.FANOUT));
+        assertThat(children[AntiEntropyTree.FANOUT - 1], is(3 * AntiEntropyTree.FANOUT - 1));
+        assertThat(new AntiEntropyTree<String>(serializer::encode).keys(0), is(empty()));
+    }
+}
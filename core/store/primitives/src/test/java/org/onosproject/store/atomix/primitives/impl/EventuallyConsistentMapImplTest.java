@@ -26,9 +26,11 @@ import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.reset;
 import static org.easymock.EasyMock.verify;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.onlab.junit.TestTools.assertAfter;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -39,8 +41,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
@@ -49,16 +53,22 @@ import java.util.function.Supplier;
 
 import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.junit.NullScheduledExecutor;
 import org.onlab.packet.IpAddress;
 import org.onlab.util.KryoNamespace;
+import org.onlab.util.Tools;
 import org.onosproject.cluster.ControllerNode;
 import org.onosproject.cluster.DefaultControllerNode;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.event.AbstractEvent;
 import org.onosproject.persistence.PersistenceService;
+import org.onosproject.store.LogicalTimestamp;
 import org.onosproject.store.Timestamp;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationService;
 import org.onosproject.store.cluster.messaging.ClusterCommunicationServiceAdapter;
@@ -98,6 +108,9 @@ public class EventuallyConsistentMapImplTest {
     private static final String VALUE1 = "oneValue";
     private static final String VALUE2 = "twoValue";
 
+    private static final NodeId NODE_A = NodeId.nodeId("a");
+    private static final NodeId NODE_B = NodeId.nodeId("b");
+
     private final ControllerNode self =
             new DefaultControllerNode(new NodeId("local"), IpAddress.valueOf(1));
 
@@ -106,6 +119,12 @@ public class EventuallyConsistentMapImplTest {
     private Function<AntiEntropyAdvertisement<String>, AntiEntropyResponse> antiEntropyHandler;
     private Supplier<List<NodeId>> peersHandler = ArrayList::new;
 
+    private final Map<NodeId, Map<MessageSubject, Function<byte[], CompletableFuture<byte[]>>>> replicaHandlers =
+            new ConcurrentHashMap<>();
+    private final AtomicLong replicaClock = new AtomicLong();
+    private final Set<NodeId> missedUpdates = Sets.newConcurrentHashSet();
+    private volatile boolean partitioned;
+
     @Before
     public void setUp() throws Exception {
         clusterCommunicator = createMock(ClusterCommunicationService.class);
@@ -677,6 +696,90 @@ public class EventuallyConsistentMapImplTest {
         }
     }
 
+    @Test
+    public void testMerkleAntiEntropyConvergence() {
+        ManualScheduledExecutor executorA = new ManualScheduledExecutor();
+        EventuallyConsistentMapImpl<String, String> replicaA = newReplica(NODE_A, NODE_B, executorA);
+        EventuallyConsistentMapImpl<String, String> replicaB =
+                newReplica(NODE_B, NODE_A, new ManualScheduledExecutor());
+        try {
+            // Diverge the replicas while they cannot reach each other
+            partitioned = true;
+            replicaA.put(KEY1, VALUE1);
+            replicaA.put(KEY2, VALUE1);
+            replicaB.put(KEY2, VALUE2);
+            assertNull(replicaB.get(KEY1));
+            assertEquals(VALUE1, replicaA.get(KEY2));
+            assertNotEquals(rootHash(replicaA), rootHash(replicaB));
+            assertAfter(5000, () -> assertEquals(ImmutableSet.of(NODE_A, NODE_B), missedUpdates));
+
+            // A single replica advertising its digest tree repairs both sides
+            partitioned = false;
+            assertAfter(5000, () -> {
+                executorA.runAntiEntropy();
+                assertEquals(VALUE1, replicaB.get(KEY1));
+                assertEquals(VALUE2, replicaA.get(KEY2));
+                assertEquals(rootHash(replicaA), rootHash(replicaB));
+            });
+        } finally {
+            replicaA.destroy();
+            replicaB.destroy();
+        }
+    }
+
+    @Test
+    public void testMerkleAntiEntropyPurgesTombstones() {
+        ManualScheduledExecutor executorA = new ManualScheduledExecutor();
+        EventuallyConsistentMapImpl<String, String> replicaA = newReplica(NODE_A, NODE_B, executorA);
+        EventuallyConsistentMapImpl<String, String> replicaB =
+                newReplica(NODE_B, NODE_A, new ManualScheduledExecutor());
+        try {
+            replicaA.put(KEY1, VALUE1);
+            replicaA.remove(KEY1);
+
+            // The tombstone is part of the digest until it is purged
+            int leaf = replicaA.digestTree().leafOf(KEY1);
+            assertTrue(replicaA.digestTree().keys(leaf).contains(KEY1));
+            assertNotEquals(0L, rootHash(replicaA));
+            assertAfter(5000, () -> assertEquals(rootHash(replicaA), rootHash(replicaB)));
+
+            // Tombstones are purged once an anti-entropy exchange with every peer succeeded
+            assertAfter(5000, () -> {
+                executorA.runAntiEntropy();
+                executorA.runTombstonePurge();
+                assertFalse(replicaA.digestTree().keys(leaf).contains(KEY1));
+            });
+            assertEquals(0L, rootHash(replicaA));
+            assertNull(replicaA.get(KEY1));
+        } finally {
+            replicaA.destroy();
+            replicaB.destroy();
+        }
+    }
+
+    private EventuallyConsistentMapImpl<String, String> newReplica(NodeId nodeId, NodeId peer,
+                                                                   ManualScheduledExecutor executor) {
+        return (EventuallyConsistentMapImpl<String, String>) new EventuallyConsistentMapBuilderImpl<String, String>(
+                nodeId,
+                new ReplicaCommunicationService(nodeId),
+                persistenceService,
+                () -> Lists.newArrayList(peer),
+                ArrayList::new
+                )
+                .withName(MAP_NAME)
+                .withSerializer(KryoNamespace.newBuilder().register(KryoNamespaces.API))
+                .withTimestampProvider((k, v) -> new LogicalTimestamp(replicaClock.incrementAndGet()))
+                .withEventExecutor(MoreExecutors.newDirectExecutorService())
+                .withCommunicationExecutor(MoreExecutors.newDirectExecutorService())
+                .withBackgroundExecutor(executor)
+                .withMerkleAntiEntropy()
+                .build();
+    }
+
+    private static long rootHash(EventuallyConsistentMapImpl<String, String> replica) {
+        return replica.digestTree().hash(0, 0);
+    }
+
     private UpdateEntry<String, String> generatePutMessage(String key, String value, Timestamp timestamp) {
         return new UpdateEntry<>(key, new MapValue<>(value, timestamp));
     }
@@ -819,6 +922,132 @@ public class EventuallyConsistentMapImplTest {
         }
     }
 
+    /**
+     * ClusterCommunicationService implementation which delivers messages
+     * between the map replicas of this test in the calling thread, unless
+     * the replicas are partitioned.
+     */
+    private final class ReplicaCommunicationService
+            extends ClusterCommunicationServiceAdapter {
+
+        private final NodeId localNodeId;
+
+        /**
+         * Creates a new communication service for a replica.
+         *
+         * @param localNodeId node of the replica
+         */
+        private ReplicaCommunicationService(NodeId localNodeId) {
+            this.localNodeId = localNodeId;
+        }
+
+        @Override
+        public <M> CompletableFuture<Void> unicast(M message, MessageSubject subject,
+                Function<M, byte[]> encoder, NodeId toNodeId) {
+            return deliver(subject, encoder.apply(message), toNodeId).thenApply(r -> null);
+        }
+
+        @Override
+        public <M> void multicast(M message, MessageSubject subject,
+                Function<M, byte[]> encoder, Set<NodeId> nodeIds) {
+            nodeIds.forEach(nodeId -> deliver(subject, encoder.apply(message), nodeId));
+        }
+
+        @Override
+        public <M, R> CompletableFuture<R> sendAndReceive(M message, MessageSubject subject,
+                Function<M, byte[]> encoder, Function<byte[], R> decoder, NodeId toNodeId) {
+            return deliver(subject, encoder.apply(message), toNodeId).thenApply(decoder);
+        }
+
+        @Override
+        public <M, R> void addSubscriber(MessageSubject subject,
+                Function<byte[], M> decoder, Function<M, CompletableFuture<R>> handler,
+                Function<R, byte[]> encoder) {
+            subscribe(subject, bytes -> handler.apply(decoder.apply(bytes)).thenApply(encoder));
+        }
+
+        @Override
+        public <M, R> void addSubscriber(MessageSubject subject,
+                Function<byte[], M> decoder, Function<M, R> handler, Function<R, byte[]> encoder, Executor executor) {
+            subscribe(subject, bytes ->
+                    CompletableFuture.completedFuture(encoder.apply(handler.apply(decoder.apply(bytes)))));
+        }
+
+        @Override
+        public <M> void addSubscriber(MessageSubject subject,
+                Function<byte[], M> decoder, Consumer<M> handler,
+                Executor executor) {
+            subscribe(subject, bytes -> {
+                handler.accept(decoder.apply(bytes));
+                return CompletableFuture.completedFuture(null);
+            });
+        }
+
+        @Override
+        public void removeSubscriber(MessageSubject subject) {
+            replicaHandlers.getOrDefault(localNodeId, new HashMap<>()).remove(subject);
+        }
+
+        private void subscribe(MessageSubject subject, Function<byte[], CompletableFuture<byte[]>> handler) {
+            replicaHandlers.computeIfAbsent(localNodeId, nodeId -> new ConcurrentHashMap<>()).put(subject, handler);
+        }
+
+        private CompletableFuture<byte[]> deliver(MessageSubject subject, byte[] payload, NodeId toNodeId) {
+            Function<byte[], CompletableFuture<byte[]>> handler =
+                    replicaHandlers.getOrDefault(toNodeId, new HashMap<>()).get(subject);
+            if (partitioned && subject.value().endsWith("-update")) {
+                missedUpdates.add(toNodeId);
+            }
+            if (partitioned || handler == null) {
+                return Tools.exceptionalFuture(new IllegalStateException(toNodeId + " is unreachable"));
+            }
+            return handler.apply(payload);
+        }
+    }
+
+    /**
+     * Scheduled executor which runs submitted tasks in the calling thread and
+     * the periodic anti-entropy and tombstone purge tasks only on demand.
+     */
+    private static final class ManualScheduledExecutor extends NullScheduledExecutor {
+
+        private Runnable antiEntropyTask;
+        private Runnable tombstonePurgeTask;
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+                long initialDelay, long period, TimeUnit unit) {
+            antiEntropyTask = command;
+            return null;
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+                long initialDelay, long delay, TimeUnit unit) {
+            tombstonePurgeTask = command;
+            return null;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        /**
+         * Runs one round of anti-entropy.
+         */
+        void runAntiEntropy() {
+            antiEntropyTask.run();
+        }
+
+        /**
+         * Purges the tombstones which are safe to purge.
+         */
+        void runTombstonePurge() {
+            tombstonePurgeTask.run();
+        }
+    }
+
     /**
      * ClockService implementation that gives out timestamps based on a
      * sequential counter. This clock service enables more control over the
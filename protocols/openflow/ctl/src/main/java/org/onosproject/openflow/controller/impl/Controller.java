@@ -30,6 +30,7 @@ import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.concurrent.GlobalEventExecutor;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.ItemNotFoundException;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.config.NetworkConfigRegistry;
@@ -110,6 +111,10 @@ public class Controller {
     protected int workerThreads = 0;
     protected int[] cfgQueueSizes = {FIRST_QUEUE_SIZE, 0, 0, 0, 0, 0, 0, DEFAULT_QUEUE_SIZE};
     protected int[] cfgBulkSizes = new int[8];
+    protected int dispatcherThreads = 1;
+    protected volatile int writeCoalesceDelayMicros = 0;
+    protected volatile int writeCoalesceMaxMessages = 1000;
+    protected volatile boolean streamFlowStats = false;
 
     // Start time of the controller
     protected long systemStartTime;
@@ -135,6 +140,7 @@ public class Controller {
 
     private DriverService driverService;
     private NetworkConfigRegistry netCfgService;
+    private MetricsService metricsService;
 
     public Controller() {
         Arrays.fill(cfgBulkSizes, DEFAULT_BULK_SIZE);
@@ -148,6 +154,26 @@ public class Controller {
         return cfgBulkSizes[queueId];
     }
 
+    public int getDispatcherThreads() {
+        return dispatcherThreads;
+    }
+
+    public int getWriteCoalesceDelayMicros() {
+        return writeCoalesceDelayMicros;
+    }
+
+    public int getWriteCoalesceMaxMessages() {
+        return writeCoalesceMaxMessages;
+    }
+
+    public boolean isStreamFlowStats() {
+        return streamFlowStats;
+    }
+
+    public MetricsService getMetricsService() {
+        return metricsService;
+    }
+
     // **************
     // Initialization
     // **************
@@ -264,6 +290,9 @@ public class Controller {
     public void setConfigParams(Dictionary<?, ?> properties) {
         boolean restartRequired = setOpenFlowPorts(properties);
         restartRequired |= setWorkerThreads(properties);
+        restartRequired |= setDispatcherThreads(properties);
+        restartRequired |= setWriteCoalescing(properties);
+        restartRequired |= setStreamFlowStats(properties);
         restartRequired |= setTlsParameters(properties);
         if (restartRequired) {
             restart();
@@ -326,6 +355,72 @@ public class Controller {
         return oldValue != this.workerThreads; // restart if number of threads has changed
     }
 
+    /**
+     * Gets the number of dispatcher threads per switch from property dict.
+     *
+     * @param properties dictionary
+     * @return true if restart is required
+     */
+    private boolean setDispatcherThreads(Dictionary<?, ?> properties) {
+        String threads = get(properties, "dispatcherThreads");
+        if (!Strings.isNullOrEmpty(threads)) {
+            int value = Integer.parseInt(threads);
+            if (value < 1 || value > OFChannelHandler.NUM_OF_QUEUES) {
+                throw new IllegalArgumentException(
+                    String.format("dispatcherThreads value must be between 1 and %d",
+                                  OFChannelHandler.NUM_OF_QUEUES));
+            }
+            this.dispatcherThreads = value;
+        }
+        log.debug("Number of dispatcher threads set to {}", this.dispatcherThreads);
+        return false; // only applies to new connections
+    }
+
+    /**
+     * Gets the write coalescing parameters from property dict.
+     *
+     * @param properties dictionary
+     * @return true if restart is required
+     */
+    private boolean setWriteCoalescing(Dictionary<?, ?> properties) {
+        String delay = get(properties, "writeCoalesceDelayMicros");
+        if (!Strings.isNullOrEmpty(delay)) {
+            int value = Integer.parseInt(delay);
+            if (value < 0) {
+                throw new IllegalArgumentException(
+                    "writeCoalesceDelayMicros value must be either zero or a positive integer value");
+            }
+            this.writeCoalesceDelayMicros = value;
+        }
+        String maxMessages = get(properties, "writeCoalesceMaxMessages");
+        if (!Strings.isNullOrEmpty(maxMessages)) {
+            int value = Integer.parseInt(maxMessages);
+            if (value < 1) {
+                throw new IllegalArgumentException(
+                    "writeCoalesceMaxMessages value must be a positive integer value");
+            }
+            this.writeCoalesceMaxMessages = value;
+        }
+        log.debug("Write coalescing set to {} microseconds, {} messages",
+                  this.writeCoalesceDelayMicros, this.writeCoalesceMaxMessages);
+        return false; // applies to subsequent writes
+    }
+
+    /**
+     * Gets whether multipart flow statistics are streamed from property dict.
+     *
+     * @param properties dictionary
+     * @return true if restart is required
+     */
+    private boolean setStreamFlowStats(Dictionary<?, ?> properties) {
+        String stream = get(properties, "streamFlowStats");
+        if (!Strings.isNullOrEmpty(stream)) {
+            this.streamFlowStats = Boolean.parseBoolean(stream.trim());
+        }
+        log.debug("Streaming of flow statistics set to {}", this.streamFlowStats);
+        return false; // applies to subsequent replies
+    }
+
     static class TlsParams {
         final TlsMode mode;
         final String ksLocation;
@@ -635,11 +730,12 @@ public class Controller {
     }
 
     public void start(OpenFlowAgent ag, DriverService driverService,
-                      NetworkConfigRegistry netCfgService) {
+                      NetworkConfigRegistry netCfgService, MetricsService metricsService) {
         log.info("Starting OpenFlow IO");
         this.agent = ag;
         this.driverService = driverService;
         this.netCfgService = netCfgService;
+        this.metricsService = metricsService;
         this.init();
         this.addListeningPorts(this.openFlowPorts);
     }
@@ -670,7 +766,7 @@ public class Controller {
         // only restart if we are already running
         if (cg != null) {
             stop();
-            start(this.agent, this.driverService, this.netCfgService);
+            start(this.agent, this.driverService, this.netCfgService, this.metricsService);
         }
     }
 
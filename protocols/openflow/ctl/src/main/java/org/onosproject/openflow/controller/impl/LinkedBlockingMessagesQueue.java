@@ -15,9 +15,15 @@
  */
 package org.onosproject.openflow.controller.impl;
 
+import com.codahale.metrics.Timer;
+
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class wrap existing class LinkedBlockingQueue for solution problem
@@ -43,9 +49,19 @@ public class LinkedBlockingMessagesQueue<T> {
     private int bulk;
 
     /**
-     * Queue of messages.
+     * Queue of messages, along with the time they were queued.
+     */
+    private BlockingQueue<QueuedMessage<T>> queue;
+
+    /**
+     * Count of messages rejected because the queue was full.
      */
-    private BlockingQueue<T> queue;
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Optional timer measuring how long messages wait in the queue.
+     */
+    private volatile Timer latency;
 
     /**
      * Constructor.
@@ -96,7 +112,11 @@ public class LinkedBlockingMessagesQueue<T> {
      * @return <code>true</code> if the element was added to this queue, else <code>false</code>
      */
     public boolean offer(T message) {
-        return this.queue.offer(message);
+        if (this.queue.offer(new QueuedMessage<>(message, System.nanoTime()))) {
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
     }
 
     /**
@@ -106,7 +126,17 @@ public class LinkedBlockingMessagesQueue<T> {
      * @return the numbers of elements transfered
      */
     public int drainTo(Collection<? super T> messages) {
-        return this.queue.drainTo(messages, this.bulk);
+        List<QueuedMessage<T>> drained = new ArrayList<>();
+        int count = this.queue.drainTo(drained, this.bulk);
+        Timer timer = latency;
+        long now = System.nanoTime();
+        for (QueuedMessage<T> queued : drained) {
+            messages.add(queued.message);
+            if (timer != null) {
+                timer.update(now - queued.queuedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+        return count;
     }
 
     /**
@@ -136,4 +166,35 @@ public class LinkedBlockingMessagesQueue<T> {
         this.bulk = bulk;
     }
 
+    /**
+     * Return the count of messages rejected because this queue was full.
+     *
+     * @return the count of rejected messages
+     */
+    public long rejected() {
+        return rejected.get();
+    }
+
+    /**
+     * Set the timer updated with the time each message waited in this queue.
+     *
+     * @param latency timer to update; null to stop measuring
+     */
+    public void setLatencyTimer(Timer latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Message waiting in the queue.
+     */
+    private static final class QueuedMessage<T> {
+        private final T message;
+        private final long queuedAt;
+
+        private QueuedMessage(T message, long queuedAt) {
+            this.message = message;
+            this.queuedAt = queuedAt;
+        }
+    }
+
 }
@@ -30,6 +30,7 @@ import java.security.cert.Certificate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -43,12 +44,16 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.osgi.DefaultServiceDirectory;
 import org.onlab.packet.Ethernet;
 import org.onlab.packet.IpAddress;
@@ -106,6 +111,8 @@ import org.projectfloodlight.openflow.types.U32;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Gauge;
+
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -129,6 +136,16 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
     private static final String BROKEN_PIPE = "Broken pipe";
     static final int NUM_OF_QUEUES = 8;
 
+    // Messages written without waiting for the coalescing delay; a barrier
+    // also completes the batch of messages it follows
+    private static final Set<OFType> URGENT_TYPES = EnumSet.of(
+            OFType.PACKET_OUT, OFType.ECHO_REQUEST, OFType.ECHO_REPLY, OFType.BARRIER_REQUEST);
+
+    private static final String DISPATCH_METRICS = "OpenFlowDispatcher";
+    private static final String QUEUE_DEPTH = "depth";
+    private static final String QUEUE_REJECTED = "rejected";
+    private static final String QUEUE_LATENCY = "latency";
+
     private final Controller controller;
     private OpenFlowSwitchDriver sw;
     private long thisdpid; // channelHandler cached value of connected switch id
@@ -192,34 +209,32 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
 
 
     /**
-     * Lock held by take, poll, etc.
+     * Dispatcher workers; queue N is served by worker N modulo the number of workers.
      */
-    private final ReentrantLock takeLock = new ReentrantLock();
+    private final DispatchWorker[] dispatchWorkers;
 
     /**
-     * Wait queue for waiting takes.
+     * Executor running the dispatcher workers for OFMessage dispatching.
+     *
+     * Gets initialized on channelActive, shutdown on channelInactive.
      */
-    private final Condition notEmpty = takeLock.newCondition();
+    private ExecutorService dispatcher;
 
     /**
-     * Current number of elements in enabled sub-queues.
+     * Metrics service used to expose dispatch queue metrics; may be null.
      */
-    private final AtomicInteger totalCount = new AtomicInteger();
-
+    private final MetricsService metricsService;
 
     /**
-     * Single thread executor for OFMessage dispatching.
-     *
-     * Gets initialized on channelActive, shutdown on channelInactive.
+     * Messages waiting to be coalesced into a single write; also guards
+     * outboundFlushScheduled.
      */
-    private ExecutorService dispatcher;
+    private final List<OFMessage> outbound = new ArrayList<>();
 
     /**
-     * Handle for dispatcher thread.
-     * <p>
-     * Should only be touched from the Channel I/O thread
+     * Whether a write of the outbound messages is scheduled.
      */
-    private Future<?> dispatcherHandle = CompletableFuture.completedFuture(null);
+    private boolean outboundFlushScheduled;
 
     /**
      * Dispatch backlog.
@@ -241,10 +256,17 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
         duplicateDpidFound = Boolean.FALSE;
         //Initialize queues and classifiers
         dispatchBacklog = new LinkedBlockingDeque<>(BACKLOG_READ_BUFFER_DEFAULT);
+        dispatchWorkers = new DispatchWorker[controller.getDispatcherThreads()];
+        for (int i = 0; i < dispatchWorkers.length; i++) {
+            dispatchWorkers[i] = new DispatchWorker();
+        }
+        metricsService = controller.getMetricsService();
         for (int i = 0; i < NUM_OF_QUEUES; i++) {
             if (controller.getQueueSize(i) > 0) {
-                dispatchQueuesMapProducer.put(i,
-                        new LinkedBlockingMessagesQueue<>(i, controller.getQueueSize(i), controller.getBulkSize(i)));
+                LinkedBlockingMessagesQueue<OFMessage> queue =
+                        new LinkedBlockingMessagesQueue<>(i, controller.getQueueSize(i), controller.getBulkSize(i));
+                dispatchQueuesMapProducer.put(i, queue);
+                workerOf(i).queues.add(queue);
             }
             if (i != NUM_OF_QUEUES) {
                 messageClassifiersMapProducer.add(i, new CopyOnWriteArraySet<>());
@@ -1327,7 +1349,10 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
             channelId = channel.toString();
         }
 
-        dispatcher = Executors.newSingleThreadExecutor(groupedThreads("onos/of/dispatcher", channelId, log));
+        dispatcher = Executors.newFixedThreadPool(dispatchWorkers.length,
+                groupedThreads("onos/of/dispatcher", dispatchWorkers.length == 1 ?
+                        channelId : channelId + "-%d", log));
+        registerDispatchMetrics();
 
         /*
             hack to wait for the switch to tell us what it's
@@ -1348,6 +1373,7 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
         if (dispatcher != null) {
             dispatcher.shutdownNow();
             dispatcher = null;
+            removeDispatchMetrics();
         }
 
          if (thisdpid != 0) {
@@ -1495,23 +1521,6 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
         return this.state.isHandshakeComplete();
     }
 
-    /**
-     * Increment totalCount variable and send signal to executor.
-     */
-    private void incrementAndSignal() {
-        try {
-            totalCount.incrementAndGet();
-            takeLock.lockInterruptibly();
-            try {
-                notEmpty.signal();
-            } finally {
-                takeLock.unlock();
-            }
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-    }
-
     /**
      * Try to push OpenFlow message to queue.
      *
@@ -1523,11 +1532,21 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
         if (!dispatchQueuesMapProducer.get(idQueue).offer(message)) {
             return false;
         } else {
-            incrementAndSignal();
+            workerOf(idQueue).incrementAndSignal();
             return true;
         }
     }
 
+    /**
+     * Returns the dispatcher worker serving the given queue.
+     *
+     * @param idQueue id of Queue
+     * @return dispatcher worker
+     */
+    private DispatchWorker workerOf(int idQueue) {
+        return dispatchWorkers[idQueue % dispatchWorkers.length];
+    }
+
     /**
      * Process backlog - move messages from backlog to default queue.
      *
@@ -1579,30 +1598,6 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
         return NUM_OF_QUEUES - 1;
     }
 
-    /**
-     * Process messages from dispatch queues.
-     *
-     * @param queuesSize count of messages in all queues
-     */
-    private void processMessages(int queuesSize) {
-        List<OFMessage> msgs = new ArrayList<>();
-        int processed;
-        do {
-            processed = 0;
-            while (processed < queuesSize) {
-                for (LinkedBlockingMessagesQueue<OFMessage> queue :
-                        dispatchQueuesMapProducer.values()) {
-                    processed += queue.drainTo(msgs);
-                }
-            }
-
-            msgs.forEach(sw::handleMessage);
-            msgs.clear();
-            /* Decrement conditional variable */
-            queuesSize = totalCount.addAndGet(-1 * processed);
-        } while (queuesSize > 0);
-    }
-
     private void dispatchMessage(OFMessage m) {
         log.debug("Begin dispatch OpenFlow Message");
         boolean backlogEmpty = processDispatchBacklogQueue();
@@ -1615,31 +1610,159 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
             }
         }
 
-        if (dispatcherHandle.isDone()) {
-            // dispatcher terminated for some reason, restart
-            dispatcherHandle = dispatcher.submit((Runnable) () -> {
+        for (DispatchWorker worker : dispatchWorkers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Registers depth, rejected count and latency metrics for each dispatch queue.
+     */
+    private void registerDispatchMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(DISPATCH_METRICS);
+        dispatchQueuesMapProducer.forEach((id, queue) -> {
+            MetricsFeature feature = component.registerFeature(dispatchMetricsFeature(id));
+            metricsService.registerMetric(component, feature, QUEUE_DEPTH, (Gauge<Integer>) queue::size);
+            metricsService.registerMetric(component, feature, QUEUE_REJECTED, (Gauge<Long>) queue::rejected);
+            queue.setLatencyTimer(metricsService.createTimer(component, feature, QUEUE_LATENCY));
+        });
+    }
+
+    /**
+     * Removes the metrics registered for each dispatch queue.
+     */
+    private void removeDispatchMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(DISPATCH_METRICS);
+        dispatchQueuesMapProducer.forEach((id, queue) -> {
+            MetricsFeature feature = component.registerFeature(dispatchMetricsFeature(id));
+            queue.setLatencyTimer(null);
+            metricsService.removeMetric(component, feature, QUEUE_DEPTH);
+            metricsService.removeMetric(component, feature, QUEUE_REJECTED);
+            metricsService.removeMetric(component, feature, QUEUE_LATENCY);
+        });
+    }
+
+    private String dispatchMetricsFeature(int idQueue) {
+        return channelId + "-queue" + idQueue;
+    }
+
+    /**
+     * Dispatcher thread serving a subset of the dispatch queues.
+     * <p>
+     * Queues are served in weighted round robin order: each round hands over
+     * at most the bulk size of messages of every queue, so that a burst on one
+     * queue cannot starve the others. Messages of a queue are always handled
+     * in order, by the same thread.
+     */
+    private final class DispatchWorker implements Runnable {
+
+        private final List<LinkedBlockingMessagesQueue<OFMessage>> queues =
+                new CopyOnWriteArrayList<>();
+
+        /**
+         * Lock held by take, poll, etc.
+         */
+        private final ReentrantLock takeLock = new ReentrantLock();
+
+        /**
+         * Wait queue for waiting takes.
+         */
+        private final Condition notEmpty = takeLock.newCondition();
+
+        /**
+         * Current number of elements in the served queues.
+         */
+        private final AtomicInteger totalCount = new AtomicInteger();
+
+        /**
+         * Handle for dispatcher thread.
+         * <p>
+         * Should only be touched from the Channel I/O thread
+         */
+        private Future<?> handle = CompletableFuture.completedFuture(null);
+
+        /**
+         * Increment totalCount variable and send signal to executor.
+         */
+        private void incrementAndSignal() {
+            try {
+                totalCount.incrementAndGet();
+                takeLock.lockInterruptibly();
                 try {
-                    for (;;) {
-                        int tc = 0;
-                        takeLock.lockInterruptibly();
-                        try {
-                            while ((tc = totalCount.get()) == 0) {
-                                notEmpty.await();
-                            }
-                        } finally {
-                            takeLock.unlock();
+                    notEmpty.signal();
+                } finally {
+                    takeLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Starts the worker, unless it serves no queue or is already running.
+         */
+        private void start() {
+            if (!queues.isEmpty() && handle.isDone()) {
+                // dispatcher terminated for some reason, restart
+                handle = dispatcher.submit(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (;;) {
+                    takeLock.lockInterruptibly();
+                    try {
+                        while (totalCount.get() <= 0) {
+                            notEmpty.await();
                         }
+                    } finally {
+                        takeLock.unlock();
+                    }
 
-                        processMessages(tc);
+                    processMessages();
+                }
+            } catch (InterruptedException e) {
+                log.error("executor thread InterruptedException: {}", e);
+                Thread.currentThread().interrupt();
+                // interrupted. gracefully shutting down
+            }
+        }
+
+        /**
+         * Process messages from the served queues until they are all empty.
+         */
+        private void processMessages() {
+            List<OFMessage> msgs = new ArrayList<>();
+            int processed;
+            do {
+                processed = 0;
+                for (LinkedBlockingMessagesQueue<OFMessage> queue : queues) {
+                    int count = queue.drainTo(msgs);
+                    if (count > 0) {
+                        msgs.forEach(this::handleMessage);
+                        msgs.clear();
+                        processed += count;
                     }
-                } catch (InterruptedException e) {
-                    log.error("executor thread InterruptedException: {}", e);
-                    Thread.currentThread().interrupt();
-                    // interrupted. gracefully shutting down
-                    return;
                 }
+                /* Decrement conditional variable */
+                totalCount.addAndGet(-processed);
+            } while (processed > 0);
+        }
 
-            });
+        private void handleMessage(OFMessage msg) {
+            try {
+                sw.handleMessage(msg);
+            } catch (RuntimeException e) {
+                log.warn("Unable to handle {} from {}", msg.getType(), getSwitchInfoString(), e);
+            }
         }
     }
 
@@ -1839,7 +1962,12 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
             if (log.isTraceEnabled()) {
                 log.trace("Sending messages for switch {} via openflow channel: {}", getSwitchInfoString(), msgs);
             }
-            channel.writeAndFlush(msgs, channel.voidPromise());
+            int delay = controller.getWriteCoalesceDelayMicros();
+            if (delay > 0) {
+                coalesce(msgs, delay);
+            } else {
+                writeDirect(msgs);
+            }
             return true;
         } else {
             log.warn("Dropping messages for switch {} because channel is not connected: {}",
@@ -1848,6 +1976,71 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
         }
     }
 
+    /**
+     * Appends messages to the pending outbound batch, which is written to
+     * the channel once the coalescing delay expires, once it holds the
+     * maximum number of messages, or as soon as it holds a latency
+     * sensitive message.
+     *
+     * @param msgs  messages to send
+     * @param delay coalescing delay in microseconds
+     */
+    private void coalesce(Iterable<OFMessage> msgs, int delay) {
+        synchronized (outbound) {
+            boolean urgent = false;
+            for (OFMessage msg : msgs) {
+                outbound.add(msg);
+                urgent |= URGENT_TYPES.contains(msg.getType());
+            }
+            if (urgent || outbound.size() >= controller.getWriteCoalesceMaxMessages()) {
+                writeOutbound();
+            } else if (!outboundFlushScheduled) {
+                outboundFlushScheduled = true;
+                channel.eventLoop().schedule(this::flushOutbound, delay, TimeUnit.MICROSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Writes messages to the channel without coalescing. Messages still
+     * pending from when coalescing was enabled are written with them, ahead
+     * of them.
+     *
+     * @param msgs messages to send
+     */
+    private void writeDirect(Iterable<OFMessage> msgs) {
+        synchronized (outbound) {
+            if (outbound.isEmpty()) {
+                channel.writeAndFlush(msgs, channel.voidPromise());
+            } else {
+                msgs.forEach(outbound::add);
+                writeOutbound();
+            }
+        }
+    }
+
+    private void flushOutbound() {
+        synchronized (outbound) {
+            outboundFlushScheduled = false;
+            writeOutbound();
+        }
+    }
+
+    // Must be called with the outbound lock held. The write is always queued
+    // to the event loop, behind the writes of previous batches.
+    private void writeOutbound() {
+        if (outbound.isEmpty()) {
+            return;
+        }
+        List<OFMessage> batch = new ArrayList<>(outbound);
+        outbound.clear();
+        if (channel.eventLoop().inEventLoop()) {
+            channel.eventLoop().execute(() -> channel.writeAndFlush(batch, channel.voidPromise()));
+        } else {
+            channel.writeAndFlush(batch, channel.voidPromise());
+        }
+    }
+
     @Override
     public CharSequence sessionInfo() {
         return channelId;
@@ -18,6 +18,8 @@ package org.onosproject.openflow.controller.impl;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
+import org.onlab.metrics.MetricsService;
+import org.onlab.util.OrderedExecutor;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.CoreService;
 import org.onosproject.net.DeviceId;
@@ -89,6 +91,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.locks.Lock;
@@ -108,6 +111,10 @@ import static org.onosproject.openflow.controller.impl.OsgiPropertyConstants.*;
                 KEY_STORE_PASSWORD + "=" + KEY_STORE_PASSWORD_DEFAULT,
                 TRUST_STORE + "=" + TRUST_STORE_DEFAULT,
                 TRUST_STORE_PASSWORD + "=" + TRUST_STORE_PASSWORD_DEFAULT,
+                DISPATCHER_THREADS + ":Integer=" + DISPATCHER_THREADS_DEFAULT,
+                WRITE_COALESCE_DELAY + ":Integer=" + WRITE_COALESCE_DELAY_DEFAULT,
+                WRITE_COALESCE_MAX_MESSAGES + ":Integer=" + WRITE_COALESCE_MAX_MESSAGES_DEFAULT,
+                STREAM_FLOW_STATS + ":Boolean=" + STREAM_FLOW_STATS_DEFAULT,
                 DEFAULT_QUEUE_SIZE + ":Integer=" + DEFAULT_QUEUE_SIZE_DEFAULT,
                 DEBAULT_BULK_SIZE + ":Integer=" + BULK_SIZE_DEFAULT,
                 QUEUE_SIZE_N0 + ":Integer=" + QUEUE_SIZE_N0_DEFAULT,
@@ -146,6 +153,9 @@ public class OpenFlowControllerImpl implements OpenFlowController {
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected NetworkConfigRegistry netCfgService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
     /** Port numbers (comma separated) used by OpenFlow protocol; default is 6633,6653. */
     private String openflowPorts = OFPORTS_DEFAULT;
 
@@ -172,6 +182,18 @@ public class OpenFlowControllerImpl implements OpenFlowController {
     /** Trust store password. */
     private String trustStorePassword;
 
+    /** Number of threads dispatching messages of each switch; classifier queues are shared among them. */
+    private int dispatcherThreads = DISPATCHER_THREADS_DEFAULT;
+
+    /** Delay (in microseconds) for which messages to a switch are coalesced into one write; 0 disables coalescing. */
+    private int writeCoalesceDelayMicros = WRITE_COALESCE_DELAY_DEFAULT;
+
+    /** Maximum number of messages coalesced into one write. */
+    private int writeCoalesceMaxMessages = WRITE_COALESCE_MAX_MESSAGES_DEFAULT;
+
+    /** Whether each part of a multipart flow statistics reply is dispatched as it arrives, instead of all at once. */
+    private boolean streamFlowStats = STREAM_FLOW_STATS_DEFAULT;
+
     /** Size of deafult queue. */
     private int defaultQueueSize = DEFAULT_QUEUE_SIZE_DEFAULT;
 
@@ -245,6 +267,10 @@ public class OpenFlowControllerImpl implements OpenFlowController {
     protected ConcurrentMap<Dpid, ConcurrentMap<Long, CompletableFuture<OFMessage>>> responses =
             new ConcurrentHashMap<>();
 
+    // Key: dpid, value: executor dispatching the streamed flow stats replies in order
+    protected ConcurrentMap<Dpid, Executor> flowStatsExecutors =
+            new ConcurrentHashMap<>();
+
     protected OpenFlowSwitchAgent agent = new OpenFlowSwitchAgent();
     protected Set<OpenFlowSwitchListener> ofSwitchListener = new CopyOnWriteArraySet<>();
 
@@ -341,7 +367,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
         netCfgService.registerConfigFactory(factory);
         netCfgService.addListener(netCfgListener);
         ctrl.setConfigParams(context.getProperties());
-        ctrl.start(agent, driverService, netCfgService);
+        ctrl.start(agent, driverService, netCfgService, metricsService);
         openFlowManager.addListener(openFlowListener);
     }
 
@@ -581,6 +607,13 @@ public class OpenFlowControllerImpl implements OpenFlowController {
                 break;
 
             case FLOW:
+                if (ctrl.isStreamFlowStats()) {
+                    // Parts are dispatched one at a time and in order per switch;
+                    // listeners tell the last part by the absence of the REPLY_MORE flag
+                    flowStatsExecutors.computeIfAbsent(dpid, k -> new OrderedExecutor(executorMsgs))
+                            .execute(new OFMessageHandler(dpid, reply));
+                    break;
+                }
                 Collection<OFFlowStatsEntry> flowStats = publishFlowStats(dpid, (OFFlowStatsReply) reply);
                 if (flowStats != null) {
                     OFFlowStatsReply.Builder rep =
@@ -895,6 +928,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
         @Override
         public void removeConnectedSwitch(Dpid dpid) {
             connectedSwitches.remove(dpid);
+            flowStatsExecutors.remove(dpid);
             OpenFlowSwitch sw = activeMasterSwitches.remove(dpid);
             if (sw == null) {
                 log.debug("sw was null for {}", dpid);
@@ -46,6 +46,18 @@ public final class OsgiPropertyConstants {
     public static final String TRUST_STORE_PASSWORD = "trustStorePassword";
     public static final String TRUST_STORE_PASSWORD_DEFAULT = "";
 
+    public static final String DISPATCHER_THREADS = "dispatcherThreads";
+    public static final int DISPATCHER_THREADS_DEFAULT = 1;
+
+    public static final String WRITE_COALESCE_DELAY = "writeCoalesceDelayMicros";
+    public static final int WRITE_COALESCE_DELAY_DEFAULT = 0;
+
+    public static final String WRITE_COALESCE_MAX_MESSAGES = "writeCoalesceMaxMessages";
+    public static final int WRITE_COALESCE_MAX_MESSAGES_DEFAULT = 1000;
+
+    public static final String STREAM_FLOW_STATS = "streamFlowStats";
+    public static final boolean STREAM_FLOW_STATS_DEFAULT = false;
+
     public static final String DEFAULT_QUEUE_SIZE = "defaultQueueSize";
     public static final String DEBAULT_BULK_SIZE = "defaultBulkSize";
     public static final String QUEUE_SIZE_N0 = "queueSizeN0";
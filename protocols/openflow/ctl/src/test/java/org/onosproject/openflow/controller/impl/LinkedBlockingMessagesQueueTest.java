@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openflow.controller.impl;
+
+import com.codahale.metrics.Timer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for the dispatch message queue.
+ */
+public class LinkedBlockingMessagesQueueTest {
+
+    /**
+     * Tests that messages are drained in order, at most a bulk at a time.
+     */
+    @Test
+    public void testDrainBulk() {
+        LinkedBlockingMessagesQueue<Integer> queue = new LinkedBlockingMessagesQueue<>(0, 10, 2);
+        queue.offer(1);
+        queue.offer(2);
+        queue.offer(3);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(queue.drainTo(drained), is(2));
+        assertThat(drained, contains(1, 2));
+        assertThat(queue.size(), is(1));
+        assertThat(queue.drainTo(drained), is(1));
+        assertThat(drained, contains(1, 2, 3));
+    }
+
+    /**
+     * Tests that rejected messages are counted and queue latency is measured.
+     */
+    @Test
+    public void testMetrics() {
+        LinkedBlockingMessagesQueue<Integer> queue = new LinkedBlockingMessagesQueue<>(0, 2, 10);
+        Timer latency = new Timer();
+        queue.setLatencyTimer(latency);
+
+        assertThat(queue.offer(1), is(true));
+        assertThat(queue.offer(2), is(true));
+        assertThat(queue.offer(3), is(false));
+        assertThat(queue.rejected(), is(1L));
+
+        queue.drainTo(new ArrayList<>());
+        assertThat(latency.getCount(), is(2L));
+    }
+}
@@ -16,8 +16,10 @@
 
 package org.onosproject.openflow.controller.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.Before;
 import org.junit.Test;
 import org.onosproject.openflow.ChannelHandlerContextAdapter;
@@ -26,10 +28,17 @@ import org.onosproject.openflow.OFDescStatsReplyAdapter;
 import org.onosproject.openflow.OpenflowSwitchDriverAdapter;
 import org.onosproject.openflow.controller.Dpid;
 import org.projectfloodlight.openflow.protocol.OFDescStatsReply;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.easymock.EasyMock.*;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.onosproject.openflow.controller.impl.OFChannelHandler.ChannelState.ACTIVE;
 import static org.onosproject.openflow.controller.impl.OFChannelHandler.ChannelState.WAIT_DESCRIPTION_STAT_REPLY;
@@ -48,6 +57,8 @@ public class OFChannelHandlerTest {
     @Before
     public void setUp() {
         controller = createMock(Controller.class);
+        expect(controller.getDispatcherThreads()).andReturn(1);
+        expect(controller.getMetricsService()).andReturn(null);
         for (int i = 0; i < OFChannelHandler.NUM_OF_QUEUES; i++) {
             expect(controller.getQueueSize(i)).andReturn(0);
         }
@@ -157,4 +168,80 @@ public class OFChannelHandlerTest {
         verify(controller);
     }
 
+    // Coalesced writes
+    @Test
+    public void testWriteCoalescing() {
+        expect(controller.getQueueSize(anyInt())).andReturn(0).times(OFChannelHandler.NUM_OF_QUEUES);
+        expect(controller.getDispatcherThreads()).andReturn(1);
+        expect(controller.getMetricsService()).andReturn(null);
+        expect(controller.getWriteCoalesceDelayMicros()).andReturn(60_000_000).anyTimes();
+        expect(controller.getWriteCoalesceMaxMessages()).andReturn(3).anyTimes();
+        replay(controller);
+
+        OFChannelHandler handler = new OFChannelHandler(controller);
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        OFFactory factory = OFFactories.getFactory(OF_13);
+        OFMessage flowMod = factory.buildFlowAdd().build();
+        OFMessage barrier = factory.buildBarrierRequest().build();
+
+        // messages are held until the batch is full
+        handler.sendMsg(flowMod);
+        handler.sendMsg(flowMod);
+        channel.runPendingTasks();
+        assertNull(channel.readOutbound());
+
+        handler.sendMsg(flowMod);
+        channel.runPendingTasks();
+        List<OFMessage> written = channel.readOutbound();
+        assertThat(written, is(ImmutableList.of(flowMod, flowMod, flowMod)));
+
+        // barriers are written right away, along with the preceding messages
+        handler.sendMsg(flowMod);
+        handler.sendMsg(barrier);
+        channel.runPendingTasks();
+        written = channel.readOutbound();
+        assertThat(written, is(ImmutableList.of(flowMod, barrier)));
+        assertNull(channel.readOutbound());
+
+        channel.finishAndReleaseAll();
+        verify(controller);
+    }
+
+    // Coalescing disabled while messages are pending
+    @Test
+    public void testWriteCoalescingDisabled() {
+        AtomicInteger delay = new AtomicInteger(60_000_000);
+        expect(controller.getQueueSize(anyInt())).andReturn(0).times(OFChannelHandler.NUM_OF_QUEUES);
+        expect(controller.getDispatcherThreads()).andReturn(1);
+        expect(controller.getMetricsService()).andReturn(null);
+        expect(controller.getWriteCoalesceDelayMicros()).andAnswer(delay::get).anyTimes();
+        expect(controller.getWriteCoalesceMaxMessages()).andReturn(3).anyTimes();
+        replay(controller);
+
+        OFChannelHandler handler = new OFChannelHandler(controller);
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        OFFactory factory = OFFactories.getFactory(OF_13);
+        OFMessage flowAdd = factory.buildFlowAdd().build();
+        OFMessage flowDelete = factory.buildFlowDelete().build();
+
+        handler.sendMsg(flowAdd);
+        channel.runPendingTasks();
+        assertNull(channel.readOutbound());
+
+        // pending messages are written ahead of the first direct write
+        delay.set(0);
+        handler.sendMsg(flowDelete);
+        channel.runPendingTasks();
+        List<OFMessage> written = channel.readOutbound();
+        assertThat(written, is(ImmutableList.of(flowAdd, flowDelete)));
+        assertNull(channel.readOutbound());
+
+        // later writes go out on their own
+        handler.sendMsg(flowAdd);
+        written = channel.readOutbound();
+        assertThat(written, is(ImmutableList.of(flowAdd)));
+
+        channel.finishAndReleaseAll();
+        verify(controller);
+    }
 }
@@ -15,10 +15,14 @@
  */
 package org.onosproject.provider.lldp.impl;
 
+import com.codahale.metrics.Meter;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
-import org.onlab.packet.Ethernet;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+import org.onlab.packet.EthernetView;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterMetadataService;
 import org.onosproject.cluster.ClusterService;
@@ -145,6 +149,9 @@ public class LldpLinkProvider extends AbstractProvider implements ProbedLinkProv
     @Reference(cardinality = ReferenceCardinality.MANDATORY)
     protected ClusterMetadataService clusterMetadataService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY)
+    protected MetricsService metricsService;
+
     private LinkProviderService providerService;
 
     private ScheduledExecutorService executor;
@@ -186,6 +193,10 @@ public class LldpLinkProvider extends AbstractProvider implements ProbedLinkProv
     // destination connection point is mastered by this controller instance.
     private final Map<LinkKey, Long> linkTimes = Maps.newConcurrentMap();
 
+    // Rates of link probes sent and of valid probes received
+    private Meter probesSent;
+    private Meter probesReceived;
+
     private ApplicationId appId;
 
     static final SuppressionRules DEFAULT_RULES
@@ -259,6 +270,13 @@ public class LldpLinkProvider extends AbstractProvider implements ProbedLinkProv
         cfgService.registerProperties(getClass());
         appId = coreService.registerApplication(PROVIDER_NAME);
 
+        if (metricsService != null) {
+            MetricsComponent component = metricsService.registerComponent("LldpLinkProvider");
+            MetricsFeature feature = component.registerFeature("probes");
+            probesSent = metricsService.createMeter(component, feature, "sent");
+            probesReceived = metricsService.createMeter(component, feature, "received");
+        }
+
         cfgRegistry.addListener(cfgListener);
         factories.forEach(cfgRegistry::registerConfigFactory);
 
@@ -683,8 +701,9 @@ public class LldpLinkProvider extends AbstractProvider implements ProbedLinkProv
                 return;
             }
 
-            Ethernet eth = context.inPacket().parsed();
-            if (eth == null || (eth.getEtherType() != TYPE_LLDP && eth.getEtherType() != TYPE_BSN)) {
+            // Filter on the ethertype without parsing the whole packet
+            EthernetView frame = context.inPacket().view();
+            if (frame == null || (frame.etherType() != TYPE_LLDP && frame.etherType() != TYPE_BSN)) {
                 return;
             }
 
@@ -838,6 +857,20 @@ public class LldpLinkProvider extends AbstractProvider implements ProbedLinkProv
         public long maxDiscoveryDelay() {
             return maxDiscoveryDelayMs;
         }
+
+        @Override
+        public void probeSent() {
+            if (probesSent != null) {
+                probesSent.mark();
+            }
+        }
+
+        @Override
+        public void probeReceived() {
+            if (probesReceived != null) {
+                probesReceived.mark();
+            }
+        }
     }
 
     static final EnumSet<NetworkConfigEvent.Type> CONFIG_CHANGED
@@ -15,11 +15,12 @@
  */
 package org.onosproject.provider.lldpcommon;
 
-import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import io.netty.util.Timeout;
 import io.netty.util.TimerTask;
 import io.netty.util.internal.StringUtil;
+import org.onlab.packet.ChassisId;
 import org.onlab.packet.Ethernet;
 import org.onlab.packet.MacAddress;
 import org.onlab.packet.ONOSLLDP;
@@ -44,10 +45,13 @@ import org.onosproject.net.packet.PacketContext;
 import org.slf4j.Logger;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -59,34 +63,42 @@ import static org.onosproject.net.flow.DefaultTrafficTreatment.builder;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
- * Run discovery process from a physical switch. Ports are initially labeled as
- * slow ports. When an LLDP is successfully received, label the remote port as
- * fast. Every probeRate milliseconds, loop over all fast ports and send an
- * LLDP, send an LLDP for a single slow port. Based on FlowVisor topology
- * discovery implementation.
+ * Run discovery process from a physical switch. Every probeRate milliseconds
+ * an LLDP is sent out of each port. Ports are spread over slots of the probe
+ * interval, so that the probes of a switch are not sent in a single burst.
+ * Based on FlowVisor topology discovery implementation.
  */
 public class LinkDiscovery implements TimerTask {
 
     private static final String SCHEME_NAME = "linkdiscovery";
     private static final String ETHERNET = "ETHERNET";
 
+    // Probe interval is split into at most this many slots, no shorter than
+    // the minimum slot length
+    private static final int MAX_PROBE_SLOTS = 10;
+    private static final long MIN_PROBE_SLOT_MS = 100;
+
     private final Logger log = getLogger(getClass());
 
     private final DeviceId deviceId;
     private final LinkDiscoveryContext context;
 
-    private final Ethernet ethPacket;
-    private final Ethernet bddpEth;
-
     private Timeout timeout;
     private volatile boolean isStopped;
+    // Next slot of the probe interval, and ports to probe during the
+    // interval; only accessed by the timer thread
+    private int probeSlot;
+    private List<Long> probeCycle = ImmutableList.of();
 
     // Set of ports to be probed
     private final Map<Long, String> portMap = Maps.newConcurrentMap();
+    // Serialized probes of the ports; only timestamp and signature are
+    // refreshed before each send
+    private final Map<Long, ProbeTemplate> probeTemplates = Maps.newConcurrentMap();
+
     /**
-     * Instantiates discovery manager for the given physical switch. Creates a
-     * generic LLDP packet that will be customized for the port it is sent out on.
-     * Starts the the timer for the discovery process.
+     * Instantiates discovery manager for the given physical switch. Starts the
+     * timer for the discovery process.
      *
      * @param deviceId  the physical switch
      * @param context discovery context
@@ -95,16 +107,6 @@ public class LinkDiscovery implements TimerTask {
         this.deviceId = deviceId;
         this.context = context;
 
-        ethPacket = new Ethernet();
-        ethPacket.setEtherType(Ethernet.TYPE_LLDP);
-        ethPacket.setDestinationMACAddress(MacAddress.ONOS_LLDP);
-        ethPacket.setPad(true);
-
-        bddpEth = new Ethernet();
-        bddpEth.setEtherType(Ethernet.TYPE_BSN);
-        bddpEth.setDestinationMACAddress(MacAddress.BROADCAST);
-        bddpEth.setPad(true);
-
         isStopped = true;
         start();
         log.debug("Started discovery manager for switch {}", deviceId);
@@ -123,7 +125,10 @@ public class LinkDiscovery implements TimerTask {
     public synchronized void start() {
         if (isStopped) {
             isStopped = false;
-            timeout = Timer.newTimeout(this, 0, MILLISECONDS);
+            // jitter the first run so that switches are not probed in lockstep
+            long slotLength = context.probeRate() / probeSlots(context.probeRate());
+            timeout = Timer.newTimeout(this, ThreadLocalRandom.current().nextLong(Math.max(slotLength, 1)),
+                                       MILLISECONDS);
         } else {
             log.warn("LinkDiscovery started multiple times?");
         }
@@ -162,6 +167,7 @@ public class LinkDiscovery implements TimerTask {
      */
     public void removePort(PortNumber port) {
         portMap.remove(port.toLong());
+        probeTemplates.remove(port.toLong());
     }
 
     /**
@@ -212,6 +218,7 @@ public class LinkDiscovery implements TimerTask {
                     log.warn("LLDP Packet failed to validate!");
                     return true;
                 }
+                context.probeReceived();
             }
 
             PortNumber srcPort = portNumber(onoslldp.getPort());
@@ -362,23 +369,37 @@ public class LinkDiscovery implements TimerTask {
     }
 
     /**
-     * Execute this method every t milliseconds. Loops over all ports
-     * labeled as fast and sends out an LLDP. Send out an LLDP on a single slow
-     * port.
+     * Execute this method once per slot of the probe interval. Sends out an
+     * LLDP on all ports that fall into the current slot.
      *
      * @param t timeout
      */
     @Override
     public void run(Timeout t) {
+        long probeRate = context.probeRate();
+        int slots = probeSlots(probeRate);
         try {
             // Check first if it has been stopped
             if (isStopped()) {
                 return;
             }
+            int slot = probeSlot % slots;
+            probeSlot = slot + 1;
+            if (slot == 0) {
+                // Ports are assigned to slots by rank rather than by number,
+                // which may be strided
+                probeCycle = portMap.keySet().stream().sorted().collect(Collectors.toList());
+            }
             // Verify if we are still the master
             if (context.mastershipService().isLocalMaster(deviceId)) {
-                log.trace("Sending probes from {}", deviceId);
-                ImmutableMap.copyOf(portMap).forEach(this::sendProbes);
+                log.trace("Sending probes from {} for slot {}", deviceId, slot);
+                for (int i = slot; i < probeCycle.size(); i += slots) {
+                    Long portNumber = probeCycle.get(i);
+                    String portDesc = portMap.get(portNumber);
+                    if (portDesc != null) {
+                        sendProbes(portNumber, portDesc);
+                    }
+                }
             }
         } catch (Exception e) {
             // Catch all exceptions to avoid timer task being cancelled
@@ -392,65 +413,71 @@ public class LinkDiscovery implements TimerTask {
         } finally {
             // if it has not been stopped - re-schedule itself
             if (!isStopped()) {
-                timeout = t.timer().newTimeout(this, context.probeRate(), MILLISECONDS);
+                timeout = t.timer().newTimeout(this, probeRate / slots, MILLISECONDS);
             }
         }
     }
 
-    /**
-     * Creates packet_out LLDP for specified output port.
-     *
-     * @param portNumber the port
-     * @param portDesc the port description
-     * @return Packet_out message with LLDP data
-     */
-    private OutboundPacket createOutBoundLldp(Long portNumber, String portDesc) {
-        if (portNumber == null) {
-            return null;
-        }
-        ONOSLLDP lldp = getLinkProbe(portNumber, portDesc);
-        if (lldp == null) {
-            log.warn("Cannot get link probe with portNumber {} and portDesc {} for {} at LLDP packet creation.",
-                    portNumber, portDesc, deviceId);
-            return null;
-        }
-        ethPacket.setSourceMACAddress(context.fingerprint()).setPayload(lldp);
-        return new DefaultOutboundPacket(deviceId,
-                                         builder().setOutput(portNumber(portNumber)).build(),
-                                         ByteBuffer.wrap(ethPacket.serialize()));
+    private static int probeSlots(long probeRate) {
+        return (int) Math.max(1, Math.min(MAX_PROBE_SLOTS, probeRate / MIN_PROBE_SLOT_MS));
     }
 
     /**
-     * Creates packet_out BDDP for specified output port.
+     * Creates packet_out probe for specified output port.
      *
      * @param portNumber the port
-     * @param portDesc the port description
-     * @return Packet_out message with LLDP data
+     * @param template serialized probe frame
+     * @param secret LLDP secret the probe is signed with, if any
+     * @return Packet_out message with probe data
      */
-    private OutboundPacket createOutBoundBddp(Long portNumber, String portDesc) {
-        if (portNumber == null) {
-            return null;
-        }
-        ONOSLLDP lldp = getLinkProbe(portNumber, portDesc);
-        if (lldp == null) {
-            log.warn("Cannot get link probe with portNumber {} and portDesc {} for {} at BDDP packet creation.",
-                    portNumber, portDesc, deviceId);
-            return null;
+    private OutboundPacket createOutBoundProbe(Long portNumber, byte[] template, String secret) {
+        byte[] frame = template;
+        if (secret != null) {
+            // the emitted frame may still be queued when the next probe is sent
+            frame = template.clone();
+            if (!ONOSLLDP.refreshSecureLLDP(frame, Ethernet.ETHERNET_HEADER_LENGTH,
+                                            deviceId.toString(), portNumber.intValue(), secret)) {
+                return null;
+            }
         }
-        bddpEth.setSourceMACAddress(context.fingerprint()).setPayload(lldp);
         return new DefaultOutboundPacket(deviceId,
                                          builder().setOutput(portNumber(portNumber)).build(),
-                                         ByteBuffer.wrap(bddpEth.serialize()));
+                                         ByteBuffer.wrap(frame));
     }
 
-    private ONOSLLDP getLinkProbe(Long portNumber, String portDesc) {
+    private ProbeTemplate getProbeTemplate(Long portNumber, String portDesc) {
         Device device = context.deviceService().getDevice(deviceId);
         if (device == null) {
             log.warn("Cannot find the device {}", deviceId);
             return null;
         }
-        return ONOSLLDP.onosSecureLLDP(deviceId.toString(), device.chassisId(), portNumber.intValue(), portDesc,
-                                       context.lldpSecret());
+        String fingerprint = context.fingerprint();
+        String secret = context.lldpSecret();
+        ProbeTemplate template = probeTemplates.get(portNumber);
+        if (template == null || !template.matches(portDesc, device.chassisId(), fingerprint, secret)) {
+            ONOSLLDP lldp = ONOSLLDP.onosSecureLLDP(deviceId.toString(), device.chassisId(),
+                                                    portNumber.intValue(), portDesc, secret);
+            if (lldp == null) {
+                log.warn("Cannot get link probe with portNumber {} and portDesc {} for {}.",
+                         portNumber, portDesc, deviceId);
+                return null;
+            }
+            template = new ProbeTemplate(portDesc, device.chassisId(), fingerprint, secret,
+                    serialize(lldp, Ethernet.TYPE_LLDP, MacAddress.ONOS_LLDP, fingerprint),
+                    serialize(lldp, Ethernet.TYPE_BSN, MacAddress.BROADCAST, fingerprint));
+            probeTemplates.put(portNumber, template);
+        }
+        return template;
+    }
+
+    private static byte[] serialize(ONOSLLDP lldp, short etherType, MacAddress dst, String src) {
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(etherType);
+        eth.setDestinationMACAddress(dst);
+        eth.setSourceMACAddress(src);
+        eth.setPad(true);
+        eth.setPayload(lldp);
+        return eth.serialize();
     }
 
     private void sendProbes(Long portNumber, String portDesc) {
@@ -458,16 +485,23 @@ public class LinkDiscovery implements TimerTask {
             return;
         }
         log.trace("Sending probes out of {}@{}", portNumber, deviceId);
-        OutboundPacket pkt = createOutBoundLldp(portNumber, portDesc);
+        ProbeTemplate template = getProbeTemplate(portNumber, portDesc);
+        if (template == null) {
+            log.warn("Cannot send probes due to missing template {}", deviceId);
+            return;
+        }
+        OutboundPacket pkt = createOutBoundProbe(portNumber, template.lldpFrame, template.secret);
         if (pkt != null) {
             context.packetService().emit(pkt);
+            context.probeSent();
         } else {
             log.warn("Cannot send lldp packet due to packet is null {}", deviceId);
         }
         if (context.useBddp()) {
-            OutboundPacket bpkt = createOutBoundBddp(portNumber, portDesc);
+            OutboundPacket bpkt = createOutBoundProbe(portNumber, template.bddpFrame, template.secret);
             if (bpkt != null) {
                 context.packetService().emit(bpkt);
+                context.probeSent();
             } else {
                 log.warn("Cannot send bddp packet due to packet is null {}", deviceId);
             }
@@ -477,4 +511,35 @@ public class LinkDiscovery implements TimerTask {
     public boolean containsPort(long portNumber) {
         return portMap.containsKey(portNumber);
     }
+
+    /**
+     * Serialized LLDP and BDDP probes of a port, along with the inputs they
+     * were built from.
+     */
+    private static final class ProbeTemplate {
+        private final String portDesc;
+        private final ChassisId chassisId;
+        private final String fingerprint;
+        private final String secret;
+        private final byte[] lldpFrame;
+        private final byte[] bddpFrame;
+
+        private ProbeTemplate(String portDesc, ChassisId chassisId, String fingerprint,
+                              String secret, byte[] lldpFrame, byte[] bddpFrame) {
+            this.portDesc = portDesc;
+            this.chassisId = chassisId;
+            this.fingerprint = fingerprint;
+            this.secret = secret;
+            this.lldpFrame = lldpFrame;
+            this.bddpFrame = bddpFrame;
+        }
+
+        private boolean matches(String portDesc, ChassisId chassisId, String fingerprint,
+                                String secret) {
+            return Objects.equals(this.portDesc, portDesc) &&
+                    Objects.equals(this.chassisId, chassisId) &&
+                    Objects.equals(this.fingerprint, fingerprint) &&
+                    Objects.equals(this.secret, secret);
+        }
+    }
 }
@@ -103,4 +103,16 @@ public interface LinkDiscoveryContext {
      * @return delay in ms
      */
     long maxDiscoveryDelay();
+
+    /**
+     * Records that a link probe was sent.
+     */
+    default void probeSent() {
+    }
+
+    /**
+     * Records that a valid link probe was received.
+     */
+    default void probeReceived() {
+    }
 }
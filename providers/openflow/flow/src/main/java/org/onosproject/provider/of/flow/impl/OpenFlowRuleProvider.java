@@ -71,6 +71,7 @@ import org.projectfloodlight.openflow.protocol.OFFlowStatsReply;
 import org.projectfloodlight.openflow.protocol.OFMessage;
 import org.projectfloodlight.openflow.protocol.OFPortStatus;
 import org.projectfloodlight.openflow.protocol.OFStatsReply;
+import org.projectfloodlight.openflow.protocol.OFStatsReplyFlags;
 import org.projectfloodlight.openflow.protocol.OFStatsType;
 import org.projectfloodlight.openflow.protocol.OFTableStatsEntry;
 import org.projectfloodlight.openflow.protocol.OFTableStatsReply;
@@ -450,14 +451,14 @@ public class OpenFlowRuleProvider extends AbstractProvider
                     break;
                 case STATS_REPLY:
                     if (((OFStatsReply) msg).getStatsType() == OFStatsType.FLOW) {
-                        // Let's unblock first the collector
+                        // Let's unblock first the collector, once the last part is received
                         SwitchDataCollector collector;
                         if (adaptiveFlowSampling) {
                             collector = afsCollectors.get(dpid);
                         } else {
                             collector = simpleCollectors.get(dpid);
                         }
-                        if (collector != null) {
+                        if (collector != null && isLastPart((OFStatsReply) msg)) {
                             collector.received();
                         }
                         pushFlowMetrics(dpid, (OFFlowStatsReply) msg, getDriver(deviceId));
@@ -639,10 +640,17 @@ public class OpenFlowRuleProvider extends AbstractProvider
             return handler;
         }
 
+        // Replies are received in parts when the controller streams multipart
+        // flow statistics; aggregated replies are received as a single last part
+        private boolean isLastPart(OFStatsReply reply) {
+            return !reply.getFlags().contains(OFStatsReplyFlags.REPLY_MORE);
+        }
+
         private void pushFlowMetrics(Dpid dpid, OFFlowStatsReply replies, DriverHandler handler) {
 
             DeviceId did = DeviceId.deviceId(Dpid.uri(dpid));
             NewAdaptiveFlowStatsCollector afsc = afsCollectors.get(dpid);
+            boolean last = isLastPart(replies);
 
             if (adaptiveFlowSampling && afsc != null)  {
                 List<FlowEntry> flowEntries = replies.getEntries().stream()
@@ -655,9 +663,12 @@ public class OpenFlowRuleProvider extends AbstractProvider
                                           + "OFFlowStatsReply Xid={}, for {}",
                                   afsc.getFlowMissingXid(), replies.getXid(), dpid);
                     if (afsc.getFlowMissingXid() == replies.getXid()) {
-                        // call entire flow stats update with flowMissing synchronization.
-                        // used existing pushFlowMetrics
-                        providerService.pushFlowMetrics(did, flowEntries);
+                        // call entire flow stats update with flowMissing synchronization,
+                        // one part at a time
+                        providerService.pushFlowMetricsPart(did, replies.getXid(), flowEntries, last);
+                        if (!last) {
+                            return;
+                        }
                     }
                     // reset flowMissingXid to NO_FLOW_MISSING_XID
                     afsc.setFlowMissingXid(NewAdaptiveFlowStatsCollector.NO_FLOW_MISSING_XID);
@@ -670,8 +681,8 @@ public class OpenFlowRuleProvider extends AbstractProvider
                         .map(entry -> new FlowEntryBuilder(did, entry, handler).build())
                         .collect(Collectors.toList());
 
-                // call existing entire flow stats update with flowMissing synchronization
-                providerService.pushFlowMetrics(did, flowEntries);
+                // call entire flow stats update with flowMissing synchronization, one part at a time
+                providerService.pushFlowMetricsPart(did, replies.getXid(), flowEntries, last);
             }
         }
 
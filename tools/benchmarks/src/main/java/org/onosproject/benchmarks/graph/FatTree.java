@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.benchmarks.graph;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Synthetic k-ary fat-tree topology.
+ * <p>
+ * A k-ary fat-tree has (k/2)^2 core switches and k pods, each comprising
+ * k/2 aggregation and k/2 edge switches. Switches are numbered starting with
+ * the core switches, followed by the aggregation and edge switches of each pod.
+ */
+public final class FatTree {
+
+    private final int k;
+    private final int half;
+    private final int coreCount;
+    private final List<int[]> links;
+
+    /**
+     * Creates a new k-ary fat-tree.
+     *
+     * @param k number of ports per switch; must be even
+     */
+    public FatTree(int k) {
+        checkArgument(k >= 2 && k % 2 == 0, "k must be an even number greater than 1");
+        this.k = k;
+        this.half = k / 2;
+        this.coreCount = half * half;
+
+        ImmutableList.Builder<int[]> builder = ImmutableList.builder();
+        for (int pod = 0; pod < k; pod++) {
+            for (int a = 0; a < half; a++) {
+                int agg = aggregationSwitch(pod, a);
+                // Each aggregation switch connects to k/2 core switches...
+                for (int c = 0; c < half; c++) {
+                    builder.add(new int[]{a * half + c, agg});
+                }
+                // ...and to every edge switch in its pod.
+                for (int e = 0; e < half; e++) {
+                    builder.add(new int[]{agg, edgeSwitch(pod, e)});
+                }
+            }
+        }
+        this.links = builder.build();
+    }
+
+    /**
+     * Returns the total number of switches.
+     *
+     * @return number of switches
+     */
+    public int switchCount() {
+        return coreCount + k * k;
+    }
+
+    /**
+     * Returns the undirected links as pairs of switch numbers.
+     *
+     * @return list of links
+     */
+    public List<int[]> links() {
+        return links;
+    }
+
+    /**
+     * Returns the number of the given aggregation switch.
+     *
+     * @param pod   pod number
+     * @param index index of the aggregation switch within the pod
+     * @return switch number
+     */
+    public int aggregationSwitch(int pod, int index) {
+        return coreCount + pod * k + index;
+    }
+
+    /**
+     * Returns the number of the given edge switch.
+     *
+     * @param pod   pod number
+     * @param index index of the edge switch within the pod
+     * @return switch number
+     */
+    public int edgeSwitch(int pod, int index) {
+        return coreCount + pod * k + half + index;
+    }
+
+    /**
+     * Returns the number of pods.
+     *
+     * @return number of pods
+     */
+    public int pods() {
+        return k;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.benchmarks.graph;
+
+import com.google.common.collect.ImmutableSet;
+import org.onlab.graph.AbstractEdge;
+import org.onlab.graph.AdjacencyListsGraph;
+import org.onlab.graph.CompactDijkstraGraphSearch;
+import org.onlab.graph.CompactKShortestPathsSearch;
+import org.onlab.graph.DefaultEdgeWeigher;
+import org.onlab.graph.DijkstraGraphSearch;
+import org.onlab.graph.EdgeWeigher;
+import org.onlab.graph.Graph;
+import org.onlab.graph.GraphPathSearch;
+import org.onlab.graph.KShortestPathsSearch;
+import org.onlab.graph.SuurballeGraphSearch;
+import org.onlab.graph.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.onlab.graph.GraphPathSearch.ALL_PATHS;
+
+/**
+ * Benchmarks of shortest and disjoint path searches on fat-tree graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphSearchBenchmark {
+
+    private static final int K_PATHS = 4;
+    private static final int PARALLELISM = 4;
+
+    @Param({"4", "8", "16"})
+    private int k;
+
+    private Graph<TestVertex, TestEdge> graph;
+    private TestVertex src;
+    private TestVertex dst;
+
+    private final EdgeWeigher<TestVertex, TestEdge> weigher = new DefaultEdgeWeigher<>();
+    private final DijkstraGraphSearch<TestVertex, TestEdge> dijkstra = new DijkstraGraphSearch<>();
+    private final SuurballeGraphSearch<TestVertex, TestEdge> suurballe = new SuurballeGraphSearch<>();
+    private final KShortestPathsSearch<TestVertex, TestEdge> kShortest = new KShortestPathsSearch<>();
+    private final CompactDijkstraGraphSearch<TestVertex, TestEdge> compactDijkstra =
+            new CompactDijkstraGraphSearch<>();
+    private final CompactKShortestPathsSearch<TestVertex, TestEdge> compactKShortest =
+            new CompactKShortestPathsSearch<>();
+    private final ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+    private final KShortestPathsSearch<TestVertex, TestEdge> parallelKShortest =
+            new KShortestPathsSearch<>(pool);
+    private final SuurballeGraphSearch<TestVertex, TestEdge> parallelSuurballe =
+            new SuurballeGraphSearch<>(pool);
+
+    @Setup
+    public void setUp() {
+        FatTree fatTree = new FatTree(k);
+        TestVertex[] vertexes = new TestVertex[fatTree.switchCount()];
+        ImmutableSet.Builder<TestVertex> vertexSet = ImmutableSet.builder();
+        for (int i = 0; i < vertexes.length; i++) {
+            vertexes[i] = new TestVertex(i);
+            vertexSet.add(vertexes[i]);
+        }
+
+        ImmutableSet.Builder<TestEdge> edgeSet = ImmutableSet.builder();
+        for (int[] link : fatTree.links()) {
+            edgeSet.add(new TestEdge(vertexes[link[0]], vertexes[link[1]]));
+            edgeSet.add(new TestEdge(vertexes[link[1]], vertexes[link[0]]));
+        }
+        graph = new AdjacencyListsGraph<>(vertexSet.build(), edgeSet.build());
+
+        // Use edge switches in the first and last pods so that paths traverse the core.
+        src = vertexes[fatTree.edgeSwitch(0, 0)];
+        dst = vertexes[fatTree.edgeSwitch(fatTree.pods() - 1, 0)];
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> dijkstraSinglePath() {
+        return dijkstra.search(graph, src, dst, weigher, 1);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> dijkstraAllPaths() {
+        return dijkstra.search(graph, src, dst, weigher, ALL_PATHS);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> dijkstraAllDestinations() {
+        return dijkstra.search(graph, src, null, weigher, ALL_PATHS);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> suurballeDisjointPaths() {
+        return suurballe.search(graph, src, dst, weigher, ALL_PATHS);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> kShortestPaths() {
+        return kShortest.search(graph, src, dst, weigher, K_PATHS);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> parallelSuurballeDisjointPaths() {
+        return parallelSuurballe.search(graph, src, dst, weigher, ALL_PATHS);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> parallelKShortestPaths() {
+        return parallelKShortest.search(graph, src, dst, weigher, K_PATHS);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> compactDijkstraSinglePath() {
+        return compactDijkstra.search(graph, src, dst, weigher, 1);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> compactDijkstraAllPaths() {
+        return compactDijkstra.search(graph, src, dst, weigher, ALL_PATHS);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> compactDijkstraAllDestinations() {
+        return compactDijkstra.search(graph, src, null, weigher, ALL_PATHS);
+    }
+
+    @Benchmark
+    public GraphPathSearch.Result<TestVertex, TestEdge> compactKShortestPaths() {
+        return compactKShortest.search(graph, src, dst, weigher, K_PATHS);
+    }
+
+    /**
+     * Fat-tree switch vertex.
+     */
+    static final class TestVertex implements Vertex {
+        private final int id;
+
+        TestVertex(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof TestVertex && ((TestVertex) obj).id == id;
+        }
+
+        @Override
+        public String toString() {
+            return "s" + id;
+        }
+    }
+
+    /**
+     * Directed fat-tree link.
+     */
+    static final class TestEdge extends AbstractEdge<TestVertex> {
+        TestEdge(TestVertex src, TestVertex dst) {
+            super(src, dst);
+        }
+    }
+}
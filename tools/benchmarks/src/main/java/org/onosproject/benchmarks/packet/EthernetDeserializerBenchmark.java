@@ -0,0 +1,146 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.benchmarks.packet;
+
+import org.onlab.packet.ARP;
+import org.onlab.packet.ChassisId;
+import org.onlab.packet.Data;
+import org.onlab.packet.DeserializationException;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
+import org.onlab.packet.IPacket;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.Ip4Address;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.ONOSLLDP;
+import org.onlab.packet.TCP;
+import org.onlab.packet.UDP;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of packet-in parsing using the Ethernet deserializer, compared
+ * with the header checks typical packet processors make using a view.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EthernetDeserializerBenchmark {
+
+    private static final MacAddress SRC_MAC = MacAddress.valueOf("00:00:00:00:00:01");
+    private static final MacAddress DST_MAC = MacAddress.valueOf("00:00:00:00:00:02");
+    private static final Ip4Address SRC_IP = Ip4Address.valueOf("10.0.0.1");
+    private static final Ip4Address DST_IP = Ip4Address.valueOf("10.0.0.2");
+
+    private byte[] arp;
+    private byte[] udp;
+    private byte[] tcp;
+    private byte[] lldp;
+
+    @Setup
+    public void setUp() {
+        arp = ARP.buildArpRequest(SRC_MAC.toBytes(), SRC_IP.toOctets(), DST_IP.toOctets(), (short) -1)
+                .serialize();
+
+        UDP udpPacket = new UDP();
+        udpPacket.setSourcePort(5000);
+        udpPacket.setDestinationPort(6000);
+        udpPacket.setPayload(new Data(new byte[64]));
+        udp = ipv4(IPv4.PROTOCOL_UDP, udpPacket).serialize();
+
+        TCP tcpPacket = new TCP();
+        tcpPacket.setSourcePort(5000);
+        tcpPacket.setDestinationPort(80);
+        tcpPacket.setPayload(new Data(new byte[512]));
+        tcp = ipv4(IPv4.PROTOCOL_TCP, tcpPacket).serialize();
+
+        ONOSLLDP probe = ONOSLLDP.onosSecureLLDP("of:0000000000000001", new ChassisId(1), 1, null);
+        Ethernet lldpPacket = new Ethernet();
+        lldpPacket.setEtherType(Ethernet.TYPE_LLDP);
+        lldpPacket.setSourceMACAddress(SRC_MAC);
+        lldpPacket.setDestinationMACAddress(MacAddress.ONOS_LLDP);
+        lldpPacket.setPayload(probe);
+        lldp = lldpPacket.serialize();
+    }
+
+    private Ethernet ipv4(byte protocol, IPacket transport) {
+        IPv4 ip = new IPv4();
+        ip.setSourceAddress(SRC_IP.toInt());
+        ip.setDestinationAddress(DST_IP.toInt());
+        ip.setProtocol(protocol);
+        ip.setTtl((byte) 64);
+        ip.setPayload(transport);
+
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(Ethernet.TYPE_IPV4);
+        eth.setSourceMACAddress(SRC_MAC);
+        eth.setDestinationMACAddress(DST_MAC);
+        eth.setPayload(ip);
+        return eth;
+    }
+
+    private static Ethernet parse(byte[] packet) throws DeserializationException {
+        return Ethernet.deserializer().deserialize(packet, 0, packet.length);
+    }
+
+    @Benchmark
+    public Ethernet parseArp() throws DeserializationException {
+        return parse(arp);
+    }
+
+    @Benchmark
+    public Ethernet parseUdp() throws DeserializationException {
+        return parse(udp);
+    }
+
+    @Benchmark
+    public Ethernet parseTcp() throws DeserializationException {
+        return parse(tcp);
+    }
+
+    @Benchmark
+    public Ethernet parseLldp() throws DeserializationException {
+        return parse(lldp);
+    }
+
+    @Benchmark
+    public short viewTcpEtherType() {
+        return EthernetView.of(tcp, 0, tcp.length).etherType();
+    }
+
+    @Benchmark
+    public byte viewTcpIpProtocol() {
+        return EthernetView.of(tcp, 0, tcp.length).ipProtocol();
+    }
+
+    @Benchmark
+    public MacAddress viewLldpSourceMac() {
+        return EthernetView.of(lldp, 0, lldp.length).sourceMac();
+    }
+}
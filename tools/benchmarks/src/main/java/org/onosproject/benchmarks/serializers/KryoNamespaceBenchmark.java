@@ -0,0 +1,229 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.benchmarks.serializers;
+
+import com.google.common.collect.ImmutableList;
+import org.onlab.packet.ChassisId;
+import org.onlab.packet.Ip4Prefix;
+import org.onlab.packet.MacAddress;
+import org.onlab.util.KryoNamespace;
+import org.onosproject.benchmarks.graph.FatTree;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.core.IdGenerator;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.FilteredConnectPoint;
+import org.onosproject.net.Link;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentData;
+import org.onosproject.net.intent.IntentState;
+import org.onosproject.net.intent.Key;
+import org.onosproject.net.intent.PointToPointIntent;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.WallClockTimestamp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks of Kryo serialization of commonly replicated core objects.
+ * <p>
+ * Topologies themselves are never serialized, so the topology benchmarks
+ * instead serialize the devices and links of a fat-tree topology.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KryoNamespaceBenchmark {
+
+    private static final ProviderId PID = new ProviderId("of", "org.onosproject.benchmarks");
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.onosproject.benchmarks");
+
+    @Param({"4", "8"})
+    private int k;
+
+    private final AtomicLong intentIds = new AtomicLong();
+    private final IdGenerator idGenerator = intentIds::incrementAndGet;
+
+    private KryoNamespace serializer;
+
+    private FlowEntry flowEntry;
+    private byte[] flowEntryBytes;
+    private IntentData intentData;
+    private byte[] intentDataBytes;
+    private List<Device> devices;
+    private byte[] devicesBytes;
+    private List<Link> links;
+    private byte[] linksBytes;
+    private byte[] linksBatchBytes;
+
+    @Setup
+    public void setUp() {
+        Intent.bindIdGenerator(idGenerator);
+        serializer = KryoNamespace.newBuilder()
+                .register(KryoNamespaces.API)
+                .register(IntentData.class)
+                .register(WallClockTimestamp.class)
+                .build("benchmark");
+
+        DeviceId deviceId = DeviceId.deviceId("of:0000000000000001");
+        flowEntry = new DefaultFlowEntry(DefaultFlowRule.builder()
+                .forDevice(deviceId)
+                .withSelector(DefaultTrafficSelector.builder()
+                                      .matchInPort(PortNumber.portNumber(1))
+                                      .matchEthSrc(MacAddress.valueOf("00:00:00:00:00:01"))
+                                      .matchEthType((short) 0x0800)
+                                      .matchIPDst(Ip4Prefix.valueOf("10.0.0.0/24"))
+                                      .build())
+                .withTreatment(DefaultTrafficTreatment.builder()
+                                       .setEthDst(MacAddress.valueOf("00:00:00:00:00:02"))
+                                       .setOutput(PortNumber.portNumber(2))
+                                       .build())
+                .withPriority(40000)
+                .fromApp(APP_ID)
+                .makePermanent()
+                .build());
+        flowEntryBytes = serializer.serialize(flowEntry);
+
+        PointToPointIntent intent = PointToPointIntent.builder()
+                .appId(APP_ID)
+                .key(Key.of("benchmark", APP_ID))
+                .selector(DefaultTrafficSelector.builder().matchEthType((short) 0x0800).build())
+                .treatment(DefaultTrafficTreatment.emptyTreatment())
+                .filteredIngressPoint(new FilteredConnectPoint(
+                        new ConnectPoint(deviceId, PortNumber.portNumber(1))))
+                .filteredEgressPoint(new FilteredConnectPoint(
+                        new ConnectPoint(DeviceId.deviceId("of:0000000000000002"), PortNumber.portNumber(2))))
+                .build();
+        intentData = IntentData.nextState(IntentData.copy(IntentData.submit(intent), new WallClockTimestamp()),
+                                          IntentState.INSTALLED);
+        intentDataBytes = serializer.serialize(intentData);
+
+        FatTree fatTree = new FatTree(k);
+        ImmutableList.Builder<Device> deviceBuilder = ImmutableList.builder();
+        for (int i = 0; i < fatTree.switchCount(); i++) {
+            deviceBuilder.add(new DefaultDevice(PID, deviceId(i), Device.Type.SWITCH,
+                                                "ON.Lab", "1.0", "1.0", "1", new ChassisId(i)));
+        }
+        devices = deviceBuilder.build();
+        devicesBytes = serializer.serialize(devices);
+
+        ImmutableList.Builder<Link> linkBuilder = ImmutableList.builder();
+        int port = 1;
+        for (int[] link : fatTree.links()) {
+            ConnectPoint src = new ConnectPoint(deviceId(link[0]), PortNumber.portNumber(port));
+            ConnectPoint dst = new ConnectPoint(deviceId(link[1]), PortNumber.portNumber(port));
+            linkBuilder.add(DefaultLink.builder().providerId(PID).src(src).dst(dst).type(Link.Type.DIRECT).build());
+            linkBuilder.add(DefaultLink.builder().providerId(PID).src(dst).dst(src).type(Link.Type.DIRECT).build());
+            port++;
+        }
+        links = linkBuilder.build();
+        linksBytes = serializer.serialize(links);
+        linksBatchBytes = serializer.serializeBatch(links);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Intent.unbindIdGenerator(idGenerator);
+    }
+
+    private static DeviceId deviceId(int i) {
+        return DeviceId.deviceId(String.format("of:%016x", i + 1));
+    }
+
+    @Benchmark
+    public byte[] serializeFlowEntry() {
+        return serializer.serialize(flowEntry);
+    }
+
+    @Benchmark
+    public FlowEntry deserializeFlowEntry() {
+        return serializer.deserialize(flowEntryBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeIntentData() {
+        return serializer.serialize(intentData);
+    }
+
+    @Benchmark
+    public IntentData deserializeIntentData() {
+        return serializer.deserialize(intentDataBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeTopologyDevices() {
+        return serializer.serialize(devices);
+    }
+
+    @Benchmark
+    public List<Device> deserializeTopologyDevices() {
+        return serializer.deserialize(devicesBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeTopologyLinks() {
+        return serializer.serialize(links);
+    }
+
+    @Benchmark
+    public List<Link> deserializeTopologyLinks() {
+        return serializer.deserialize(linksBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeTopologyLinksBatch() {
+        return serializer.serializeBatch(links);
+    }
+
+    @Benchmark
+    public List<Link> deserializeTopologyLinksBatch() {
+        return serializer.deserializeBatch(linksBatchBytes);
+    }
+
+    @Benchmark
+    public Link deserializeTopologyLinksBatchFirst() {
+        List<Link> batch = serializer.deserializeBatch(linksBatchBytes);
+        return batch.get(0);
+    }
+}
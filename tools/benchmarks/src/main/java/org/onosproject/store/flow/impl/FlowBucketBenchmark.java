@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import org.onlab.packet.MacAddress;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flow.FlowEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of flow bucket updates and digest computation.
+ * <p>
+ * Lives in the flow store package to access the package-private bucket types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlowBucketBenchmark {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, "org.onosproject.benchmarks");
+    private static final DeviceId DEVICE_ID = DeviceId.deviceId("of:0000000000000001");
+    private static final long TERM = 1;
+
+    @Param({"100", "1000", "10000"})
+    private int flows;
+
+    private LogicalClock clock;
+    private FlowBucket bucket;
+    private FlowEntry[] entries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUpEntries() {
+        entries = new FlowEntry[flows];
+        for (int i = 0; i < flows; i++) {
+            entries[i] = new DefaultFlowEntry(DefaultFlowRule.builder()
+                    .forDevice(DEVICE_ID)
+                    .withSelector(DefaultTrafficSelector.builder()
+                                          .matchInPort(PortNumber.portNumber(1))
+                                          .matchEthDst(MacAddress.valueOf((long) i))
+                                          .build())
+                    .withTreatment(DefaultTrafficTreatment.builder()
+                                           .setOutput(PortNumber.portNumber(2))
+                                           .build())
+                    .withPriority(40000)
+                    .fromApp(APP_ID)
+                    .makePermanent()
+                    .build());
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpBucket() {
+        clock = new LogicalClock();
+        bucket = new FlowBucket(new BucketId(DEVICE_ID, 0));
+        for (FlowEntry entry : entries) {
+            bucket.add(entry, TERM, clock);
+        }
+        next = 0;
+    }
+
+    private FlowEntry nextEntry() {
+        FlowEntry entry = entries[next];
+        next = (next + 1) % entries.length;
+        return entry;
+    }
+
+    @Benchmark
+    public void addFlow() {
+        bucket.add(nextEntry(), TERM, clock);
+    }
+
+    @Benchmark
+    public void updateFlow() {
+        bucket.update(nextEntry(), TERM, clock);
+    }
+
+    @Benchmark
+    public int removeAndAddFlow() {
+        FlowEntry entry = nextEntry();
+        bucket.remove(entry, TERM, clock);
+        bucket.add(entry, TERM, clock);
+        return bucket.count();
+    }
+
+    @Benchmark
+    public FlowBucketDigest digest() {
+        return bucket.getDigest();
+    }
+
+    @Benchmark
+    public FlowBucket copy() {
+        return bucket.copy();
+    }
+}
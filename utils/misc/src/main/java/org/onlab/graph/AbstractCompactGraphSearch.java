@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import com.google.common.math.DoubleMath;
+
+import java.util.Arrays;
+
+/**
+ * Base for graph path searches operating on a {@link CompactGraph}.
+ * <p>
+ * Searched graphs are converted to their compact form, unless they are
+ * compact already. The most recently converted immutable graph is retained,
+ * so that consecutive searches over the same graph instance do not pay for
+ * the conversion again. Mutable graphs are converted on every search.
+ * </p>
+ * <p>
+ * The compact searches operate on plain double edge weights and are therefore
+ * only applicable to weighers yielding {@link ScalarWeight scalar weights}.
+ * Searches using any other weights are delegated to the equivalent generic
+ * search.
+ * </p>
+ */
+abstract class AbstractCompactGraphSearch<V extends Vertex, E extends Edge<V>>
+        extends AbstractGraphPathSearch<V, E> {
+
+    private volatile Conversion<V, E> lastConversion;
+
+    /**
+     * Returns the compact form of the specified graph.
+     *
+     * @param graph graph to be searched
+     * @return compact graph
+     */
+    protected CompactGraph<V, E> compact(Graph<V, E> graph) {
+        if (graph instanceof CompactGraph) {
+            return CompactGraph.copyOf(graph);
+        }
+        Conversion<V, E> conversion = lastConversion;
+        if (conversion != null && conversion.graph == graph) {
+            return conversion.compactGraph;
+        }
+        CompactGraph<V, E> compactGraph = new CompactGraph<>(graph);
+        if (!(graph instanceof MutableGraph)) {
+            lastConversion = new Conversion<>(graph, compactGraph);
+        }
+        return compactGraph;
+    }
+
+    /**
+     * Indicates whether the specified edge weigher can be used by the
+     * compact searches.
+     *
+     * @param weigher edge weigher
+     * @return true if the weigher yields scalar weights
+     */
+    protected static boolean isScalar(EdgeWeigher<?, ?> weigher) {
+        return weigher.getInitialWeight() instanceof ScalarWeight;
+    }
+
+    // Association of a searched graph and its compact form.
+    private static final class Conversion<V extends Vertex, E extends Edge<V>> {
+        private final Graph<V, E> graph;
+        private final CompactGraph<V, E> compactGraph;
+
+        private Conversion(Graph<V, E> graph, CompactGraph<V, E> compactGraph) {
+            this.graph = graph;
+            this.compactGraph = compactGraph;
+        }
+    }
+
+    /**
+     * Double edge weights of a compact graph, obtained lazily from a scalar
+     * edge weigher. Each edge is weighed at most once for the lifetime of
+     * this object.
+     */
+    static final class EdgeWeights<V extends Vertex, E extends Edge<V>> {
+        private final CompactGraph<V, E> graph;
+        private final EdgeWeigher<V, E> weigher;
+        private final double[] values;
+        private final double initial;
+        private final double samenessThreshold;
+
+        EdgeWeights(CompactGraph<V, E> graph, EdgeWeigher<V, E> weigher) {
+            this.graph = graph;
+            this.weigher = weigher;
+            this.values = new double[graph.edgeCount()];
+            this.initial = ((ScalarWeight) weigher.getInitialWeight()).value();
+            this.samenessThreshold = ScalarWeight.samenessThreshold();
+            Arrays.fill(values, Double.NaN);
+        }
+
+        /**
+         * Returns the initial weight, i.e. the cost of reaching the source.
+         *
+         * @return initial weight
+         */
+        double initial() {
+            return initial;
+        }
+
+        /**
+         * Returns the weight of the specified edge; non-viable edges are
+         * weighed as positive infinity.
+         *
+         * @param edge edge index
+         * @return edge weight
+         */
+        double weight(int edge) {
+            double value = values[edge];
+            if (Double.isNaN(value)) {
+                value = ((ScalarWeight) weigher.weight(graph.edge(edge))).value();
+                values[edge] = value;
+            }
+            return value;
+        }
+
+        /**
+         * Returns the cost of traversing the specified edges, starting with
+         * the initial weight.
+         *
+         * @param edges edge indexes
+         * @return path cost
+         */
+        double cost(int[] edges) {
+            double cost = initial;
+            for (int edge : edges) {
+                cost += weight(edge);
+            }
+            return cost;
+        }
+
+        /**
+         * Compares two costs the same way as {@link ScalarWeight} does.
+         *
+         * @param cost1 first cost
+         * @param cost2 second cost
+         * @return negative, zero or positive integer as the first cost is
+         * lower, the same as or greater than the second one
+         */
+        int compare(double cost1, double cost2) {
+            if (DoubleMath.fuzzyEquals(cost1, cost2, samenessThreshold)) {
+                return 0;
+            }
+            return Double.compare(cost1, cost2);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+/**
+ * Implementation of the BFS algorithm operating on a compact graph
+ * representation.
+ * <p>
+ * Vertexes are visited using a primitive queue of vertex indexes. Searches
+ * with weighers that do not produce {@link ScalarWeight scalar weights} are
+ * delegated to {@link BreadthFirstSearch}.
+ * </p>
+ */
+public class CompactBreadthFirstSearch<V extends Vertex, E extends Edge<V>>
+        extends AbstractCompactGraphSearch<V, E> {
+
+    private final BreadthFirstSearch<V, E> fallback = new BreadthFirstSearch<>();
+
+    @Override
+    protected Result<V, E> internalSearch(Graph<V, E> graph, V src, V dst,
+                                          EdgeWeigher<V, E> weigher, int maxPaths) {
+        if (!isScalar(weigher)) {
+            return fallback.internalSearch(graph, src, dst, weigher, maxPaths);
+        }
+
+        CompactGraph<V, E> compactGraph = compact(graph);
+        EdgeWeights<V, E> weights = new EdgeWeights<>(compactGraph, weigher);
+        int n = compactGraph.vertexCount();
+        int target = dst != null ? compactGraph.indexOf(dst) : -1;
+
+        boolean[] visited = new boolean[n];
+        double[] costs = new double[n];
+        int[] parents = new int[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+
+        // Setup the queue with the source as the sole vertex.
+        int source = compactGraph.indexOf(src);
+        visited[source] = true;
+        costs[source] = weights.initial();
+        parents[source] = -1;
+        queue[tail++] = source;
+
+        boolean reachedEnd = false;
+        while (!reachedEnd && head < tail) {
+            int vertex = queue[head++];
+
+            // Visit all egress edges of the current vertex.
+            for (int e = compactGraph.egressStart(vertex); e < compactGraph.egressEnd(vertex); e++) {
+                int next = compactGraph.target(e);
+                if (!visited[next]) {
+                    // If this vertex has not been visited yet, update it.
+                    visited[next] = true;
+                    costs[next] = costs[vertex] + weights.weight(e);
+                    parents[next] = e;
+                    // If we have reached our intended destination, bail.
+                    if (next == target) {
+                        reachedEnd = true;
+                        break;
+                    }
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        // Finally, put the paths on the search result and return.
+        DefaultResult result = new DefaultResult(src, dst, maxPaths);
+        for (int v = 0; v < n; v++) {
+            if (visited[v]) {
+                result.updateVertex(compactGraph.vertex(v),
+                                    parents[v] >= 0 ? compactGraph.edge(parents[v]) : null,
+                                    new ScalarWeight(costs[v]), true);
+            }
+        }
+        result.buildPaths();
+        return result;
+    }
+
+}
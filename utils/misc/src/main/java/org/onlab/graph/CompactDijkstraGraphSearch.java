@@ -0,0 +1,324 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra shortest-path graph search algorithm operating on a compact graph
+ * representation; like {@link DijkstraGraphSearch} it is capable of finding
+ * not just one, but all shortest paths between the source and destinations.
+ * <p>
+ * Costs are tracked as primitive doubles indexed by vertex and the nearest
+ * vertexes are retrieved using an indexed binary heap, so the search itself
+ * does not allocate any objects per visited vertex or relaxed edge. Searches
+ * with weighers that do not produce {@link ScalarWeight scalar weights} are
+ * delegated to {@link DijkstraGraphSearch}.
+ * </p>
+ */
+public class CompactDijkstraGraphSearch<V extends Vertex, E extends Edge<V>>
+        extends AbstractCompactGraphSearch<V, E> {
+
+    private final DijkstraGraphSearch<V, E> fallback = new DijkstraGraphSearch<>();
+
+    @Override
+    protected Result<V, E> internalSearch(Graph<V, E> graph, V src, V dst,
+                                          EdgeWeigher<V, E> weigher, int maxPaths) {
+        if (!isScalar(weigher)) {
+            return fallback.internalSearch(graph, src, dst, weigher, maxPaths);
+        }
+
+        CompactGraph<V, E> compactGraph = compact(graph);
+        EdgeWeights<V, E> weights = new EdgeWeights<>(compactGraph, weigher);
+        ShortestPathTree tree = new ShortestPathTree(compactGraph);
+        tree.search(weights, compactGraph.indexOf(src),
+                    dst != null ? compactGraph.indexOf(dst) : -1,
+                    maxPaths, null, null);
+
+        // Transfer the costs and parent edges of all reached vertexes to the
+        // default result and then construct a set of paths from it.
+        DefaultResult result = new DefaultResult(src, dst, maxPaths);
+        for (int v = 0; v < compactGraph.vertexCount(); v++) {
+            if (tree.isReached(v)) {
+                V vertex = compactGraph.vertex(v);
+                Weight cost = new ScalarWeight(tree.cost(v));
+                result.updateVertex(vertex, null, cost, false);
+                for (int p = tree.parentHead[v]; p >= 0; p = tree.parentNext[p]) {
+                    result.updateVertex(vertex, compactGraph.edge(tree.parentEdge[p]),
+                                        cost, false);
+                }
+            }
+        }
+        result.buildPaths();
+        return result;
+    }
+
+    /**
+     * Shortest-path tree, or rather directed acyclic graph in case of multiple
+     * equal-cost parents, computed over a compact graph. The tree can be
+     * reused for any number of consecutive searches over the same graph.
+     */
+    static final class ShortestPathTree {
+        private final CompactGraph<?, ?> graph;
+
+        private final double[] costs;
+        private final IndexedMinHeap queue;
+
+        // Parent edges of each vertex are kept as singly-linked lists of
+        // nodes stored in the parentEdge/parentNext arrays.
+        private final int[] parentHead;
+        private final int[] parentCount;
+        private int[] parentEdge;
+        private int[] parentNext;
+        private int nodeCount;
+
+        ShortestPathTree(CompactGraph<?, ?> graph) {
+            this.graph = graph;
+            int n = graph.vertexCount();
+            int m = Math.max(graph.edgeCount(), 1);
+            costs = new double[n];
+            queue = new IndexedMinHeap(costs);
+            parentHead = new int[n];
+            parentCount = new int[n];
+            parentEdge = new int[m];
+            parentNext = new int[m];
+        }
+
+        /**
+         * Computes the shortest paths from the given source vertex.
+         *
+         * @param weights         edge weights
+         * @param src             source vertex index
+         * @param dst             destination vertex index; -1 to compute
+         *                        paths to all reachable vertexes
+         * @param maxPaths        limit on the number of parent edges retained
+         *                        per vertex; {@link GraphPathSearch#ALL_PATHS}
+         *                        if no limit
+         * @param removedEdges    optional mask of edges to be ignored
+         * @param removedVertexes optional mask of vertexes to be ignored
+         */
+        void search(EdgeWeights<?, ?> weights, int src, int dst, int maxPaths,
+                    boolean[] removedEdges, boolean[] removedVertexes) {
+            Arrays.fill(costs, Double.POSITIVE_INFINITY);
+            Arrays.fill(parentHead, -1);
+            Arrays.fill(parentCount, 0);
+            nodeCount = 0;
+            queue.clear();
+
+            costs[src] = weights.initial();
+            queue.offer(src);
+
+            while (!queue.isEmpty()) {
+                // Once the destination has been settled, keep going only
+                // while there are vertexes as near as the destination, as
+                // these may still yield alternate equal-cost paths.
+                int nearest = queue.poll();
+                double cost = costs[nearest];
+                if (dst >= 0 && queue.settled(dst) && weights.compare(cost, costs[dst]) > 0) {
+                    break;
+                }
+
+                for (int e = graph.egressStart(nearest); e < graph.egressEnd(nearest); e++) {
+                    if (removedEdges != null && removedEdges[e]) {
+                        continue;
+                    }
+                    int v = graph.target(e);
+                    if (removedVertexes != null && removedVertexes[v]) {
+                        continue;
+                    }
+                    double hopCost = weights.weight(e);
+                    if (hopCost == Double.POSITIVE_INFINITY || hopCost < 0) {
+                        continue;
+                    }
+
+                    double newCost = cost + hopCost;
+                    int compareResult = isReached(v) ? weights.compare(newCost, costs[v]) : -1;
+                    if (compareResult < 0) {
+                        costs[v] = newCost;
+                        parentHead[v] = -1;
+                        parentCount[v] = 0;
+                        addParent(v, e, maxPaths);
+                        queue.offer(v);
+                    } else if (compareResult == 0) {
+                        addParent(v, e, maxPaths);
+                    }
+                }
+            }
+        }
+
+        // Records the given edge as another parent of the specified vertex.
+        private void addParent(int v, int edge, int maxPaths) {
+            if (maxPaths != GraphPathSearch.ALL_PATHS && parentCount[v] >= maxPaths) {
+                return;
+            }
+            if (nodeCount == parentEdge.length) {
+                parentEdge = Arrays.copyOf(parentEdge, nodeCount * 2);
+                parentNext = Arrays.copyOf(parentNext, nodeCount * 2);
+            }
+            parentEdge[nodeCount] = edge;
+            parentNext[nodeCount] = parentHead[v];
+            parentHead[v] = nodeCount++;
+            parentCount[v]++;
+        }
+
+        /**
+         * Indicates whether the specified vertex has been reached.
+         *
+         * @param v vertex index
+         * @return true if the vertex has a cost
+         */
+        boolean isReached(int v) {
+            return costs[v] != Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Returns the cost of reaching the specified vertex.
+         *
+         * @param v vertex index
+         * @return vertex cost; positive infinity if not reached
+         */
+        double cost(int v) {
+            return costs[v];
+        }
+
+        /**
+         * Returns a single path between the given vertexes, following the
+         * most recently recorded parent edges.
+         *
+         * @param src source vertex index
+         * @param dst destination vertex index
+         * @return edge indexes of the path; null if there is none
+         */
+        int[] path(int src, int dst) {
+            if (src == dst || !isReached(dst)) {
+                return null;
+            }
+            int length = 0;
+            for (int v = dst; v != src; v = graph.source(parentEdge[parentHead[v]])) {
+                if (parentHead[v] < 0 || length == costs.length) {
+                    return null;
+                }
+                length++;
+            }
+            int[] edges = new int[length];
+            for (int v = dst; v != src; v = graph.source(edges[length])) {
+                edges[--length] = parentEdge[parentHead[v]];
+            }
+            return edges;
+        }
+    }
+
+    /**
+     * Binary min-heap of vertex indexes ordered by their costs, with support
+     * for decreasing the cost of queued vertexes. Ties are broken using the
+     * vertex index to keep the search order deterministic.
+     */
+    private static final class IndexedMinHeap {
+        private final double[] keys;
+        private final int[] heap;
+        private final int[] positions;
+        private int size;
+
+        private IndexedMinHeap(double[] keys) {
+            this.keys = keys;
+            this.heap = new int[keys.length];
+            this.positions = new int[keys.length];
+            Arrays.fill(positions, -1);
+        }
+
+        // Indicates whether the vertex has been reached and polled already.
+        private boolean settled(int v) {
+            return positions[v] < 0 && keys[v] != Double.POSITIVE_INFINITY;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void clear() {
+            for (int i = 0; i < size; i++) {
+                positions[heap[i]] = -1;
+            }
+            size = 0;
+        }
+
+        // Inserts the vertex or restores the heap order after its cost
+        // has been lowered.
+        private void offer(int v) {
+            int i = positions[v];
+            if (i < 0) {
+                i = size++;
+                heap[i] = v;
+                positions[v] = i;
+            }
+            siftUp(i);
+        }
+
+        private int poll() {
+            int top = heap[0];
+            positions[top] = -1;
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                positions[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private boolean less(int a, int b) {
+            return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+        }
+
+        private void siftUp(int i) {
+            int v = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                int p = heap[parent];
+                if (!less(v, p)) {
+                    break;
+                }
+                heap[i] = p;
+                positions[p] = i;
+                i = parent;
+            }
+            heap[i] = v;
+            positions[v] = i;
+        }
+
+        private void siftDown(int i) {
+            int v = heap[i];
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int c = heap[child];
+                int right = child + 1;
+                if (right < size && less(heap[right], c)) {
+                    child = right;
+                    c = heap[child];
+                }
+                if (!less(c, v)) {
+                    break;
+                }
+                heap[i] = c;
+                positions[c] = i;
+                i = child;
+            }
+            heap[i] = v;
+            positions[v] = i;
+        }
+    }
+}
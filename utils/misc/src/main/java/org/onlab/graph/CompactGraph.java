@@ -0,0 +1,308 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable graph implemented using integer-indexed vertexes and compressed
+ * sparse row (CSR) edge arrays.
+ * <p>
+ * Every vertex is assigned a dense index in {@code [0, vertexCount())} and
+ * every edge a dense index in {@code [0, edgeCount())}. Edges are ordered by
+ * the index of their source vertex, so the egress edges of a vertex occupy a
+ * contiguous range of edge indexes. This allows the compact path searches to
+ * walk the graph using primitive arrays only.
+ * </p>
+ *
+ * @param <V> vertex type
+ * @param <E> edge type
+ */
+public final class CompactGraph<V extends Vertex, E extends Edge<V>>
+        implements Graph<V, E> {
+
+    private final Set<V> vertexSet;
+    private final Set<E> edgeSet;
+
+    private final Object[] vertexes;
+    private final Map<?, Integer> indexes;
+
+    private final Object[] edges;
+    private final int[] sources;
+    private final int[] targets;
+
+    // Egress edges of vertex v are [egressOffsets[v], egressOffsets[v + 1])
+    private final int[] egressOffsets;
+
+    // Ingress edges of vertex v are ingressEdges[ingressOffsets[v]] up to,
+    // but excluding, ingressEdges[ingressOffsets[v + 1]]
+    private final int[] ingressOffsets;
+    private final int[] ingressEdges;
+
+    /**
+     * Creates a compact copy of the specified graph.
+     *
+     * @param graph graph to be copied
+     */
+    public CompactGraph(Graph<V, E> graph) {
+        checkNotNull(graph, "Graph cannot be null");
+
+        // Make sure that all edge end-points are added as vertexes
+        ImmutableSet.Builder<V> actualVertexes = ImmutableSet.builder();
+        actualVertexes.addAll(graph.getVertexes());
+        for (E edge : graph.getEdges()) {
+            actualVertexes.add(edge.src());
+            actualVertexes.add(edge.dst());
+        }
+        this.vertexSet = actualVertexes.build();
+        this.edgeSet = ImmutableSet.copyOf(graph.getEdges());
+
+        int vertexCount = vertexSet.size();
+        int edgeCount = edgeSet.size();
+
+        vertexes = new Object[vertexCount];
+        Map<V, Integer> vertexIndexes = new HashMap<>(vertexCount * 2);
+        int i = 0;
+        for (V vertex : vertexSet) {
+            vertexes[i] = vertex;
+            vertexIndexes.put(vertex, i++);
+        }
+        indexes = vertexIndexes;
+
+        // Count the egress and ingress edges of each vertex first...
+        egressOffsets = new int[vertexCount + 1];
+        ingressOffsets = new int[vertexCount + 1];
+        for (E edge : edgeSet) {
+            egressOffsets[indexes.get(edge.src()) + 1]++;
+            ingressOffsets[indexes.get(edge.dst()) + 1]++;
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            egressOffsets[v + 1] += egressOffsets[v];
+            ingressOffsets[v + 1] += ingressOffsets[v];
+        }
+
+        // ...and then place each edge into its row.
+        edges = new Object[edgeCount];
+        sources = new int[edgeCount];
+        targets = new int[edgeCount];
+        ingressEdges = new int[edgeCount];
+        int[] egressFill = new int[vertexCount];
+        int[] ingressFill = new int[vertexCount];
+        for (E edge : edgeSet) {
+            int src = indexes.get(edge.src());
+            int dst = indexes.get(edge.dst());
+            int e = egressOffsets[src] + egressFill[src]++;
+            edges[e] = edge;
+            sources[e] = src;
+            targets[e] = dst;
+            ingressEdges[ingressOffsets[dst] + ingressFill[dst]++] = e;
+        }
+    }
+
+    // Creates a compact graph sharing the immutable arrays of the specified
+    // compact graph; the vertexes and edges are taken through the typed
+    // graph, rather than assumed to be of this graph's types.
+    private CompactGraph(Graph<V, E> graph, CompactGraph<?, ?> compact) {
+        this.vertexSet = ImmutableSet.copyOf(graph.getVertexes());
+        this.edgeSet = ImmutableSet.copyOf(graph.getEdges());
+        this.vertexes = compact.vertexes;
+        this.indexes = compact.indexes;
+        this.edges = compact.edges;
+        this.sources = compact.sources;
+        this.targets = compact.targets;
+        this.egressOffsets = compact.egressOffsets;
+        this.ingressOffsets = compact.ingressOffsets;
+        this.ingressEdges = compact.ingressEdges;
+    }
+
+    /**
+     * Returns a compact graph with the same vertexes and edges as the
+     * specified graph, sharing the edge arrays rather than rebuilding them
+     * if the graph is already compact.
+     *
+     * @param graph graph to be copied
+     * @param <V>   vertex type
+     * @param <E>   edge type
+     * @return compact graph
+     */
+    public static <V extends Vertex, E extends Edge<V>> CompactGraph<V, E> copyOf(Graph<V, E> graph) {
+        checkNotNull(graph, "Graph cannot be null");
+        return graph instanceof CompactGraph ?
+                new CompactGraph<>(graph, (CompactGraph<?, ?>) graph) : new CompactGraph<>(graph);
+    }
+
+    /**
+     * Returns the number of vertexes in the graph.
+     *
+     * @return vertex count
+     */
+    public int vertexCount() {
+        return vertexes.length;
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     *
+     * @return edge count
+     */
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    /**
+     * Returns the index of the specified vertex.
+     *
+     * @param vertex vertex
+     * @return vertex index; -1 if the vertex is not in the graph
+     */
+    public int indexOf(V vertex) {
+        Integer index = indexes.get(vertex);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Returns the vertex with the specified index.
+     *
+     * @param index vertex index
+     * @return vertex
+     */
+    @SuppressWarnings("unchecked")
+    public V vertex(int index) {
+        return (V) vertexes[index];
+    }
+
+    /**
+     * Returns the edge with the specified index.
+     *
+     * @param index edge index
+     * @return edge
+     */
+    @SuppressWarnings("unchecked")
+    public E edge(int index) {
+        return (E) edges[index];
+    }
+
+    /**
+     * Returns the index of the source vertex of the specified edge.
+     *
+     * @param edge edge index
+     * @return source vertex index
+     */
+    public int source(int edge) {
+        return sources[edge];
+    }
+
+    /**
+     * Returns the index of the destination vertex of the specified edge.
+     *
+     * @param edge edge index
+     * @return destination vertex index
+     */
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Returns the index of the first egress edge of the specified vertex.
+     *
+     * @param vertex vertex index
+     * @return first egress edge index
+     */
+    public int egressStart(int vertex) {
+        return egressOffsets[vertex];
+    }
+
+    /**
+     * Returns the index following the last egress edge of the specified
+     * vertex.
+     *
+     * @param vertex vertex index
+     * @return egress edge index upper bound, exclusive
+     */
+    public int egressEnd(int vertex) {
+        return egressOffsets[vertex + 1];
+    }
+
+    @Override
+    public Set<V> getVertexes() {
+        return vertexSet;
+    }
+
+    @Override
+    public Set<E> getEdges() {
+        return edgeSet;
+    }
+
+    @Override
+    public Set<E> getEdgesFrom(V src) {
+        int v = indexOf(src);
+        if (v < 0) {
+            return ImmutableSet.of();
+        }
+        ImmutableSet.Builder<E> builder = ImmutableSet.builder();
+        for (int e = egressOffsets[v]; e < egressOffsets[v + 1]; e++) {
+            builder.add(edge(e));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Set<E> getEdgesTo(V dst) {
+        int v = indexOf(dst);
+        if (v < 0) {
+            return ImmutableSet.of();
+        }
+        ImmutableSet.Builder<E> builder = ImmutableSet.builder();
+        for (int i = ingressOffsets[v]; i < ingressOffsets[v + 1]; i++) {
+            builder.add(edge(ingressEdges[i]));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(vertexSet, edgeSet);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof CompactGraph) {
+            CompactGraph<?, ?> that = (CompactGraph<?, ?>) obj;
+            return Objects.equals(this.vertexSet, that.vertexSet) &&
+                    Objects.equals(this.edgeSet, that.edgeSet);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("vertexes", vertexSet)
+                .add("edges", edgeSet)
+                .toString();
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.onlab.graph.CompactDijkstraGraphSearch.ShortestPathTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Runs Yen's K shortest paths algorithm on a compact graph representation.
+ * Iteration through the returned paths will return paths in ascending order
+ * according to the provided edge weigher.
+ * <p>
+ * Edges and vertexes excluded from the spur path searches are masked using
+ * primitive arrays rather than by wrapping the edge weigher, every edge is
+ * weighed at most once per search and the same shortest-path tree storage is
+ * reused by all spur path searches. Candidate paths found more than once are
+ * only considered once. Searches with weighers that do not produce
+ * {@link ScalarWeight scalar weights}, or without a destination, are
+ * delegated to {@link KShortestPathsSearch}.
+ * </p>
+ */
+public class CompactKShortestPathsSearch<V extends Vertex, E extends Edge<V>>
+        extends AbstractCompactGraphSearch<V, E> {
+
+    private final KShortestPathsSearch<V, E> fallback = new KShortestPathsSearch<>();
+
+    @Override
+    protected Result<V, E> internalSearch(Graph<V, E> graph, V src, V dst,
+                                          EdgeWeigher<V, E> weigher, int maxPaths) {
+        checkArgument(maxPaths != ALL_PATHS, "KShortestPath search cannot " +
+                "be used with ALL_PATHS.");
+        checkArgument(maxPaths > 0, "The max number of paths must be greater" +
+                " than 0");
+        if (!isScalar(weigher) || dst == null) {
+            return fallback.internalSearch(graph, src, dst, weigher, maxPaths);
+        }
+
+        CompactGraph<V, E> compactGraph = compact(graph);
+        EdgeWeights<V, E> weights = new EdgeWeights<>(compactGraph, weigher);
+        ShortestPathTree tree = new ShortestPathTree(compactGraph);
+        boolean[] removedEdges = new boolean[compactGraph.edgeCount()];
+        boolean[] removedVertexes = new boolean[compactGraph.vertexCount()];
+        int source = compactGraph.indexOf(src);
+        int target = compactGraph.indexOf(dst);
+
+        List<int[]> resultPaths = new ArrayList<>(maxPaths);
+        List<Candidate> potentialPaths = new ArrayList<>();
+
+        tree.search(weights, source, target, 1, null, null);
+        int[] shortestPath = tree.path(source, target);
+        if (shortestPath != null) {
+            resultPaths.add(shortestPath);
+        }
+
+        for (int k = 1; k < maxPaths && !resultPaths.isEmpty(); k++) {
+            int[] previous = resultPaths.get(k - 1);
+
+            for (int i = 0; i < previous.length; i++) {
+                int spurNode = compactGraph.source(previous[i]);
+
+                // Mask the next edge of all result paths sharing the root path
+                for (int[] path : resultPaths) {
+                    if (path.length > i && prefixEquals(path, previous, i)) {
+                        removedEdges[path[i]] = true;
+                    }
+                }
+
+                // Effectively remove all nodes of the root path
+                for (int j = 0; j < i; j++) {
+                    removedVertexes[compactGraph.source(previous[j])] = true;
+                }
+
+                tree.search(weights, spurNode, target, 1, removedEdges, removedVertexes);
+                int[] spurPath = tree.path(spurNode, target);
+                if (spurPath != null) {
+                    int[] totalPath = Arrays.copyOf(previous, i + spurPath.length);
+                    System.arraycopy(spurPath, 0, totalPath, i, spurPath.length);
+                    if (!isKnown(totalPath, resultPaths, potentialPaths)) {
+                        potentialPaths.add(new Candidate(totalPath, weights.cost(totalPath)));
+                    }
+                }
+
+                // Restore all removed edges and nodes
+                for (int[] path : resultPaths) {
+                    if (path.length > i) {
+                        removedEdges[path[i]] = false;
+                    }
+                }
+                for (int j = 0; j < i; j++) {
+                    removedVertexes[compactGraph.source(previous[j])] = false;
+                }
+            }
+
+            if (potentialPaths.isEmpty()) {
+                break;
+            }
+            resultPaths.add(potentialPaths.remove(cheapest(potentialPaths, weights)).edges);
+        }
+
+        OrderedResult result = new OrderedResult(src, dst, maxPaths);
+        for (int[] path : resultPaths) {
+            ImmutableList.Builder<E> edges = ImmutableList.builder();
+            for (int edge : path) {
+                edges.add(compactGraph.edge(edge));
+            }
+            result.pathSet.add(new DefaultPath<>(edges.build(),
+                                                 new ScalarWeight(weights.cost(path))));
+        }
+        return result;
+    }
+
+    // Indicates whether the first length edges of both paths are the same.
+    private static boolean prefixEquals(int[] path1, int[] path2, int length) {
+        for (int i = 0; i < length; i++) {
+            if (path1[i] != path2[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Indicates whether the path is already among the results or candidates.
+    private static boolean isKnown(int[] path, List<int[]> resultPaths,
+                                   List<Candidate> potentialPaths) {
+        for (int[] resultPath : resultPaths) {
+            if (Arrays.equals(path, resultPath)) {
+                return true;
+            }
+        }
+        for (Candidate candidate : potentialPaths) {
+            if (Arrays.equals(path, candidate.edges)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns the index of the first of the lowest cost candidates.
+    private static int cheapest(List<Candidate> potentialPaths, EdgeWeights<?, ?> weights) {
+        int cheapest = 0;
+        for (int i = 1; i < potentialPaths.size(); i++) {
+            if (weights.compare(potentialPaths.get(i).cost,
+                                potentialPaths.get(cheapest).cost) < 0) {
+                cheapest = i;
+            }
+        }
+        return cheapest;
+    }
+
+    // Candidate path given by its edge indexes.
+    private static final class Candidate {
+        private final int[] edges;
+        private final double cost;
+
+        private Candidate(int[] edges, double cost) {
+            this.edges = edges;
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * A result returning paths in the order in which they were found.
+     */
+    private final class OrderedResult extends DefaultResult {
+
+        private final ImmutableSet.Builder<Path<V, E>> pathSet = ImmutableSet.builder();
+
+        private OrderedResult(V src, V dst, int maxPaths) {
+            super(src, dst, maxPaths);
+        }
+
+        @Override
+        public Set<Path<V, E>> paths() {
+            return pathSet.build();
+        }
+    }
+}
@@ -23,8 +23,10 @@ import org.slf4j.Logger;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -39,10 +41,29 @@ public class KShortestPathsSearch<V extends Vertex, E extends Edge<V>> extends A
 
     private final Logger log = getLogger(getClass());
 
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a K shortest paths search computing spur paths sequentially.
+     */
+    public KShortestPathsSearch() {
+        this(null);
+    }
+
+    /**
+     * Creates a K shortest paths search computing the spur paths of each
+     * iteration in parallel, using the specified fork-join pool. The search
+     * results are the same as those of a sequential search.
+     *
+     * @param pool fork-join pool; null to compute spur paths sequentially
+     */
+    public KShortestPathsSearch(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
     @Override
     protected Result<V, E> internalSearch(Graph<V, E> graph, V src, V dst, EdgeWeigher<V, E> weigher, int maxPaths) {
-        //The modified edge weigher removes any need to modify the original graph
-        InnerEdgeWeigher modifiedWeighter = new InnerEdgeWeigher(checkNotNull(weigher));
+        checkNotNull(weigher);
         checkArgument(maxPaths != ALL_PATHS, "KShortestPath search cannot" +
                 "be used with ALL_PATHS.");
         checkArgument(maxPaths > 0, "The max number of paths must be greater" +
@@ -54,7 +75,7 @@ public class KShortestPathsSearch<V extends Vertex, E extends Edge<V>> extends A
         ArrayList<Path<V, E>> potentialPaths = Lists.newArrayList();
 
         DijkstraGraphSearch<V, E> dijkstraSearch = new DijkstraGraphSearch<>();
-        Set<Path<V, E>> dijkstraResults = dijkstraSearch.search(originalGraph, src, dst, modifiedWeighter, 1).paths();
+        Set<Path<V, E>> dijkstraResults = dijkstraSearch.search(originalGraph, src, dst, weigher, 1).paths();
         //Checks if the dst was reachable
         if (dijkstraResults.isEmpty()) {
             log.warn("No path was found.");
@@ -64,37 +85,13 @@ public class KShortestPathsSearch<V extends Vertex, E extends Edge<V>> extends A
         resultPaths.add(dijkstraResults.iterator().next());
 
         for (int k = 1; k < maxPaths; k++) {
+            Path<V, E> previousPath = resultPaths.get(k - 1);
+
+            //Spur paths are independent of each other; collect them in the order of their spur nodes
+            List<Path<V, E>> spurPaths = ParallelSearchTasks.map(pool, previousPath.edges().size(),
+                    i -> spurPath(dijkstraSearch, originalGraph, dst, weigher, resultPaths, previousPath, i));
+            spurPaths.stream().filter(Objects::nonNull).forEach(potentialPaths::add);
 
-            for (int i = 0; i < resultPaths.get(k - 1).edges().size(); i++) {
-                V spurNode = resultPaths.get(k - 1).edges().get(i).src();
-                List<E> rootPathEdgeList = resultPaths.get(k - 1).edges().subList(0, i);
-
-                for (Path<V, E> path : resultPaths) {
-                    if (path.edges().size() >= i && edgeListsAreEqual(rootPathEdgeList, path.edges().subList(0, i))) {
-                        modifiedWeighter.removedEdges.add(path.edges().get(i));
-                    }
-                }
-
-                //Effectively remove all nodes from the source path
-                for (E edge : rootPathEdgeList) {
-                    originalGraph.getEdgesFrom(edge.src()).forEach(e -> modifiedWeighter.removedEdges.add(e));
-                    originalGraph.getEdgesTo(edge.src()).forEach(e -> modifiedWeighter.removedEdges.add(e));
-                }
-
-                dijkstraResults = dijkstraSearch.search(originalGraph, spurNode, dst, modifiedWeighter, 1).paths();
-                if (!dijkstraResults.isEmpty()) {
-                    Path<V, E> spurPath = dijkstraResults.iterator().next();
-                    List<E> totalPath = new ArrayList<>(rootPathEdgeList);
-                    spurPath.edges().forEach(totalPath::add);
-                    //The following line must use the original weigher not the modified weigher because the modified
-                    //weigher will count -1 values used for modifying the graph and return an inaccurate cost.
-                    potentialPaths.add(new DefaultPath<>(totalPath,
-                            calculatePathCost(weigher, totalPath)));
-                }
-
-                //Restore all removed paths and nodes
-                modifiedWeighter.removedEdges.clear();
-            }
             if (potentialPaths.isEmpty()) {
                 break;
             }
@@ -106,6 +103,41 @@ public class KShortestPathsSearch<V extends Vertex, E extends Edge<V>> extends A
 
         return result;
     }
+
+    // Computes the candidate path deviating from the previous path at the i-th node.
+    private Path<V, E> spurPath(DijkstraGraphSearch<V, E> dijkstraSearch, Graph<V, E> originalGraph,
+                                V dst, EdgeWeigher<V, E> weigher,
+                                List<Path<V, E>> resultPaths, Path<V, E> previousPath, int i) {
+        //The modified edge weigher removes any need to modify the original graph
+        InnerEdgeWeigher modifiedWeighter = new InnerEdgeWeigher(weigher);
+        V spurNode = previousPath.edges().get(i).src();
+        List<E> rootPathEdgeList = previousPath.edges().subList(0, i);
+
+        for (Path<V, E> path : resultPaths) {
+            if (path.edges().size() >= i && edgeListsAreEqual(rootPathEdgeList, path.edges().subList(0, i))) {
+                modifiedWeighter.removedEdges.add(path.edges().get(i));
+            }
+        }
+
+        //Effectively remove all nodes from the source path
+        for (E edge : rootPathEdgeList) {
+            originalGraph.getEdgesFrom(edge.src()).forEach(e -> modifiedWeighter.removedEdges.add(e));
+            originalGraph.getEdgesTo(edge.src()).forEach(e -> modifiedWeighter.removedEdges.add(e));
+        }
+
+        Set<Path<V, E>> dijkstraResults =
+                dijkstraSearch.search(originalGraph, spurNode, dst, modifiedWeighter, 1).paths();
+        if (dijkstraResults.isEmpty()) {
+            return null;
+        }
+        Path<V, E> spurPath = dijkstraResults.iterator().next();
+        List<E> totalPath = new ArrayList<>(rootPathEdgeList);
+        spurPath.edges().forEach(totalPath::add);
+        //The following line must use the original weigher not the modified weigher because the modified
+        //weigher will count -1 values used for modifying the graph and return an inaccurate cost.
+        return new DefaultPath<>(totalPath, calculatePathCost(weigher, totalPath));
+    }
+
     //Edge list equality is judges by shared endpoints, and shared endpoints should be the same
     private boolean edgeListsAreEqual(List<E> edgeListOne, List<E> edgeListTwo) {
         if (edgeListOne.size() != edgeListTwo.size()) {
@@ -23,10 +23,12 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -45,6 +47,27 @@ public class LazyKShortestPathsSearch<V extends Vertex, E extends Edge<V>> {
 
     private final GraphPathSearch<V, E> shortest = new DijkstraGraphSearch<>();
 
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a lazy K shortest paths search computing spur paths
+     * sequentially.
+     */
+    public LazyKShortestPathsSearch() {
+        this(null);
+    }
+
+    /**
+     * Creates a lazy K shortest paths search computing the spur paths of
+     * each subsequent path in parallel, using the specified fork-join pool.
+     * The searched paths are the same as those of a sequential search.
+     *
+     * @param pool fork-join pool; null to compute spur paths sequentially
+     */
+    public LazyKShortestPathsSearch(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
     /**
      * Searches the specified graph for paths between vertices.
      *
@@ -78,8 +101,6 @@ public class LazyKShortestPathsSearch<V extends Vertex, E extends Edge<V>> {
         final V dst;
         final EdgeWeigher<V, E> weigher;
 
-        final InnerEdgeWeigher maskingWeigher;
-
         final List<Path<V, E>> resultPaths = new ArrayList<>(); // A
         final Queue<Path<V, E>> potentialPaths = new PriorityQueue<>(pathComparator); // B
 
@@ -93,7 +114,6 @@ public class LazyKShortestPathsSearch<V extends Vertex, E extends Edge<V>> {
             this.dst = checkNotNull(dst);
             this.weigher = checkNotNull(weigher);
 
-            maskingWeigher = new InnerEdgeWeigher(weigher);
             next = Suppliers.ofInstance(
                         shortest.search(graph, src, dst, weigher, 1)
                             .paths().stream().findFirst().orElse(null));
@@ -122,37 +142,12 @@ public class LazyKShortestPathsSearch<V extends Vertex, E extends Edge<V>> {
         private Path<V, E> computeNext(Path<V, E> lastPath) {
             /// following is basically Yen's k-shortest path algorithm
 
-            // start searching for next path
-            for (int i = 0; i < lastPath.edges().size(); i++) {
-                V spurNode = lastPath.edges().get(i).src();
-                List<E> rootPathEdgeList = lastPath.edges().subList(0, i);
-
-                for (Path<V, E> path : resultPaths) {
-                    if (path.edges().size() >= i &&
-                        rootPathEdgeList.equals(path.edges().subList(0, i))) {
-                        maskingWeigher.excluded.add(path.edges().get(i));
-                    }
-                }
-
-                // Effectively remove all root path nodes other than spurNode
-                rootPathEdgeList.forEach(edge -> {
-                    maskingWeigher.excluded.addAll(graph.getEdgesFrom(edge.src()));
-                    maskingWeigher.excluded.addAll(graph.getEdgesTo(edge.src()));
-                });
-
-                shortest.search(graph, spurNode, dst, maskingWeigher, 1)
-                        .paths().stream().findAny().ifPresent(spurPath -> {
-
-                            List<E> totalPath = ImmutableList.<E>builder()
-                                    .addAll(rootPathEdgeList)
-                                    .addAll(spurPath.edges())
-                                    .build();
-                            potentialPaths.add(path(totalPath));
-                });
-
-                // Restore all removed paths and nodes
-                maskingWeigher.excluded.clear();
-            }
+            // start searching for next path; spur paths are independent of
+            // each other, so collect them in the order of their spur nodes
+            ParallelSearchTasks.map(pool, lastPath.edges().size(), i -> spurPath(lastPath, i))
+                    .stream()
+                    .filter(Objects::nonNull)
+                    .forEach(potentialPaths::add);
 
             if (potentialPaths.isEmpty()) {
                 return null;
@@ -161,6 +156,33 @@ public class LazyKShortestPathsSearch<V extends Vertex, E extends Edge<V>> {
             }
         }
 
+        private Path<V, E> spurPath(Path<V, E> lastPath, int i) {
+            InnerEdgeWeigher maskingWeigher = new InnerEdgeWeigher(weigher);
+            V spurNode = lastPath.edges().get(i).src();
+            List<E> rootPathEdgeList = lastPath.edges().subList(0, i);
+
+            for (Path<V, E> path : resultPaths) {
+                if (path.edges().size() >= i &&
+                    rootPathEdgeList.equals(path.edges().subList(0, i))) {
+                    maskingWeigher.excluded.add(path.edges().get(i));
+                }
+            }
+
+            // Effectively remove all root path nodes other than spurNode
+            rootPathEdgeList.forEach(edge -> {
+                maskingWeigher.excluded.addAll(graph.getEdgesFrom(edge.src()));
+                maskingWeigher.excluded.addAll(graph.getEdgesTo(edge.src()));
+            });
+
+            return shortest.search(graph, spurNode, dst, maskingWeigher, 1)
+                    .paths().stream().findAny()
+                    .map(spurPath -> path(ImmutableList.<E>builder()
+                                                  .addAll(rootPathEdgeList)
+                                                  .addAll(spurPath.edges())
+                                                  .build()))
+                    .orElse(null);
+        }
+
         private Path<V, E> path(List<E> edges) {
             //The following line must use the original weigher not the modified weigher because the modified
             //weigher will count -1 values used for modifying the graph and return an inaccurate cost.
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Utility for running the independent sub-searches of a graph search,
+ * optionally in parallel using a fork-join pool.
+ */
+final class ParallelSearchTasks {
+
+    // Non-instantiable
+    private ParallelSearchTasks() {
+    }
+
+    /**
+     * Runs the given task for every index in {@code [0, count)} and returns
+     * the task results ordered by index, regardless of the order in which
+     * the tasks were executed. The tasks are run sequentially if the pool
+     * no longer accepts tasks.
+     *
+     * @param pool  fork-join pool; null to run the tasks sequentially
+     * @param count number of tasks
+     * @param task  task producing the result for the given index
+     * @param <T>   result type
+     * @return list of task results in index order
+     */
+    static <T> List<T> map(ForkJoinPool pool, int count, IntFunction<T> task) {
+        if (pool != null && count > 1) {
+            try {
+                return pool.submit(() -> IntStream.range(0, count).parallel()
+                        .mapToObj(task)
+                        .collect(Collectors.toList())).join();
+            } catch (RejectedExecutionException e) {
+                // Pool has been shut down; fall through
+            }
+        }
+        List<T> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(task.apply(i));
+        }
+        return results;
+    }
+}
@@ -24,6 +24,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -33,6 +34,27 @@ import java.util.stream.Collectors;
  */
 public class SuurballeGraphSearch<V extends Vertex, E extends Edge<V>> extends DijkstraGraphSearch<V, E> {
 
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a Suurballe search processing the candidate shortest paths
+     * sequentially.
+     */
+    public SuurballeGraphSearch() {
+        this(null);
+    }
+
+    /**
+     * Creates a Suurballe search processing the candidate shortest paths in
+     * parallel, using the specified fork-join pool. The search results are
+     * the same as those of a sequential search.
+     *
+     * @param pool fork-join pool; null to process shortest paths sequentially
+     */
+    public SuurballeGraphSearch(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
     @Override
     protected Result<V, E> internalSearch(Graph<V, E> graph, V src, V dst,
                                EdgeWeigher<V, E> weigher, int maxPaths) {
@@ -47,132 +69,144 @@ public class SuurballeGraphSearch<V extends Vertex, E extends Edge<V>> extends D
         // paths are indeed disjoint. Temporary fix for this is provided, but
         // the issue needs to be addressed through refactoring.
 
-        EdgeWeigher weightf = weigher;
         DefaultResult firstDijkstraS = (DefaultResult) super.internalSearch(
                 graph, src, dst, weigher, ALL_PATHS);
         DefaultResult firstDijkstra = (DefaultResult) super.internalSearch(
                 graph, src, null, weigher, ALL_PATHS);
 
         //choose an arbitrary shortest path to run Suurballe on
-        Path<V, E> shortPath = null;
         if (firstDijkstraS.paths().isEmpty()) {
             return firstDijkstraS;
         }
 
         DisjointPathResult result = new DisjointPathResult(firstDijkstra, src, dst, maxPaths);
 
-        for (Path p: firstDijkstraS.paths()) {
-            shortPath = p;
-            //transforms the graph so tree edges have 0 weight
-            EdgeWeigher<V, E> modified = new EdgeWeigher<V, E>() {
-                @Override
-                public Weight weight(E edge) {
-                    return edge instanceof ReverseEdge ?
-                            weightf.getInitialWeight() :
-                            (weightf.weight(edge).isNegative() ?
-                                    new ScalarWeight(-1.0) :
-                                    weightf.weight(edge).merge(firstDijkstra.cost(edge.src()))
-                                            .subtract(firstDijkstra.cost(edge.dst())));
-                }
+        //disjoint pairs found for each shortest path are independent of each other;
+        //collect them in the order of the shortest paths
+        List<Path<V, E>> shortPaths = new ArrayList<>(firstDijkstraS.paths());
+        ParallelSearchTasks.map(pool, shortPaths.size(),
+                i -> disjointPathPairs(graph, src, dst, weigher, firstDijkstra, shortPaths.get(i)))
+                .forEach(result.dpps::addAll);
 
-                @Override
-                public Weight getInitialWeight() {
-                    return weightf.getInitialWeight();
-                }
+        for (int i = result.dpps.size() - 1; i > 0; i--) {
+            if (result.dpps.get(i).size() <= 1) {
+                result.dpps.remove(i);
+            }
+        }
 
-                @Override
-                public Weight getNonViableWeight() {
-                    return weightf.getNonViableWeight();
-                }
-            };
+        result.buildPaths();
+        return result;
+    }
 
-            EdgeWeigher<V, E> modified2 = new EdgeWeigher<V, E>() {
-                @Override
-                public Weight weight(E edge) {
-                    return weightf.weight(edge).merge(firstDijkstra.cost(edge.src()))
-                            .subtract(firstDijkstra.cost(edge.dst()));
-                }
+    // Finds the disjoint path pairs starting with the specified shortest path.
+    private List<DisjointPathPair<V, E>> disjointPathPairs(Graph<V, E> graph, V src, V dst,
+                                                            EdgeWeigher<V, E> weigher,
+                                                            DefaultResult firstDijkstra,
+                                                            Path<V, E> shortPath) {
+        EdgeWeigher weightf = weigher;
+        List<DisjointPathPair<V, E>> pairs = new ArrayList<>();
+
+        //transforms the graph so tree edges have 0 weight
+        EdgeWeigher<V, E> modified = new EdgeWeigher<V, E>() {
+            @Override
+            public Weight weight(E edge) {
+                return edge instanceof ReverseEdge ?
+                        weightf.getInitialWeight() :
+                        (weightf.weight(edge).isNegative() ?
+                                new ScalarWeight(-1.0) :
+                                weightf.weight(edge).merge(firstDijkstra.cost(edge.src()))
+                                        .subtract(firstDijkstra.cost(edge.dst())));
+            }
 
-                @Override
-                public Weight getInitialWeight() {
-                    return weightf.getInitialWeight();
-                }
+            @Override
+            public Weight getInitialWeight() {
+                return weightf.getInitialWeight();
+            }
 
-                @Override
-                public Weight getNonViableWeight() {
-                    return weightf.getNonViableWeight();
-                }
-            };
-
-            //create a residual graph g' by removing all src vertices and reversing 0 length path edges
-            MutableGraph<V, E> gt = mutableCopy(graph);
-
-            Map<E, E> revToEdge = new HashMap<>();
-            graph.getEdgesTo(src).forEach(gt::removeEdge);
-            for (E edge: shortPath.edges()) {
-                gt.removeEdge(edge);
-                Edge<V> reverse = new ReverseEdge<V>(edge);
-                revToEdge.put((E) reverse, edge);
-                gt.addEdge((E) reverse);
+            @Override
+            public Weight getNonViableWeight() {
+                return weightf.getNonViableWeight();
+            }
+        };
+
+        EdgeWeigher<V, E> modified2 = new EdgeWeigher<V, E>() {
+            @Override
+            public Weight weight(E edge) {
+                return weightf.weight(edge).merge(firstDijkstra.cost(edge.src()))
+                        .subtract(firstDijkstra.cost(edge.dst()));
             }
 
-            //rerun dijkstra on the temporary graph to get a second path
-            Result<V, E> secondDijkstra = new DijkstraGraphSearch<V, E>()
-                    .search(gt, src, dst, modified, ALL_PATHS);
+            @Override
+            public Weight getInitialWeight() {
+                return weightf.getInitialWeight();
+            }
 
-            Path<V, E> residualShortPath = null;
-            if (secondDijkstra.paths().isEmpty()) {
-                result.dpps.add(new DisjointPathPair<>(shortPath, null));
-                continue;
+            @Override
+            public Weight getNonViableWeight() {
+                return weightf.getNonViableWeight();
             }
+        };
+
+        //create a residual graph g' by removing all src vertices and reversing 0 length path edges
+        MutableGraph<V, E> gt = mutableCopy(graph);
+
+        Map<E, E> revToEdge = new HashMap<>();
+        graph.getEdgesTo(src).forEach(gt::removeEdge);
+        for (E edge: shortPath.edges()) {
+            gt.removeEdge(edge);
+            Edge<V> reverse = new ReverseEdge<V>(edge);
+            revToEdge.put((E) reverse, edge);
+            gt.addEdge((E) reverse);
+        }
+
+        //rerun dijkstra on the temporary graph to get a second path
+        Result<V, E> secondDijkstra = new DijkstraGraphSearch<V, E>()
+                .search(gt, src, dst, modified, ALL_PATHS);
 
-            for (Path p2: secondDijkstra.paths()) {
-                residualShortPath = p2;
+        Path<V, E> residualShortPath = null;
+        if (secondDijkstra.paths().isEmpty()) {
+            pairs.add(new DisjointPathPair<>(shortPath, null));
+            return pairs;
+        }
 
-                MutableGraph<V, E> roundTrip = mutableCopy(graph);
+        for (Path p2: secondDijkstra.paths()) {
+            residualShortPath = p2;
 
-                List<E> tmp = roundTrip.getEdges().stream().collect(Collectors.toList());
+            MutableGraph<V, E> roundTrip = mutableCopy(graph);
 
-                tmp.forEach(roundTrip::removeEdge);
+            List<E> tmp = roundTrip.getEdges().stream().collect(Collectors.toList());
 
-                shortPath.edges().forEach(roundTrip::addEdge);
+            tmp.forEach(roundTrip::removeEdge);
 
-                if (residualShortPath != null) {
-                    for (Edge<V> edge: residualShortPath.edges()) {
-                        if (edge instanceof ReverseEdge) {
-                            roundTrip.removeEdge(revToEdge.get(edge));
-                        } else {
-                            roundTrip.addEdge((E) edge);
-                        }
-                    }
-                }
-                //Actually build the final result
-                DefaultResult lastSearch = (DefaultResult)
-                        super.internalSearch(roundTrip, src, dst, weigher, ALL_PATHS);
-                Path<V, E> primary = lastSearch.paths().iterator().next();
-                primary.edges().forEach(roundTrip::removeEdge);
-
-                Set<Path<V, E>> backups = super.internalSearch(roundTrip, src, dst,
-                        weigher, ALL_PATHS).paths();
-
-                // Find first backup path that does not share any nodes with the primary
-                for (Path<V, E> backup : backups) {
-                    if (isDisjoint(primary, backup)) {
-                        result.dpps.add(new DisjointPathPair<>(primary, backup));
-                        break;
+            shortPath.edges().forEach(roundTrip::addEdge);
+
+            if (residualShortPath != null) {
+                for (Edge<V> edge: residualShortPath.edges()) {
+                    if (edge instanceof ReverseEdge) {
+                        roundTrip.removeEdge(revToEdge.get(edge));
+                    } else {
+                        roundTrip.addEdge((E) edge);
                     }
                 }
             }
-        }
-
-        for (int i = result.dpps.size() - 1; i > 0; i--) {
-            if (result.dpps.get(i).size() <= 1) {
-                result.dpps.remove(i);
+            //Actually build the final result
+            DefaultResult lastSearch = (DefaultResult)
+                    super.internalSearch(roundTrip, src, dst, weigher, ALL_PATHS);
+            Path<V, E> primary = lastSearch.paths().iterator().next();
+            primary.edges().forEach(roundTrip::removeEdge);
+
+            Set<Path<V, E>> backups = super.internalSearch(roundTrip, src, dst,
+                    weigher, ALL_PATHS).paths();
+
+            // Find first backup path that does not share any nodes with the primary
+            for (Path<V, E> backup : backups) {
+                if (isDisjoint(primary, backup)) {
+                    pairs.add(new DisjointPathPair<>(primary, backup));
+                    break;
+                }
             }
         }
-
-        result.buildPaths();
-        return result;
+        return pairs;
     }
 
     private boolean isDisjoint(Path<V, E> a, Path<V, E> b) {
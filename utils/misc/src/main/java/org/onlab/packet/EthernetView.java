@@ -0,0 +1,299 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.packet;
+
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.onlab.packet.Ethernet.ETHERNET_HEADER_LENGTH;
+import static org.onlab.packet.Ethernet.TYPE_IPV4;
+import static org.onlab.packet.Ethernet.TYPE_IPV6;
+import static org.onlab.packet.Ethernet.TYPE_QINQ;
+import static org.onlab.packet.Ethernet.TYPE_VLAN;
+import static org.onlab.packet.Ethernet.VLAN_HEADER_LENGTH;
+import static org.onlab.packet.Ethernet.VLAN_UNTAGGED;
+
+/**
+ * Read-only view of an Ethernet frame held in a byte buffer.
+ * <p>
+ * Header fields are read in place, on first access, without copying the
+ * frame or deserializing its payload. This is much cheaper than fully
+ * deserializing the frame when only a few header fields are needed, for
+ * example to filter out frames of the wrong ethertype. The fully
+ * deserialized frame remains available using {@link #parse()}.
+ * <p>
+ * Views may be shared between threads, as long as the underlying bytes are
+ * not modified while the view is in use.
+ */
+public final class EthernetView {
+
+    private static final int MAC_ADDRESS_LENGTH = MacAddress.MAC_ADDRESS_LENGTH;
+    private static final int IPV4_PROTOCOL_OFFSET = 9;
+    private static final int IPV6_NEXT_HEADER_OFFSET = 6;
+    private static final byte NO_PROTOCOL = -1;
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    // Decoded lazily, see decodeTags(); decoding is idempotent and the
+    // volatile flag is written last to publish the decoded fields.
+    private volatile boolean decoded;
+    private boolean valid;
+    private short etherType;
+    private short vlanId = VLAN_UNTAGGED;
+    private byte priorityCode;
+    private short qinqVid = VLAN_UNTAGGED;
+    private int payloadOffset;
+
+    private EthernetView(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.offset = buffer.position();
+        this.length = buffer.remaining();
+    }
+
+    /**
+     * Creates a view of the Ethernet frame between the position and the
+     * limit of the given buffer. The position and limit of the buffer are
+     * not modified.
+     *
+     * @param buffer buffer holding the frame
+     * @return view of the frame
+     */
+    public static EthernetView of(ByteBuffer buffer) {
+        return new EthernetView(checkNotNull(buffer).duplicate());
+    }
+
+    /**
+     * Creates a view of an Ethernet frame held in a byte array.
+     *
+     * @param data   array holding the frame
+     * @param offset offset of the frame within the array
+     * @param length length of the frame
+     * @return view of the frame
+     */
+    public static EthernetView of(byte[] data, int offset, int length) {
+        return new EthernetView(ByteBuffer.wrap(data, offset, length));
+    }
+
+    /**
+     * Returns the length of the frame.
+     *
+     * @return frame length in bytes
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns whether the frame is long enough to hold its Ethernet header,
+     * including VLAN tags.
+     *
+     * @return true if the Ethernet header is complete
+     */
+    public boolean isValid() {
+        decodeTags();
+        return valid;
+    }
+
+    /**
+     * Returns the destination MAC address.
+     *
+     * @return destination MAC address; null if the frame is truncated
+     */
+    public MacAddress destinationMac() {
+        return isValid() ? readMac(0) : null;
+    }
+
+    /**
+     * Returns the source MAC address.
+     *
+     * @return source MAC address; null if the frame is truncated
+     */
+    public MacAddress sourceMac() {
+        return isValid() ? readMac(MAC_ADDRESS_LENGTH) : null;
+    }
+
+    /**
+     * Returns the ethertype of the payload, following any VLAN tags.
+     *
+     * @return ethertype; 0 if the frame is truncated
+     */
+    public short etherType() {
+        decodeTags();
+        return etherType;
+    }
+
+    /**
+     * Returns the VLAN identifier of the innermost VLAN tag.
+     *
+     * @return VLAN identifier; {@link Ethernet#VLAN_UNTAGGED} if untagged
+     */
+    public short vlanId() {
+        decodeTags();
+        return vlanId;
+    }
+
+    /**
+     * Returns the priority code of the innermost VLAN tag.
+     *
+     * @return priority code; 0 if untagged
+     */
+    public byte priorityCode() {
+        decodeTags();
+        return priorityCode;
+    }
+
+    /**
+     * Returns the VLAN identifier of the outer tag of a double tagged frame.
+     *
+     * @return outer VLAN identifier; {@link Ethernet#VLAN_UNTAGGED} if the
+     * frame is not double tagged
+     */
+    public short qinqVid() {
+        decodeTags();
+        return qinqVid;
+    }
+
+    /**
+     * Returns the IP protocol number of an IPv4 payload, or the next header
+     * of an IPv6 payload.
+     *
+     * @return IP protocol; -1 if the payload is not IP or is truncated
+     */
+    public byte ipProtocol() {
+        decodeTags();
+        int protocolOffset;
+        if (etherType == TYPE_IPV4) {
+            protocolOffset = IPV4_PROTOCOL_OFFSET;
+        } else if (etherType == TYPE_IPV6) {
+            protocolOffset = IPV6_NEXT_HEADER_OFFSET;
+        } else {
+            return NO_PROTOCOL;
+        }
+        if (payloadOffset + protocolOffset >= length) {
+            return NO_PROTOCOL;
+        }
+        return buffer.get(offset + payloadOffset + protocolOffset);
+    }
+
+    /**
+     * Returns a read-only buffer sharing the bytes of the payload, following
+     * the Ethernet header.
+     *
+     * @return payload bytes; empty if the frame is truncated
+     */
+    public ByteBuffer payload() {
+        decodeTags();
+        ByteBuffer payload = buffer.asReadOnlyBuffer();
+        payload.limit(offset + length);
+        payload.position(valid ? offset + payloadOffset : offset + length);
+        return payload.slice();
+    }
+
+    /**
+     * Fully deserializes the frame.
+     * <p>
+     * Frames held in heap buffers are deserialized in place; frames held in
+     * direct buffers are first copied.
+     *
+     * @return deserialized Ethernet frame
+     * @throws DeserializationException if the frame cannot be deserialized
+     */
+    public Ethernet parse() throws DeserializationException {
+        if (buffer.hasArray()) {
+            return Ethernet.deserializer().deserialize(
+                    buffer.array(), buffer.arrayOffset() + offset, length);
+        }
+        byte[] data = new byte[length];
+        ByteBuffer copy = buffer.duplicate();
+        copy.position(offset);
+        copy.get(data);
+        return Ethernet.deserializer().deserialize(data, 0, length);
+    }
+
+    private MacAddress readMac(int index) {
+        long address = 0;
+        for (int i = 0; i < MAC_ADDRESS_LENGTH; i++) {
+            address = (address << 8) | (buffer.get(offset + index + i) & 0xff);
+        }
+        return MacAddress.valueOf(address);
+    }
+
+    private short readShort(int index) {
+        return buffer.getShort(offset + index);
+    }
+
+    private void decodeTags() {
+        if (!decoded) {
+            valid = decodeHeader();
+            decoded = true;
+        }
+    }
+
+    // Mirrors the handling of VLAN tags by Ethernet.deserializer()
+    private boolean decodeHeader() {
+        int position = ETHERNET_HEADER_LENGTH;
+        if (length < position) {
+            return false;
+        }
+        short type = readShort(position - Short.BYTES);
+        if (type == TYPE_QINQ) {
+            if (length < position + VLAN_HEADER_LENGTH) {
+                return false;
+            }
+            qinqVid = (short) (readShort(position) & 0x0fff);
+            type = readShort(position + Short.BYTES);
+            position += VLAN_HEADER_LENGTH;
+        }
+        if (type == TYPE_VLAN) {
+            if (length < position + VLAN_HEADER_LENGTH) {
+                return false;
+            }
+            short tci = readShort(position);
+            type = readShort(position + Short.BYTES);
+            position += VLAN_HEADER_LENGTH;
+
+            if (type == TYPE_VLAN) {
+                if (length < position + VLAN_HEADER_LENGTH) {
+                    return false;
+                }
+                qinqVid = (short) (tci & 0x0fff);
+                tci = readShort(position);
+                type = readShort(position + Short.BYTES);
+                position += VLAN_HEADER_LENGTH;
+            }
+            priorityCode = (byte) (tci >> 13 & 0x07);
+            vlanId = (short) (tci & 0x0fff);
+        }
+
+        etherType = type;
+        payloadOffset = position;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("length", length)
+                .add("etherType", isValid() ? String.format("0x%04x", etherType) : null)
+                .add("vlanId", vlanId)
+                .add("src", sourceMac())
+                .add("dst", destinationMac())
+                .toString();
+    }
+}
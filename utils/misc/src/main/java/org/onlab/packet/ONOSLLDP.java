@@ -70,6 +70,13 @@ public class ONOSLLDP extends LLDP {
 
     private final byte[] ttlValue = new byte[] {0, 0x78};
 
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int TIMESTAMP_INFO_LENGTH = Long.BYTES;
+
+    // Looking up a Mac is costly and instances are not thread-safe, so each
+    // thread keeps its own, keyed again only when the secret changes.
+    private static final ThreadLocal<SecretMac> SECRET_MAC = ThreadLocal.withInitial(SecretMac::new);
+
     // Only needs to be accessed from LinkProbeFactory.
     public ONOSLLDP(byte... subtype) {
         super();
@@ -484,14 +491,76 @@ public class ONOSLLDP extends LLDP {
         }
     }
 
+    /**
+     * Refreshes in place the timestamp and signature of a serialized secure
+     * link probe, so that a probe serialized once can be sent repeatedly
+     * without being rebuilt.
+     *
+     * @param frame serialized frame carrying a probe built by onosSecureLLDP
+     * @param offset offset of the LLDP payload within the frame
+     * @param deviceId The device ID as a String
+     * @param portNum Port number of port the probe is sent out of
+     * @param secret LLDP secret
+     * @return true if the probe was refreshed, false if it carries no
+     *         timestamp or signature, or could not be signed
+     */
+    public static boolean refreshSecureLLDP(byte[] frame, int offset, String deviceId,
+                                            int portNum, String secret) {
+        if (secret == null) {
+            return false;
+        }
+        int tsOffset = orgTlvInfoOffset(frame, offset, TIMESTAMP_SUBTYPE);
+        int sigOffset = orgTlvInfoOffset(frame, offset, SIG_SUBTYPE);
+        if (tsOffset < 0 || sigOffset < 0) {
+            return false;
+        }
+
+        long ts = System.currentTimeMillis();
+        byte[] sig = createSig(deviceId, portNum, ts, secret);
+        if (sig == null || orgTlvInfoLength(frame, tsOffset) != TIMESTAMP_INFO_LENGTH ||
+                orgTlvInfoLength(frame, sigOffset) != sig.length) {
+            return false;
+        }
+        ByteBuffer.wrap(frame).putLong(tsOffset, ts);
+        System.arraycopy(sig, 0, frame, sigOffset, sig.length);
+        return true;
+    }
+
+    // Walks the serialized TLVs starting at offset and returns the offset of
+    // the info string of the ONOS organizational TLV with the given subtype.
+    private static int orgTlvInfoOffset(byte[] data, int offset, byte subtype) {
+        int pos = offset;
+        while (pos + 2 <= data.length) {
+            int type = (data[pos] >> 1) & 0x7f;
+            int length = ((data[pos] & 0x1) << 8) | (data[pos + 1] & 0xff);
+            int value = pos + 2;
+            if (type == 0 || value + length > data.length) {
+                // end of LLDPDU, or truncated
+                return -1;
+            }
+            if (type == LLDPOrganizationalTLV.ORGANIZATIONAL_TLV_TYPE &&
+                    length >= OUI_LENGTH + SUBTYPE_LENGTH &&
+                    data[value + OUI_LENGTH] == subtype) {
+                return value + OUI_LENGTH + SUBTYPE_LENGTH;
+            }
+            pos = value + length;
+        }
+        return -1;
+    }
+
+    // Returns the length of the info string found by orgTlvInfoOffset.
+    private static int orgTlvInfoLength(byte[] data, int infoOffset) {
+        int pos = infoOffset - OUI_LENGTH - SUBTYPE_LENGTH - 2;
+        int length = ((data[pos] & 0x1) << 8) | (data[pos + 1] & 0xff);
+        return length - OUI_LENGTH - SUBTYPE_LENGTH;
+    }
+
     private static byte[] createSig(String deviceId, int portNum, long timestamp, String secret) {
         byte[] pnb = ByteBuffer.allocate(8).putLong(portNum).array();
         byte[] tmb = ByteBuffer.allocate(8).putLong(timestamp).array();
 
         try {
-            SecretKeySpec signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(signingKey);
+            Mac mac = SECRET_MAC.get().mac(secret);
             mac.update(deviceId.getBytes());
             mac.update(pnb);
             mac.update(tmb);
@@ -548,4 +617,24 @@ public class ONOSLLDP extends LLDP {
         return verifySig(sig, deviceId, portNum, timestamp, secret);
     }
 
+    /**
+     * Per-thread Mac along with the secret it was initialized with.
+     */
+    private static final class SecretMac {
+        private Mac mac;
+        private String secret;
+
+        private Mac mac(String secret) throws NoSuchAlgorithmException, InvalidKeyException {
+            if (mac == null) {
+                mac = Mac.getInstance(HMAC_ALGORITHM);
+            }
+            if (!secret.equals(this.secret)) {
+                this.secret = null;
+                mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+                this.secret = secret;
+            }
+            return mac;
+        }
+    }
+
 }
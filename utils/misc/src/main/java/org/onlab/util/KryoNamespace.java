@@ -33,15 +33,17 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.objenesis.strategy.StdInstantiatorStrategy;
 import org.slf4j.Logger;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -60,6 +62,17 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
     public static final int DEFAULT_BUFFER_SIZE = 4096;
     public static final int MAX_BUFFER_SIZE = 100 * 1000 * 1000;
 
+    /**
+     * Maximum number of idle serialization buffers retained for reuse.
+     */
+    public static final int MAX_POOLED_BUFFERS = 64;
+
+    /**
+     * Largest serialization buffer retained for reuse; larger buffers,
+     * grown to serialize large objects, are left to the garbage collector.
+     */
+    public static final int MAX_POOLED_BUFFER_SIZE = 256 * 1024;
+
     /**
      * ID to use if this KryoNamespace does not define registration id.
      */
@@ -74,6 +87,11 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
 
     private static final Logger log = getLogger(KryoNamespace.class);
 
+    // Serialization buffers are independent of the registered types, so
+    // they are shared by all namespaces.
+    private static final OutputPool OUTPUTS =
+            new OutputPool(MAX_POOLED_BUFFERS, MAX_POOLED_BUFFER_SIZE);
+
     private final KryoPool pool = new KryoPool.Builder(this)
                                         .softReferences()
                                         .build();
@@ -299,19 +317,66 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
 
     /**
      * Serializes given object to byte array using Kryo instance in pool.
+     * <p>
+     * The object is written to a pooled buffer, so that only the returned
+     * byte array is allocated.
      *
      * @param obj Object to serialize
-     * @param bufferSize maximum size of serialized bytes
+     * @param bufferSize initial size of the buffer, used if no pooled
+     *                   buffer is available
      * @return serialized bytes
      */
     public byte[] serialize(final Object obj, final int bufferSize) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bufferSize);
-        Output out = new Output(outputStream);
-        return pool.run(kryo -> {
+        Output out = OUTPUTS.borrow(bufferSize);
+        Kryo kryo = borrow();
+        try {
             kryo.writeClassAndObject(out, obj);
-            out.flush();
-            return outputStream.toByteArray();
-        });
+            return out.toBytes();
+        } finally {
+            release(kryo);
+            OUTPUTS.release(out);
+        }
+    }
+
+    /**
+     * Serializes given objects into a single byte array using Kryo instance
+     * in pool.
+     * <p>
+     * The batch starts with the number of objects followed by the end offset
+     * of each serialized object, so that the objects can be deserialized
+     * individually and lazily using {@link #deserializeBatch(byte[])}.
+     *
+     * @param objects objects to serialize
+     * @return serialized bytes
+     */
+    public byte[] serializeBatch(final List<?> objects) {
+        int count = objects.size();
+        Output out = OUTPUTS.borrow(DEFAULT_BUFFER_SIZE);
+        Kryo kryo = borrow();
+        try {
+            out.writeInt(count);
+            int offsetsPosition = out.position();
+            for (int i = 0; i < count; i++) {
+                out.writeInt(0);
+            }
+            int[] offsets = new int[count];
+            for (int i = 0; i < count; i++) {
+                kryo.writeClassAndObject(out, objects.get(i));
+                offsets[i] = out.position();
+            }
+
+            // Now that the object boundaries are known, fill in the offsets.
+            int end = out.position();
+            out.setPosition(offsetsPosition);
+            for (int offset : offsets) {
+                out.writeInt(offset);
+            }
+            out.setPosition(end);
+            return out.toBytes();
+        } finally {
+            release(kryo);
+            OUTPUTS.release(out);
+        }
     }
 
     /**
@@ -367,7 +432,21 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
      * @return deserialized Object
      */
     public <T> T deserialize(final byte[] bytes) {
-        Input in = new Input(new ByteArrayInputStream(bytes));
+        return deserialize(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Deserializes an object from the given region of a byte array using
+     * Kryo instance in pool. The bytes are read in place, without copying.
+     *
+     * @param bytes serialized bytes
+     * @param offset offset of the serialized object
+     * @param length length of the serialized object
+     * @param <T> deserialized Object type
+     * @return deserialized Object
+     */
+    public <T> T deserialize(final byte[] bytes, final int offset, final int length) {
+        Input in = new Input(bytes, offset, length);
         Kryo kryo = borrow();
         try {
             @SuppressWarnings("unchecked")
@@ -378,6 +457,22 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
         }
     }
 
+    /**
+     * Deserializes a batch of objects serialized using
+     * {@link #serializeBatch(List)}.
+     * <p>
+     * The objects are deserialized lazily, when first accessed, directly from
+     * the given byte array, which must therefore not be modified afterwards.
+     * The returned list is not thread-safe.
+     *
+     * @param bytes serialized batch
+     * @param <T> deserialized Object type
+     * @return unmodifiable list of the deserialized objects
+     */
+    public <T> List<T> deserializeBatch(final byte[] bytes) {
+        return new LazyBatch<>(this, bytes);
+    }
+
     /**
      * Deserializes given byte buffer to Object using Kryo instance in pool.
      *
@@ -551,6 +646,84 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
                     .toString();
     }
 
+    /**
+     * Bounded pool of reusable heap serialization buffers.
+     */
+    private static final class OutputPool {
+        private final Queue<Output> outputs = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final int capacity;
+        private final int maxBufferSize;
+
+        private OutputPool(int capacity, int maxBufferSize) {
+            this.capacity = capacity;
+            this.maxBufferSize = maxBufferSize;
+        }
+
+        private Output borrow(int bufferSize) {
+            Output out = outputs.poll();
+            if (out == null) {
+                return new Output(bufferSize, -1);
+            }
+            size.decrementAndGet();
+            out.clear();
+            return out;
+        }
+
+        private void release(Output out) {
+            if (out.getBuffer().length > maxBufferSize) {
+                return;
+            }
+            if (size.incrementAndGet() <= capacity) {
+                outputs.offer(out);
+            } else {
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * List of objects deserialized lazily from a serialized batch.
+     */
+    private static final class LazyBatch<T> extends AbstractList<T> {
+        private static final Object PENDING = new Object();
+
+        private final KryoNamespace namespace;
+        private final byte[] bytes;
+        private final int[] offsets;
+        private final Object[] objects;
+
+        private LazyBatch(KryoNamespace namespace, byte[] bytes) {
+            this.namespace = namespace;
+            this.bytes = bytes;
+            Input in = new Input(bytes);
+            int count = in.readInt();
+            this.offsets = new int[count + 1];
+            offsets[0] = Integer.BYTES * (count + 1);
+            for (int i = 1; i <= count; i++) {
+                offsets[i] = in.readInt();
+            }
+            this.objects = new Object[count];
+            Arrays.fill(objects, PENDING);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            Object obj = objects[index];
+            if (obj == PENDING) {
+                obj = namespace.deserialize(bytes, offsets[index], offsets[index + 1] - offsets[index]);
+                objects[index] = obj;
+            }
+            return (T) obj;
+        }
+
+        @Override
+        public int size() {
+            return objects.length;
+        }
+    }
+
     static final class RegistrationBlock {
         private final int begin;
         private final ImmutableList<Pair<Class<?>[], Serializer<?>>> types;
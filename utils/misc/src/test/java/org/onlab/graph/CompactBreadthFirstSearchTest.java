@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.onlab.graph.GraphPathSearch.ALL_PATHS;
+
+/**
+ * Test of the compact BFS algorithm.
+ */
+public class CompactBreadthFirstSearchTest extends BreadthFirstSearchTest {
+
+    @Override
+    protected AbstractGraphPathSearch<TestVertex, TestEdge> graphSearch() {
+        return new CompactBreadthFirstSearch<>();
+    }
+
+    @Test
+    public void sameHopCountsAsBreadthFirstSearch() {
+        BreadthFirstSearch<TestVertex, TestEdge> bfs = new BreadthFirstSearch<>();
+        GraphPathSearch<TestVertex, TestEdge> search = graphSearch();
+        for (long seed = 0; seed < 5; seed++) {
+            graph = randomGraph(seed, 40, 100);
+            for (TestVertex src : graph.getVertexes()) {
+                GraphPathSearch.Result<TestVertex, TestEdge> expected =
+                        bfs.search(graph, src, null, null, ALL_PATHS);
+                GraphPathSearch.Result<TestVertex, TestEdge> actual =
+                        search.search(graph, src, null, null, ALL_PATHS);
+                assertEquals("incorrect hop counts", expected.costs(), actual.costs());
+                assertEquals("incorrect path count", expected.paths().size(), actual.paths().size());
+                for (Path<TestVertex, TestEdge> path : actual.paths()) {
+                    assertEquals("incorrect path length", path.cost(),
+                                 new ScalarWeight(path.edges().size()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import org.junit.Test;
+
+import java.util.stream.Collectors;
+
+import static com.google.common.collect.ImmutableSet.of;
+import static org.junit.Assert.assertEquals;
+import static org.onlab.graph.GraphPathSearch.ALL_PATHS;
+
+/**
+ * Test of the compact Dijkstra algorithm.
+ */
+public class CompactDijkstraGraphSearchTest extends DijkstraGraphSearchTest {
+
+    @Override
+    protected AbstractGraphPathSearch<TestVertex, TestEdge> graphSearch() {
+        return new CompactDijkstraGraphSearch<>();
+    }
+
+    @Test
+    public void scalarMultiplePath() {
+        graph = new AdjacencyListsGraph<>(of(A, B, C, D, E),
+                of(new TestEdge(A, B, new ScalarWeight(1)),
+                   new TestEdge(A, C, new ScalarWeight(1)),
+                   new TestEdge(B, D, new ScalarWeight(1)),
+                   new TestEdge(C, D, new ScalarWeight(1)),
+                   new TestEdge(D, E, new ScalarWeight(1)),
+                   new TestEdge(A, E, ScalarWeight.NON_VIABLE_WEIGHT),
+                   new TestEdge(E, B, new ScalarWeight(-1))));
+        executeSearch(graphSearch(), graph, A, D, scalarWeigher, 2, new ScalarWeight(2));
+        executeSinglePathSearch(graphSearch(), graph, A, D, scalarWeigher, 1, new ScalarWeight(2));
+        executeSearch(graphSearch(), graph, A, E, scalarWeigher, 2, new ScalarWeight(3));
+        executeSearch(graphSearch(), graph, D, A, scalarWeigher, 0, null);
+        assertEquals("incorrect paths count", 6,
+                     graphSearch().search(graph, A, null, scalarWeigher, ALL_PATHS).paths().size());
+    }
+
+    @Test
+    public void sameAsDijkstra() {
+        DijkstraGraphSearch<TestVertex, TestEdge> dijkstra = new DijkstraGraphSearch<>();
+        GraphPathSearch<TestVertex, TestEdge> search = graphSearch();
+        for (long seed = 0; seed < 5; seed++) {
+            graph = randomGraph(seed, 40, 160);
+            for (TestVertex src : graph.getVertexes()) {
+                GraphPathSearch.Result<TestVertex, TestEdge> expected =
+                        dijkstra.search(graph, src, null, scalarWeigher, ALL_PATHS);
+                GraphPathSearch.Result<TestVertex, TestEdge> actual =
+                        search.search(graph, src, null, scalarWeigher, ALL_PATHS);
+                assertEquals("incorrect costs", expected.costs(), actual.costs());
+                assertEquals("incorrect parents", expected.parents(), actual.parents());
+                assertEquals("incorrect paths", expected.paths(), actual.paths());
+
+                // Searches towards a single destination must find all
+                // equal-cost paths towards it as well
+                for (TestVertex dst : graph.getVertexes()) {
+                    assertEquals("incorrect paths",
+                                 expected.paths().stream()
+                                         .filter(p -> p.dst().equals(dst))
+                                         .collect(Collectors.toSet()),
+                                 search.search(graph, src, dst, scalarWeigher, ALL_PATHS).paths());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void compactGraph() {
+        graph = new CompactGraph<>(randomGraph(42, 40, 160));
+        DijkstraGraphSearch<TestVertex, TestEdge> dijkstra = new DijkstraGraphSearch<>();
+        for (TestVertex src : graph.getVertexes()) {
+            assertEquals("incorrect paths",
+                         dijkstra.search(graph, src, null, scalarWeigher, ALL_PATHS).paths(),
+                         graphSearch().search(graph, src, null, scalarWeigher, ALL_PATHS).paths());
+        }
+    }
+}
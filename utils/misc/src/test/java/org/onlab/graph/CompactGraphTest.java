@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.testing.EqualsTester;
+import org.junit.Test;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests of the compact graph implementation.
+ */
+public class CompactGraphTest extends GraphTest {
+
+    @Test
+    public void equality() {
+        Set<TestVertex> vertexes = ImmutableSet.of(A, B, C, D, E, F);
+        Set<TestVertex> vertexes2 = ImmutableSet.of(A, B, C, D, E, F, G);
+        Set<TestEdge> edges = ImmutableSet.of(new TestEdge(A, B),
+                                              new TestEdge(B, C),
+                                              new TestEdge(C, D),
+                                              new TestEdge(D, A),
+                                              new TestEdge(B, D));
+
+        CompactGraph<TestVertex, TestEdge> graph =
+                new CompactGraph<>(new AdjacencyListsGraph<>(vertexes, edges));
+        CompactGraph<TestVertex, TestEdge> same =
+                new CompactGraph<>(new AdjacencyListsGraph<>(vertexes, edges));
+        CompactGraph<TestVertex, TestEdge> different =
+                new CompactGraph<>(new AdjacencyListsGraph<>(vertexes2, edges));
+
+        new EqualsTester()
+                .addEqualityGroup(graph, same)
+                .addEqualityGroup(different)
+                .testEquals();
+    }
+
+    @Test
+    public void basics() {
+        Graph<TestVertex, TestEdge> graph = new AdjacencyListsGraph<>(vertexes(), edges());
+        CompactGraph<TestVertex, TestEdge> compact = new CompactGraph<>(graph);
+        assertEquals("incorrect vertexes", graph.getVertexes(), compact.getVertexes());
+        assertEquals("incorrect edges", graph.getEdges(), compact.getEdges());
+        assertEquals("incorrect vertex count", 8, compact.vertexCount());
+        assertEquals("incorrect edge count", 12, compact.edgeCount());
+
+        for (TestVertex vertex : vertexes()) {
+            assertEquals("incorrect egress edges", graph.getEdgesFrom(vertex),
+                         compact.getEdgesFrom(vertex));
+            assertEquals("incorrect ingress edges", graph.getEdgesTo(vertex),
+                         compact.getEdgesTo(vertex));
+
+            int v = compact.indexOf(vertex);
+            assertEquals("incorrect vertex", vertex, compact.vertex(v));
+            for (int e = compact.egressStart(v); e < compact.egressEnd(v); e++) {
+                assertEquals("incorrect edge source", vertex, compact.edge(e).src());
+                assertEquals("incorrect source index", v, compact.source(e));
+                assertEquals("incorrect target index", compact.indexOf(compact.edge(e).dst()),
+                             compact.target(e));
+            }
+        }
+        assertEquals("unexpected vertex index", -1, compact.indexOf(Z));
+        assertEquals("unexpected egress edges", ImmutableSet.of(), compact.getEdgesFrom(Z));
+    }
+
+    @Test
+    public void edgeEndpointsAreVertexes() {
+        CompactGraph<TestVertex, TestEdge> compact =
+                new CompactGraph<>(new AdjacencyListsGraph<>(ImmutableSet.of(A),
+                                                             ImmutableSet.of(new TestEdge(B, C))));
+        assertEquals("incorrect vertexes", ImmutableSet.of(A, B, C), compact.getVertexes());
+        assertEquals("incorrect egress edge count", 1, compact.getEdgesFrom(B).size());
+        assertEquals("incorrect ingress edge count", 1, compact.getEdgesTo(C).size());
+    }
+
+    @Test
+    public void copyOf() {
+        CompactGraph<TestVertex, TestEdge> compact =
+                CompactGraph.copyOf(new AdjacencyListsGraph<>(vertexes(), edges()));
+        CompactGraph<TestVertex, TestEdge> copy = CompactGraph.copyOf(compact);
+        assertEquals("incorrect copy", compact, copy);
+        assertSame("vertexes should not be copied", compact.getVertexes(), copy.getVertexes());
+        assertSame("edges should not be copied", compact.getEdges(), copy.getEdges());
+        for (int i = 0; i < compact.vertexCount(); i++) {
+            assertEquals("incorrect vertex index", i, copy.indexOf(compact.vertex(i)));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.google.common.collect.ImmutableSet.of;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the compact K shortest paths search.
+ */
+public class CompactKShortestPathsSearchTest extends GraphTest {
+
+    private final CompactKShortestPathsSearch<TestVertex, TestEdge> search =
+            new CompactKShortestPathsSearch<>();
+
+    @Test
+    public void noPath() {
+        graph = new AdjacencyListsGraph<>(of(A, B, C, D),
+                                          of(new TestEdge(A, B, new ScalarWeight(1)),
+                                             new TestEdge(B, A, new ScalarWeight(1)),
+                                             new TestEdge(C, D, new ScalarWeight(1)),
+                                             new TestEdge(D, C, new ScalarWeight(1))));
+        assertTrue("There should not be any paths.",
+                   search.search(graph, A, D, scalarWeigher, 3).paths().isEmpty());
+    }
+
+    @Test
+    public void orderedPaths() {
+        TestEdge ab = new TestEdge(A, B, new ScalarWeight(1));
+        TestEdge bc = new TestEdge(B, C, new ScalarWeight(1));
+        TestEdge ce = new TestEdge(C, E, new ScalarWeight(1));
+        TestEdge be = new TestEdge(B, E, new ScalarWeight(4));
+        graph = new AdjacencyListsGraph<>(of(A, B, C, D, E),
+                                          of(ab, bc, ce, be,
+                                             new TestEdge(A, C, new ScalarWeight(3)),
+                                             new TestEdge(B, D, new ScalarWeight(2)),
+                                             new TestEdge(D, E, new ScalarWeight(1))));
+        List<Path<TestVertex, TestEdge>> paths =
+                ImmutableList.copyOf(search.search(graph, A, E, scalarWeigher, 5).paths());
+        assertEquals("incorrect path costs", ImmutableList.of(3.0, 4.0, 4.0, 5.0), costs(paths));
+        assertEquals("incorrect shortest path", ImmutableList.of(ab, bc, ce), paths.get(0).edges());
+        assertEquals("incorrect longest path", ImmutableList.of(ab, be), paths.get(3).edges());
+
+        assertEquals("incorrect path count", 2, search.search(graph, A, E, scalarWeigher, 2).paths().size());
+    }
+
+    @Test
+    public void sameCostsAsKShortestPaths() {
+        KShortestPathsSearch<TestVertex, TestEdge> kShortestPaths = new KShortestPathsSearch<>();
+        for (long seed = 0; seed < 3; seed++) {
+            graph = randomGraph(seed, 20, 70);
+            for (TestVertex src : graph.getVertexes()) {
+                for (TestVertex dst : graph.getVertexes()) {
+                    if (src.equals(dst)) {
+                        continue;
+                    }
+                    List<Double> expected =
+                            costs(kShortestPaths.search(graph, src, dst, scalarWeigher, 4).paths());
+                    List<Double> actual =
+                            costs(search.search(graph, src, dst, scalarWeigher, 4).paths());
+                    assertTrue("too few paths", actual.size() >= expected.size());
+                    assertEquals("incorrect path costs", expected, actual.subList(0, expected.size()));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void allPaths() {
+        graph = new AdjacencyListsGraph<>(vertexes(), edges());
+        search.search(graph, A, E, scalarWeigher, GraphPathSearch.ALL_PATHS);
+    }
+
+    @Test
+    public void fallback() {
+        graph = new AdjacencyListsGraph<>(vertexes(), edges());
+        assertEquals("incorrect path count", 4, search.search(graph, A, E, weigher, 5).paths().size());
+    }
+
+    private List<Double> costs(Iterable<Path<TestVertex, TestEdge>> paths) {
+        return ImmutableList.copyOf(paths).stream()
+                .map(p -> ((ScalarWeight) p.cost()).value())
+                .collect(Collectors.toList());
+    }
+}
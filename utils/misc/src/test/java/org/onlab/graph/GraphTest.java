@@ -15,6 +15,10 @@
  */
 package org.onlab.graph;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import static com.google.common.collect.ImmutableSet.of;
@@ -85,6 +89,56 @@ public class GraphTest {
                 }
             };
 
+    /**
+     * EdgeWeigher which uses scalar edge weights; edges must carry
+     * scalar weights.
+     */
+    protected final EdgeWeigher<TestVertex, TestEdge> scalarWeigher =
+            new EdgeWeigher<TestVertex, TestEdge>() {
+                @Override
+                public Weight weight(TestEdge edge) {
+                    return edge.weight();
+                }
+
+                @Override
+                public Weight getInitialWeight() {
+                    return new ScalarWeight(0);
+                }
+
+                @Override
+                public Weight getNonViableWeight() {
+                    return ScalarWeight.NON_VIABLE_WEIGHT;
+                }
+            };
+
+    /**
+     * Creates a random graph whose edges carry small integral scalar weights,
+     * some of them non-viable.
+     *
+     * @param seed        random seed
+     * @param vertexCount number of vertexes
+     * @param edgeCount   number of edges
+     * @return random graph
+     */
+    protected Graph<TestVertex, TestEdge> randomGraph(long seed, int vertexCount, int edgeCount) {
+        Random random = new Random(seed);
+        List<TestVertex> vertexes = new ArrayList<>();
+        for (int i = 0; i < vertexCount; i++) {
+            vertexes.add(new TestVertex("v" + i));
+        }
+        Set<TestEdge> edges = new HashSet<>();
+        while (edges.size() < edgeCount) {
+            TestVertex src = vertexes.get(random.nextInt(vertexCount));
+            TestVertex dst = vertexes.get(random.nextInt(vertexCount));
+            int weight = random.nextInt(6);
+            if (!src.equals(dst)) {
+                edges.add(new TestEdge(src, dst, weight == 5 ? ScalarWeight.NON_VIABLE_WEIGHT
+                        : new ScalarWeight(weight)));
+            }
+        }
+        return new AdjacencyListsGraph<>(new HashSet<>(vertexes), edges);
+    }
+
     protected void printPaths(Set<Path<TestVertex, TestEdge>> paths) {
         for (Path p : paths) {
             System.out.println(p);
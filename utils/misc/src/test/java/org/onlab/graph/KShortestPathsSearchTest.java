@@ -15,6 +15,7 @@
  */
 package org.onlab.graph;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 
@@ -24,6 +25,7 @@ import org.junit.Test;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.google.common.collect.ImmutableSet.of;
 import static org.hamcrest.Matchers.is;
@@ -162,6 +164,28 @@ public class KShortestPathsSearchTest extends GraphTest {
     }
 
 
+    @Test
+    public void testParallelSearch() {
+        //Tests that spur paths computed in parallel yield the same paths in the same order
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            KShortestPathsSearch<TestVertex, TestEdge> parallelSearch = new KShortestPathsSearch<>(pool);
+            for (TestVertex src : vertexes()) {
+                for (TestVertex dst : vertexes()) {
+                    if (!src.equals(dst)) {
+                        assertEquals("incorrect paths",
+                                     ImmutableList.copyOf(kShortestPathsSearch.search(graph, src, dst,
+                                                                                      weigher, 5).paths()),
+                                     ImmutableList.copyOf(parallelSearch.search(graph, src, dst,
+                                                                                weigher, 5).paths()));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     @Test
     public void testVariableLenPathsWithConstantLinkWeight() {
 
@@ -21,6 +21,7 @@ import static org.junit.Assert.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -49,6 +50,24 @@ public class LazyKShortestPathsSearchTest extends GraphTest {
         assertEquals("There should not be any paths.", 0, result.count());
     }
 
+    @Test
+    public void parallelSearch() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            LazyKShortestPathsSearch<TestVertex, TestEdge> parallel = new LazyKShortestPathsSearch<>(pool);
+            graph = new AdjacencyListsGraph<>(vertexes(), edges());
+            for (TestVertex src : vertexes()) {
+                for (TestVertex dst : vertexes()) {
+                    assertEquals("The paths should be the same.",
+                                 sut.lazyPathSearch(graph, src, dst, weigher).collect(Collectors.toList()),
+                                 parallel.lazyPathSearch(graph, src, dst, weigher).collect(Collectors.toList()));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     @Test
     public void fourPath() {
         graph = new AdjacencyListsGraph<>(vertexes(), edges());
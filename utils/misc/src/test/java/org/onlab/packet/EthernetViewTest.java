@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.packet;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Unit tests for the EthernetView class.
+ */
+public class EthernetViewTest {
+
+    private static final MacAddress SRC = MacAddress.valueOf("00:00:00:00:00:01");
+    private static final MacAddress DST = MacAddress.valueOf("ff:ee:dd:cc:bb:aa");
+
+    private Ethernet frame(short vlanId, short qinqVid, short qinqTpid) {
+        UDP udp = new UDP();
+        udp.setSourcePort(1234);
+        udp.setDestinationPort(5678);
+        udp.setPayload(new Data(new byte[]{1, 2, 3, 4}));
+        IPv4 ip = new IPv4();
+        ip.setSourceAddress("10.0.0.1");
+        ip.setDestinationAddress("10.0.0.2");
+        ip.setProtocol(IPv4.PROTOCOL_UDP);
+        ip.setPayload(udp);
+        Ethernet eth = new Ethernet();
+        eth.setSourceMACAddress(SRC);
+        eth.setDestinationMACAddress(DST);
+        eth.setEtherType(Ethernet.TYPE_IPV4);
+        eth.setVlanID(vlanId);
+        eth.setPriorityCode((byte) 3);
+        eth.setQinQVID(qinqVid);
+        eth.setQinQTPID(qinqTpid);
+        eth.setPayload(ip);
+        return eth;
+    }
+
+    private void assertSameAsDeserializer(byte[] bytes) throws Exception {
+        Ethernet eth = Ethernet.deserializer().deserialize(bytes, 0, bytes.length);
+        EthernetView view = EthernetView.of(ByteBuffer.wrap(bytes));
+        assertThat(view.isValid(), is(true));
+        assertThat(view.length(), is(bytes.length));
+        assertThat(view.sourceMac(), is(eth.getSourceMAC()));
+        assertThat(view.destinationMac(), is(eth.getDestinationMAC()));
+        assertThat(view.etherType(), is(eth.getEtherType()));
+        assertThat(view.vlanId(), is(eth.getVlanID()));
+        assertThat(view.qinqVid(), is(eth.getQinQVID()));
+        if (eth.getVlanID() != Ethernet.VLAN_UNTAGGED) {
+            assertThat(view.priorityCode(), is(eth.getPriorityCode()));
+        }
+        assertThat(view.ipProtocol(), is(IPv4.PROTOCOL_UDP));
+        assertThat(view.parse(), is(eth));
+
+        ByteBuffer payload = view.payload();
+        byte[] payloadBytes = new byte[payload.remaining()];
+        payload.get(payloadBytes);
+        assertThat(payloadBytes, is(eth.getPayload().serialize()));
+    }
+
+    /**
+     * Tests that the view decodes untagged, tagged and double tagged frames
+     * like the deserializer.
+     */
+    @Test
+    public void testHeaderFields() throws Exception {
+        assertSameAsDeserializer(frame(Ethernet.VLAN_UNTAGGED, Ethernet.VLAN_UNTAGGED, Ethernet.TYPE_QINQ)
+                                         .serialize());
+        assertSameAsDeserializer(frame((short) 10, Ethernet.VLAN_UNTAGGED, Ethernet.TYPE_QINQ).serialize());
+        assertSameAsDeserializer(frame((short) 10, (short) 20, Ethernet.TYPE_QINQ).serialize());
+        assertSameAsDeserializer(frame((short) 10, (short) 20, Ethernet.TYPE_VLAN).serialize());
+    }
+
+    /**
+     * Tests that the view is limited to the remaining bytes of the buffer and
+     * does not modify the buffer.
+     */
+    @Test
+    public void testBufferRegion() throws Exception {
+        byte[] bytes = frame((short) 10, Ethernet.VLAN_UNTAGGED, Ethernet.TYPE_QINQ).serialize();
+        byte[] padded = new byte[bytes.length + 8];
+        System.arraycopy(bytes, 0, padded, 4, bytes.length);
+        ByteBuffer buffer = ByteBuffer.wrap(padded, 4, bytes.length);
+
+        EthernetView view = EthernetView.of(buffer);
+        assertThat(view.length(), is(bytes.length));
+        assertThat(view.vlanId(), is((short) 10));
+        assertThat(view.parse(), is(Ethernet.deserializer().deserialize(bytes, 0, bytes.length)));
+        assertThat(buffer.position(), is(4));
+        assertThat(buffer.remaining(), is(bytes.length));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertThat(EthernetView.of(direct).parse(), is(view.parse()));
+    }
+
+    /**
+     * Tests views of truncated frames.
+     */
+    @Test
+    public void testTruncated() {
+        byte[] bytes = frame((short) 10, Ethernet.VLAN_UNTAGGED, Ethernet.TYPE_QINQ).serialize();
+
+        EthernetView view = EthernetView.of(Arrays.copyOf(bytes, Ethernet.ETHERNET_HEADER_LENGTH - 1), 0,
+                                            Ethernet.ETHERNET_HEADER_LENGTH - 1);
+        assertThat(view.isValid(), is(false));
+        assertThat(view.etherType(), is((short) 0));
+        assertThat(view.sourceMac(), nullValue());
+        assertThat(view.payload().remaining(), is(0));
+
+        view = EthernetView.of(bytes, 0, Ethernet.ETHERNET_HEADER_LENGTH + 2);
+        assertThat(view.isValid(), is(false));
+
+        view = EthernetView.of(bytes, 0, Ethernet.ETHERNET_HEADER_LENGTH + Ethernet.VLAN_HEADER_LENGTH);
+        assertThat(view.isValid(), is(true));
+        assertThat(view.etherType(), is(Ethernet.TYPE_IPV4));
+        assertThat(view.ipProtocol(), is((byte) -1));
+    }
+
+    /**
+     * Tests that the payload shares the bytes of the frame.
+     */
+    @Test
+    public void testPayloadIsNotCopied() {
+        byte[] bytes = frame(Ethernet.VLAN_UNTAGGED, Ethernet.VLAN_UNTAGGED, Ethernet.TYPE_QINQ).serialize();
+        ByteBuffer payload = EthernetView.of(ByteBuffer.wrap(bytes)).payload();
+        assertThat(payload.isReadOnly(), is(true));
+        bytes[Ethernet.ETHERNET_HEADER_LENGTH] = 42;
+        assertThat(payload.get(0), is((byte) 42));
+    }
+}
@@ -19,6 +19,9 @@ package org.onlab.packet;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Unit tests for the ONOSLLDP class.
@@ -57,4 +60,36 @@ public class ONOSLLDPTest {
         assertEquals("the value from setPortName with getPortNameString value is mismatched",
                 PORT_NAME, onoslldp.getPortNameString());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests refreshing the timestamp and signature of a serialized probe.
+     */
+    @Test
+    public void testRefreshSecureLLDP() throws Exception {
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(Ethernet.TYPE_LLDP);
+        eth.setDestinationMACAddress(MacAddress.ONOS_LLDP);
+        eth.setSourceMACAddress(MacAddress.ONOS);
+        eth.setPad(true);
+        eth.setPayload(onoslldp);
+        byte[] frame = eth.serialize();
+        long timestamp = onoslldp.getTimestamp();
+
+        Thread.sleep(2);
+        assertTrue(ONOSLLDP.refreshSecureLLDP(frame, Ethernet.ETHERNET_HEADER_LENGTH,
+                                              DEVICE_ID, PORT_NUMBER, TEST_SECRET));
+
+        ONOSLLDP probe = ONOSLLDP.parseONOSLLDP(Ethernet.deserializer().deserialize(frame, 0, frame.length));
+        assertNotNull(probe);
+        assertTrue(probe.getTimestamp() > timestamp);
+        assertEquals(PORT_DESC, probe.getPortDescString());
+        assertTrue(ONOSLLDP.verify(probe, TEST_SECRET, 1000));
+        assertFalse(ONOSLLDP.verify(probe, "other", 1000));
+
+        ONOSLLDP insecure = ONOSLLDP.onosSecureLLDP(DEVICE_ID, CHASSIS_ID, PORT_NUMBER, null);
+        eth.setPayload(insecure);
+        frame = eth.serialize();
+        assertFalse(ONOSLLDP.refreshSecureLLDP(frame, Ethernet.ETHERNET_HEADER_LENGTH,
+                                               DEVICE_ID, PORT_NUMBER, TEST_SECRET));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.util;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+/**
+ * Tests of the Kryo namespace serialization.
+ */
+public class KryoNamespaceTest {
+
+    private final KryoNamespace serializer = KryoNamespace.newBuilder()
+            .register(ArrayList.class, byte[].class, int[].class)
+            .build();
+
+    /**
+     * Tests serialization round trips of a single object.
+     */
+    @Test
+    public void testRoundTrip() {
+        List<String> list = new ArrayList<>(Arrays.asList("a", "b", "c"));
+        byte[] bytes = serializer.serialize(list);
+        assertThat(serializer.deserialize(bytes), is(list));
+
+        byte[] padded = new byte[bytes.length + 10];
+        System.arraycopy(bytes, 0, padded, 5, bytes.length);
+        assertThat(serializer.deserialize(padded, 5, bytes.length), is(list));
+    }
+
+    /**
+     * Tests that pooled buffers are reused across objects of different sizes.
+     */
+    @Test
+    public void testBufferReuse() {
+        byte[] large = new byte[KryoNamespace.MAX_POOLED_BUFFER_SIZE * 2];
+        Arrays.fill(large, (byte) 7);
+        byte[] medium = new byte[KryoNamespace.DEFAULT_BUFFER_SIZE * 4];
+        Arrays.fill(medium, (byte) 3);
+        int[] small = {1, 2, 3};
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(serializer.deserialize(serializer.serialize(medium)), is(medium));
+            assertThat(serializer.deserialize(serializer.serialize(small)), is(small));
+            assertThat(serializer.deserialize(serializer.serialize(large)), is(large));
+            assertThat(serializer.deserialize(serializer.serialize(small)), is(small));
+        }
+    }
+
+    /**
+     * Tests serialization round trips of a batch of objects.
+     */
+    @Test
+    public void testBatch() {
+        List<Object> objects = ImmutableList.of(
+                new ArrayList<>(Arrays.asList("a", "b")), new int[]{1, 2}, "c", 42L);
+        byte[] bytes = serializer.serializeBatch(objects);
+
+        List<Object> batch = serializer.deserializeBatch(bytes);
+        assertThat(batch.size(), is(objects.size()));
+        assertThat(batch.get(3), is(42L));
+        assertThat(batch.get(1), is(new int[]{1, 2}));
+        assertThat(batch.get(0), is(objects.get(0)));
+        assertThat(batch.get(2), is("c"));
+        assertThat(batch.get(0), sameInstance(batch.get(0)));
+    }
+
+    /**
+     * Tests serialization of an empty batch.
+     */
+    @Test
+    public void testEmptyBatch() {
+        byte[] bytes = serializer.serializeBatch(ImmutableList.of());
+        assertThat(serializer.deserializeBatch(bytes), is(empty()));
+    }
+
+    /**
+     * Tests that batch entries can be read in any order and are independent of each other.
+     */
+    @Test
+    public void testBatchSharedReferences() {
+        List<String> shared = new ArrayList<>(Arrays.asList("x", "y"));
+        List<Object> objects = ImmutableList.of(shared, shared, "z");
+        List<Object> batch = serializer.deserializeBatch(serializer.serializeBatch(objects));
+        assertThat(batch.get(1), is(shared));
+        assertThat(batch.get(0), is(shared));
+        assertThat(batch.get(2), is("z"));
+    }
+}
@@ -33,6 +33,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
@@ -58,15 +59,21 @@ public class DevicesWebResource extends AbstractWebResource {
     /**
      * Gets all infrastructure devices.
      * Returns array of all discovered infrastructure devices.
+     * Devices are paged through when a cursor or limit is given.
      *
+     * @param cursor identifier of the device after which to start, from a
+     *               previous page
+     * @param limit  maximum number of devices to return
      * @return 200 OK with a collection of devices
      * @onos.rsModel DevicesGet
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getDevices() {
+    public Response getDevices(@QueryParam(JsonArrayOutput.CURSOR) String cursor,
+                               @QueryParam(JsonArrayOutput.LIMIT) Integer limit) {
         Iterable<Device> devices = get(DeviceService.class).getDevices();
-        return ok(encodeArray(Device.class, "devices", devices)).build();
+        return ok(JsonArrayOutput.of(this, codec(Device.class), "devices", devices,
+                                     device -> device.id().toString(), cursor, limit)).build();
     }
 
     /**
@@ -21,6 +21,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import org.onlab.util.ItemNotFoundException;
+import org.onlab.util.Tools;
 import org.onosproject.app.ApplicationService;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.net.Device;
@@ -43,12 +44,15 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
 import java.util.stream.StreamSupport;
 
 import static org.onlab.util.Tools.nullIsIllegal;
@@ -75,84 +79,78 @@ public class FlowsWebResource extends AbstractWebResource {
 
     /**
      * Gets all flow entries. Returns array of all flow rules in the system.
+     * Flows are paged through when a cursor or limit is given.
      *
+     * @param cursor key of the flow after which to start, from a previous page
+     * @param limit  maximum number of flows to return
      * @return 200 OK with a collection of flows
      * @onos.rsModel FlowEntries
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getFlows() {
-        ObjectNode root = mapper().createObjectNode();
-        ArrayNode flowsNode = root.putArray(FLOWS);
-        FlowRuleService service = get(FlowRuleService.class);
-        Iterable<Device> devices = get(DeviceService.class).getDevices();
-        for (Device device : devices) {
-            Iterable<FlowEntry> flowEntries = service.getFlowEntries(device.id());
-            if (flowEntries != null) {
-                for (FlowEntry entry : flowEntries) {
-                    flowsNode.add(codec(FlowEntry.class).encode(entry, this));
-                }
-            }
-        }
-
-        return ok(root).build();
+    public Response getFlows(@QueryParam(JsonArrayOutput.CURSOR) String cursor,
+                             @QueryParam(JsonArrayOutput.LIMIT) Integer limit) {
+        return ok(flowsOutput(allFlowEntries(entry -> true), cursor, limit)).build();
     }
 
      /**
      * Gets all pending flow entries. Returns array of all pending flow rules in the system.
+     * Flows are paged through when a cursor or limit is given.
      *
+     * @param cursor key of the flow after which to start, from a previous page
+     * @param limit  maximum number of flows to return
      * @return 200 OK with a collection of flows
      * @onos.rsModel FlowEntries
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @Path("pending")
-    public Response getPendingFlows() {
-        ObjectNode root = mapper().createObjectNode();
-        ArrayNode flowsNode = root.putArray(FLOWS);
-        FlowRuleService service = get(FlowRuleService.class);
-        Iterable<Device> devices = get(DeviceService.class).getDevices();
-        for (Device device : devices) {
-            Iterable<FlowEntry> flowEntries = service.getFlowEntries(device.id());
-            if (flowEntries != null) {
-                for (FlowEntry entry : flowEntries) {
-                    if ((entry.state() == FlowEntry.FlowEntryState.PENDING_ADD) ||
-                       (entry.state() == FlowEntry.FlowEntryState.PENDING_REMOVE)) {
-                       flowsNode.add(codec(FlowEntry.class).encode(entry, this));
-                    }
-                }
-            }
-        }
-
-        return ok(root).build();
+    public Response getPendingFlows(@QueryParam(JsonArrayOutput.CURSOR) String cursor,
+                                    @QueryParam(JsonArrayOutput.LIMIT) Integer limit) {
+        Iterable<FlowEntry> flowEntries = allFlowEntries(entry ->
+                (entry.state() == FlowEntry.FlowEntryState.PENDING_ADD) ||
+                (entry.state() == FlowEntry.FlowEntryState.PENDING_REMOVE));
+        return ok(flowsOutput(flowEntries, cursor, limit)).build();
     }
 
      /**
      * Gets all flow entries for a table. Returns array of all flow rules for a table.
+     * Flows are paged through when a cursor or limit is given.
+     *
      * @param tableId table identifier
+     * @param cursor  key of the flow after which to start, from a previous page
+     * @param limit   maximum number of flows to return
      * @return 200 OK with a collection of flows
      * @onos.rsModel FlowEntries
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @Path("table/{tableId}")
-    public Response getTableFlows(@PathParam("tableId") int tableId) {
-        ObjectNode root = mapper().createObjectNode();
-        ArrayNode flowsNode = root.putArray(FLOWS);
+    public Response getTableFlows(@PathParam("tableId") int tableId,
+                                  @QueryParam(JsonArrayOutput.CURSOR) String cursor,
+                                  @QueryParam(JsonArrayOutput.LIMIT) Integer limit) {
+        Iterable<FlowEntry> flowEntries = allFlowEntries(entry ->
+                ((IndexTableId) entry.table()).id() == tableId);
+        return ok(flowsOutput(flowEntries, cursor, limit)).build();
+    }
+
+    // Lazily iterates over the flow entries of all devices that match the filter.
+    private Iterable<FlowEntry> allFlowEntries(Predicate<FlowEntry> filter) {
         FlowRuleService service = get(FlowRuleService.class);
         Iterable<Device> devices = get(DeviceService.class).getDevices();
-        for (Device device : devices) {
-            Iterable<FlowEntry> flowEntries = service.getFlowEntries(device.id());
-            if (flowEntries != null) {
-                for (FlowEntry entry : flowEntries) {
-                    if (((IndexTableId) entry.table()).id() == tableId) {
-                       flowsNode.add(codec(FlowEntry.class).encode(entry, this));
-                    }
-                }
-            }
-        }
+        return () -> Tools.stream(devices)
+                .map(device -> service.getFlowEntries(device.id()))
+                .filter(Objects::nonNull)
+                .flatMap(Tools::stream)
+                .filter(filter)
+                .iterator();
+    }
 
-        return ok(root).build();
+    // Streams the given flow entries, encoded one at a time.
+    private StreamingOutput flowsOutput(Iterable<FlowEntry> flowEntries, String cursor,
+                                        Integer limit) {
+        return JsonArrayOutput.of(this, codec(FlowEntry.class), FLOWS, flowEntries,
+                                  entry -> entry.deviceId() + "/" + entry.id(), cursor, limit);
     }
 
     /**
@@ -201,7 +199,11 @@ public class FlowsWebResource extends AbstractWebResource {
      * Gets flow entries of a device. Returns array of all flow rules for the
      * specified device.
      *
+     * Flows are paged through when a cursor or limit is given.
+     *
      * @param deviceId device identifier
+     * @param cursor   key of the flow after which to start, from a previous page
+     * @param limit    maximum number of flows to return
      * @return 200 OK with a collection of flows of given device
      * @onos.rsModel FlowEntries
      */
@@ -209,20 +211,17 @@ public class FlowsWebResource extends AbstractWebResource {
     @Produces(MediaType.APPLICATION_JSON)
     // TODO: we need to add "/device" suffix to the path to differentiate with appId
     @Path("{deviceId}")
-    public Response getFlowByDeviceId(@PathParam("deviceId") String deviceId) {
+    public Response getFlowByDeviceId(@PathParam("deviceId") String deviceId,
+                                      @QueryParam(JsonArrayOutput.CURSOR) String cursor,
+                                      @QueryParam(JsonArrayOutput.LIMIT) Integer limit) {
         FlowRuleService service = get(FlowRuleService.class);
-        ObjectNode root = mapper().createObjectNode();
-        ArrayNode flowsNode = root.putArray(FLOWS);
         Iterable<FlowEntry> flowEntries =
                 service.getFlowEntries(DeviceId.deviceId(deviceId));
 
         if (flowEntries == null || !flowEntries.iterator().hasNext()) {
             throw new ItemNotFoundException(DEVICE_NOT_FOUND);
         }
-        for (FlowEntry entry : flowEntries) {
-            flowsNode.add(codec(FlowEntry.class).encode(entry, this));
-        }
-        return ok(root).build();
+        return ok(flowsOutput(flowEntries, cursor, limit)).build();
     }
 
     /**
@@ -260,22 +259,25 @@ public class FlowsWebResource extends AbstractWebResource {
      * Gets flow rules generated by an application.
      * Returns the flow rule specified by the application id.
      *
-     * @param appId application identifier
+     * Flows are paged through when a cursor or limit is given.
+     *
+     * @param appId  application identifier
+     * @param cursor key of the flow after which to start, from a previous page
+     * @param limit  maximum number of flows to return
      * @return 200 OK with a collection of flows of given application id
      * @onos.rsModel FlowRules
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @Path("application/{appId}")
-    public Response getFlowByAppId(@PathParam("appId") String appId) {
-        ObjectNode root = mapper().createObjectNode();
-        ArrayNode flowsNode = root.putArray(FLOWS);
+    public Response getFlowByAppId(@PathParam("appId") String appId,
+                                   @QueryParam(JsonArrayOutput.CURSOR) String cursor,
+                                   @QueryParam(JsonArrayOutput.LIMIT) Integer limit) {
         ApplicationService appService = get(ApplicationService.class);
         ApplicationId idInstant = nullIsNotFound(appService.getId(appId), APP_ID_NOT_FOUND);
         Iterable<FlowEntry> flowEntries = get(FlowRuleService.class).getFlowEntriesById(idInstant);
 
-        flowEntries.forEach(flow -> flowsNode.add(codec(FlowEntry.class).encode(flow, this)));
-        return ok(root).build();
+        return ok(flowsOutput(flowEntries, cursor, limit)).build();
     }
 
 
@@ -43,6 +43,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -74,16 +75,21 @@ public class HostsWebResource extends AbstractWebResource {
     /**
      * Get all end-station hosts.
      * Returns array of all known end-station hosts.
+     * Hosts are paged through when a cursor or limit is given.
      *
+     * @param cursor identifier of the host after which to start, from a
+     *               previous page
+     * @param limit  maximum number of hosts to return
      * @return 200 OK with array of all known end-station hosts.
      * @onos.rsModel Hosts
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getHosts() {
+    public Response getHosts(@QueryParam(JsonArrayOutput.CURSOR) String cursor,
+                             @QueryParam(JsonArrayOutput.LIMIT) Integer limit) {
         final Iterable<Host> hosts = get(HostService.class).getHosts();
-        final ObjectNode root = encodeArray(Host.class, "hosts", hosts);
-        return ok(root).build();
+        return ok(JsonArrayOutput.of(this, codec(Host.class), "hosts", hosts,
+                                     host -> host.id().toString(), cursor, limit)).build();
     }
 
     /**
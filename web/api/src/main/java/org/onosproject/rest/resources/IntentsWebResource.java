@@ -43,6 +43,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -92,16 +93,21 @@ public class IntentsWebResource extends AbstractWebResource {
     /**
      * Gets all intents.
      * Returns array containing all the intents in the system.
+     * Intents are paged through when a cursor or limit is given.
      *
+     * @param cursor identifier of the intent after which to start, from a
+     *               previous page
+     * @param limit  maximum number of intents to return
      * @return 200 OK with array of all the intents in the system
      * @onos.rsModel Intents
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getIntents() {
+    public Response getIntents(@QueryParam(JsonArrayOutput.CURSOR) String cursor,
+                               @QueryParam(JsonArrayOutput.LIMIT) Integer limit) {
         final Iterable<Intent> intents = get(IntentService.class).getIntents();
-        final ObjectNode root = encodeArray(Intent.class, "intents", intents);
-        return ok(root).build();
+        return ok(JsonArrayOutput.of(this, codec(Intent.class), "intents", intents,
+                                     intent -> intent.id().toString(), cursor, limit)).build();
     }
 
 
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.rest.resources;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.onosproject.codec.CodecContext;
+import org.onosproject.codec.JsonCodec;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Streamed JSON object holding a single array field. Items are encoded one
+ * at a time as the response is written, so the array is never held in memory
+ * as a whole.
+ * <p>
+ * Items may be paged through in the order of their cursor keys. A page starts
+ * after the item whose key is the given cursor and holds at most the given
+ * number of items. When more items follow a page, the key of its last item is
+ * written to the {@value #NEXT_CURSOR} field.
+ * </p>
+ *
+ * @param <T> item type
+ */
+final class JsonArrayOutput<T> implements StreamingOutput {
+
+    static final String CURSOR = "cursor";
+    static final String LIMIT = "limit";
+    static final String NEXT_CURSOR = "nextCursor";
+
+    private static final String INVALID_LIMIT = "Limit must be positive";
+
+    private final CodecContext context;
+    private final JsonCodec<T> codec;
+    private final String field;
+    private final Iterable<T> items;
+    private final Function<T, String> cursorKey;
+    private final String cursor;
+    private final Integer limit;
+
+    private JsonArrayOutput(CodecContext context, JsonCodec<T> codec, String field,
+                            Iterable<T> items, Function<T, String> cursorKey,
+                            String cursor, Integer limit) {
+        checkArgument(limit == null || limit > 0, INVALID_LIMIT);
+        this.context = context;
+        this.codec = codec;
+        this.field = field;
+        this.items = items;
+        this.cursorKey = cursorKey;
+        this.cursor = cursor;
+        this.limit = limit;
+    }
+
+    /**
+     * Creates a streamed JSON object holding the given items.
+     *
+     * @param context   codec context
+     * @param codec     codec of the items
+     * @param field     field holding the array
+     * @param items     items to be encoded into the array
+     * @param cursorKey function returning the unique cursor key of an item
+     * @param cursor    key of the item after which to start, or null
+     * @param limit     maximum number of items to write, or null for all
+     * @param <T>       item type
+     * @return streaming output
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    static <T> JsonArrayOutput<T> of(CodecContext context, JsonCodec<T> codec, String field,
+                                     Iterable<T> items, Function<T, String> cursorKey,
+                                     String cursor, Integer limit) {
+        return new JsonArrayOutput<>(context, codec, field, items, cursorKey, cursor, limit);
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        JsonGenerator generator = context.mapper().getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        generator.writeStartObject();
+        generator.writeArrayFieldStart(field);
+        String nextCursor = null;
+        if (cursor == null && limit == null) {
+            for (T item : items) {
+                codec.encode(item, context, generator);
+            }
+        } else {
+            nextCursor = writePage(generator);
+        }
+        generator.writeEndArray();
+        if (nextCursor != null) {
+            generator.writeStringField(NEXT_CURSOR, nextCursor);
+        }
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    // Writes the requested page and returns the next cursor, if any. Only the
+    // items of the page, plus one telling whether more follow, are held.
+    private String writePage(JsonGenerator generator) throws IOException {
+        long bound = limit == null ? Long.MAX_VALUE : limit + 1L;
+        NavigableMap<String, T> page = new TreeMap<>();
+        for (T item : items) {
+            String key = cursorKey.apply(item);
+            if (cursor != null && key.compareTo(cursor) <= 0) {
+                continue;
+            }
+            if (page.size() < bound || key.compareTo(page.lastKey()) < 0) {
+                page.put(key, item);
+                if (page.size() > bound) {
+                    page.pollLastEntry();
+                }
+            }
+        }
+
+        int count = 0;
+        Iterator<Map.Entry<String, T>> it = page.entrySet().iterator();
+        while (it.hasNext() && (limit == null || count < limit)) {
+            Map.Entry<String, T> entry = it.next();
+            codec.encode(entry.getValue(), context, generator);
+            count++;
+            if (limit != null && count == limit && it.hasNext()) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+}
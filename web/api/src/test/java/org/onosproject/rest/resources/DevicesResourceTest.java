@@ -325,6 +325,43 @@ public class DevicesResourceTest extends ResourceTest {
         assertThat(jsonDevices, hasDevice(device3));
     }
 
+    /**
+     * Tests paging through the devices with a cursor and limit.
+     */
+    @Test
+    public void testDevicesPaged() {
+        Device device1 = device("dev1");
+        Device device2 = device("dev2");
+        Device device3 = device("dev3");
+
+        expect(mockDeviceService.getDevices())
+                .andReturn(ImmutableList.of(device3, device1, device2))
+                .anyTimes();
+        replay(mockDeviceService);
+        expect(mockDriverService.getDriver(isA(DeviceId.class)))
+                .andReturn(driver)
+                .anyTimes();
+        replay(mockDriverService);
+
+        WebTarget wt = target();
+        String response = wt.path("devices").queryParam("limit", 2)
+                .request().get(String.class);
+        JsonObject result = Json.parse(response).asObject();
+        JsonArray jsonDevices = result.get("devices").asArray();
+        assertThat(jsonDevices.size(), is(2));
+        assertThat(jsonDevices, hasDevice(device1));
+        assertThat(jsonDevices, hasDevice(device2));
+        assertThat(result.get("nextCursor").asString(), is("of:dev2"));
+
+        response = wt.path("devices").queryParam("cursor", "of:dev2").queryParam("limit", 2)
+                .request().get(String.class);
+        result = Json.parse(response).asObject();
+        jsonDevices = result.get("devices").asArray();
+        assertThat(jsonDevices.size(), is(1));
+        assertThat(jsonDevices, hasDevice(device3));
+        assertThat(result.names(), hasSize(1));
+    }
+
     /**
      * Tests the result of a rest api GET for a single device.
      */